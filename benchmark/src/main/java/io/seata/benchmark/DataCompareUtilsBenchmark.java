@@ -0,0 +1,76 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.seata.rm.datasource.DataCompareUtils;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The comparison of the after image with the current records, which every rollback does before undoing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataCompareUtilsBenchmark {
+
+    @Param({"1", "10", "1000"})
+    public int rows;
+
+    private TableRecords afterImage;
+
+    private TableRecords currentRecords;
+
+    private Field field0;
+
+    private Field field1;
+
+    @Setup
+    public void setup() {
+        TableMeta tableMeta = Payloads.tableMeta();
+        afterImage = Payloads.image(tableMeta, rows, "after");
+        currentRecords = Payloads.image(tableMeta, rows, "after");
+        field0 = afterImage.getRows().get(0).getFields().get(2);
+        field1 = currentRecords.getRows().get(0).getFields().get(2);
+    }
+
+    @Benchmark
+    public Boolean isRecordsEquals() {
+        return DataCompareUtils.isRecordsEquals(afterImage, currentRecords).getResult();
+    }
+
+    @Benchmark
+    public Boolean isFieldEquals() {
+        return DataCompareUtils.isFieldEquals(field0, field1).getResult();
+    }
+}
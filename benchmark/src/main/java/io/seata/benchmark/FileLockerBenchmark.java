@@ -0,0 +1,86 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.storage.file.lock.FileLockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The row locks of the file store: every thread acquires and releases its own rows of the same table,
+ * so the threaded runs measure the contention on the shared buckets rather than lock conflicts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileLockerBenchmark {
+
+    private static final FileLockManager LOCK_MANAGER = new FileLockManager();
+
+    private static final AtomicInteger THREAD_INDEX = new AtomicInteger();
+
+    @Param({"1", "10", "100"})
+    public int rows;
+
+    private BranchSession branchSession;
+
+    @Setup
+    public void setup() throws TransactionException {
+        GlobalSession globalSession = GlobalSession.createGlobalSession("benchmark", "default_tx_group",
+            "benchmark", 60000);
+        long firstRow = THREAD_INDEX.getAndIncrement() * 1000000L;
+        branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT,
+            "jdbc:mysql://127.0.0.1:3306/seata", Payloads.lockKey(firstRow, rows), "benchmark:127.0.0.1:8091");
+    }
+
+    @Benchmark
+    public boolean acquireAndRelease() throws TransactionException {
+        return LOCK_MANAGER.acquireLock(branchSession) && LOCK_MANAGER.releaseLock(branchSession);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean acquireAndRelease4Threads() throws TransactionException {
+        return acquireAndRelease();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean acquireAndRelease16Threads() throws TransactionException {
+        return acquireAndRelease();
+    }
+}
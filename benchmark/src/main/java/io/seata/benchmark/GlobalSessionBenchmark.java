@@ -0,0 +1,98 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The codecs of a global session and its branches, as the file store writes and reloads them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalSessionBenchmark {
+
+    @Param({"1", "16", "64"})
+    public int branchCount;
+
+    @Param({"64", "1024"})
+    public int payloadSize;
+
+    private GlobalSession globalSession;
+
+    private byte[] globalBytes;
+
+    private List<byte[]> branchBytes;
+
+    @Setup
+    public void setup() throws TransactionException {
+        globalSession = GlobalSession.createGlobalSession("benchmark", "default_tx_group", "benchmark", 60000);
+        for (int i = 0; i < branchCount; i++) {
+            BranchSession branchSession = SessionHelper.newBranchByGlobal(globalSession, BranchType.AT,
+                "jdbc:mysql://127.0.0.1:3306/seata", Payloads.lockKey(i * 10L, 10), "benchmark:127.0.0.1:8091");
+            branchSession.setApplicationData(Payloads.text(payloadSize));
+            globalSession.addBranch(branchSession);
+        }
+        globalBytes = globalSession.encode();
+        branchBytes = new ArrayList<>(branchCount);
+        for (BranchSession branchSession : globalSession.getBranchSessions()) {
+            branchBytes.add(branchSession.encode());
+        }
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) {
+        blackhole.consume(globalSession.encode());
+        for (BranchSession branchSession : globalSession.getBranchSessions()) {
+            blackhole.consume(branchSession.encode());
+        }
+    }
+
+    @Benchmark
+    public GlobalSession decode() {
+        GlobalSession session = new GlobalSession();
+        session.decode(globalBytes);
+        for (byte[] bytes : branchBytes) {
+            BranchSession branchSession = new BranchSession();
+            branchSession.decode(bytes);
+            session.add(branchSession);
+        }
+        return session;
+    }
+}
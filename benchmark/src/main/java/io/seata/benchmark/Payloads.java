@@ -0,0 +1,132 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.rm.datasource.sql.struct.ColumnMeta;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.IndexMeta;
+import io.seata.rm.datasource.sql.struct.IndexType;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+
+/**
+ * The payloads shared by the benchmarks.
+ */
+final class Payloads {
+
+    static final String TABLE_NAME = "t_order";
+
+    private Payloads() {
+    }
+
+    /**
+     * A string of the given size.
+     */
+    static String text(int size) {
+        char[] chars = new char[size];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    /**
+     * A lock key holding the given rows, e.g. t_order:1,2,3.
+     */
+    static String lockKey(long firstRow, int rows) {
+        StringBuilder sb = new StringBuilder(TABLE_NAME).append(':');
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(firstRow + i);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The merged branch registrations a client sends in one frame.
+     */
+    static MergedWarpMessage mergedBranchRegister(int branchCount, int payloadSize) {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        String applicationData = text(payloadSize);
+        for (int i = 0; i < branchCount; i++) {
+            BranchRegisterRequest request = new BranchRegisterRequest();
+            request.setXid("127.0.0.1:8091:" + i);
+            request.setBranchType(BranchType.AT);
+            request.setResourceId("jdbc:mysql://127.0.0.1:3306/seata");
+            request.setLockKey(lockKey(i * 10L, 10));
+            request.setApplicationData(applicationData);
+            mergedWarpMessage.msgs.add(request);
+            mergedWarpMessage.msgIds.add(i);
+        }
+        return mergedWarpMessage;
+    }
+
+    /**
+     * The meta of {@link #TABLE_NAME}: a bigint pk, a varchar, a decimal and a timestamp column.
+     */
+    static TableMeta tableMeta() {
+        TableMeta tableMeta = new TableMeta();
+        tableMeta.setTableName(TABLE_NAME);
+        tableMeta.getAllColumns().put("id", column("id", JDBCType.BIGINT));
+        tableMeta.getAllColumns().put("name", column("name", JDBCType.VARCHAR));
+        tableMeta.getAllColumns().put("amount", column("amount", JDBCType.DECIMAL));
+        tableMeta.getAllColumns().put("gmt_modified", column("gmt_modified", JDBCType.TIMESTAMP));
+
+        IndexMeta primary = new IndexMeta();
+        primary.setIndextype(IndexType.PRIMARY);
+        primary.setIndexName("PRIMARY");
+        primary.getValues().add(tableMeta.getAllColumns().get("id"));
+        tableMeta.getAllIndexes().put("PRIMARY", primary);
+        return tableMeta;
+    }
+
+    /**
+     * An image of {@link #TABLE_NAME} with the given rows.
+     */
+    static TableRecords image(TableMeta tableMeta, int rows, String name) {
+        TableRecords image = new TableRecords(tableMeta);
+        for (long id = 1; id <= rows; id++) {
+            Row row = new Row();
+            Field pk = new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), id);
+            pk.setKeyType(KeyType.PRIMARY_KEY);
+            row.add(pk);
+            row.add(new Field("name", JDBCType.VARCHAR.getVendorTypeNumber(), name + id));
+            row.add(new Field("amount", JDBCType.DECIMAL.getVendorTypeNumber(), new BigDecimal(id * 100)));
+            row.add(new Field("gmt_modified", JDBCType.TIMESTAMP.getVendorTypeNumber(),
+                new Timestamp(1600000000000L + id)));
+            image.add(row);
+        }
+        return image;
+    }
+
+    private static ColumnMeta column(String name, JDBCType type) {
+        ColumnMeta columnMeta = new ColumnMeta();
+        columnMeta.setTableName(TABLE_NAME);
+        columnMeta.setColumnName(name);
+        columnMeta.setDataType(type.getVendorTypeNumber());
+        return columnMeta;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.SerializerType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The frames of the v1 protocol, from the rpc message to the bytes on the wire and back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolV1CodecBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int payloadSize;
+
+    @Param({"1", "16"})
+    public int branchCount;
+
+    private final ProtocolV1Encoder encoder = new ProtocolV1Encoder();
+
+    private final ProtocolV1Decoder decoder = new ProtocolV1Decoder();
+
+    private RpcMessage rpcMessage;
+
+    private ByteBuf out;
+
+    private ByteBuf frame;
+
+    @Setup
+    public void setup() {
+        rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_ONEWAY);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.NONE.getCode());
+        rpcMessage.setBody(Payloads.mergedBranchRegister(branchCount, payloadSize));
+
+        out = PooledByteBufAllocator.DEFAULT.directBuffer();
+        frame = PooledByteBufAllocator.DEFAULT.directBuffer();
+        encoder.encode(null, rpcMessage, frame);
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.release();
+        frame.release();
+    }
+
+    @Benchmark
+    public int encode() {
+        out.clear();
+        encoder.encode(null, rpcMessage, out);
+        return out.writerIndex();
+    }
+
+    @Benchmark
+    public Object decode() {
+        return decoder.decodeFrame(frame.duplicate());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.serializer.seata.SeataSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The seata codecs of a merged message, through byte arrays and through pooled buffers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeataSerializerBenchmark {
+
+    @Param({"64", "1024"})
+    public int payloadSize;
+
+    @Param({"1", "16", "128"})
+    public int branchCount;
+
+    private final SeataSerializer serializer = new SeataSerializer();
+
+    private MergedWarpMessage message;
+
+    private byte[] bytes;
+
+    private ByteBuf out;
+
+    @Setup
+    public void setup() {
+        message = Payloads.mergedBranchRegister(branchCount, payloadSize);
+        bytes = serializer.serialize(message);
+        out = PooledByteBufAllocator.DEFAULT.directBuffer();
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.release();
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() {
+        return serializer.serialize(message);
+    }
+
+    @Benchmark
+    public int serializeToByteBuf() {
+        out.clear();
+        serializer.serialize(message, out);
+        return out.writerIndex();
+    }
+
+    @Benchmark
+    public Object deserializeFromBytes() {
+        return serializer.deserialize(bytes);
+    }
+
+    @Benchmark
+    public Object deserializeFromByteBuf() {
+        return serializer.deserialize(Unpooled.wrappedBuffer(bytes));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.rm.datasource.sql.SQLVisitorFactory;
+import io.seata.sqlparser.SQLRecognizer;
+import io.seata.sqlparser.SQLRecognizerFactory;
+import io.seata.sqlparser.SqlParserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The sql recognizers of the statements a branch runs, parsed every time and looked up in the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlRecognizerBenchmark {
+
+    @Param({"mysql", "oracle", "postgresql"})
+    public String dbType;
+
+    @Param({"insert", "update", "delete", "select_for_update"})
+    public String statement;
+
+    private SQLRecognizerFactory recognizerFactory;
+
+    private String sql;
+
+    @Setup
+    public void setup() {
+        recognizerFactory = EnhancedServiceLoader.load(SQLRecognizerFactory.class,
+            SqlParserType.SQL_PARSER_TYPE_DRUID);
+        switch (statement) {
+            case "insert":
+                sql = "insert into t_order(id, name, amount, gmt_modified) values (?, ?, ?, ?)";
+                break;
+            case "update":
+                sql = "update t_order set name = ?, amount = amount - ? where id = ? and amount >= ?";
+                break;
+            case "delete":
+                sql = "delete from t_order where id in (?, ?, ?)";
+                break;
+            case "select_for_update":
+                sql = "select id, name, amount from t_order where id = ? for update";
+                break;
+            default:
+                throw new IllegalArgumentException("unknown statement: " + statement);
+        }
+    }
+
+    @Benchmark
+    public List<SQLRecognizer> parse() {
+        return recognizerFactory.create(sql, dbType);
+    }
+
+    @Benchmark
+    public List<SQLRecognizer> cached() {
+        return SQLVisitorFactory.get(sql, dbType);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.rm.datasource.sql.struct.TableMeta;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.rm.datasource.undo.UndoLogParserFactory;
+import io.seata.sqlparser.SQLType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The undo log parsers on the update of a few or many rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UndoLogParserBenchmark {
+
+    @Param({"jackson", "fastjson", "kryo", "fst", "protostuff", "binary"})
+    public String parserName;
+
+    @Param({"1", "10", "1000"})
+    public int rows;
+
+    private UndoLogParser parser;
+
+    private BranchUndoLog branchUndoLog;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        parser = UndoLogParserFactory.getInstance(parserName);
+
+        TableMeta tableMeta = Payloads.tableMeta();
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName(Payloads.TABLE_NAME);
+        sqlUndoLog.setBeforeImage(Payloads.image(tableMeta, rows, "before"));
+        sqlUndoLog.setAfterImage(Payloads.image(tableMeta, rows, "after"));
+
+        branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("127.0.0.1:8091:1");
+        branchUndoLog.setBranchId(1L);
+        // a list the kryo parser can rebuild, as the connection context holds
+        List<SQLUndoLog> sqlUndoLogs = new ArrayList<>();
+        sqlUndoLogs.add(sqlUndoLog);
+        branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+        bytes = parser.encode(branchUndoLog);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return parser.encode(branchUndoLog);
+    }
+
+    @Benchmark
+    public BranchUndoLog decode() {
+        return parser.decode(bytes);
+    }
+}
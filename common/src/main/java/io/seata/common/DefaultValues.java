@@ -25,15 +25,22 @@ public interface DefaultValues {
     boolean DEFAULT_CLIENT_LOCK_RETRY_POLICY_BRANCH_ROLLBACK_ON_CONFLICT = true;
     int DEFAULT_LOG_EXCEPTION_RATE = 100;
     int DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = 10000;
+    int DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_THREADS = 4;
     int DEFAULT_TM_DEGRADE_CHECK_PERIOD = 2000;
     int DEFAULT_CLIENT_REPORT_RETRY_COUNT = 5;
     boolean DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE = false;
     boolean DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE = false;
     long DEFAULT_TABLE_META_CHECKER_INTERVAL = 60000L;
+    String DEFAULT_TABLE_META_PRELOAD_TABLES = "";
+    int DEFAULT_TABLE_META_PRELOAD_THREADS = 4;
+    int DEFAULT_CLIENT_SQL_RECOGNIZER_CACHE_SIZE = 4 * 1024 * 1024;
     boolean DEFAULT_TM_DEGRADE_CHECK = false;
     boolean DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE = false;
     boolean DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE = false;
     boolean DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = false;
+    boolean DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE = false;
+    int DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE = 20;
+    long DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL = 1000L;
 
     /**
      * Shutdown timeout default 3s
@@ -112,11 +119,126 @@ public interface DefaultValues {
      */
     String DEFAULT_CLIENT_UNDO_COMPRESS_THRESHOLD = "64k";
 
+    /**
+     * the constant DEFAULT_CLIENT_UNDO_CHUNK_ENABLE
+     */
+    boolean DEFAULT_CLIENT_UNDO_CHUNK_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_CLIENT_UNDO_CHUNK_SIZE
+     */
+    int DEFAULT_CLIENT_UNDO_CHUNK_SIZE = 1000;
+
     /**
      * the constant DEFAULT_RETRY_DEAD_THRESHOLD
      */
     int DEFAULT_RETRY_DEAD_THRESHOLD = 2 * 60 * 1000 + 10 * 1000;
 
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_ENABLE
+     */
+    boolean DEFAULT_RECOVERY_SHARD_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SHARD_MAX_PENDING
+     */
+    int DEFAULT_RECOVERY_SHARD_MAX_PENDING = 1000;
+
+    /**
+     * the constant DEFAULT_TIMEOUT_INDEX_ENABLE
+     */
+    boolean DEFAULT_TIMEOUT_INDEX_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_TIMEOUT_FULL_SCAN_PERIOD
+     */
+    long DEFAULT_TIMEOUT_FULL_SCAN_PERIOD = 60 * 1000L;
+
+    /**
+     * the constant DEFAULT_RECOVERY_SCAN_MAX_PAGES
+     */
+    int DEFAULT_RECOVERY_SCAN_MAX_PAGES = 10;
+
+    /**
+     * the constant DEFAULT_PARALLEL_BRANCH_DISPATCH_ENABLE
+     */
+    boolean DEFAULT_PARALLEL_BRANCH_DISPATCH_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS
+     */
+    int DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * the constant DEFAULT_BATCH_BRANCH_LOCK_ENABLE
+     */
+    boolean DEFAULT_BATCH_BRANCH_LOCK_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_SERVER_PARALLEL_MERGED_REQUEST_ENABLE
+     */
+    boolean DEFAULT_SERVER_PARALLEL_MERGED_REQUEST_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_SERVER_LOCK_WAIT_QUEUE_ENABLE
+     */
+    boolean DEFAULT_SERVER_LOCK_WAIT_QUEUE_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_SERVER_LOCK_WAIT_TIMEOUT
+     */
+    long DEFAULT_SERVER_LOCK_WAIT_TIMEOUT = 300L;
+
+    /**
+     * the constant DEFAULT_SERVER_LAZY_BEGIN_ENABLE
+     */
+    boolean DEFAULT_SERVER_LAZY_BEGIN_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_SERVER_LAZY_BEGIN_LEASE_TIME
+     */
+    long DEFAULT_SERVER_LAZY_BEGIN_LEASE_TIME = 10000L;
+
+    /**
+     * the constant DEFAULT_TM_LAZY_BEGIN_ENABLE
+     */
+    boolean DEFAULT_TM_LAZY_BEGIN_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE
+     */
+    int DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE = 100;
+
+    /**
+     * the constant DEFAULT_STORE_DB_SESSION_CACHE_ENABLE
+     */
+    boolean DEFAULT_STORE_DB_SESSION_CACHE_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_STORE_DB_SESSION_CACHE_SIZE
+     */
+    int DEFAULT_STORE_DB_SESSION_CACHE_SIZE = 10000;
+
+    /**
+     * the constant DEFAULT_STORE_DB_SESSION_CACHE_LEASE
+     */
+    long DEFAULT_STORE_DB_SESSION_CACHE_LEASE = 1000L;
+
+    /**
+     * the constant DEFAULT_STORE_FILE_GROUP_COMMIT_ENABLE
+     */
+    boolean DEFAULT_STORE_FILE_GROUP_COMMIT_ENABLE = false;
+
+    /**
+     * the constant DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_BATCH
+     */
+    int DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_BATCH = 256;
+
+    /**
+     * the constant DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_DELAY
+     */
+    int DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_DELAY = 1;
+
     /**
      * the constant TM_INTERCEPTOR_ORDER
      */
@@ -56,6 +56,17 @@ public class XID {
         return new StringBuilder().append(ipAddress).append(IP_PORT_SPLIT_CHAR).append(port).append(IP_PORT_SPLIT_CHAR).append(tranId).toString();
     }
 
+    /**
+     * Generate xid string of the given TC.
+     *
+     * @param ipAddressAndPort the ip:port of the TC
+     * @param tranId           the tran id
+     * @return the string
+     */
+    public static String generateXID(String ipAddressAndPort, long tranId) {
+        return new StringBuilder().append(ipAddressAndPort).append(IP_PORT_SPLIT_CHAR).append(tranId).toString();
+    }
+
     /**
      * Gets transaction id.
      *
@@ -121,6 +121,21 @@ public class IdWorker {
         return workerId | timestampWithSequence;
     }
 
+    /**
+     * get a range of continuous UUIDs, the sequence of the range may overflow into the following timestamps
+     * @param size the size of the range
+     * @return the first UUID of the range
+     */
+    public long nextIds(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be greater than 0");
+        }
+        waitIfNecessary();
+        long next = timestampAndSequence.addAndGet(size);
+        long timestampWithSequence = (next - size + 1) & timestampAndSequenceMask;
+        return workerId | timestampWithSequence;
+    }
+
     /**
      * block current thread if the QPS of acquiring UUID is too high
      * that current sequence space is exhausted
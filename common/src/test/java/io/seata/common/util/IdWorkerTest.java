@@ -43,4 +43,13 @@ class IdWorkerTest {
         long id2 = worker.nextId();
         assertEquals(1L, id2 - id1, "increment step should be 1");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testNextIds() {
+        IdWorker worker = new IdWorker(null);
+        long first = worker.nextIds(5000);
+        long next = worker.nextId();
+        assertEquals(5000L, next - first, "the range should be continuous and not reused");
+        assertThrows(IllegalArgumentException.class, () -> worker.nextIds(0));
+    }
+}
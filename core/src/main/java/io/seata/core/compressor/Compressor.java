@@ -15,6 +15,8 @@
  */
 package io.seata.core.compressor;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * @author jsbxyyx
  */
@@ -34,4 +36,26 @@ public interface Compressor {
      */
     byte[] decompress(byte[] bytes);
 
+    /**
+     * compress the readable bytes of the buffer into the output buffer.
+     * @param in the buffer to read from
+     * @param out the buffer to write to
+     */
+    default void compress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+        out.writeBytes(compress(bytes));
+    }
+
+    /**
+     * decompress the readable bytes of the buffer into the output buffer.
+     * @param in the buffer to read from
+     * @param out the buffer to write to
+     */
+    default void decompress(ByteBuf in, ByteBuf out) {
+        byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+        out.writeBytes(decompress(bytes));
+    }
+
 }
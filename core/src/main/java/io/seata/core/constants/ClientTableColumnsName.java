@@ -62,4 +62,9 @@ public interface ClientTableColumnsName {
      * The constant undo_log column name log_modified
      */
     String UNDO_LOG_LOG_MODIFIED = "log_modified";
+
+    /**
+     * The constant undo_log column name chunk_index
+     */
+    String UNDO_LOG_CHUNK_INDEX = "chunk_index";
 }
@@ -114,6 +114,11 @@ public interface ConfigurationKeys {
      * The constant CLIENT_ASYNC_COMMIT_BUFFER_LIMIT.
      */
     String CLIENT_ASYNC_COMMIT_BUFFER_LIMIT = CLIENT_RM_PREFIX + "asyncCommitBufferLimit";
+
+    /**
+     * The constant CLIENT_ASYNC_COMMIT_WORKER_THREADS.
+     */
+    String CLIENT_ASYNC_COMMIT_WORKER_THREADS = CLIENT_RM_PREFIX + "asyncCommitWorkerThreads";
     /**
      * The constant CLIENT_RM_LOCK_PREFIX.
      */
@@ -163,6 +168,21 @@ public interface ConfigurationKeys {
      */
     String CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE = CLIENT_RM_PREFIX + "sagaCompensatePersistModeUpdate";
 
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE.
+     */
+    String CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE = CLIENT_RM_PREFIX + "sagaStateLogWriteBehindEnable";
+
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_FLUSH_SIZE.
+     */
+    String CLIENT_SAGA_STATE_LOG_FLUSH_SIZE = CLIENT_RM_PREFIX + "sagaStateLogFlushSize";
+
+    /**
+     * The constant CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL.
+     */
+    String CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL = CLIENT_RM_PREFIX + "sagaStateLogFlushInterval";
+
     /**
      * The constant CLIENT_REPORT_RETRY_COUNT.
      */
@@ -178,6 +198,16 @@ public interface ConfigurationKeys {
      */
     String CLIENT_TABLE_META_CHECKER_INTERVAL = CLIENT_RM_PREFIX + "tableMetaCheckerInterval";
 
+    /**
+     * The constant CLIENT_TABLE_META_PRELOAD_TABLES.
+     */
+    String CLIENT_TABLE_META_PRELOAD_TABLES = CLIENT_RM_PREFIX + "tableMetaPreloadTables";
+
+    /**
+     * The constant CLIENT_TABLE_META_PRELOAD_THREADS.
+     */
+    String CLIENT_TABLE_META_PRELOAD_THREADS = CLIENT_RM_PREFIX + "tableMetaPreloadThreads";
+
     /**
      * The constant TCC_ACTION_INTERCEPTOR_ORDER.
      */
@@ -202,6 +232,16 @@ public interface ConfigurationKeys {
      */
     String DEFAULT_GLOBAL_TRANSACTION_TIMEOUT = CLIENT_TM_PREFIX + "defaultGlobalTransactionTimeout";
 
+    /**
+     * The constant CLIENT_TM_LAZY_BEGIN_ENABLE.
+     */
+    String CLIENT_TM_LAZY_BEGIN_ENABLE = CLIENT_TM_PREFIX + "lazyBeginEnable";
+
+    /**
+     * The constant CLIENT_TM_LAZY_BEGIN_LEASE_SIZE.
+     */
+    String CLIENT_TM_LAZY_BEGIN_LEASE_SIZE = CLIENT_TM_PREFIX + "lazyBeginLeaseSize";
+
     /**
      * The constant SERIALIZE_FOR_RPC.
      */
@@ -284,6 +324,21 @@ public interface ConfigurationKeys {
      */
     String STORE_DB_LOG_QUERY_LIMIT = STORE_DB_PREFIX + "queryLimit";
 
+    /**
+     * The constant STORE_DB_SESSION_CACHE_ENABLE.
+     */
+    String STORE_DB_SESSION_CACHE_ENABLE = STORE_DB_PREFIX + "sessionCacheEnable";
+
+    /**
+     * The constant STORE_DB_SESSION_CACHE_SIZE.
+     */
+    String STORE_DB_SESSION_CACHE_SIZE = STORE_DB_PREFIX + "sessionCacheSize";
+
+    /**
+     * The constant STORE_DB_SESSION_CACHE_LEASE.
+     */
+    String STORE_DB_SESSION_CACHE_LEASE = STORE_DB_PREFIX + "sessionCacheLease";
+
     /**
      * The constant LOCK_DB_TABLE.
      */
@@ -318,6 +373,36 @@ public interface ConfigurationKeys {
      */
     String TIMEOUT_RETRY_PERIOD = RECOVERY_PREFIX + "timeoutRetryPeriod";
 
+    /**
+     * The constant RECOVERY_SHARD_ENABLE.
+     */
+    String RECOVERY_SHARD_ENABLE = RECOVERY_PREFIX + "shardEnable";
+
+    /**
+     * The constant RECOVERY_SHARD_COUNT.
+     */
+    String RECOVERY_SHARD_COUNT = RECOVERY_PREFIX + "shardCount";
+
+    /**
+     * The constant RECOVERY_SHARD_MAX_PENDING.
+     */
+    String RECOVERY_SHARD_MAX_PENDING = RECOVERY_PREFIX + "shardMaxPending";
+
+    /**
+     * The constant TIMEOUT_INDEX_ENABLE.
+     */
+    String TIMEOUT_INDEX_ENABLE = RECOVERY_PREFIX + "timeoutIndexEnable";
+
+    /**
+     * The constant TIMEOUT_FULL_SCAN_PERIOD.
+     */
+    String TIMEOUT_FULL_SCAN_PERIOD = RECOVERY_PREFIX + "timeoutFullScanPeriod";
+
+    /**
+     * The constant RECOVERY_SCAN_MAX_PAGES.
+     */
+    String RECOVERY_SCAN_MAX_PAGES = RECOVERY_PREFIX + "scanMaxPages";
+
     /**
      * The constant CLIENT_UNDO_PREFIX.
      */
@@ -357,6 +442,21 @@ public interface ConfigurationKeys {
      */
     String CLIENT_UNDO_COMPRESS_THRESHOLD = CLIENT_UNDO_COMPRESS_PREFIX + "threshold";
 
+    /**
+     * the constant CLIENT_UNDO_CHUNK_PREFIX
+     */
+    String CLIENT_UNDO_CHUNK_PREFIX = CLIENT_UNDO_PREFIX + "chunk.";
+
+    /**
+     * the constant CLIENT_UNDO_CHUNK_ENABLE
+     */
+    String CLIENT_UNDO_CHUNK_ENABLE = CLIENT_UNDO_CHUNK_PREFIX + "enable";
+
+    /**
+     * the constant CLIENT_UNDO_CHUNK_SIZE
+     */
+    String CLIENT_UNDO_CHUNK_SIZE = CLIENT_UNDO_CHUNK_PREFIX + "size";
+
     /**
      * The constant METRICS_PREFIX.
      */
@@ -435,6 +535,46 @@ public interface ConfigurationKeys {
      */
     String DISTRIBUTED_LOCK_EXPIRE_TIME = SERVER_PREFIX + "distributedLockExpireTime";
 
+    /**
+     * The constant PARALLEL_BRANCH_DISPATCH_ENABLE.
+     */
+    String PARALLEL_BRANCH_DISPATCH_ENABLE = SERVER_PREFIX + "parallelBranchDispatchEnable";
+
+    /**
+     * The constant PARALLEL_BRANCH_DISPATCH_THREADS.
+     */
+    String PARALLEL_BRANCH_DISPATCH_THREADS = SERVER_PREFIX + "parallelBranchDispatchThreads";
+
+    /**
+     * The constant BATCH_BRANCH_LOCK_ENABLE.
+     */
+    String BATCH_BRANCH_LOCK_ENABLE = SERVER_PREFIX + "batchBranchLockEnable";
+
+    /**
+     * The constant SERVER_PARALLEL_MERGED_REQUEST_ENABLE.
+     */
+    String SERVER_PARALLEL_MERGED_REQUEST_ENABLE = SERVER_PREFIX + "parallelMergedRequestEnable";
+
+    /**
+     * The constant SERVER_LOCK_WAIT_QUEUE_ENABLE.
+     */
+    String SERVER_LOCK_WAIT_QUEUE_ENABLE = SERVER_PREFIX + "lockWaitQueueEnable";
+
+    /**
+     * The constant SERVER_LOCK_WAIT_TIMEOUT.
+     */
+    String SERVER_LOCK_WAIT_TIMEOUT = SERVER_PREFIX + "lockWaitTimeout";
+
+    /**
+     * The constant SERVER_LAZY_BEGIN_ENABLE.
+     */
+    String SERVER_LAZY_BEGIN_ENABLE = SERVER_PREFIX + "lazyBeginEnable";
+
+    /**
+     * The constant SERVER_LAZY_BEGIN_LEASE_TIME.
+     */
+    String SERVER_LAZY_BEGIN_LEASE_TIME = SERVER_PREFIX + "lazyBeginLeaseTime";
+
     /**
      * The constant MIN_SERVER_POOL_SIZE.
      */
@@ -545,6 +685,11 @@ public interface ConfigurationKeys {
      */
     String SQL_PARSER_TYPE = CLIENT_RM_PREFIX + "sqlParserType";
 
+    /**
+     * The constant CLIENT_SQL_RECOGNIZER_CACHE_SIZE.
+     */
+    String CLIENT_SQL_RECOGNIZER_CACHE_SIZE = CLIENT_RM_PREFIX + "sqlRecognizerCacheSize";
+
     /**
      * The constant STORE_REDIS_MODE.
      */
@@ -83,6 +83,15 @@ public abstract class AbstractLocker implements Locker {
             .toString();
     }
 
+    @Override
+    public boolean[] acquireLocks(List<List<RowLock>> rowLockGroups) {
+        boolean[] results = new boolean[rowLockGroups.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = acquireLock(rowLockGroups.get(i));
+        }
+        return results;
+    }
+
     @Override
     public void cleanAllLocks() {
 
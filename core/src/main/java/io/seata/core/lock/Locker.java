@@ -30,6 +30,14 @@ public interface Locker {
      */
     boolean acquireLock(List<RowLock> rowLock) ;
 
+    /**
+     * Acquire the locks of several branches in one batch, each branch gets all of its locks or none of them.
+     *
+     * @param rowLockGroups the row locks of each branch
+     * @return the acquire result of each branch
+     */
+    boolean[] acquireLocks(List<List<RowLock>> rowLockGroups);
+
     /**
      * Release lock boolean.
      *
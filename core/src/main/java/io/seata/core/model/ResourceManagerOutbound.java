@@ -15,6 +15,9 @@
  */
 package io.seata.core.model;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.FutureUtils;
 import io.seata.core.exception.TransactionException;
 
 /**
@@ -51,6 +54,44 @@ public interface ResourceManagerOutbound {
      */
     void branchReport(BranchType branchType, String xid, long branchId, BranchStatus status, String applicationData) throws TransactionException;
 
+    /**
+     * Branch register without blocking the calling thread.
+     * The default implementation registers synchronously.
+     *
+     * @param branchType the branch type
+     * @param resourceId the resource id
+     * @param clientId   the client id
+     * @param xid        the xid
+     * @param applicationData the context
+     * @param lockKeys   the lock keys
+     * @return the future of the branch id
+     * @see #branchRegister(BranchType, String, String, String, String, String)
+     */
+    default CompletableFuture<Long> branchRegisterAsync(BranchType branchType, String resourceId, String clientId,
+                                                        String xid, String applicationData, String lockKeys) {
+        return FutureUtils.call(() -> branchRegister(branchType, resourceId, clientId, xid, applicationData, lockKeys));
+    }
+
+    /**
+     * Branch report without blocking the calling thread.
+     * The default implementation reports synchronously.
+     *
+     * @param branchType      the branch type
+     * @param xid             the xid
+     * @param branchId        the branch id
+     * @param status          the status
+     * @param applicationData the application data
+     * @return the future completed once reported
+     * @see #branchReport(BranchType, String, long, BranchStatus, String)
+     */
+    default CompletableFuture<Void> branchReportAsync(BranchType branchType, String xid, long branchId,
+                                                      BranchStatus status, String applicationData) {
+        return FutureUtils.call(() -> {
+            branchReport(branchType, xid, branchId, status, applicationData);
+            return null;
+        });
+    }
+
     /**
      * Lock query boolean.
      *
@@ -15,6 +15,9 @@
  */
 package io.seata.core.model;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.FutureUtils;
 import io.seata.core.exception.TransactionException;
 
 /**
@@ -80,4 +83,69 @@ public interface TransactionManager {
      * out.
      */
     GlobalStatus globalReport(String xid, GlobalStatus globalStatus) throws TransactionException;
+
+    /**
+     * Begin a new global transaction without blocking the calling thread.
+     * The default implementation begins it synchronously.
+     *
+     * @param applicationId           ID of the application who begins this transaction.
+     * @param transactionServiceGroup ID of the transaction service group.
+     * @param name                    Give a name to the global transaction.
+     * @param timeout                 Timeout of the global transaction.
+     * @return the future of the XID of the global transaction
+     * @see #begin(String, String, String, int)
+     */
+    default CompletableFuture<String> beginAsync(String applicationId, String transactionServiceGroup, String name,
+                                                 int timeout) {
+        return FutureUtils.call(() -> begin(applicationId, transactionServiceGroup, name, timeout));
+    }
+
+    /**
+     * Global commit without blocking the calling thread.
+     * The default implementation commits synchronously.
+     *
+     * @param xid XID of the global transaction.
+     * @return the future of the status of the global transaction after committing.
+     * @see #commit(String)
+     */
+    default CompletableFuture<GlobalStatus> commitAsync(String xid) {
+        return FutureUtils.call(() -> commit(xid));
+    }
+
+    /**
+     * Global rollback without blocking the calling thread.
+     * The default implementation rolls back synchronously.
+     *
+     * @param xid XID of the global transaction
+     * @return the future of the status of the global transaction after rollbacking.
+     * @see #rollback(String)
+     */
+    default CompletableFuture<GlobalStatus> rollbackAsync(String xid) {
+        return FutureUtils.call(() -> rollback(xid));
+    }
+
+    /**
+     * Get current status of the give transaction without blocking the calling thread.
+     * The default implementation gets it synchronously.
+     *
+     * @param xid XID of the global transaction.
+     * @return the future of the current status of the global transaction.
+     * @see #getStatus(String)
+     */
+    default CompletableFuture<GlobalStatus> getStatusAsync(String xid) {
+        return FutureUtils.call(() -> getStatus(xid));
+    }
+
+    /**
+     * Global report without blocking the calling thread.
+     * The default implementation reports synchronously.
+     *
+     * @param xid XID of the global transaction.
+     * @param globalStatus Status of the global transaction.
+     * @return the future of the status of the global transaction.
+     * @see #globalReport(String, GlobalStatus)
+     */
+    default CompletableFuture<GlobalStatus> globalReportAsync(String xid, GlobalStatus globalStatus) {
+        return FutureUtils.call(() -> globalReport(xid, globalStatus));
+    }
 }
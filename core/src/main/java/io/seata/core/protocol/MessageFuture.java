@@ -71,6 +71,29 @@ public class MessageFuture {
         return result;
     }
 
+    /**
+     * Get the result as a completable future, completed exceptionally with a TimeoutException if no result
+     * arrived before the timeout check of the remoting cleared the future.
+     *
+     * @return the completable future
+     */
+    public CompletableFuture<Object> toCompletableFuture() {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        origin.whenComplete((result, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else if (result == null) {
+                future.completeExceptionally(
+                    new TimeoutException("cost " + (System.currentTimeMillis() - start) + " ms"));
+            } else if (result instanceof Throwable) {
+                future.completeExceptionally((Throwable)result);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
     /**
      * Sets result message.
      *
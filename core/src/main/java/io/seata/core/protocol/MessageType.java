@@ -70,6 +70,14 @@ public interface MessageType {
      * The constant TYPE_GLOBAL_LOCK_QUERY_RESULT.
      */
     short TYPE_GLOBAL_LOCK_QUERY_RESULT = 22;
+    /**
+     * The constant TYPE_TRANSACTION_ID_LEASE.
+     */
+    short TYPE_TRANSACTION_ID_LEASE = 23;
+    /**
+     * The constant TYPE_TRANSACTION_ID_LEASE_RESULT.
+     */
+    short TYPE_TRANSACTION_ID_LEASE_RESULT = 24;
 
     /**
      * The constant TYPE_BRANCH_COMMIT.
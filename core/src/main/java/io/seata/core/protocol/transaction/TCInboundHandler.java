@@ -96,4 +96,13 @@ public interface TCInboundHandler {
      */
     GlobalReportResponse handle(GlobalReportRequest globalReport, RpcContext rpcContext);
 
+    /**
+     * Handle transaction id lease request.
+     *
+     * @param transactionIdLease the transaction id lease request
+     * @param rpcContext         the rpc context
+     * @return the transaction id lease response
+     */
+    TransactionIdLeaseResponse handle(TransactionIdLeaseRequest transactionIdLease, RpcContext rpcContext);
+
 }
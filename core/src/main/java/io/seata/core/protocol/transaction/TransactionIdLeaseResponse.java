@@ -0,0 +1,133 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.protocol.transaction;
+
+import io.seata.core.protocol.MessageType;
+
+/**
+ * The type Transaction id lease response.
+ */
+public class TransactionIdLeaseResponse extends AbstractTransactionResponse {
+
+    private String serverAddress;
+
+    private long startTransactionId;
+
+    private int size;
+
+    private long leaseTime;
+
+    /**
+     * Gets the ip:port of the TC, the xids are prefixed with it.
+     *
+     * @return the server address
+     */
+    public String getServerAddress() {
+        return serverAddress;
+    }
+
+    /**
+     * Sets the ip:port of the TC.
+     *
+     * @param serverAddress the server address
+     */
+    public void setServerAddress(String serverAddress) {
+        this.serverAddress = serverAddress;
+    }
+
+    /**
+     * Gets the first transaction id of the range.
+     *
+     * @return the start transaction id
+     */
+    public long getStartTransactionId() {
+        return startTransactionId;
+    }
+
+    /**
+     * Sets the first transaction id of the range.
+     *
+     * @param startTransactionId the start transaction id
+     */
+    public void setStartTransactionId(long startTransactionId) {
+        this.startTransactionId = startTransactionId;
+    }
+
+    /**
+     * Gets the size of the range.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size of the range.
+     *
+     * @param size the size
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the millis the range can begin global transactions for.
+     *
+     * @return the lease time
+     */
+    public long getLeaseTime() {
+        return leaseTime;
+    }
+
+    /**
+     * Sets the millis the range can begin global transactions for.
+     *
+     * @param leaseTime the lease time
+     */
+    public void setLeaseTime(long leaseTime) {
+        this.leaseTime = leaseTime;
+    }
+
+    @Override
+    public short getTypeCode() {
+        return MessageType.TYPE_TRANSACTION_ID_LEASE_RESULT;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("serverAddress=");
+        result.append(serverAddress);
+        result.append(",");
+        result.append("startTransactionId=");
+        result.append(startTransactionId);
+        result.append(",");
+        result.append("size=");
+        result.append(size);
+        result.append(",");
+        result.append("leaseTime=");
+        result.append(leaseTime);
+        result.append(",");
+        result.append("resultCode=");
+        result.append(getResultCode());
+        result.append(",");
+        result.append("msg=");
+        result.append(getMsg());
+
+        return result.toString();
+    }
+}
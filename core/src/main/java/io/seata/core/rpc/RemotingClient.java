@@ -21,6 +21,8 @@ import io.seata.core.protocol.RpcMessage;
 import io.seata.core.rpc.netty.NettyClientConfig;
 import io.seata.core.rpc.processor.RemotingProcessor;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeoutException;
 
@@ -44,6 +46,29 @@ public interface RemotingClient {
      */
     Object sendSyncRequest(Object msg) throws TimeoutException;
 
+    /**
+     * client send sync request without blocking the calling thread.
+     * The returned future is completed on the message executor of the client, or exceptionally with a
+     * TimeoutException if no response arrived in time.
+     *
+     * @param msg transaction message {@link io.seata.core.protocol}
+     * @return the future of the server result message
+     * @see #sendSyncRequestAsync(Object, Executor)
+     */
+    CompletableFuture<Object> sendSyncRequestAsync(Object msg);
+
+    /**
+     * client send sync request without blocking the calling thread.
+     * The returned future is completed on the given executor, never on the netty io threads. If the executor
+     * rejects the completion, the future is completed on the common pool instead.
+     *
+     * @param msg      transaction message {@link io.seata.core.protocol}
+     * @param executor the executor completing the returned future
+     * @return the future of the server result message
+     * @see #sendSyncRequest(Object)
+     */
+    CompletableFuture<Object> sendSyncRequestAsync(Object msg, Executor executor);
+
     /**
      * client send sync request.
      *
@@ -15,6 +15,10 @@
  */
 package io.seata.core.rpc;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 
@@ -34,6 +38,37 @@ public interface TransactionMessageHandler {
      */
     AbstractResultMessage onRequest(AbstractMessage request, RpcContext context);
 
+    /**
+     * On the requests merged in one message received.
+     *
+     * @param requests received request messages
+     * @param context  context of the RPC
+     * @return responses to the requests, in the same order
+     */
+    default AbstractResultMessage[] onRequest(List<AbstractMessage> requests, RpcContext context) {
+        AbstractResultMessage[] results = new AbstractResultMessage[requests.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = onRequest(requests.get(i), context);
+        }
+        return results;
+    }
+
+    /**
+     * Retry a request whose failure may be gone shortly, e.g. a branch register failed on a lock conflict,
+     * instead of sending its response at once. The retries must not block the thread handling the request.
+     *
+     * @param request  the request
+     * @param response the failed response to the request
+     * @param context  context of the RPC
+     * @param executor the executor to run the retries
+     * @return the future of the response of the last retry, null to send the response at once
+     */
+    default CompletableFuture<AbstractResultMessage> retryLater(AbstractMessage request,
+                                                                AbstractResultMessage response, RpcContext context,
+                                                                Executor executor) {
+        return null;
+    }
+
     /**
      * On a response received.
      *
@@ -43,6 +43,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
@@ -91,10 +92,6 @@ public abstract class AbstractNettyRemoting implements Disposable {
     protected volatile long nowMills = 0;
     private static final int TIMEOUT_CHECK_INTERVAL = 3000;
     protected final Object lock = new Object();
-    /**
-     * The Is sending.
-     */
-    protected volatile boolean isSending = false;
     private String group = "DEFAULT";
 
     /**
@@ -173,6 +170,57 @@ public abstract class AbstractNettyRemoting implements Disposable {
             return null;
         }
 
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = writeRequest(channel, remoteAddr, rpcMessage, timeoutMillis);
+
+        try {
+            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            return result;
+        } catch (Exception exx) {
+            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                rpcMessage.getBody());
+            if (exx instanceof TimeoutException) {
+                throw (TimeoutException) exx;
+            } else {
+                throw new RuntimeException(exx);
+            }
+        }
+    }
+
+    /**
+     * rpc sync request without blocking.
+     * The response message completes the returned future, which completes exceptionally with a TimeoutException
+     * if no response arrived in time.
+     *
+     * @param channel       netty channel
+     * @param rpcMessage    rpc message
+     * @param timeoutMillis rpc communication timeout
+     * @return the future of the response message
+     */
+    protected CompletableFuture<Object> sendFuture(Channel channel, RpcMessage rpcMessage, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new FrameworkException("timeout should more than 0ms");
+        }
+        if (channel == null) {
+            LOGGER.warn("sendFuture nothing, caused by null channel.");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
+        MessageFuture messageFuture = writeRequest(channel, remoteAddr, rpcMessage, timeoutMillis);
+        return messageFuture.toCompletableFuture().whenComplete((result, exx) -> {
+            if (exx == null) {
+                doAfterRpcHooks(remoteAddr, rpcMessage, result);
+            } else {
+                LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
+                    rpcMessage.getBody());
+            }
+        });
+    }
+
+    private MessageFuture writeRequest(Channel channel, String remoteAddr, RpcMessage rpcMessage,
+                                       long timeoutMillis) {
         MessageFuture messageFuture = new MessageFuture();
         messageFuture.setRequestMessage(rpcMessage);
         messageFuture.setTimeout(timeoutMillis);
@@ -180,7 +228,6 @@ public abstract class AbstractNettyRemoting implements Disposable {
 
         channelWritableCheck(channel, rpcMessage.getBody());
 
-        String remoteAddr = ChannelUtil.getAddressFromChannel(channel);
         doBeforeRpcHooks(remoteAddr, rpcMessage);
 
         channel.writeAndFlush(rpcMessage).addListener((ChannelFutureListener) future -> {
@@ -192,20 +239,7 @@ public abstract class AbstractNettyRemoting implements Disposable {
                 destroyChannel(future.channel());
             }
         });
-
-        try {
-            Object result = messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
-            doAfterRpcHooks(remoteAddr, rpcMessage, result);
-            return result;
-        } catch (Exception exx) {
-            LOGGER.error("wait response error:{},ip:{},request:{}", exx.getMessage(), channel.remoteAddress(),
-                rpcMessage.getBody());
-            if (exx instanceof TimeoutException) {
-                throw (TimeoutException) exx;
-            } else {
-                throw new RuntimeException(exx);
-            }
-        }
+        return messageFuture;
     }
 
     /**
@@ -19,10 +19,14 @@ import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -79,14 +83,13 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     private static final String FUTURES_PREFIX = "futures:";
     private static final String SINGLE_LOG_POSTFIX = ";";
     private static final int MAX_MERGE_SEND_MILLS = 1;
+    private static final int MAX_MERGE_SEND_SIZE = 128;
     private static final String THREAD_PREFIX_SPLIT_CHAR = "_";
 
     private static final int MAX_MERGE_SEND_THREAD = 1;
-    private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
     private static final long SCHEDULE_DELAY_MILLS = 60 * 1000L;
     private static final long SCHEDULE_INTERVAL_MILLS = 10 * 1000L;
     private static final String MERGE_THREAD_PREFIX = "rpcMergeMessageSend";
-    protected final Object mergeLock = new Object();
 
     /**
      * When sending message type is {@link MergeMessage}, will be stored to mergeMsgMap.
@@ -95,15 +98,15 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
 
     /**
      * When batch sending is enabled, the message will be stored to basketMap
-     * Send via asynchronous thread {@link MergedSendRunnable}
+     * Send via asynchronous thread {@link MergedSendBasket}
      * {@link NettyClientConfig#isEnableClientBatchSendRequest}
      */
-    protected final ConcurrentHashMap<String/*serverAddress*/, BlockingQueue<RpcMessage>> basketMap = new ConcurrentHashMap<>();
+    protected final ConcurrentHashMap<String/*serverAddress*/, MergedSendBasket> basketMap = new ConcurrentHashMap<>();
 
     private final NettyClientBootstrap clientBootstrap;
     private NettyClientChannelManager clientChannelManager;
     private final NettyPoolKey.TransactionRole transactionRole;
-    private ExecutorService mergeSendExecutorService;
+    private ScheduledExecutorService mergeSendExecutorService;
     private TransactionMessageHandler transactionMessageHandler;
 
     @Override
@@ -115,12 +118,8 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
             }
         }, SCHEDULE_DELAY_MILLS, SCHEDULE_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
         if (NettyClientConfig.isEnableClientBatchSendRequest()) {
-            mergeSendExecutorService = new ThreadPoolExecutor(MAX_MERGE_SEND_THREAD,
-                MAX_MERGE_SEND_THREAD,
-                KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
-                new LinkedBlockingQueue<>(),
+            mergeSendExecutorService = new ScheduledThreadPoolExecutor(MAX_MERGE_SEND_THREAD,
                 new NamedThreadFactory(getThreadPrefix(), MAX_MERGE_SEND_THREAD));
-            mergeSendExecutorService.submit(new MergedSendRunnable());
         }
         super.init();
         clientBootstrap.start();
@@ -143,7 +142,7 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
         RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
 
         // send batch message
-        // put message into basketMap, @see MergedSendRunnable
+        // put message into basketMap, @see MergedSendBasket
         if (NettyClientConfig.isEnableClientBatchSendRequest()) {
 
             // send batch message is sync request, needs to create messageFuture and put it in futures.
@@ -153,21 +152,13 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
             futures.put(rpcMessage.getId(), messageFuture);
 
             // put message into basketMap
-            BlockingQueue<RpcMessage> basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
-                key -> new LinkedBlockingQueue<>());
-            if (!basket.offer(rpcMessage)) {
-                LOGGER.error("put message into basketMap offer failed, serverAddress:{},rpcMessage:{}",
-                        serverAddress, rpcMessage);
-                return null;
-            }
+            MergedSendBasket basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
+                key -> new MergedSendBasket(mergeSendExecutorService, MAX_MERGE_SEND_SIZE,
+                    TimeUnit.MILLISECONDS.toNanos(MAX_MERGE_SEND_MILLS), batch -> sendMergedMessage(key, batch)));
+            basket.offer(rpcMessage);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("offer message: {}", rpcMessage.getBody());
             }
-            if (!isSending) {
-                synchronized (mergeLock) {
-                    mergeLock.notifyAll();
-                }
-            }
 
             try {
                 return messageFuture.get(timeoutMillis, TimeUnit.MILLISECONDS);
@@ -188,6 +179,55 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
 
     }
 
+    @Override
+    public CompletableFuture<Object> sendSyncRequestAsync(Object msg) {
+        return sendSyncRequestAsync(msg, messageExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Object> sendSyncRequestAsync(Object msg, Executor executor) {
+        String serverAddress = loadBalance(getTransactionServiceGroup(), msg);
+        int timeoutMillis = NettyClientConfig.getRpcRequestTimeout();
+        RpcMessage rpcMessage = buildRequestMessage(msg, ProtocolConstants.MSGTYPE_RESQUEST_SYNC);
+
+        CompletableFuture<Object> responseFuture;
+        if (NettyClientConfig.isEnableClientBatchSendRequest()) {
+            MessageFuture messageFuture = new MessageFuture();
+            messageFuture.setRequestMessage(rpcMessage);
+            messageFuture.setTimeout(timeoutMillis);
+            futures.put(rpcMessage.getId(), messageFuture);
+
+            MergedSendBasket basket = CollectionUtils.computeIfAbsent(basketMap, serverAddress,
+                key -> new MergedSendBasket(mergeSendExecutorService, MAX_MERGE_SEND_SIZE,
+                    TimeUnit.MILLISECONDS.toNanos(MAX_MERGE_SEND_MILLS), batch -> sendMergedMessage(key, batch)));
+            basket.offer(rpcMessage);
+            responseFuture = messageFuture.toCompletableFuture();
+        } else {
+            Channel channel = clientChannelManager.acquireChannel(serverAddress);
+            responseFuture = super.sendFuture(channel, rpcMessage, timeoutMillis);
+        }
+
+        // the responses are received on the netty io threads, keep the dependent stages off them
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        responseFuture.whenComplete((result, e) -> {
+            Runnable completion = () -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(result);
+                }
+            };
+            try {
+                executor.execute(completion);
+            } catch (RejectedExecutionException rejected) {
+                LOGGER.warn("complete the response of {} on the common pool, the executor rejected it",
+                    rpcMessage.getId());
+                ForkJoinPool.commonPool().execute(completion);
+            }
+        });
+        return future;
+    }
+
     @Override
     public Object sendSyncRequest(Channel channel, Object msg) throws TimeoutException {
         if (channel == null) {
@@ -317,75 +357,57 @@ public abstract class AbstractNettyRemotingClient extends AbstractNettyRemoting
     protected abstract String getTransactionServiceGroup();
 
     /**
-     * The type Merged send runnable.
+     * Send the batch of a basket as one merged message.
+     *
+     * @param address the server address
+     * @param batch   the batch of request messages
      */
-    private class MergedSendRunnable implements Runnable {
-
-        @Override
-        public void run() {
-            while (true) {
-                synchronized (mergeLock) {
-                    try {
-                        mergeLock.wait(MAX_MERGE_SEND_MILLS);
-                    } catch (InterruptedException e) {
-                    }
+    private void sendMergedMessage(String address, List<RpcMessage> batch) {
+        MergedWarpMessage mergeMessage = new MergedWarpMessage();
+        for (RpcMessage msg : batch) {
+            mergeMessage.msgs.add((AbstractMessage) msg.getBody());
+            mergeMessage.msgIds.add(msg.getId());
+        }
+        if (mergeMessage.msgIds.size() > 1) {
+            printMergeMessageLog(mergeMessage);
+        }
+        Channel sendChannel = null;
+        try {
+            // send batch message is sync request, but there is no need to get the return value.
+            // Since the messageFuture has been created before the message is placed in basketMap,
+            // the return value will be obtained in ClientOnResponseProcessor.
+            sendChannel = clientChannelManager.acquireChannel(address);
+            AbstractNettyRemotingClient.this.sendAsyncRequest(sendChannel, mergeMessage);
+        } catch (FrameworkException e) {
+            if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
+                destroyChannel(address, sendChannel);
+            }
+            // fast fail
+            for (Integer msgId : mergeMessage.msgIds) {
+                MessageFuture messageFuture = futures.remove(msgId);
+                if (messageFuture != null) {
+                    messageFuture.setResultMessage(null);
                 }
-                isSending = true;
-                basketMap.forEach((address, basket) -> {
-                    if (basket.isEmpty()) {
-                        return;
-                    }
-
-                    MergedWarpMessage mergeMessage = new MergedWarpMessage();
-                    while (!basket.isEmpty()) {
-                        RpcMessage msg = basket.poll();
-                        mergeMessage.msgs.add((AbstractMessage) msg.getBody());
-                        mergeMessage.msgIds.add(msg.getId());
-                    }
-                    if (mergeMessage.msgIds.size() > 1) {
-                        printMergeMessageLog(mergeMessage);
-                    }
-                    Channel sendChannel = null;
-                    try {
-                        // send batch message is sync request, but there is no need to get the return value.
-                        // Since the messageFuture has been created before the message is placed in basketMap,
-                        // the return value will be obtained in ClientOnResponseProcessor.
-                        sendChannel = clientChannelManager.acquireChannel(address);
-                        AbstractNettyRemotingClient.this.sendAsyncRequest(sendChannel, mergeMessage);
-                    } catch (FrameworkException e) {
-                        if (e.getErrcode() == FrameworkErrorCode.ChannelIsNotWritable && sendChannel != null) {
-                            destroyChannel(address, sendChannel);
-                        }
-                        // fast fail
-                        for (Integer msgId : mergeMessage.msgIds) {
-                            MessageFuture messageFuture = futures.remove(msgId);
-                            if (messageFuture != null) {
-                                messageFuture.setResultMessage(null);
-                            }
-                        }
-                        LOGGER.error("client merge call failed: {}", e.getMessage(), e);
-                    }
-                });
-                isSending = false;
             }
+            LOGGER.error("client merge call failed: {}", e.getMessage(), e);
         }
+    }
 
-        private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
-                for (AbstractMessage cm : mergeMessage.msgs) {
-                    LOGGER.debug(cm.toString());
-                }
-                StringBuilder sb = new StringBuilder();
-                for (long l : mergeMessage.msgIds) {
-                    sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                sb.append("\n");
-                for (long l : futures.keySet()) {
-                    sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
-                }
-                LOGGER.debug(sb.toString());
+    private void printMergeMessageLog(MergedWarpMessage mergeMessage) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("merge msg size:{}", mergeMessage.msgIds.size());
+            for (AbstractMessage cm : mergeMessage.msgs) {
+                LOGGER.debug(cm.toString());
+            }
+            StringBuilder sb = new StringBuilder();
+            for (long l : mergeMessage.msgIds) {
+                sb.append(MSG_ID_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
+            }
+            sb.append("\n");
+            for (long l : futures.keySet()) {
+                sb.append(FUTURES_PREFIX).append(l).append(SINGLE_LOG_POSTFIX);
             }
+            LOGGER.debug(sb.toString());
         }
     }
 
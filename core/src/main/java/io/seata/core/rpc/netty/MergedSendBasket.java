@@ -0,0 +1,162 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import io.seata.core.protocol.RpcMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The basket of the request messages to be merged and sent to one server.
+ * <p>
+ * The application threads put the messages into a lock-free queue, the first one of a batch schedules the flush
+ * on the single sender thread after the merge delay, and the one filling up the batch flushes it at once.
+ * The merge delay adapts to the load: it doubles when a flush takes more than one message, and halves down to
+ * zero when a flush takes only one, so an idle client sends its requests without any delay.
+ *
+ * @since 1.5.0
+ */
+class MergedSendBasket {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergedSendBasket.class);
+
+    /**
+     * The smallest non-zero merge delay.
+     */
+    static final long MIN_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final ConcurrentLinkedQueue<RpcMessage> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService sender;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final Consumer<List<RpcMessage>> flusher;
+
+    private final Runnable flushTask = this::flush;
+
+    private volatile long delayNanos;
+
+    /**
+     * Instantiates a new Merged send basket.
+     *
+     * @param sender        the single sender thread
+     * @param maxBatchSize  the max messages of a batch
+     * @param maxDelayNanos the max merge delay
+     * @param flusher       sends a batch of messages
+     */
+    MergedSendBasket(ScheduledExecutorService sender, int maxBatchSize, long maxDelayNanos,
+                     Consumer<List<RpcMessage>> flusher) {
+        this.sender = sender;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelayNanos;
+        this.flusher = flusher;
+    }
+
+    /**
+     * Put the message into the basket.
+     *
+     * @param rpcMessage the rpc message
+     */
+    void offer(RpcMessage rpcMessage) {
+        queue.offer(rpcMessage);
+        if (size.incrementAndGet() == maxBatchSize) {
+            submit(0L);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            submit(delayNanos);
+        }
+    }
+
+    private void submit(long delay) {
+        try {
+            if (delay <= 0L) {
+                sender.execute(flushTask);
+            } else {
+                sender.schedule(flushTask, delay, TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // the client is destroyed
+            flushScheduled.set(false);
+            LOGGER.warn("merged send basket is closed, the message is not sent: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Send the messages of the basket, only called by the sender thread.
+     */
+    void flush() {
+        // reset before draining, a message offered after the draining schedules another flush
+        flushScheduled.set(false);
+        List<RpcMessage> batch = new ArrayList<>(Math.min(Math.max(size.get(), 1), maxBatchSize));
+        RpcMessage rpcMessage;
+        while (batch.size() < maxBatchSize && (rpcMessage = queue.poll()) != null) {
+            batch.add(rpcMessage);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int remaining = size.addAndGet(-batch.size());
+        delayNanos = nextDelayNanos(delayNanos, batch.size(), maxDelayNanos);
+        try {
+            flusher.accept(batch);
+        } finally {
+            if (remaining > 0 && flushScheduled.compareAndSet(false, true)) {
+                submit(remaining >= maxBatchSize ? 0L : delayNanos);
+            }
+        }
+    }
+
+    /**
+     * Gets the current merge delay.
+     *
+     * @return the delay nanos
+     */
+    long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * The merge delay after a flush of the batch.
+     *
+     * @param delayNanos    the current merge delay
+     * @param batchSize     the size of the flushed batch
+     * @param maxDelayNanos the max merge delay
+     * @return the next merge delay
+     */
+    static long nextDelayNanos(long delayNanos, int batchSize, long maxDelayNanos) {
+        if (batchSize > 1) {
+            return Math.min(maxDelayNanos, Math.max(MIN_DELAY_NANOS, delayNanos << 1));
+        }
+        long next = delayNanos >> 1;
+        return next < MIN_DELAY_NANOS ? 0L : next;
+    }
+}
@@ -22,6 +22,7 @@ import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
 import io.seata.core.protocol.HeartbeatMessage;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
@@ -134,12 +135,21 @@ public class ProtocolV1Decoder extends LengthFieldBasedFrameDecoder {
         } else {
             int bodyLength = fullLength - headLength;
             if (bodyLength > 0) {
-                byte[] bs = new byte[bodyLength];
-                frame.readBytes(bs);
-                Compressor compressor = CompressorFactory.getCompressor(compressorType);
-                bs = compressor.decompress(bs);
+                ByteBuf body = frame.readSlice(bodyLength);
                 Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                rpcMessage.setBody(serializer.deserialize(bs));
+                if (compressorType == CompressorType.NONE.getCode()) {
+                    // deserialize from the frame directly
+                    rpcMessage.setBody(serializer.deserialize(body));
+                } else {
+                    Compressor compressor = CompressorFactory.getCompressor(compressorType);
+                    ByteBuf bodyBuf = frame.alloc().buffer(bodyLength);
+                    try {
+                        compressor.decompress(body, bodyBuf);
+                        rpcMessage.setBody(serializer.deserialize(bodyBuf));
+                    } finally {
+                        bodyBuf.release();
+                    }
+                }
             }
         }
 
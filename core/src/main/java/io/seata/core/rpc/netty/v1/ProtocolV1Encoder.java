@@ -22,6 +22,7 @@ import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.core.serializer.Serializer;
 import io.seata.core.compressor.Compressor;
 import io.seata.core.compressor.CompressorFactory;
+import io.seata.core.compressor.CompressorType;
 import io.seata.core.protocol.ProtocolConstants;
 import io.seata.core.protocol.RpcMessage;
 import io.seata.core.serializer.SerializerType;
@@ -88,19 +89,25 @@ public class ProtocolV1Encoder extends MessageToByteEncoder {
                     fullLength += headMapBytesLength;
                 }
 
-                byte[] bodyBytes = null;
                 if (messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_REQUEST
                         && messageType != ProtocolConstants.MSGTYPE_HEARTBEAT_RESPONSE) {
                     // heartbeat has no body
                     Serializer serializer = EnhancedServiceLoader.load(Serializer.class, SerializerType.getByCode(rpcMessage.getCodec()).name());
-                    bodyBytes = serializer.serialize(rpcMessage.getBody());
-                    Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
-                    bodyBytes = compressor.compress(bodyBytes);
-                    fullLength += bodyBytes.length;
-                }
-
-                if (bodyBytes != null) {
-                    out.writeBytes(bodyBytes);
+                    int bodyIndex = out.writerIndex();
+                    if (rpcMessage.getCompressor() == CompressorType.NONE.getCode()) {
+                        // serialize into the output buffer directly
+                        serializer.serialize(rpcMessage.getBody(), out);
+                    } else {
+                        Compressor compressor = CompressorFactory.getCompressor(rpcMessage.getCompressor());
+                        ByteBuf bodyBuf = out.alloc().buffer();
+                        try {
+                            serializer.serialize(rpcMessage.getBody(), bodyBuf);
+                            compressor.compress(bodyBuf, out);
+                        } finally {
+                            bodyBuf.release();
+                        }
+                    }
+                    fullLength += out.writerIndex() - bodyIndex;
                 }
 
                 // fix fullLength and headLength
@@ -31,6 +31,7 @@ import io.seata.core.protocol.transaction.GlobalCommitResponse;
 import io.seata.core.protocol.transaction.GlobalLockQueryResponse;
 import io.seata.core.protocol.transaction.GlobalReportResponse;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
 import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
@@ -57,6 +58,7 @@ import java.util.concurrent.ConcurrentMap;
  * 4) {@link GlobalCommitResponse}
  * 5) {@link GlobalReportResponse}
  * 6) {@link GlobalRollbackResponse}
+ * 7) {@link TransactionIdLeaseResponse}
  *
  * @author zhangchenghui.dev@gmail.com
  * @since 1.3.0
@@ -15,8 +15,19 @@
  */
 package io.seata.core.rpc.processor.server;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.netty.channel.ChannelHandlerContext;
 import io.seata.common.util.NetUtil;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
 import io.seata.core.protocol.MergeResultMessage;
@@ -30,6 +41,7 @@ import io.seata.core.protocol.transaction.GlobalLockQueryRequest;
 import io.seata.core.protocol.transaction.GlobalReportRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
 import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.core.rpc.RpcContext;
@@ -37,6 +49,9 @@ import io.seata.core.rpc.TransactionMessageHandler;
 import io.seata.core.rpc.processor.RemotingProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_PARALLEL_MERGED_REQUEST_ENABLE;
 
 /**
  * process RM/TM client request message.
@@ -54,6 +69,7 @@ import org.slf4j.LoggerFactory;
  * 4) {@link GlobalReportRequest}
  * 5) {@link GlobalRollbackRequest}
  * 6) {@link GlobalStatusRequest}
+ * 7) {@link TransactionIdLeaseRequest}
  *
  * @author zhangchenghui.dev@gmail.com
  * @since 1.3.0
@@ -62,13 +78,39 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerOnRequestProcessor.class);
 
+    private static final boolean PARALLEL_MERGED_REQUEST_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.SERVER_PARALLEL_MERGED_REQUEST_ENABLE, DEFAULT_SERVER_PARALLEL_MERGED_REQUEST_ENABLE);
+
     private RemotingServer remotingServer;
 
     private TransactionMessageHandler transactionMessageHandler;
 
+    private Executor executor;
+
+    private boolean parallelMergedRequestEnable;
+
     public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler) {
+        this(remotingServer, transactionMessageHandler, null);
+    }
+
+    /**
+     * Instantiates a new Server on request processor.
+     *
+     * @param remotingServer            the remoting server
+     * @param transactionMessageHandler the transaction message handler
+     * @param executor                  the executor to handle the sub requests of a merged message in parallel
+     */
+    public ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler,
+                                    Executor executor) {
+        this(remotingServer, transactionMessageHandler, executor, PARALLEL_MERGED_REQUEST_ENABLE);
+    }
+
+    ServerOnRequestProcessor(RemotingServer remotingServer, TransactionMessageHandler transactionMessageHandler,
+                             Executor executor, boolean parallelMergedRequestEnable) {
         this.remotingServer = remotingServer;
         this.transactionMessageHandler = transactionMessageHandler;
+        this.executor = executor;
+        this.parallelMergedRequestEnable = parallelMergedRequestEnable && executor != null;
     }
 
     @Override
@@ -110,20 +152,160 @@ public class ServerOnRequestProcessor implements RemotingProcessor {
             return;
         }
         if (message instanceof MergedWarpMessage) {
-            AbstractResultMessage[] results = new AbstractResultMessage[((MergedWarpMessage) message).msgs.size()];
+            List<AbstractMessage> msgs = ((MergedWarpMessage) message).msgs;
+            if (parallelMergedRequestEnable && msgs.size() > 1) {
+                onMergedRequestInParallel(ctx, rpcMessage, msgs, rpcContext);
+                return;
+            }
+            AbstractResultMessage[] results = transactionMessageHandler.onRequest(msgs, rpcContext);
+            List<CompletableFuture<Void>> retries = new ArrayList<>();
             for (int i = 0; i < results.length; i++) {
-                final AbstractMessage subMessage = ((MergedWarpMessage) message).msgs.get(i);
-                results[i] = transactionMessageHandler.onRequest(subMessage, rpcContext);
+                final int index = i;
+                CompletableFuture<AbstractResultMessage> retry = retryLater(msgs.get(i), results[i], rpcContext);
+                if (retry != null) {
+                    retries.add(retry.handle((result, th) -> {
+                        results[index] = lastResult(result, th, results[index]);
+                        return null;
+                    }));
+                }
             }
             MergeResultMessage resultMessage = new MergeResultMessage();
             resultMessage.setMsgs(results);
-            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+            if (retries.isEmpty()) {
+                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+            } else {
+                CompletableFuture.allOf(retries.toArray(new CompletableFuture[0])).whenComplete(
+                    (v, th) -> remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage));
+            }
         } else {
             // the single send request message
             final AbstractMessage msg = (AbstractMessage) message;
             AbstractResultMessage result = transactionMessageHandler.onRequest(msg, rpcContext);
-            remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
+            CompletableFuture<AbstractResultMessage> retry = retryLater(msg, result, rpcContext);
+            if (retry == null) {
+                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), result);
+            } else {
+                retry.whenComplete((lastResult, th) -> remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(),
+                    lastResult(lastResult, th, result)));
+            }
+        }
+    }
+
+    /**
+     * The handler may retry a failed request later, the response is sent once the retries are over and no thread
+     * waits for them meanwhile.
+     */
+    private CompletableFuture<AbstractResultMessage> retryLater(AbstractMessage request,
+                                                                AbstractResultMessage result, RpcContext rpcContext) {
+        if (executor == null || result == null) {
+            return null;
+        }
+        return transactionMessageHandler.retryLater(request, result, rpcContext, executor);
+    }
+
+    private static AbstractResultMessage lastResult(AbstractResultMessage lastResult, Throwable th,
+                                                    AbstractResultMessage firstResult) {
+        if (th != null) {
+            LOGGER.error("retry the request failed: {}", th.getMessage(), th);
         }
+        return lastResult != null ? lastResult : firstResult;
     }
 
+    /**
+     * The sub requests are independent, each one is sent by a client thread waiting for its own response.
+     * The lock-bearing ones are handled together as one batch, so the handler can acquire their locks at once, and
+     * the others are handled one by one. They are handled by the executor and the current thread, the last one to
+     * complete sends the merged response. No response is sent if a sub request fails with an exception, like the
+     * serial handling.
+     */
+    private void onMergedRequestInParallel(ChannelHandlerContext ctx, RpcMessage rpcMessage,
+                                           List<AbstractMessage> msgs, RpcContext rpcContext) {
+        AbstractResultMessage[] results = new AbstractResultMessage[msgs.size()];
+        AtomicInteger remaining = new AtomicInteger(msgs.size());
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Runnable onSubRequestDone = () -> {
+            if (remaining.decrementAndGet() == 0 && !failed.get()) {
+                MergeResultMessage resultMessage = new MergeResultMessage();
+                resultMessage.setMsgs(results);
+                remotingServer.sendAsyncResponse(rpcMessage, ctx.channel(), resultMessage);
+            }
+        };
+        List<Integer> lockIndexes = new ArrayList<>();
+        List<Runnable> tasks = new ArrayList<>(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            if (isLockRequest(msgs.get(i))) {
+                lockIndexes.add(i);
+            } else {
+                List<Integer> indexes = Collections.singletonList(i);
+                tasks.add(() -> handleSubRequests(rpcMessage, msgs, indexes, rpcContext, results, failed,
+                    onSubRequestDone));
+            }
+        }
+        if (!lockIndexes.isEmpty()) {
+            tasks.add(0, () -> handleSubRequests(rpcMessage, msgs, lockIndexes, rpcContext, results, failed,
+                onSubRequestDone));
+        }
+        for (int i = 1; i < tasks.size(); i++) {
+            Runnable task = tasks.get(i);
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        MDC.clear();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        tasks.get(0).run();
+    }
+
+    /**
+     * The branch register and the global lock query requests carry the row locks.
+     */
+    private static boolean isLockRequest(AbstractMessage msg) {
+        return msg instanceof BranchRegisterRequest || msg instanceof GlobalLockQueryRequest;
+    }
+
+    private void handleSubRequests(RpcMessage rpcMessage, List<AbstractMessage> msgs, List<Integer> indexes,
+                                   RpcContext rpcContext, AbstractResultMessage[] results, AtomicBoolean failed,
+                                   Runnable onSubRequestDone) {
+        List<CompletableFuture<AbstractResultMessage>> retries = new ArrayList<>(indexes.size());
+        try {
+            if (indexes.size() == 1) {
+                int index = indexes.get(0);
+                results[index] = transactionMessageHandler.onRequest(msgs.get(index), rpcContext);
+            } else {
+                List<AbstractMessage> requests = new ArrayList<>(indexes.size());
+                for (Integer index : indexes) {
+                    requests.add(msgs.get(index));
+                }
+                AbstractResultMessage[] batchResults = transactionMessageHandler.onRequest(requests, rpcContext);
+                for (int i = 0; i < batchResults.length; i++) {
+                    results[indexes.get(i)] = batchResults[i];
+                }
+            }
+            for (Integer index : indexes) {
+                retries.add(retryLater(msgs.get(index), results[index], rpcContext));
+            }
+        } catch (Throwable th) {
+            failed.set(true);
+            LOGGER.error("handle the sub requests {} of merged message {} failed: {}", indexes, rpcMessage.getId(),
+                th.getMessage(), th);
+        }
+        for (int i = 0; i < indexes.size(); i++) {
+            CompletableFuture<AbstractResultMessage> retry = i < retries.size() ? retries.get(i) : null;
+            if (retry == null) {
+                onSubRequestDone.run();
+            } else {
+                int index = indexes.get(i);
+                retry.whenComplete((result, th) -> {
+                    results[index] = lastResult(result, th, results[index]);
+                    onSubRequestDone.run();
+                });
+            }
+        }
+    }
 }
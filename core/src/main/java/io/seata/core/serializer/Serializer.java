@@ -15,6 +15,8 @@
  */
 package io.seata.core.serializer;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * The interface Codec.
  *
@@ -39,4 +41,29 @@ public interface Serializer {
      * @return the t
      */
     <T> T deserialize(byte[] bytes);
+
+    /**
+     * Encode object into the buffer, the serializers able to write to a ByteBuf directly should override it.
+     *
+     * @param <T> the type parameter
+     * @param t   the t
+     * @param out the buffer to write to
+     */
+    default <T> void serialize(T t, ByteBuf out) {
+        out.writeBytes(serialize(t));
+    }
+
+    /**
+     * Decode t from the readable bytes of the buffer, the serializers able to read a ByteBuf directly should
+     * override it.
+     *
+     * @param <T> the type parameter
+     * @param in  the buffer to read from
+     * @return the t
+     */
+    default <T> T deserialize(ByteBuf in) {
+        byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+        return deserialize(bytes);
+    }
 }
@@ -57,6 +57,8 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 
 /**
@@ -114,6 +116,8 @@ public class SerializerClassRegistry {
         registerClass(GlobalRollbackResponse.class);
         registerClass(GlobalStatusRequest.class);
         registerClass(GlobalStatusResponse.class);
+        registerClass(TransactionIdLeaseRequest.class);
+        registerClass(TransactionIdLeaseResponse.class);
         registerClass(UndoLogDeleteRequest.class);
         registerClass(GlobalReportRequest.class);
         registerClass(GlobalReportResponse.class);
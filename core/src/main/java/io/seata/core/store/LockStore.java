@@ -41,6 +41,14 @@ public interface LockStore {
      */
     boolean acquireLock(List<LockDO> lockDOs);
 
+    /**
+     * Acquire the locks of several branches in one batch, each branch gets all of its locks or none of them.
+     *
+     * @param lockDOGroups the lock do list of each branch
+     * @return the acquire result of each branch
+     */
+    boolean[] acquireLocks(List<List<LockDO>> lockDOGroups);
+
     /**
      * Un lock boolean.
      *
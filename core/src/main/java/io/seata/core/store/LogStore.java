@@ -50,6 +50,16 @@ public interface LogStore {
      */
     List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, int limit);
 
+    /**
+     * Query a page of the global transactions ordered by the transaction id.
+     *
+     * @param status             the status
+     * @param afterTransactionId the transaction id of the last global transaction of the previous page
+     * @param limit              the limit
+     * @return the list
+     */
+    List<GlobalTransactionDO> queryGlobalTransactionDO(int[] status, long afterTransactionId, int limit);
+
     /**
      * Insert global transaction do boolean.
      *
@@ -98,6 +108,15 @@ public interface LogStore {
      */
     boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO);
 
+    /**
+     * Insert branch transaction do only while its global transaction has the expected status.
+     *
+     * @param branchTransactionDO the branch transaction do
+     * @param globalStatus        the expected status code of the global transaction
+     * @return false if the global transaction does not exist or has another status
+     */
+    boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO, int globalStatus);
+
     /**
      * Update branch transaction do boolean.
      *
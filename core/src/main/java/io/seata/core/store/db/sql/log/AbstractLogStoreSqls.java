@@ -161,6 +161,9 @@ public abstract class AbstractLogStoreSqls implements LogStoreSqls {
     @Override
     public abstract String getInsertBranchTransactionSQL(String branchTable);
 
+    @Override
+    public abstract String getInsertBranchTransactionIfGlobalStatusSQL(String branchTable, String globalTable);
+
     @Override
     public abstract String getUpdateBranchTransactionStatusSQL(String branchTable);
 
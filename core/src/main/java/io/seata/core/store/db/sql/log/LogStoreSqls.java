@@ -70,6 +70,16 @@ public interface LogStoreSqls {
      */
     String getQueryGlobalTransactionSQLByStatus(String globalTable, String paramsPlaceHolder);
 
+    /**
+     * Get the sql querying a page of the global transactions by status, ordered by the transaction id and
+     * starting after the transaction id of the previous page.
+     *
+     * @param globalTable       the global table
+     * @param paramsPlaceHolder the params place holder
+     * @return the string
+     */
+    String getQueryGlobalTransactionPageSQLByStatus(String globalTable, String paramsPlaceHolder);
+
     /**
      * Get query global transaction for recovery sql string.
      *
@@ -86,6 +96,16 @@ public interface LogStoreSqls {
      */
     String getInsertBranchTransactionSQL(String branchTable);
 
+    /**
+     * Get insert branch transaction sql string, the branch is inserted only while its global transaction has
+     * the expected status.
+     *
+     * @param branchTable the branch table
+     * @param globalTable the global table
+     * @return the string
+     */
+    String getInsertBranchTransactionIfGlobalStatusSQL(String branchTable, String globalTable);
+
     /**
      * Get update branch transaction status sql string.
      *
@@ -58,6 +58,16 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
             + " order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED
             + " limit ?";
 
+    /**
+     * The constant QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_MYSQL.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_MYSQL = "select " + ALL_GLOBAL_COLUMNS
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " > ?"
+            + " order by " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID
+            + " limit ?";
+
     /**
      * The constant INSERT_BRANCH_TRANSACTION_MYSQL.
      */
@@ -65,6 +75,17 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
             + "(" + ALL_BRANCH_COLUMNS + ")"
             + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, now(6), now(6))";
 
+    /**
+     * The constant INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_MYSQL.
+     */
+    public static final String INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_MYSQL = "insert into "
+            + BRANCH_TABLE_PLACEHOLD
+            + "(" + ALL_BRANCH_COLUMNS + ")"
+            + " select ?, ?, ?, ?, ?, ?, ?, ?, ?, now(6), now(6)"
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_XID + " = ?"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " = ?";
+
     /**
      * The constant UPDATE_BRANCH_TRANSACTION_STATUS_MYSQL.
      */
@@ -97,6 +118,12 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
             .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
     }
 
+    @Override
+    public String getQueryGlobalTransactionPageSQLByStatus(String globalTable, String paramsPlaceHolder) {
+        return QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_MYSQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable)
+            .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
+    }
+
     @Override
     public String getQueryGlobalTransactionForRecoverySQL(String globalTable) {
         return QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_MYSQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
@@ -107,6 +134,12 @@ public class MysqlLogStoreSqls extends AbstractLogStoreSqls {
         return INSERT_BRANCH_TRANSACTION_MYSQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
     }
 
+    @Override
+    public String getInsertBranchTransactionIfGlobalStatusSQL(String branchTable, String globalTable) {
+        return INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_MYSQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable)
+            .replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
+    }
+
     @Override
     public String getUpdateBranchTransactionStatusSQL(String branchTable) {
         return UPDATE_BRANCH_TRANSACTION_STATUS_MYSQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
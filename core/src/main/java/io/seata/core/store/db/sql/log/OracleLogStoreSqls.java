@@ -51,6 +51,18 @@ public class OracleLogStoreSqls extends AbstractLogStoreSqls {
             + " ) A"
             + " where ROWNUM <= ?";
 
+    /**
+     * The constant QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_ORACLE.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_ORACLE = "select A.* from ("
+            + " select " + ALL_GLOBAL_COLUMNS
+            + "   from " + GLOBAL_TABLE_PLACEHOLD
+            + "  where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+            + "    and " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " > ?"
+            + "  order by " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID
+            + " ) A"
+            + " where ROWNUM <= ?";
+
     /**
      * The constant QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_ORACLE.
      */
@@ -69,6 +81,17 @@ public class OracleLogStoreSqls extends AbstractLogStoreSqls {
             + "(" + ALL_BRANCH_COLUMNS + ")"
             + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, systimestamp, systimestamp)";
 
+    /**
+     * The constant INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_ORACLE.
+     */
+    public static final String INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_ORACLE = "insert into "
+            + BRANCH_TABLE_PLACEHOLD
+            + "(" + ALL_BRANCH_COLUMNS + ")"
+            + " select ?, ?, ?, ?, ?, ?, ?, ?, ?, systimestamp, systimestamp"
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_XID + " = ?"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " = ?";
+
     /**
      * The constant UPDATE_BRANCH_TRANSACTION_STATUS_ORACLE.
      */
@@ -103,6 +126,12 @@ public class OracleLogStoreSqls extends AbstractLogStoreSqls {
             .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
     }
 
+    @Override
+    public String getQueryGlobalTransactionPageSQLByStatus(String globalTable, String paramsPlaceHolder) {
+        return QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_ORACLE.replace(GLOBAL_TABLE_PLACEHOLD, globalTable)
+            .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
+    }
+
     @Override
     public String getQueryGlobalTransactionForRecoverySQL(String globalTable) {
         return QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_ORACLE.replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
@@ -113,6 +142,12 @@ public class OracleLogStoreSqls extends AbstractLogStoreSqls {
         return INSERT_BRANCH_TRANSACTION_ORACLE.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
     }
 
+    @Override
+    public String getInsertBranchTransactionIfGlobalStatusSQL(String branchTable, String globalTable) {
+        return INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_ORACLE.replace(BRANCH_TABLE_PLACEHOLD, branchTable)
+            .replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
+    }
+
     @Override
     public String getUpdateBranchTransactionStatusSQL(String branchTable) {
         return UPDATE_BRANCH_TRANSACTION_STATUS_ORACLE.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
@@ -49,6 +49,16 @@ public class PostgresqlLogStoreSqls extends AbstractLogStoreSqls {
             + " order by " + ServerTableColumnsName.GLOBAL_TABLE_GMT_MODIFIED
             + " limit ?";
 
+    /**
+     * This constant QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_POSTGRESQL.
+     */
+    public static final String QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_POSTGRESQL = "select " + ALL_GLOBAL_COLUMNS
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " in (" + PRAMETER_PLACEHOLD + ")"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID + " > ?"
+            + " order by " + ServerTableColumnsName.GLOBAL_TABLE_TRANSACTION_ID
+            + " limit ?";
+
     /**
      * The constant QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_POSTGRESQL.
      */
@@ -65,6 +75,17 @@ public class PostgresqlLogStoreSqls extends AbstractLogStoreSqls {
             + "(" + ALL_BRANCH_COLUMNS + ")"
             + " values (?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now())";
 
+    /**
+     * The constant INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_POSTGRESQL.
+     */
+    public static final String INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_POSTGRESQL = "insert into "
+            + BRANCH_TABLE_PLACEHOLD
+            + "(" + ALL_BRANCH_COLUMNS + ")"
+            + " select ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now()"
+            + "  from " + GLOBAL_TABLE_PLACEHOLD
+            + " where " + ServerTableColumnsName.GLOBAL_TABLE_XID + " = ?"
+            + "   and " + ServerTableColumnsName.GLOBAL_TABLE_STATUS + " = ?";
+
     /**
      * The constant UPDATE_BRANCH_TRANSACTION_STATUS_POSTGRESQL.
      */
@@ -100,6 +121,12 @@ public class PostgresqlLogStoreSqls extends AbstractLogStoreSqls {
             .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
     }
 
+    @Override
+    public String getQueryGlobalTransactionPageSQLByStatus(String globalTable, String paramsPlaceHolder) {
+        return QUERY_GLOBAL_TRANSACTION_PAGE_BY_STATUS_POSTGRESQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable)
+            .replace(PRAMETER_PLACEHOLD, paramsPlaceHolder);
+    }
+
     @Override
     public String getQueryGlobalTransactionForRecoverySQL(String globalTable) {
         return QUERY_GLOBAL_TRANSACTION_FOR_RECOVERY_POSTGRESQL.replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
@@ -110,6 +137,12 @@ public class PostgresqlLogStoreSqls extends AbstractLogStoreSqls {
         return INSERT_BRANCH_TRANSACTION_POSTGRESQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
     }
 
+    @Override
+    public String getInsertBranchTransactionIfGlobalStatusSQL(String branchTable, String globalTable) {
+        return INSERT_BRANCH_TRANSACTION_IF_GLOBAL_STATUS_POSTGRESQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable)
+            .replace(GLOBAL_TABLE_PLACEHOLD, globalTable);
+    }
+
     @Override
     public String getUpdateBranchTransactionStatusSQL(String branchTable) {
         return UPDATE_BRANCH_TRANSACTION_STATUS_POSTGRESQL.replace(BRANCH_TABLE_PLACEHOLD, branchTable);
@@ -20,6 +20,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -186,6 +188,29 @@ public class MessageFutureTest {
         }
     }
 
+    @Test
+    public void testToCompletableFuture() {
+        MessageFuture messageFuture = new MessageFuture();
+        CompletableFuture<Object> future = messageFuture.toCompletableFuture();
+        assertThat(future).isNotDone();
+        messageFuture.setResultMessage(BODY_FIELD);
+        assertThat(future.join()).isEqualTo(BODY_FIELD);
+
+        messageFuture = new MessageFuture();
+        future = messageFuture.toCompletableFuture();
+        messageFuture.setResultMessage(new IllegalStateException(BODY_FIELD));
+        assertThat(future).isCompletedExceptionally();
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, future::join);
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+
+        // cleared by the timeout check
+        messageFuture = new MessageFuture();
+        future = messageFuture.toCompletableFuture();
+        messageFuture.setResultMessage(null);
+        exception = Assertions.assertThrows(CompletionException.class, future::join);
+        assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+    }
+
     private RpcMessage buildRepcMessage() {
         RpcMessage rpcMessage = new RpcMessage();
         rpcMessage.setId(ID_FIELD);
@@ -0,0 +1,115 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.netty;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.protocol.RpcMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Merged send basket test.
+ */
+public class MergedSendBasketTest {
+
+    private static final long MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private ScheduledExecutorService sender;
+
+    @BeforeEach
+    public void setUp() {
+        sender = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sender.shutdownNow();
+    }
+
+    @Test
+    public void testNextDelay() {
+        // grows under load up to the max
+        long delay = MergedSendBasket.nextDelayNanos(0L, 5, MAX_DELAY_NANOS);
+        Assertions.assertEquals(MergedSendBasket.MIN_DELAY_NANOS, delay);
+        for (int i = 0; i < 10; i++) {
+            delay = MergedSendBasket.nextDelayNanos(delay, 5, MAX_DELAY_NANOS);
+        }
+        Assertions.assertEquals(MAX_DELAY_NANOS, delay);
+        // drops to zero when idle
+        for (int i = 0; i < 10; i++) {
+            delay = MergedSendBasket.nextDelayNanos(delay, 1, MAX_DELAY_NANOS);
+        }
+        Assertions.assertEquals(0L, delay);
+    }
+
+    @Test
+    public void testAllMessagesFlushed() throws InterruptedException {
+        int threads = 8;
+        int messagesPerThread = 2000;
+        int maxBatchSize = 16;
+        List<List<RpcMessage>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch flushed = new CountDownLatch(threads * messagesPerThread);
+        MergedSendBasket basket = new MergedSendBasket(sender, maxBatchSize, MAX_DELAY_NANOS, batch -> {
+            batches.add(batch);
+            batch.forEach(msg -> flushed.countDown());
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int base = t * messagesPerThread;
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ignore) {
+                }
+                for (int i = 0; i < messagesPerThread; i++) {
+                    RpcMessage rpcMessage = new RpcMessage();
+                    rpcMessage.setId(base + i);
+                    basket.offer(rpcMessage);
+                }
+            }).start();
+        }
+        start.countDown();
+        Assertions.assertTrue(flushed.await(10, TimeUnit.SECONDS));
+
+        Set<Integer> ids = new HashSet<>();
+        for (List<RpcMessage> batch : batches) {
+            Assertions.assertTrue(batch.size() <= maxBatchSize);
+            batch.forEach(msg -> ids.add(msg.getId()));
+        }
+        Assertions.assertEquals(threads * messagesPerThread, ids.size());
+        Assertions.assertTrue(batches.size() < threads * messagesPerThread, "messages are merged under load");
+    }
+
+    @Test
+    public void testIdleMessageSentWithoutDelay() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        MergedSendBasket basket = new MergedSendBasket(sender, 16, MAX_DELAY_NANOS, batch -> flushed.countDown());
+        basket.offer(new RpcMessage());
+        Assertions.assertTrue(flushed.await(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0L, basket.getDelayNanos());
+    }
+}
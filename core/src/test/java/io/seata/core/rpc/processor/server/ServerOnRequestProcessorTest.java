@@ -0,0 +1,257 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.core.rpc.processor.server;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.seata.core.model.BranchType;
+import io.seata.core.protocol.AbstractMessage;
+import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.MergeResultMessage;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.RegisterTMRequest;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
+import io.seata.core.protocol.transaction.BranchRegisterResponse;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.protocol.transaction.GlobalBeginResponse;
+import io.seata.core.rpc.RemotingServer;
+import io.seata.core.rpc.RpcContext;
+import io.seata.core.rpc.TransactionMessageHandler;
+import io.seata.core.rpc.netty.ChannelManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The type Server on request processor test.
+ */
+public class ServerOnRequestProcessorTest {
+
+    private static final int SUB_MESSAGE_COUNT = 4;
+
+    private ExecutorService executor;
+
+    private Channel channel;
+
+    private ChannelHandlerContext ctx;
+
+    private RemotingServer remotingServer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(SUB_MESSAGE_COUNT);
+        channel = mock(Channel.class);
+        when(channel.remoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 8888));
+        ChannelManager.registerTMChannel(new RegisterTMRequest("test-app", "test-group"), channel);
+        ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+        remotingServer = mock(RemotingServer.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ChannelManager.releaseRpcContext(channel);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testMergedRequestInParallel() throws Exception {
+        // every sub request waits for the others, so they must be handled at the same time
+        CyclicBarrier barrier = new CyclicBarrier(SUB_MESSAGE_COUNT);
+        ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer,
+            new EchoMessageHandler(barrier), executor, true);
+        RpcMessage rpcMessage = newMergedRpcMessage();
+
+        processor.process(ctx, rpcMessage);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingServer, timeout(5000)).sendAsyncResponse(eq(rpcMessage), eq(channel), captor.capture());
+        AbstractResultMessage[] results = ((MergeResultMessage)captor.getValue()).getMsgs();
+        Assertions.assertEquals(SUB_MESSAGE_COUNT, results.length);
+        for (int i = 0; i < SUB_MESSAGE_COUNT; i++) {
+            Assertions.assertEquals("tx-" + i, ((GlobalBeginResponse)results[i]).getXid());
+        }
+    }
+
+    @Test
+    public void testMergedRequestInSerial() throws Exception {
+        ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer,
+            new EchoMessageHandler(null), executor, false);
+        RpcMessage rpcMessage = newMergedRpcMessage();
+
+        processor.process(ctx, rpcMessage);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingServer).sendAsyncResponse(eq(rpcMessage), eq(channel), captor.capture());
+        AbstractResultMessage[] results = ((MergeResultMessage)captor.getValue()).getMsgs();
+        for (int i = 0; i < SUB_MESSAGE_COUNT; i++) {
+            Assertions.assertEquals("tx-" + i, ((GlobalBeginResponse)results[i]).getXid());
+        }
+    }
+
+    @Test
+    public void testResponseSentAfterRetry() throws Exception {
+        CompletableFuture<AbstractResultMessage> retry = new CompletableFuture<>();
+        ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer,
+            new EchoMessageHandler(null) {
+                @Override
+                public CompletableFuture<AbstractResultMessage> retryLater(AbstractMessage request,
+                                                                           AbstractResultMessage response,
+                                                                           RpcContext context, Executor executor) {
+                    return "tx-1".equals(((GlobalBeginResponse)response).getXid()) ? retry : null;
+                }
+            }, executor, false);
+        RpcMessage rpcMessage = newMergedRpcMessage();
+
+        processor.process(ctx, rpcMessage);
+
+        // no thread waits for the retry, the merged response is sent once it is over
+        verify(remotingServer, times(0)).sendAsyncResponse(any(), any(), any());
+        GlobalBeginResponse retried = new GlobalBeginResponse();
+        retried.setXid("tx-1-retried");
+        retry.complete(retried);
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingServer).sendAsyncResponse(eq(rpcMessage), eq(channel), captor.capture());
+        AbstractResultMessage[] results = ((MergeResultMessage)captor.getValue()).getMsgs();
+        Assertions.assertEquals("tx-0", ((GlobalBeginResponse)results[0]).getXid());
+        Assertions.assertEquals("tx-1-retried", ((GlobalBeginResponse)results[1]).getXid());
+        Assertions.assertEquals("tx-2", ((GlobalBeginResponse)results[2]).getXid());
+    }
+
+    @Test
+    public void testNoResponseIfSubRequestFailed() throws Exception {
+        TransactionMessageHandler handler = mock(TransactionMessageHandler.class);
+        when(handler.onRequest(any(AbstractMessage.class), any(RpcContext.class)))
+            .thenReturn(new GlobalBeginResponse()).thenThrow(new IllegalStateException("test"));
+        ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer, handler, executor, true);
+
+        processor.process(ctx, newMergedRpcMessage());
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(remotingServer, timeout(100).times(0)).sendAsyncResponse(any(), any(), any());
+    }
+
+    @Test
+    public void testLockRequestsBatchedInParallel() throws Exception {
+        List<List<AbstractMessage>> batches = new CopyOnWriteArrayList<>();
+        ServerOnRequestProcessor processor = new ServerOnRequestProcessor(remotingServer,
+            new EchoMessageHandler(null) {
+                @Override
+                public AbstractResultMessage[] onRequest(List<AbstractMessage> requests, RpcContext context) {
+                    batches.add(requests);
+                    AbstractResultMessage[] results = new AbstractResultMessage[requests.size()];
+                    for (int i = 0; i < results.length; i++) {
+                        BranchRegisterResponse response = new BranchRegisterResponse();
+                        response.setBranchId(((BranchRegisterRequest)requests.get(i)).getBranchType().ordinal());
+                        results[i] = response;
+                    }
+                    return results;
+                }
+            }, executor, true);
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        for (int i = 0; i < SUB_MESSAGE_COUNT; i++) {
+            if (i % 2 == 0) {
+                GlobalBeginRequest request = new GlobalBeginRequest();
+                request.setTransactionName("tx-" + i);
+                mergedWarpMessage.msgs.add(request);
+            } else {
+                BranchRegisterRequest request = new BranchRegisterRequest();
+                request.setBranchType(i == 1 ? BranchType.AT : BranchType.TCC);
+                mergedWarpMessage.msgs.add(request);
+            }
+            mergedWarpMessage.msgIds.add(i);
+        }
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setBody(mergedWarpMessage);
+
+        processor.process(ctx, rpcMessage);
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(remotingServer, timeout(5000)).sendAsyncResponse(eq(rpcMessage), eq(channel), captor.capture());
+        // the two branch registers are handled by one batch, the global begins one by one
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(2, batches.get(0).size());
+        AbstractResultMessage[] results = ((MergeResultMessage)captor.getValue()).getMsgs();
+        Assertions.assertEquals("tx-0", ((GlobalBeginResponse)results[0]).getXid());
+        Assertions.assertEquals(BranchType.AT.ordinal(), ((BranchRegisterResponse)results[1]).getBranchId());
+        Assertions.assertEquals("tx-2", ((GlobalBeginResponse)results[2]).getXid());
+        Assertions.assertEquals(BranchType.TCC.ordinal(), ((BranchRegisterResponse)results[3]).getBranchId());
+    }
+
+    private static RpcMessage newMergedRpcMessage() {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        for (int i = 0; i < SUB_MESSAGE_COUNT; i++) {
+            GlobalBeginRequest request = new GlobalBeginRequest();
+            request.setTransactionName("tx-" + i);
+            mergedWarpMessage.msgs.add(request);
+            mergedWarpMessage.msgIds.add(i);
+        }
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setBody(mergedWarpMessage);
+        return rpcMessage;
+    }
+
+    private static class EchoMessageHandler implements TransactionMessageHandler {
+
+        private final CyclicBarrier barrier;
+
+        EchoMessageHandler(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public AbstractResultMessage onRequest(AbstractMessage request, RpcContext context) {
+            if (barrier != null) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            GlobalBeginResponse response = new GlobalBeginResponse();
+            response.setXid(((GlobalBeginRequest)request).getTransactionName());
+            return response;
+        }
+
+        @Override
+        public void onResponse(AbstractResultMessage response, RpcContext context) {
+        }
+    }
+}
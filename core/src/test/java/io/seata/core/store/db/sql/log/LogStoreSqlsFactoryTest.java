@@ -52,6 +52,8 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = mysqlLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = mysqlLog.getQueryGlobalTransactionPageSQLByStatus(globalTable, "1");
+        Assertions.assertNotNull(sql);
         sql = mysqlLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = mysqlLog.getInsertBranchTransactionSQL(branchTable);
@@ -87,6 +89,8 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = oracleLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = oracleLog.getQueryGlobalTransactionPageSQLByStatus(globalTable, "1");
+        Assertions.assertNotNull(sql);
         sql = oracleLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = oracleLog.getInsertBranchTransactionSQL(branchTable);
@@ -122,6 +126,8 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = pgLog.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = pgLog.getQueryGlobalTransactionPageSQLByStatus(globalTable, "1");
+        Assertions.assertNotNull(sql);
         sql = pgLog.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = pgLog.getInsertBranchTransactionSQL(branchTable);
@@ -157,6 +163,8 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = h2Log.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = h2Log.getQueryGlobalTransactionPageSQLByStatus(globalTable, "1");
+        Assertions.assertNotNull(sql);
         sql = h2Log.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = h2Log.getInsertBranchTransactionSQL(branchTable);
@@ -192,6 +200,8 @@ public class LogStoreSqlsFactoryTest {
         Assertions.assertNotNull(sql);
         sql = oceanbase.getQueryGlobalTransactionSQLByStatus(globalTable, "1");
         Assertions.assertNotNull(sql);
+        sql = oceanbase.getQueryGlobalTransactionPageSQLByStatus(globalTable, "1");
+        Assertions.assertNotNull(sql);
         sql = oceanbase.getQueryGlobalTransactionForRecoverySQL(globalTable);
         Assertions.assertNotNull(sql);
         sql = oceanbase.getInsertBranchTransactionSQL(branchTable);
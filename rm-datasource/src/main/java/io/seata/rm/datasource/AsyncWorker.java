@@ -17,19 +17,21 @@ package io.seata.rm.datasource;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.common.collect.Lists;
 import io.seata.common.thread.NamedThreadFactory;
@@ -41,10 +43,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.core.constants.ConfigurationKeys.CLIENT_ASYNC_COMMIT_WORKER_THREADS;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_THREADS;
 
 /**
  * The type Async worker.
+ * <p>
+ * The committed branches are queued and their undo logs are deleted in jdbc batches of at most
+ * {@link #UNDOLOG_DELETE_LIMIT_SIZE} branches, each batch on its own connection by a pool of delete workers, so the
+ * resources and the batches of a resource are cleaned in parallel. The queue is drained every second, and at once
+ * whenever it holds a full batch, until it is below a batch again. A full queue never blocks the committing thread:
+ * the context is queued again after an urgent drain, as before. The queue depth, delete lag and deleted count are
+ * exposed as accessors only, the client has no metrics registry to report them to.
  *
  * @author sharajava
  */
@@ -59,20 +70,32 @@ public class AsyncWorker {
     private static final int ASYNC_COMMIT_BUFFER_LIMIT = ConfigurationFactory.getInstance().getInt(
         CLIENT_ASYNC_COMMIT_BUFFER_LIMIT, DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT);
 
+    private static final int ASYNC_COMMIT_WORKER_THREADS = Math.max(1, ConfigurationFactory.getInstance().getInt(
+        CLIENT_ASYNC_COMMIT_WORKER_THREADS, DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_THREADS));
+
     private final DataSourceManager dataSourceManager;
 
     private final BlockingQueue<Phase2Context> commitQueue;
 
     private final ScheduledExecutorService scheduledExecutor;
 
+    private final ExecutorService deleteExecutor;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicLong deletedCount = new AtomicLong();
+
     public AsyncWorker(DataSourceManager dataSourceManager) {
         this.dataSourceManager = dataSourceManager;
 
-        LOGGER.info("Async Commit Buffer Limit: {}", ASYNC_COMMIT_BUFFER_LIMIT);
+        LOGGER.info("Async Commit Buffer Limit: {}, Worker Threads: {}", ASYNC_COMMIT_BUFFER_LIMIT,
+            ASYNC_COMMIT_WORKER_THREADS);
         commitQueue = new LinkedBlockingQueue<>(ASYNC_COMMIT_BUFFER_LIMIT);
 
-        ThreadFactory threadFactory = new NamedThreadFactory("AsyncWorker", 2, true);
-        scheduledExecutor = new ScheduledThreadPoolExecutor(2, threadFactory);
+        deleteExecutor = new ThreadPoolExecutor(ASYNC_COMMIT_WORKER_THREADS, ASYNC_COMMIT_WORKER_THREADS,
+            Integer.MAX_VALUE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("AsyncWorkerDelete", ASYNC_COMMIT_WORKER_THREADS, true));
+        scheduledExecutor = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("AsyncWorker", 1, true));
         scheduledExecutor.scheduleAtFixedRate(this::doBranchCommitSafely, 10, 1000, TimeUnit.MILLISECONDS);
     }
 
@@ -83,18 +106,57 @@ public class AsyncWorker {
     }
 
     /**
-     * try add context to commitQueue directly, if fail(which means the queue is full),
-     * then doBranchCommit urgently(so that the queue could be empty again) and retry this process.
+     * Get the count of the queued branches whose undo logs are not deleted yet.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return commitQueue.size();
+    }
+
+    /**
+     * Get how long the oldest queued branch has been waiting for the undo log deletion.
+     *
+     * @return the delete lag in milliseconds
+     */
+    public long getDeleteLag() {
+        Phase2Context oldest = commitQueue.peek();
+        return oldest == null ? 0L : Math.max(0L, System.currentTimeMillis() - oldest.queuedTime);
+    }
+
+    /**
+     * Get the count of the branches whose undo logs are deleted.
+     *
+     * @return the deleted count
+     */
+    public long getDeletedCount() {
+        return deletedCount.get();
+    }
+
+    /**
+     * try add context to commitQueue directly, and drain the queue at once if it holds a full batch.
+     * if fail(which means the queue is full), then doBranchCommit urgently(so that the queue could be empty again)
+     * and retry this process.
      */
     private void addToCommitQueue(Phase2Context context) {
         if (commitQueue.offer(context)) {
+            if (commitQueue.size() >= UNDOLOG_DELETE_LIMIT_SIZE) {
+                scheduleDrain();
+            }
             return;
         }
         CompletableFuture.runAsync(this::doBranchCommitSafely, scheduledExecutor)
                 .thenRun(() -> addToCommitQueue(context));
     }
 
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            scheduledExecutor.execute(this::doBranchCommitSafely);
+        }
+    }
+
     void doBranchCommitSafely() {
+        drainScheduled.set(false);
         try {
             doBranchCommit();
         } catch (Throwable e) {
@@ -103,18 +165,23 @@ public class AsyncWorker {
     }
 
     private void doBranchCommit() {
-        if (commitQueue.isEmpty()) {
-            return;
-        }
+        do {
+            if (commitQueue.isEmpty()) {
+                return;
+            }
 
-        // transfer all context currently received to this list
-        List<Phase2Context> allContexts = new LinkedList<>();
-        commitQueue.drainTo(allContexts);
+            // transfer all context currently received to this list
+            List<Phase2Context> allContexts = new ArrayList<>(commitQueue.size());
+            commitQueue.drainTo(allContexts);
 
-        // group context by their resourceId
-        Map<String, List<Phase2Context>> groupedContexts = groupedByResourceId(allContexts);
+            // group context by their resourceId
+            Map<String, List<Phase2Context>> groupedContexts = groupedByResourceId(allContexts);
 
-        groupedContexts.forEach(this::dealWithGroupedContexts);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            groupedContexts.forEach((resourceId, contexts) -> futures.addAll(dealWithGroupedContexts(resourceId, contexts)));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            // keep on draining while the branches are committed faster than a batch per round
+        } while (commitQueue.size() >= UNDOLOG_DELETE_LIMIT_SIZE);
     }
 
     Map<String, List<Phase2Context>> groupedByResourceId(List<Phase2Context> contexts) {
@@ -126,41 +193,46 @@ public class AsyncWorker {
         return groupedContexts;
     }
 
-    private void dealWithGroupedContexts(String resourceId, List<Phase2Context> contexts) {
+    private List<CompletableFuture<Void>> dealWithGroupedContexts(String resourceId, List<Phase2Context> contexts) {
         DataSourceProxy dataSourceProxy = dataSourceManager.get(resourceId);
         if (dataSourceProxy == null) {
             LOGGER.warn("Failed to find resource for {}", resourceId);
-            return;
+            return new ArrayList<>();
         }
 
+        UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType());
+
+        // split contexts into several lists, with each list contain no more element than limit size
+        List<List<Phase2Context>> splitByLimit = Lists.partition(contexts, UNDOLOG_DELETE_LIMIT_SIZE);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(splitByLimit.size());
+        splitByLimit.forEach(partition -> futures.add(CompletableFuture.runAsync(
+            () -> deleteUndoLog(dataSourceProxy, undoLogManager, partition), deleteExecutor)));
+        return futures;
+    }
+
+    private void deleteUndoLog(DataSourceProxy dataSourceProxy, UndoLogManager undoLogManager,
+                               List<Phase2Context> contexts) {
         Connection conn;
         try {
             conn = dataSourceProxy.getPlainConnection();
         } catch (SQLException sqle) {
-            LOGGER.error("Failed to get connection for async committing on {}", resourceId, sqle);
+            LOGGER.error("Failed to get connection for async committing on {}", dataSourceProxy.getResourceId(), sqle);
             return;
         }
 
-        UndoLogManager undoLogManager = UndoLogManagerFactory.getUndoLogManager(dataSourceProxy.getDbType());
-
-        // split contexts into several lists, with each list contain no more element than limit size
-        List<List<Phase2Context>> splitByLimit = Lists.partition(contexts, UNDOLOG_DELETE_LIMIT_SIZE);
-        splitByLimit.forEach(partition -> deleteUndoLog(conn, undoLogManager, partition));
-    }
-
-    private void deleteUndoLog(Connection conn, UndoLogManager undoLogManager, List<Phase2Context> contexts) {
-        Set<String> xids = new LinkedHashSet<>(contexts.size());
-        Set<Long> branchIds = new LinkedHashSet<>(contexts.size());
+        List<String> xids = new ArrayList<>(contexts.size());
+        List<Long> branchIds = new ArrayList<>(contexts.size());
         contexts.forEach(context -> {
             xids.add(context.xid);
             branchIds.add(context.branchId);
         });
 
         try {
-            undoLogManager.batchDeleteUndoLog(xids, branchIds, conn);
+            undoLogManager.deleteUndoLogs(xids, branchIds, conn);
             if (!conn.getAutoCommit()) {
                 conn.commit();
             }
+            deletedCount.addAndGet(contexts.size());
         } catch (SQLException e) {
             LOGGER.error("Failed to batch delete undo log", e);
             try {
@@ -189,6 +261,7 @@ public class AsyncWorker {
             this.xid = xid;
             this.branchId = branchId;
             this.resourceId = resourceId;
+            this.queuedTime = System.currentTimeMillis();
         }
 
         /**
@@ -203,5 +276,9 @@ public class AsyncWorker {
          * The Resource id.
          */
         String resourceId;
+        /**
+         * The time the context is queued.
+         */
+        long queuedTime;
     }
 }
@@ -105,6 +105,15 @@ public class DataSourceManager extends AbstractResourceManager {
         return (DataSourceProxy) dataSourceCache.get(resourceId);
     }
 
+    /**
+     * Get the async worker deleting the undo logs of the committed branches.
+     *
+     * @return the async worker
+     */
+    public AsyncWorker getAsyncWorker() {
+        return asyncWorker;
+    }
+
     @Override
     public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
                                      String applicationData) throws TransactionException {
@@ -16,19 +16,33 @@
 package io.seata.rm.datasource;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
 import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
 import io.seata.rm.DefaultResourceManager;
+import io.seata.rm.datasource.sql.struct.TableMetaCache;
 import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
 import io.seata.rm.datasource.util.JdbcUtils;
 import io.seata.sqlparser.util.JdbcConstants;
@@ -37,6 +51,8 @@ import org.slf4j.LoggerFactory;
 
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_CHECKER_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_PRELOAD_TABLES;
+import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_PRELOAD_THREADS;
 
 /**
  * The type Data source proxy.
@@ -69,6 +85,19 @@ public class DataSourceProxy extends AbstractDataSourceProxy implements Resource
     private static final long TABLE_META_CHECKER_INTERVAL = ConfigurationFactory.getInstance().getLong(
             ConfigurationKeys.CLIENT_TABLE_META_CHECKER_INTERVAL, DEFAULT_TABLE_META_CHECKER_INTERVAL);
 
+    /**
+     * The tables whose table metas are loaded at init, "*" for all the tables of the current schema and "schema.*"
+     * for all the tables of the schema
+     */
+    private static final List<String> TABLE_META_PRELOAD_TABLES = parseTables(ConfigurationFactory.getInstance()
+        .getConfig(ConfigurationKeys.CLIENT_TABLE_META_PRELOAD_TABLES, DEFAULT_TABLE_META_PRELOAD_TABLES));
+
+    /**
+     * The threads loading the table metas at init
+     */
+    private static final int TABLE_META_PRELOAD_THREADS = Math.max(1, ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.CLIENT_TABLE_META_PRELOAD_THREADS, DEFAULT_TABLE_META_PRELOAD_THREADS));
+
     private final ScheduledExecutorService tableMetaExcutor = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("tableMetaChecker", 1, true));
 
@@ -108,6 +137,9 @@ public class DataSourceProxy extends AbstractDataSourceProxy implements Resource
             throw new IllegalStateException("can not init dataSource", e);
         }
         DefaultResourceManager.get().registerResource(this);
+        if (!TABLE_META_PRELOAD_TABLES.isEmpty()) {
+            preloadTableMeta(TABLE_META_PRELOAD_TABLES);
+        }
         if (ENABLE_TABLE_META_CHECKER_ENABLE) {
             tableMetaExcutor.scheduleAtFixedRate(() -> {
                 try (Connection connection = dataSource.getConnection()) {
@@ -122,6 +154,113 @@ public class DataSourceProxy extends AbstractDataSourceProxy implements Resource
         RootContext.setDefaultBranchType(this.getBranchType());
     }
 
+    /**
+     * Load the table metas of the tables into the cache in parallel, each loading thread on its own connection.
+     *
+     * @param tables the tables, "*" for all the tables of the current schema and "schema.*" for all the tables
+     *               of the schema
+     * @return the count of the loaded table metas
+     */
+    int preloadTableMeta(List<String> tables) {
+        long start = System.currentTimeMillis();
+        List<String> tableNames;
+        try (Connection connection = targetDataSource.getConnection()) {
+            tableNames = resolveTableNames(connection, tables);
+        } catch (SQLException e) {
+            LOGGER.warn("Failed to resolve the tables to preload the table meta of {}: {}", getResourceId(),
+                e.getMessage());
+            return 0;
+        }
+        if (tableNames.isEmpty()) {
+            return 0;
+        }
+
+        TableMetaCache tableMetaCache = TableMetaCacheFactory.getTableMetaCache(getDbType());
+        String resourceId = getResourceId();
+        int threads = Math.min(TABLE_META_PRELOAD_THREADS, tableNames.size());
+        ExecutorService executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory("tableMetaPreloader", threads, true));
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            CompletableFuture<?>[] futures = new CompletableFuture[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try (Connection connection = targetDataSource.getConnection()) {
+                        int index;
+                        while ((index = next.getAndIncrement()) < tableNames.size()) {
+                            String tableName = tableNames.get(index);
+                            try {
+                                tableMetaCache.getTableMeta(connection, tableName, resourceId);
+                                loaded.incrementAndGet();
+                            } catch (Exception e) {
+                                LOGGER.warn("Failed to preload the table meta of {}: {}", tableName, e.getMessage());
+                            }
+                        }
+                    } catch (SQLException e) {
+                        LOGGER.warn("Failed to get connection to preload the table meta of {}: {}", resourceId,
+                            e.getMessage());
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+        LOGGER.info("Preloaded {} of {} table metas of {} in {} ms", loaded.get(), tableNames.size(), resourceId,
+            System.currentTimeMillis() - start);
+        return loaded.get();
+    }
+
+    private List<String> resolveTableNames(Connection connection, List<String> tables) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        for (String table : tables) {
+            if (!"*".equals(table) && !table.endsWith(".*")) {
+                tableNames.add(table);
+                continue;
+            }
+            String schema = "*".equals(table) ? null : table.substring(0, table.length() - 2);
+            DatabaseMetaData dbmd = connection.getMetaData();
+            // mysql calls the schema a catalog
+            boolean byCatalog = JdbcConstants.MYSQL.equals(dbType) || JdbcConstants.MARIADB.equals(dbType);
+            String catalog = byCatalog ? (schema == null ? connection.getCatalog() : schema) : null;
+            String schemaPattern = byCatalog ? null : (schema == null ? currentSchema(connection) : schema);
+            try (ResultSet rs = dbmd.getTables(catalog, schemaPattern, "%", new String[] {"TABLE"})) {
+                while (rs.next()) {
+                    String tableName = quoteIfNeeded(rs.getString("TABLE_NAME"));
+                    tableNames.add(schema == null ? tableName : schema + "." + tableName);
+                }
+            }
+        }
+        return tableNames;
+    }
+
+    private String currentSchema(Connection connection) throws SQLException {
+        if (JdbcConstants.ORACLE.equals(dbType)) {
+            return connection.getMetaData().getUserName();
+        }
+        return connection.getSchema();
+    }
+
+    /**
+     * quote the table names not in the default case of oracle and postgresql, so they are not folded
+     */
+    private String quoteIfNeeded(String tableName) {
+        if (JdbcConstants.ORACLE.equals(dbType) && !tableName.equals(tableName.toUpperCase())
+            || JdbcConstants.POSTGRESQL.equals(dbType) && !tableName.equals(tableName.toLowerCase())) {
+            return "\"" + tableName + "\"";
+        }
+        return tableName;
+    }
+
+    private static List<String> parseTables(String tables) {
+        if (StringUtils.isBlank(tables)) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(tables.split(",")).map(String::trim).filter(StringUtils::isNotBlank)
+            .collect(Collectors.toList());
+    }
+
     /**
      * Gets plain connection.
      *
@@ -15,14 +15,21 @@
  */
 package io.seata.rm.datasource.sql;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.sqlparser.SQLRecognizer;
 import io.seata.sqlparser.SQLRecognizerFactory;
 import io.seata.sqlparser.SqlParserType;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SQL_RECOGNIZER_CACHE_SIZE;
 
 /**
  * @author ggndnn
@@ -33,9 +40,20 @@ public class SQLVisitorFactory {
      */
     private final static SQLRecognizerFactory SQL_RECOGNIZER_FACTORY;
 
+    /**
+     * The recognizers of the parsed sql, weighed by the sql length. The recognizers only read their ast after
+     * being created, so they are shared by all the statements of the same sql.
+     */
+    private final static Cache<RecognizerKey, List<SQLRecognizer>> SQL_RECOGNIZER_CACHE;
+
     static {
-        String sqlparserType = ConfigurationFactory.getInstance().getConfig(ConfigurationKeys.SQL_PARSER_TYPE, SqlParserType.SQL_PARSER_TYPE_DRUID);
+        Configuration config = ConfigurationFactory.getInstance();
+        String sqlparserType = config.getConfig(ConfigurationKeys.SQL_PARSER_TYPE, SqlParserType.SQL_PARSER_TYPE_DRUID);
         SQL_RECOGNIZER_FACTORY = EnhancedServiceLoader.load(SQLRecognizerFactory.class, sqlparserType);
+        int cacheSize = config.getInt(ConfigurationKeys.CLIENT_SQL_RECOGNIZER_CACHE_SIZE,
+            DEFAULT_CLIENT_SQL_RECOGNIZER_CACHE_SIZE);
+        SQL_RECOGNIZER_CACHE = cacheSize <= 0 ? null : Caffeine.newBuilder().maximumWeight(cacheSize)
+            .weigher((RecognizerKey key, List<SQLRecognizer> value) -> key.sql.length()).recordStats().build();
     }
 
     /**
@@ -46,8 +64,60 @@ public class SQLVisitorFactory {
      * @return the sql recognizer
      */
     public static List<SQLRecognizer> get(String sql, String dbType) {
-        return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        if (SQL_RECOGNIZER_CACHE == null) {
+            return SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+        }
+        List<SQLRecognizer> recognizers = SQL_RECOGNIZER_CACHE.get(new RecognizerKey(dbType, sql), key -> {
+            List<SQLRecognizer> created = SQL_RECOGNIZER_FACTORY.create(sql, dbType);
+            return created == null ? Collections.emptyList() : Collections.unmodifiableList(created);
+        });
+        return recognizers.isEmpty() ? null : recognizers;
     }
 
+    /**
+     * Get the number of the sql found in the recognizer cache.
+     *
+     * @return the hit count
+     */
+    public static long getCacheHitCount() {
+        return SQL_RECOGNIZER_CACHE == null ? 0L : SQL_RECOGNIZER_CACHE.stats().hitCount();
+    }
 
+    /**
+     * Get the number of the sql parsed because they are not in the recognizer cache.
+     *
+     * @return the miss count
+     */
+    public static long getCacheMissCount() {
+        return SQL_RECOGNIZER_CACHE == null ? 0L : SQL_RECOGNIZER_CACHE.stats().missCount();
+    }
+
+    private static final class RecognizerKey {
+
+        private final String dbType;
+
+        private final String sql;
+
+        RecognizerKey(String dbType, String sql) {
+            this.dbType = dbType;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RecognizerKey)) {
+                return false;
+            }
+            RecognizerKey that = (RecognizerKey)o;
+            return sql.equals(that.sql) && Objects.equals(dbType, that.dbType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Objects.hashCode(dbType);
+        }
+    }
 }
@@ -17,7 +17,10 @@ package io.seata.rm.datasource.sql.struct.cache;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
@@ -47,6 +50,10 @@ public abstract class AbstractTableMetaCache implements TableMetaCache {
     private static final Cache<String, TableMeta> TABLE_META_CACHE = Caffeine.newBuilder().maximumSize(CACHE_SIZE)
             .expireAfterWrite(EXPIRE_TIME, TimeUnit.MILLISECONDS).softValues().build();
 
+    /**
+     * the definition versions of the cached tables, by the cache key
+     */
+    private static final ConcurrentMap<String, String> TABLE_VERSIONS = new ConcurrentHashMap<>();
 
     @Override
     public TableMeta getTableMeta(final Connection connection, final String tableName, String resourceId) {
@@ -74,21 +81,59 @@ public abstract class AbstractTableMetaCache implements TableMetaCache {
 
     @Override
     public void refresh(final Connection connection, String resourceId) {
+        Map<String, String> tableVersions = fetchTableVersionsSafely(connection);
         ConcurrentMap<String, TableMeta> tableMetaMap = TABLE_META_CACHE.asMap();
         for (Map.Entry<String, TableMeta> entry : tableMetaMap.entrySet()) {
-            String key = getCacheKey(connection, entry.getValue().getTableName(), resourceId);
+            String tableName = entry.getValue().getTableName();
+            String key = getCacheKey(connection, tableName, resourceId);
             if (entry.getKey().equals(key)) {
+                // the versions cover the tables of the current schema only, the cache key ends with the table name
+                String version = tableName.contains(".") ? null
+                    : tableVersions.get(key.substring(resourceId.length() + 1));
+                if (version != null && version.equals(TABLE_VERSIONS.get(key))) {
+                    continue;
+                }
                 try {
-                    TableMeta tableMeta = fetchSchema(connection, entry.getValue().getTableName());
+                    TableMeta tableMeta = fetchSchema(connection, tableName);
                     if (!tableMeta.equals(entry.getValue())) {
                         TABLE_META_CACHE.put(entry.getKey(), tableMeta);
                         LOGGER.info("table meta change was found, update table meta cache automatically.");
                     }
+                    if (version != null) {
+                        TABLE_VERSIONS.put(key, version);
+                    } else {
+                        TABLE_VERSIONS.remove(key);
+                    }
                 } catch (SQLException e) {
                     LOGGER.error("get table meta error:{}", e.getMessage(), e);
                 }
             }
         }
+        TABLE_VERSIONS.keySet().removeIf(key -> !tableMetaMap.containsKey(key));
+    }
+
+    private Map<String, String> fetchTableVersionsSafely(Connection connection) {
+        try {
+            Map<String, String> tableVersions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            tableVersions.putAll(fetchTableVersions(connection));
+            return tableVersions;
+        } catch (Exception e) {
+            LOGGER.warn("get table versions error, refresh all the cached tables: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Fetch the versions of the table definitions of the current schema in one query, the refresh skips the
+     * cached tables whose version is unchanged since the last refresh, and fetches the others.
+     * By default no version is known and all the cached tables are fetched.
+     *
+     * @param connection the connection
+     * @return the versions by the table name
+     * @throws SQLException the sql exception
+     */
+    protected Map<String, String> fetchTableVersions(Connection connection) throws SQLException {
+        return Collections.emptyMap();
     }
 
     /**
@@ -21,6 +21,8 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.exception.ShouldNeverHappenException;
@@ -44,6 +46,18 @@ public class MysqlTableMetaCache extends AbstractTableMetaCache {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MysqlTableMetaCache.class);
 
+    /**
+     * the digests of the column and index definitions, mysql keeps no timestamp of the instant alters
+     */
+    private static final String TABLE_VERSIONS_SQL = "SELECT TABLE_NAME, CONCAT(COUNT(*), ':', SUM(CRC32(DEFINITION)))"
+        + " FROM (SELECT TABLE_NAME, CONCAT_WS(',', 'COLUMN', COLUMN_NAME, ORDINAL_POSITION, COLUMN_TYPE, IS_NULLABLE,"
+        + " COLUMN_KEY, EXTRA, IFNULL(COLUMN_DEFAULT, '')) AS DEFINITION"
+        + " FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()"
+        + " UNION ALL"
+        + " SELECT TABLE_NAME, CONCAT_WS(',', 'INDEX', INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, IFNULL(COLUMN_NAME, ''),"
+        + " INDEX_TYPE) AS DEFINITION"
+        + " FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = DATABASE()) T GROUP BY TABLE_NAME";
+
     @Override
     protected String getCacheKey(Connection connection, String tableName, String resourceId) {
         StringBuilder cacheKey = new StringBuilder(resourceId);
@@ -75,6 +89,18 @@ public class MysqlTableMetaCache extends AbstractTableMetaCache {
         return cacheKey.toString();
     }
 
+    @Override
+    protected Map<String, String> fetchTableVersions(Connection connection) throws SQLException {
+        Map<String, String> tableVersions = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(TABLE_VERSIONS_SQL)) {
+            while (rs.next()) {
+                tableVersions.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return tableVersions;
+    }
+
     @Override
     protected TableMeta fetchSchema(Connection connection, String tableName) throws SQLException {
         String sql = "SELECT * FROM " + ColumnUtils.addEscape(tableName, JdbcConstants.MYSQL) + " LIMIT 1";
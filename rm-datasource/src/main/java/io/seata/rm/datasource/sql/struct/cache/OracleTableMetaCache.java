@@ -19,6 +19,9 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.exception.ShouldNeverHappenException;
@@ -38,6 +41,15 @@ import io.seata.sqlparser.util.JdbcConstants;
 @LoadLevel(name = JdbcConstants.ORACLE)
 public class OracleTableMetaCache extends AbstractTableMetaCache {
 
+    /**
+     * the last ddl times of the tables and of their indexes, creating an index leaves the time of the table as is
+     */
+    private static final String TABLE_VERSIONS_SQL = "SELECT T.OBJECT_NAME, TO_CHAR(T.LAST_DDL_TIME, 'YYYYMMDDHH24MISS')"
+        + " || ':' || COUNT(I.OBJECT_NAME) || ':' || TO_CHAR(MAX(I.LAST_DDL_TIME), 'YYYYMMDDHH24MISS')"
+        + " FROM USER_OBJECTS T LEFT JOIN USER_INDEXES X ON X.TABLE_NAME = T.OBJECT_NAME"
+        + " LEFT JOIN USER_OBJECTS I ON I.OBJECT_NAME = X.INDEX_NAME AND I.OBJECT_TYPE = 'INDEX'"
+        + " WHERE T.OBJECT_TYPE = 'TABLE' GROUP BY T.OBJECT_NAME, T.LAST_DDL_TIME";
+
     @Override
     protected String getCacheKey(Connection connection, String tableName, String resourceId) {
         StringBuilder cacheKey = new StringBuilder(resourceId);
@@ -58,6 +70,18 @@ public class OracleTableMetaCache extends AbstractTableMetaCache {
         return cacheKey.toString();
     }
 
+    @Override
+    protected Map<String, String> fetchTableVersions(Connection connection) throws SQLException {
+        Map<String, String> tableVersions = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(TABLE_VERSIONS_SQL)) {
+            while (rs.next()) {
+                tableVersions.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return tableVersions;
+    }
+
     @Override
     protected TableMeta fetchSchema(Connection connection, String tableName) throws SQLException {
         try {
@@ -19,6 +19,9 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.exception.ShouldNeverHappenException;
@@ -38,6 +41,17 @@ import io.seata.sqlparser.util.JdbcConstants;
 @LoadLevel(name = JdbcConstants.POSTGRESQL)
 public class PostgresqlTableMetaCache extends AbstractTableMetaCache {
 
+    /**
+     * the digests of the column and index definitions, postgresql keeps no timestamp of the ddl
+     */
+    private static final String TABLE_VERSIONS_SQL = "SELECT table_name, md5(string_agg(definition, ';'"
+        + " ORDER BY definition)) FROM (SELECT table_name::text AS table_name, concat_ws(',', 'column', column_name,"
+        + " ordinal_position, data_type, character_maximum_length, numeric_precision, numeric_scale, is_nullable,"
+        + " column_default) AS definition FROM information_schema.columns WHERE table_schema = current_schema()"
+        + " UNION ALL"
+        + " SELECT tablename::text, concat_ws(',', 'index', indexname, indexdef) FROM pg_indexes"
+        + " WHERE schemaname = current_schema()) t GROUP BY table_name";
+
     @Override
     protected String getCacheKey(Connection connection, String tableName, String resourceId) {
         StringBuilder cacheKey = new StringBuilder(resourceId);
@@ -58,6 +72,18 @@ public class PostgresqlTableMetaCache extends AbstractTableMetaCache {
         return cacheKey.toString();
     }
 
+    @Override
+    protected Map<String, String> fetchTableVersions(Connection connection) throws SQLException {
+        Map<String, String> tableVersions = new HashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(TABLE_VERSIONS_SQL)) {
+            while (rs.next()) {
+                tableVersions.put(rs.getString(1), rs.getString(2));
+            }
+        }
+        return tableVersions;
+    }
+
     @Override
     protected TableMeta fetchSchema(Connection connection, String tableName) throws SQLException {
         try {
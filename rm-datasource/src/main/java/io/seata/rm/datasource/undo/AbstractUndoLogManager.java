@@ -20,11 +20,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import io.seata.common.Constants;
 import io.seata.common.util.CollectionUtils;
@@ -41,6 +43,7 @@ import io.seata.rm.datasource.ConnectionProxy;
 import io.seata.rm.datasource.DataSourceProxy;
 import io.seata.rm.datasource.sql.struct.TableMeta;
 import io.seata.rm.datasource.sql.struct.TableMetaCacheFactory;
+import io.seata.rm.datasource.undo.parser.BinaryUndoLogParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -98,6 +101,11 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     protected static final long ROLLBACK_INFO_COMPRESS_THRESHOLD = SizeUtil.size2Long(ConfigurationFactory.getInstance().getConfig(
             ConfigurationKeys.CLIENT_UNDO_COMPRESS_THRESHOLD, DEFAULT_CLIENT_UNDO_COMPRESS_THRESHOLD));
 
+    /**
+     * The chunk index of an undo log that is not chunked, it is inserted without the chunk_index column.
+     */
+    protected static final int NO_CHUNK_INDEX = -1;
+
     private static final ThreadLocal<String> SERIALIZER_LOCAL = new ThreadLocal<>();
 
     public static String getCurrentSerializer() {
@@ -169,6 +177,26 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         }
     }
 
+    @Override
+    public void deleteUndoLogs(List<String> xids, List<Long> branchIds, Connection conn) throws SQLException {
+        if (CollectionUtils.isEmpty(xids)) {
+            return;
+        }
+        try (PreparedStatement deletePST = conn.prepareStatement(DELETE_UNDO_LOG_SQL)) {
+            for (int i = 0; i < xids.size(); i++) {
+                deletePST.setLong(1, branchIds.get(i));
+                deletePST.setString(2, xids.get(i));
+                deletePST.addBatch();
+            }
+            deletePST.executeBatch();
+        } catch (Exception e) {
+            if (!(e instanceof SQLException)) {
+                e = new SQLException(e);
+            }
+            throw (SQLException) e;
+        }
+    }
+
     protected static String toBatchDeleteUndoLogSql(int xidSize, int branchIdSize) {
         StringBuilder sqlBuilder = new StringBuilder(64);
         sqlBuilder.append("DELETE FROM ").append(UNDO_LOG_TABLE_NAME).append(" WHERE  ").append(
@@ -201,6 +229,14 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         return CollectionUtils.encodeMap(map);
     }
 
+    protected String buildContext(String serializer, CompressorType compressorType, int chunkIndex) {
+        Map<String, String> map = new HashMap<>();
+        map.put(UndoLogConstants.SERIALIZER_KEY, serializer);
+        map.put(UndoLogConstants.COMPRESSOR_TYPE_KEY, compressorType.name());
+        map.put(UndoLogConstants.CHUNK_INDEX_KEY, String.valueOf(chunkIndex));
+        return CollectionUtils.encodeMap(map);
+    }
+
     protected Map<String, String> parseContext(String data) {
         return CollectionUtils.decodeMap(data);
     }
@@ -213,6 +249,17 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
      */
     @Override
     public void flushUndoLogs(ConnectionProxy cp) throws SQLException {
+        flushUndoLogs(cp, UndoLogChunks.CHUNK_ENABLE ? UndoLogChunks.CHUNK_SIZE : 0);
+    }
+
+    /**
+     * Flush undo logs, as one undo_log row per chunk of at most chunkSize rows if they do not fit in one chunk.
+     *
+     * @param cp        the cp
+     * @param chunkSize the max rows of a chunk, 0 to flush the undo logs as one row
+     * @throws SQLException the sql exception
+     */
+    protected void flushUndoLogs(ConnectionProxy cp, int chunkSize) throws SQLException {
         ConnectionContext connectionContext = cp.getContext();
         if (!connectionContext.hasUndoLog()) {
             return;
@@ -220,17 +267,38 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
 
         String xid = connectionContext.getXid();
         long branchId = connectionContext.getBranchId();
+        UndoLogParser parser = UndoLogParserFactory.getInstance();
 
+        if (chunkSize > 0) {
+            List<List<SQLUndoLog>> chunks = UndoLogChunks.chunk(connectionContext.getUndoItems(), chunkSize);
+            if (chunks.size() > 1) {
+                // each chunk is encoded right before its row is inserted
+                for (int chunkIndex = 0; chunkIndex < chunks.size(); chunkIndex++) {
+                    flushUndoLog(xid, branchId, chunkIndex, chunks.get(chunkIndex), parser,
+                        cp.getTargetConnection());
+                }
+                return;
+            }
+        }
+        flushUndoLog(xid, branchId, NO_CHUNK_INDEX, connectionContext.getUndoItems(), parser, cp.getTargetConnection());
+    }
+
+    private void flushUndoLog(String xid, long branchId, int chunkIndex, List<SQLUndoLog> sqlUndoLogs,
+                              UndoLogParser parser, Connection conn) throws SQLException {
         BranchUndoLog branchUndoLog = new BranchUndoLog();
         branchUndoLog.setXid(xid);
         branchUndoLog.setBranchId(branchId);
-        branchUndoLog.setSqlUndoLogs(connectionContext.getUndoItems());
+        branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
 
-        UndoLogParser parser = UndoLogParserFactory.getInstance();
         byte[] undoLogContent = parser.encode(branchUndoLog);
 
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
+            if (BinaryUndoLogParser.NAME.equals(parser.getName())) {
+                // the binary format is not readable as text
+                LOGGER.debug("Flushing UNDO LOG of {} bytes", undoLogContent.length);
+            } else {
+                LOGGER.debug("Flushing UNDO LOG: {}", new String(undoLogContent, Constants.DEFAULT_CHARSET));
+            }
         }
 
         CompressorType compressorType = CompressorType.NONE;
@@ -239,7 +307,13 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
             undoLogContent = CompressorFactory.getCompressor(compressorType.getCode()).compress(undoLogContent);
         }
 
-        insertUndoLogWithNormal(xid, branchId, buildContext(parser.getName(), compressorType), undoLogContent, cp.getTargetConnection());
+        if (chunkIndex == NO_CHUNK_INDEX) {
+            insertUndoLogWithNormal(xid, branchId, buildContext(parser.getName(), compressorType), undoLogContent,
+                conn);
+        } else {
+            insertUndoLogChunkWithNormal(xid, branchId, chunkIndex,
+                buildContext(parser.getName(), compressorType, chunkIndex), undoLogContent, conn);
+        }
     }
 
     /**
@@ -273,6 +347,8 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
                 rs = selectPST.executeQuery();
 
                 boolean exists = false;
+                // the chunks of the branch in the reverse order, they are replayed after all rows are read
+                TreeMap<Integer, Map.Entry<Map<String, String>, byte[]>> chunks = null;
                 while (rs.next()) {
                     exists = true;
 
@@ -289,31 +365,24 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
 
                     String contextString = rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT);
                     Map<String, String> context = parseContext(contextString);
-                    byte[] rollbackInfo = getRollbackInfo(rs);
-
-                    String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
-                    UndoLogParser parser = serializer == null ? UndoLogParserFactory.getInstance()
-                        : UndoLogParserFactory.getInstance(serializer);
-                    BranchUndoLog branchUndoLog = parser.decode(rollbackInfo);
-
-                    try {
-                        // put serializer name to local
-                        setCurrentSerializer(parser.getName());
-                        List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
-                        if (sqlUndoLogs.size() > 1) {
-                            Collections.reverse(sqlUndoLogs);
+                    String chunkIndex = context == null ? null : context.get(UndoLogConstants.CHUNK_INDEX_KEY);
+                    if (chunkIndex != null) {
+                        // keep the chunk as it is stored, it is decompressed when it is replayed
+                        if (chunks == null) {
+                            chunks = new TreeMap<>(Collections.reverseOrder());
                         }
-                        for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
-                            TableMeta tableMeta = TableMetaCacheFactory.getTableMetaCache(dataSourceProxy.getDbType()).getTableMeta(
-                                conn, sqlUndoLog.getTableName(), dataSourceProxy.getResourceId());
-                            sqlUndoLog.setTableMeta(tableMeta);
-                            AbstractUndoExecutor undoExecutor = UndoExecutorFactory.getUndoExecutor(
-                                dataSourceProxy.getDbType(), sqlUndoLog);
-                            undoExecutor.executeOn(conn);
-                        }
-                    } finally {
-                        // remove serializer name
-                        removeCurrentSerializer();
+                        chunks.put(Integer.parseInt(chunkIndex), new AbstractMap.SimpleImmutableEntry<>(context,
+                            rs.getBytes(ClientTableColumnsName.UNDO_LOG_ROLLBACK_INFO)));
+                        continue;
+                    }
+                    executeUndoLogs(dataSourceProxy, conn, context, getRollbackInfo(rs));
+                }
+                if (chunks != null) {
+                    while (!chunks.isEmpty()) {
+                        // drop each chunk once it is replayed
+                        Map.Entry<Map<String, String>, byte[]> chunk = chunks.pollFirstEntry().getValue();
+                        executeUndoLogs(dataSourceProxy, conn, chunk.getKey(),
+                            decompress(chunk.getKey(), chunk.getValue()));
                     }
                 }
 
@@ -381,6 +450,56 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
         }
     }
 
+    /**
+     * Decode the rollback info and undo its sql undo logs in the reverse order.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param conn            the conn
+     * @param context         the undo log context
+     * @param rollbackInfo    the decompressed rollback info
+     * @throws SQLException the sql exception
+     */
+    protected void executeUndoLogs(DataSourceProxy dataSourceProxy, Connection conn, Map<String, String> context,
+                                   byte[] rollbackInfo) throws SQLException {
+        String serializer = context == null ? null : context.get(UndoLogConstants.SERIALIZER_KEY);
+        UndoLogParser parser = serializer == null ? UndoLogParserFactory.getInstance()
+            : UndoLogParserFactory.getInstance(serializer);
+        BranchUndoLog branchUndoLog = parser.decode(rollbackInfo);
+
+        try {
+            // put serializer name to local
+            setCurrentSerializer(parser.getName());
+            List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+            if (sqlUndoLogs.size() > 1) {
+                Collections.reverse(sqlUndoLogs);
+            }
+            executeUndoLogs(dataSourceProxy, conn, sqlUndoLogs);
+        } finally {
+            // remove serializer name
+            removeCurrentSerializer();
+        }
+    }
+
+    /**
+     * Undo the sql undo logs in the given order.
+     *
+     * @param dataSourceProxy the data source proxy
+     * @param conn            the conn
+     * @param sqlUndoLogs     the sql undo logs
+     * @throws SQLException the sql exception
+     */
+    protected void executeUndoLogs(DataSourceProxy dataSourceProxy, Connection conn, List<SQLUndoLog> sqlUndoLogs)
+        throws SQLException {
+        for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+            TableMeta tableMeta = TableMetaCacheFactory.getTableMetaCache(dataSourceProxy.getDbType()).getTableMeta(
+                conn, sqlUndoLog.getTableName(), dataSourceProxy.getResourceId());
+            sqlUndoLog.setTableMeta(tableMeta);
+            AbstractUndoExecutor undoExecutor = UndoExecutorFactory.getUndoExecutor(
+                dataSourceProxy.getDbType(), sqlUndoLog);
+            undoExecutor.executeOn(conn);
+        }
+    }
+
     /**
      * insert uodo log when global finished
      *
@@ -406,6 +525,20 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
     protected abstract void insertUndoLogWithNormal(String xid, long branchId, String rollbackCtx, byte[] undoLogContent,
                                                     Connection conn) throws SQLException;
 
+    /**
+     * insert a chunk of the undo log when normal, the chunk index is stored in the chunk_index column
+     *
+     * @param xid            the xid
+     * @param branchId       the branchId
+     * @param chunkIndex     the chunk index
+     * @param rollbackCtx    the rollbackContext
+     * @param undoLogContent the undoLogContent of the chunk
+     * @param conn           sql connection
+     * @throws SQLException SQLException
+     */
+    protected abstract void insertUndoLogChunkWithNormal(String xid, long branchId, int chunkIndex, String rollbackCtx,
+                                                         byte[] undoLogContent, Connection conn) throws SQLException;
+
     /**
      * RollbackInfo to bytes
      *
@@ -418,6 +551,17 @@ public abstract class AbstractUndoLogManager implements UndoLogManager {
 
         String rollbackInfoContext = rs.getString(ClientTableColumnsName.UNDO_LOG_CONTEXT);
         Map<String, String> context = CollectionUtils.decodeMap(rollbackInfoContext);
+        return decompress(context, rollbackInfo);
+    }
+
+    /**
+     * Decompress the rollback info by the compressor type of the context
+     *
+     * @param context      the undo log context
+     * @param rollbackInfo the stored rollback info
+     * @return the decompressed rollback info
+     */
+    protected byte[] decompress(Map<String, String> context, byte[] rollbackInfo) {
         CompressorType compressorType = CompressorType.getByName(context.getOrDefault(UndoLogConstants.COMPRESSOR_TYPE_KEY,
                 CompressorType.NONE.name()));
         return CompressorFactory.getCompressor(compressorType.getCode()).decompress(rollbackInfo);
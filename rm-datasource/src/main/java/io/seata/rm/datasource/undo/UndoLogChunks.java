@@ -0,0 +1,157 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_UNDO_CHUNK_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_UNDO_CHUNK_SIZE;
+
+/**
+ * The chunked undo logs.
+ * <p>
+ * With the chunk mode on, the sql undo logs of a branch are split into chunks of at most {@link #CHUNK_SIZE} rows,
+ * and every chunk is encoded and inserted as its own undo_log row, numbered by the chunk_index column, so a large
+ * branch is neither encoded nor compressed as a whole. A branch that fits in one chunk is still written as a single
+ * row without the chunk index. The undo decodes and replays one chunk at a time from the last one, and the undo_log
+ * rows of a branch are deleted together by its xid and branch id.
+ * <p>
+ * The chunk_index column must be added to the undo_log table before the mode is turned on,
+ * see script/client/at/db/upgrade.
+ *
+ * @since 1.5.0
+ */
+public final class UndoLogChunks {
+
+    /**
+     * Whether the chunk mode is on.
+     */
+    public static final boolean CHUNK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.CLIENT_UNDO_CHUNK_ENABLE, DEFAULT_CLIENT_UNDO_CHUNK_ENABLE);
+
+    /**
+     * The max rows of a chunk.
+     */
+    public static final int CHUNK_SIZE = Math.max(1, ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.CLIENT_UNDO_CHUNK_SIZE, DEFAULT_CLIENT_UNDO_CHUNK_SIZE));
+
+    private UndoLogChunks() {
+    }
+
+    /**
+     * Group the sql undo logs into the chunks of at most chunkSize rows, in their order. A sql undo log larger than
+     * a chunk is split first, see {@link #split(SQLUndoLog, int)}.
+     *
+     * @param sqlUndoLogs the sql undo logs
+     * @param chunkSize   the max rows of a chunk
+     * @return the chunks
+     */
+    public static List<List<SQLUndoLog>> chunk(List<SQLUndoLog> sqlUndoLogs, int chunkSize) {
+        List<List<SQLUndoLog>> chunks = new ArrayList<>();
+        List<SQLUndoLog> chunk = new ArrayList<>();
+        int chunkRows = 0;
+        for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+            for (SQLUndoLog item : split(sqlUndoLog, chunkSize)) {
+                int rows = Math.max(item.getBeforeImage().size(), item.getAfterImage().size());
+                if (!chunk.isEmpty() && chunkRows + rows > chunkSize) {
+                    chunks.add(chunk);
+                    chunk = new ArrayList<>();
+                    chunkRows = 0;
+                }
+                chunk.add(item);
+                chunkRows += rows;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Split the sql undo log into the items of at most chunkSize rows. The rows of the two images are paired by
+     * their primary keys, the undo log is not split if they can not be paired.
+     *
+     * @param sqlUndoLog the sql undo log
+     * @param chunkSize  the max rows of an item
+     * @return the items
+     */
+    static List<SQLUndoLog> split(SQLUndoLog sqlUndoLog, int chunkSize) {
+        TableRecords beforeImage = sqlUndoLog.getBeforeImage();
+        TableRecords afterImage = sqlUndoLog.getAfterImage();
+        boolean byBefore = beforeImage.size() > 0;
+        TableRecords main = byBefore ? beforeImage : afterImage;
+        TableRecords paired = byBefore ? afterImage : beforeImage;
+        if (main.size() <= chunkSize) {
+            return Collections.singletonList(sqlUndoLog);
+        }
+        Map<List<Object>, Row> pairedRows = new HashMap<>(paired.size() * 4 / 3 + 1);
+        for (Row row : paired.getRows()) {
+            pairedRows.put(primaryKeyValues(row), row);
+        }
+        List<SQLUndoLog> items = new ArrayList<>(main.size() / chunkSize + 1);
+        List<Row> mainRows = main.getRows();
+        for (int from = 0; from < mainRows.size(); from += chunkSize) {
+            List<Row> mainPage = new ArrayList<>(mainRows.subList(from, Math.min(from + chunkSize, mainRows.size())));
+            List<Row> pairedPage = new ArrayList<>(paired.size() == 0 ? 0 : mainPage.size());
+            if (paired.size() > 0) {
+                for (Row row : mainPage) {
+                    Row pairedRow = pairedRows.remove(primaryKeyValues(row));
+                    if (pairedRow != null) {
+                        pairedPage.add(pairedRow);
+                    }
+                }
+            }
+            SQLUndoLog item = new SQLUndoLog();
+            item.setSqlType(sqlUndoLog.getSqlType());
+            item.setTableName(sqlUndoLog.getTableName());
+            item.setBeforeImage(page(beforeImage, byBefore ? mainPage : pairedPage));
+            item.setAfterImage(page(afterImage, byBefore ? pairedPage : mainPage));
+            items.add(item);
+        }
+        if (!pairedRows.isEmpty()) {
+            // some rows are not paired, keep the images in one piece
+            return Collections.singletonList(sqlUndoLog);
+        }
+        return items;
+    }
+
+    private static TableRecords page(TableRecords image, List<Row> rows) {
+        TableRecords page = new TableRecords();
+        page.setTableName(image.getTableName());
+        page.setRows(rows);
+        return page;
+    }
+
+    private static List<Object> primaryKeyValues(Row row) {
+        List<Field> primaryKeys = row.primaryKeys();
+        List<Object> values = new ArrayList<>(primaryKeys.size());
+        for (Field field : primaryKeys) {
+            values.add(field.getValue());
+        }
+        return values;
+    }
+}
@@ -31,4 +31,6 @@ public interface UndoLogConstants {
         .getConfig(ConfigurationKeys.TRANSACTION_UNDO_LOG_SERIALIZATION, DEFAULT_TRANSACTION_UNDO_LOG_SERIALIZATION);
 
     String COMPRESSOR_TYPE_KEY = "compressorType";
+
+    String CHUNK_INDEX_KEY = "chunkIndex";
 }
@@ -18,6 +18,7 @@ package io.seata.rm.datasource.undo;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
 import io.seata.core.exception.TransactionException;
@@ -69,6 +70,16 @@ public interface UndoLogManager {
      */
     void batchDeleteUndoLog(Set<String> xids, Set<Long> branchIds, Connection conn) throws SQLException;
 
+    /**
+     * Delete the undo logs of the branches in a jdbc batch, the i-th branch is (xids[i], branchIds[i]).
+     *
+     * @param xids      the xids of the branches
+     * @param branchIds the branch ids
+     * @param conn      the connection
+     * @throws SQLException the sql exception
+     */
+    void deleteUndoLogs(List<String> xids, List<Long> branchIds, Connection conn) throws SQLException;
+
     /**
      * delete undolog by created
      * @param logCreated the created time
@@ -0,0 +1,717 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.sqlparser.SQLType;
+
+/**
+ * The compact binary undo log parser.
+ * <p>
+ * The columns of a sql undo log are written once as a dictionary of (name, type, key type), shared by the
+ * before and the after image, and the rows are written as positional values, each a tag byte followed by a
+ * type-specialized payload: varints for the integral numbers, raw bytes for the binaries and the blobs. The
+ * values of the types without a dedicated tag fall back to the java serialization, which only accepts the
+ * classes of the java.lang, java.math, java.time, java.sql and java.util packages, on encoding and on decoding,
+ * so an undo log can not make the rollback instantiate any other class.
+ *
+ * @since 1.5.0
+ */
+@LoadLevel(name = BinaryUndoLogParser.NAME)
+public class BinaryUndoLogParser implements UndoLogParser {
+
+    public static final String NAME = "binary";
+
+    private static final byte VERSION = 1;
+
+    private static final byte[] DEFAULT_CONTENT = new BinaryUndoLogParser().encode(new BranchUndoLog());
+
+    private static final KeyType[] KEY_TYPES = KeyType.values();
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte SHORT = 4;
+    private static final byte BYTE = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte BIG_DECIMAL = 10;
+    private static final byte BIG_INTEGER = 11;
+    private static final byte BYTES = 12;
+    private static final byte TIMESTAMP = 13;
+    private static final byte SQL_DATE = 14;
+    private static final byte SQL_TIME = 15;
+    private static final byte UTIL_DATE = 16;
+    private static final byte LOCAL_DATE_TIME = 17;
+    private static final byte LOCAL_DATE = 18;
+    private static final byte LOCAL_TIME = 19;
+    private static final byte BLOB = 20;
+    private static final byte CLOB = 21;
+    private static final byte SERIALIZABLE = 22;
+
+    private static final Set<String> SERIALIZABLE_PACKAGES = new HashSet<>(
+        Arrays.asList("java.lang", "java.math", "java.time", "java.sql", "java.util"));
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] getDefaultContent() {
+        return DEFAULT_CONTENT.clone();
+    }
+
+    @Override
+    public byte[] encode(BranchUndoLog branchUndoLog) {
+        Output out = new Output(256);
+        out.writeByte(VERSION);
+        out.writeString(branchUndoLog.getXid());
+        out.writeVarLong(branchUndoLog.getBranchId());
+        List<SQLUndoLog> sqlUndoLogs = branchUndoLog.getSqlUndoLogs();
+        if (sqlUndoLogs == null) {
+            out.writeVarInt(0);
+        } else {
+            out.writeVarInt(sqlUndoLogs.size() + 1);
+            for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+                writeSQLUndoLog(out, sqlUndoLog);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public BranchUndoLog decode(byte[] bytes) {
+        if (Arrays.equals(bytes, DEFAULT_CONTENT)) {
+            return new BranchUndoLog();
+        }
+        Input in = new Input(bytes);
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unknown binary undo log version: " + version);
+        }
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid(in.readString());
+        branchUndoLog.setBranchId(in.readVarLong());
+        int size = in.readVarInt();
+        if (size > 0) {
+            List<SQLUndoLog> sqlUndoLogs = new ArrayList<>(size - 1);
+            for (int i = 1; i < size; i++) {
+                sqlUndoLogs.add(readSQLUndoLog(in));
+            }
+            branchUndoLog.setSqlUndoLogs(sqlUndoLogs);
+        }
+        return branchUndoLog;
+    }
+
+    private static void writeSQLUndoLog(Output out, SQLUndoLog sqlUndoLog) {
+        SQLType sqlType = sqlUndoLog.getSqlType();
+        out.writeVarInt(sqlType == null ? 0 : sqlType.value() + 1);
+        out.writeString(sqlUndoLog.getTableName());
+        Columns columns = new Columns();
+        columns.collect(sqlUndoLog.getBeforeImage());
+        columns.collect(sqlUndoLog.getAfterImage());
+        out.writeVarInt(columns.fields.size());
+        for (Field column : columns.fields) {
+            out.writeString(column.getName());
+            out.writeVarInt(zigZag(column.getType()));
+            out.writeVarInt(column.getKeyType() == null ? 0 : column.getKeyType().ordinal() + 1);
+        }
+        writeImage(out, sqlUndoLog.getBeforeImage(), columns);
+        writeImage(out, sqlUndoLog.getAfterImage(), columns);
+    }
+
+    private static SQLUndoLog readSQLUndoLog(Input in) {
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        int sqlType = in.readVarInt();
+        sqlUndoLog.setSqlType(sqlType == 0 ? null : SQLType.valueOf(sqlType - 1));
+        sqlUndoLog.setTableName(in.readString());
+        Field[] columns = new Field[in.readVarInt()];
+        for (int i = 0; i < columns.length; i++) {
+            Field column = new Field();
+            column.setName(in.readString());
+            column.setType(unZigZag(in.readVarInt()));
+            int keyType = in.readVarInt();
+            column.setKeyType(keyType == 0 ? null : KEY_TYPES[keyType - 1]);
+            columns[i] = column;
+        }
+        sqlUndoLog.setBeforeImage(readImage(in, columns));
+        sqlUndoLog.setAfterImage(readImage(in, columns));
+        return sqlUndoLog;
+    }
+
+    private static void writeImage(Output out, TableRecords image, Columns columns) {
+        if (image == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        List<Row> rows = image.getRows();
+        out.writeVarInt(rows.size() + 1);
+        out.writeString(image.getTableName());
+        for (Row row : rows) {
+            List<Field> fields = row.getFields();
+            // a row holding all the columns in the dictionary order is written without the column indexes
+            boolean positional = fields.size() == columns.fields.size();
+            for (int i = 0; positional && i < fields.size(); i++) {
+                positional = columns.indexOf(fields.get(i), i) == i;
+            }
+            out.writeVarInt(fields.size() << 1 | (positional ? 1 : 0));
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                if (!positional) {
+                    out.writeVarInt(columns.indexOf(field, i));
+                }
+                writeValue(out, field.getValue());
+            }
+        }
+    }
+
+    private static TableRecords readImage(Input in, Field[] columns) {
+        int size = in.readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        TableRecords image = new TableRecords();
+        image.setTableName(in.readString());
+        List<Row> rows = new ArrayList<>(size - 1);
+        for (int r = 1; r < size; r++) {
+            int header = in.readVarInt();
+            boolean positional = (header & 1) == 1;
+            int fieldCount = header >>> 1;
+            List<Field> fields = new ArrayList<>(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                Field column = columns[positional ? i : in.readVarInt()];
+                Field field = new Field(column.getName(), column.getType(), readValue(in));
+                field.setKeyType(column.getKeyType());
+                fields.add(field);
+            }
+            Row row = new Row();
+            row.setFields(fields);
+            rows.add(row);
+        }
+        image.setRows(rows);
+        return image;
+    }
+
+    private static void writeValue(Output out, Object value) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeString((String)value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeVarInt(zigZag((Integer)value));
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeVarLong(zigZag((Long)value));
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeVarInt(zigZag((Short)value));
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte)value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean)value ? TRUE : FALSE);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFixedInt(Float.floatToIntBits((Float)value));
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeFixedLong(Double.doubleToLongBits((Double)value));
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal)value;
+            out.writeByte(BIG_DECIMAL);
+            out.writeVarInt(zigZag(decimal.scale()));
+            out.writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            out.writeBytes(((BigInteger)value).toByteArray());
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            out.writeBytes((byte[])value);
+        } else if (value instanceof Timestamp) {
+            Timestamp timestamp = (Timestamp)value;
+            out.writeByte(TIMESTAMP);
+            // the millis of the nanos are in the time already
+            out.writeVarLong(zigZag(timestamp.getTime()));
+            out.writeVarInt(timestamp.getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte(SQL_DATE);
+            out.writeVarLong(zigZag(((java.sql.Date)value).getTime()));
+        } else if (value instanceof Time) {
+            out.writeByte(SQL_TIME);
+            out.writeVarLong(zigZag(((Time)value).getTime()));
+        } else if (value.getClass() == java.util.Date.class) {
+            out.writeByte(UTIL_DATE);
+            out.writeVarLong(zigZag(((java.util.Date)value).getTime()));
+        } else if (value instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime)value;
+            out.writeByte(LOCAL_DATE_TIME);
+            out.writeVarLong(zigZag(dateTime.toLocalDate().toEpochDay()));
+            out.writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+        } else if (value instanceof LocalDate) {
+            out.writeByte(LOCAL_DATE);
+            out.writeVarLong(zigZag(((LocalDate)value).toEpochDay()));
+        } else if (value instanceof LocalTime) {
+            out.writeByte(LOCAL_TIME);
+            out.writeVarLong(((LocalTime)value).toNanoOfDay());
+        } else if (value instanceof SerialBlob) {
+            SerialBlob blob = (SerialBlob)value;
+            out.writeByte(BLOB);
+            try {
+                out.writeBytes(blob.getBytes(1, (int)blob.length()));
+            } catch (SQLException e) {
+                throw new IllegalArgumentException("encode java.sql.Blob error: " + e.getMessage(), e);
+            }
+        } else if (value instanceof SerialClob) {
+            SerialClob clob = (SerialClob)value;
+            out.writeByte(CLOB);
+            try {
+                out.writeString(clob.getSubString(1, (int)clob.length()));
+            } catch (SQLException e) {
+                throw new IllegalArgumentException("encode java.sql.Clob error: " + e.getMessage(), e);
+            }
+        } else if (value instanceof Serializable) {
+            out.writeByte(SERIALIZABLE);
+            out.writeBytes(serialize(value));
+        } else {
+            throw new IllegalArgumentException("unsupported undo log value type: " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(Input in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return in.readString();
+            case INT:
+                return unZigZag(in.readVarInt());
+            case LONG:
+                return unZigZag(in.readVarLong());
+            case SHORT:
+                return (short)unZigZag(in.readVarInt());
+            case BYTE:
+                return in.readByte();
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case FLOAT:
+                return Float.intBitsToFloat(in.readFixedInt());
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readFixedLong());
+            case BIG_DECIMAL:
+                int scale = unZigZag(in.readVarInt());
+                return new BigDecimal(new BigInteger(in.readBytes()), scale);
+            case BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case BYTES:
+                return in.readBytes();
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(unZigZag(in.readVarLong()));
+                timestamp.setNanos(in.readVarInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(unZigZag(in.readVarLong()));
+            case SQL_TIME:
+                return new Time(unZigZag(in.readVarLong()));
+            case UTIL_DATE:
+                return new java.util.Date(unZigZag(in.readVarLong()));
+            case LOCAL_DATE_TIME:
+                LocalDate date = LocalDate.ofEpochDay(unZigZag(in.readVarLong()));
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readVarLong()));
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(unZigZag(in.readVarLong()));
+            case LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.readVarLong());
+            case BLOB:
+                try {
+                    return new SerialBlob(in.readBytes());
+                } catch (SQLException e) {
+                    throw new IllegalArgumentException("decode java.sql.Blob error: " + e.getMessage(), e);
+                }
+            case CLOB:
+                try {
+                    return new SerialClob(in.readString().toCharArray());
+                } catch (SQLException e) {
+                    throw new IllegalArgumentException("decode java.sql.Clob error: " + e.getMessage(), e);
+                }
+            case SERIALIZABLE:
+                return deserialize(in.readBytes());
+            default:
+                throw new IllegalArgumentException("unknown undo log value tag: " + tag);
+        }
+    }
+
+    private static byte[] serialize(Object value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new AllowListObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("encode " + value.getClass().getName() + " error: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new AllowListObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalArgumentException("decode undo log value error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the class of the name may be serialized, an array is checked by its component type.
+     *
+     * @param className the class name, in the form of {@link Class#getName()}
+     * @return true if allowed
+     */
+    static boolean isSerializableAllowed(String className) {
+        String name = className;
+        if (name.startsWith("[")) {
+            while (name.startsWith("[")) {
+                name = name.substring(1);
+            }
+            if (!name.startsWith("L")) {
+                // array of a primitive type
+                return name.length() == 1;
+            }
+            name = name.substring(1, name.length() - 1);
+        }
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 && SERIALIZABLE_PACKAGES.contains(name.substring(0, lastDot));
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Rejects the classes which are not allowed, so that an undo log which can not be decoded is not written.
+     */
+    private static final class AllowListObjectOutputStream extends ObjectOutputStream {
+
+        AllowListObjectOutputStream(ByteArrayOutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void annotateClass(Class<?> cl) throws IOException {
+            if (!isSerializableAllowed(cl.getName())) {
+                throw new InvalidClassException(cl.getName(), "unsupported undo log value type");
+            }
+        }
+
+        @Override
+        protected void annotateProxyClass(Class<?> cl) throws IOException {
+            throw new InvalidClassException(cl.getName(), "unsupported undo log value type");
+        }
+    }
+
+    /**
+     * Resolves only the classes which are allowed, before any of them is loaded or instantiated.
+     */
+    private static final class AllowListObjectInputStream extends ObjectInputStream {
+
+        AllowListObjectInputStream(ByteArrayInputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isSerializableAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "unsupported undo log value type");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException(Arrays.toString(interfaces), "unsupported undo log value type");
+        }
+    }
+
+    /**
+     * The column dictionary of a sql undo log.
+     */
+    private static final class Columns {
+
+        private final List<Field> fields = new ArrayList<>();
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        void collect(TableRecords image) {
+            if (image == null) {
+                return;
+            }
+            for (Row row : image.getRows()) {
+                List<Field> rowFields = row.getFields();
+                for (int i = 0; i < rowFields.size(); i++) {
+                    Field field = rowFields.get(i);
+                    if (indexOf(field, i) < 0) {
+                        indexes.put(key(field), fields.size());
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the index of the column of the field, the column at the hinted index is checked first.
+         */
+        int indexOf(Field field, int hint) {
+            if (hint < fields.size() && sameColumn(fields.get(hint), field)) {
+                return hint;
+            }
+            Integer index = indexes.get(key(field));
+            return index == null ? -1 : index;
+        }
+
+        private static boolean sameColumn(Field column, Field field) {
+            return column.getType() == field.getType() && column.getKeyType() == field.getKeyType()
+                && (column.getName() == null ? field.getName() == null : column.getName().equals(field.getName()));
+        }
+
+        private static String key(Field field) {
+            return field.getName() + '\u0000' + field.getType() + '\u0000' + field.getKeyType();
+        }
+    }
+
+    /**
+     * The growable output buffer.
+     */
+    private static final class Output {
+
+        private byte[] buffer;
+
+        private int position;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte)value;
+        }
+
+        void writeVarInt(int value) {
+            ensureCapacity(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte)((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte)value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte)((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte)value;
+        }
+
+        void writeFixedInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte)(value >>> shift);
+            }
+        }
+
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte)(value >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        /**
+         * Write the string, the length is written as length + 1 and 0 stands for null.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + length));
+            }
+        }
+    }
+
+    /**
+     * The input of the encoded bytes.
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("broken binary undo log, unexpected end at " + position);
+            }
+            return buffer[position++];
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("broken binary undo log, malformed varint at " + position);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long)(b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("broken binary undo log, malformed varint at " + position);
+        }
+
+        int readFixedInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        byte[] readBytes() {
+            return read(readVarInt());
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            checkRemaining(--length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private byte[] read(int length) {
+            checkRemaining(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private void checkRemaining(int length) {
+            if (length < 0 || length > buffer.length - position) {
+                throw new IllegalArgumentException("broken binary undo log, unexpected end at " + position);
+            }
+        }
+    }
+}
@@ -44,6 +44,14 @@ public class PostgresqlUndoLogManager extends AbstractUndoLogManager {
             + ClientTableColumnsName.UNDO_LOG_LOG_CREATED + ", " + ClientTableColumnsName.UNDO_LOG_LOG_MODIFIED + ")"
             + "VALUES (nextval('undo_log_id_seq'), ?, ?, ?, ?, ?, now(), now())";
 
+    private static final String INSERT_UNDO_LOG_CHUNK_SQL = "INSERT INTO " + UNDO_LOG_TABLE_NAME +
+            " (" + ClientTableColumnsName.UNDO_LOG_ID + "," + ClientTableColumnsName.UNDO_LOG_BRANCH_XID + ", "
+            + ClientTableColumnsName.UNDO_LOG_XID + ", " + ClientTableColumnsName.UNDO_LOG_CONTEXT + ", "
+            + ClientTableColumnsName.UNDO_LOG_ROLLBACK_INFO + ", " + ClientTableColumnsName.UNDO_LOG_LOG_STATUS + ", "
+            + ClientTableColumnsName.UNDO_LOG_LOG_CREATED + ", " + ClientTableColumnsName.UNDO_LOG_LOG_MODIFIED + ", "
+            + ClientTableColumnsName.UNDO_LOG_CHUNK_INDEX + ")"
+            + "VALUES (nextval('undo_log_id_seq'), ?, ?, ?, ?, ?, now(), now(), ?)";
+
     private static final String DELETE_UNDO_LOG_BY_CREATE_SQL = "DELETE FROM " + UNDO_LOG_TABLE_NAME + " WHERE "
             + ClientTableColumnsName.UNDO_LOG_ID + " IN ("
             + "SELECT " + ClientTableColumnsName.UNDO_LOG_ID + " FROM " + UNDO_LOG_TABLE_NAME
@@ -76,26 +84,35 @@ public class PostgresqlUndoLogManager extends AbstractUndoLogManager {
     @Override
     protected void insertUndoLogWithNormal(String xid, long branchID, String rollbackCtx, byte[] undoLogContent,
                                            Connection conn) throws SQLException {
-        insertUndoLog(xid, branchID, rollbackCtx, undoLogContent, State.Normal, conn);
+        insertUndoLog(xid, branchID, NO_CHUNK_INDEX, rollbackCtx, undoLogContent, State.Normal, conn);
+    }
+
+    @Override
+    protected void insertUndoLogChunkWithNormal(String xid, long branchId, int chunkIndex, String rollbackCtx,
+                                                byte[] undoLogContent, Connection conn) throws SQLException {
+        insertUndoLog(xid, branchId, chunkIndex, rollbackCtx, undoLogContent, State.Normal, conn);
     }
 
     @Override
     protected void insertUndoLogWithGlobalFinished(String xid, long branchId, UndoLogParser parser,
         Connection conn) throws SQLException {
-        insertUndoLog(xid, branchId, buildContext(parser.getName(), CompressorType.NONE), parser.getDefaultContent(),
-                State.GlobalFinished, conn);
+        insertUndoLog(xid, branchId, NO_CHUNK_INDEX, buildContext(parser.getName(), CompressorType.NONE),
+                parser.getDefaultContent(), State.GlobalFinished, conn);
     }
 
-    private void insertUndoLog(String xid, long branchID, String rollbackCtx, byte[] undoLogContent,
+    private void insertUndoLog(String xid, long branchID, int chunkIndex, String rollbackCtx, byte[] undoLogContent,
                                State state, Connection conn) throws SQLException {
         PreparedStatement pst = null;
         try {
-            pst = conn.prepareStatement(INSERT_UNDO_LOG_SQL);
+            pst = conn.prepareStatement(chunkIndex == NO_CHUNK_INDEX ? INSERT_UNDO_LOG_SQL : INSERT_UNDO_LOG_CHUNK_SQL);
             pst.setLong(1, branchID);
             pst.setString(2, xid);
             pst.setString(3, rollbackCtx);
             pst.setBytes(4, undoLogContent);
             pst.setInt(5, state.getValue());
+            if (chunkIndex != NO_CHUNK_INDEX) {
+                pst.setInt(6, chunkIndex);
+            }
             pst.executeUpdate();
         } catch (Exception e) {
             if (!(e instanceof SQLException)) {
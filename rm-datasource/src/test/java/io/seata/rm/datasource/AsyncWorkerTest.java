@@ -16,8 +16,13 @@
 package io.seata.rm.datasource;
 
 import io.seata.core.model.BranchStatus;
+import io.seata.sqlparser.util.JdbcConstants;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -45,6 +50,35 @@ class AsyncWorkerTest {
         assertDoesNotThrow(worker::doBranchCommitSafely, "this method should never throw anything");
     }
 
+    @Test
+    void deleteUndoLogInBatches() throws SQLException, InterruptedException {
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(preparedStatement);
+        DataSourceProxy dataSourceProxy = Mockito.mock(DataSourceProxy.class);
+        Mockito.when(dataSourceProxy.getDbType()).thenReturn(JdbcConstants.MYSQL);
+        Mockito.when(dataSourceProxy.getPlainConnection()).thenReturn(connection);
+        DataSourceManager dataSourceManager = Mockito.mock(DataSourceManager.class);
+        Mockito.when(dataSourceManager.get("resource")).thenReturn(dataSourceProxy);
+
+        AsyncWorker asyncWorker = new AsyncWorker(dataSourceManager);
+        for (int i = 0; i < 2500; i++) {
+            asyncWorker.branchCommit("xid" + i, i, "resource");
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (asyncWorker.getDeletedCount() < 2500 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2500, asyncWorker.getDeletedCount());
+        assertEquals(0, asyncWorker.getQueueDepth());
+        assertEquals(0, asyncWorker.getDeleteLag());
+        // each batch of at most 1000 branches is deleted on its own connection
+        Mockito.verify(preparedStatement, Mockito.times(2500)).addBatch();
+        Mockito.verify(preparedStatement, Mockito.atLeast(3)).executeBatch();
+        Mockito.verify(connection, Mockito.atLeast(3)).close();
+    }
+
     @Test
     void groupedByResourceId() {
         List<AsyncWorker.Phase2Context> contexts = getRandomContexts();
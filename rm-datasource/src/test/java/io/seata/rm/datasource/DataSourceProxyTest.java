@@ -18,6 +18,8 @@ package io.seata.rm.datasource;
 import javax.sql.DataSource;
 import java.lang.reflect.Field;
 import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
 
 import com.alibaba.druid.pool.DruidDataSource;
 import io.seata.rm.datasource.mock.MockDataSource;
@@ -70,4 +72,24 @@ public class DataSourceProxyTest {
         dbTypeField.set(proxy, io.seata.sqlparser.util.JdbcConstants.MYSQL);
         Assertions.assertEquals(proxy.getResourceId(), "jdbc:mock:xxx");
     }
+
+    @Test
+    public void preloadTableMetaTest() throws Exception {
+        Object[][] columnMetas = new Object[][] {
+            new Object[] {"", "", "pt1", "id", Types.INTEGER, "INTEGER", 64, 0, 10, 1, "", "", 0, 0, 64, 1, "NO", "YES"}
+        };
+        Object[][] indexMetas = new Object[][] {
+            new Object[] {"PRIMARY", "id", false, "", 3, 0, "A", 34}
+        };
+        DruidDataSource dataSource = new DruidDataSource();
+        dataSource.setUrl("jdbc:mock:preload");
+        dataSource.setDriver(new MockDriver(columnMetas, indexMetas));
+
+        DataSourceProxy proxy = new DataSourceProxy(dataSource);
+        Field dbTypeField = proxy.getClass().getDeclaredField("dbType");
+        dbTypeField.setAccessible(true);
+        dbTypeField.set(proxy, io.seata.sqlparser.util.JdbcConstants.MYSQL);
+
+        Assertions.assertEquals(3, proxy.preloadTableMeta(Arrays.asList("pt1", "pt2", "pt3")));
+    }
 }
@@ -191,4 +191,24 @@ public class SQLVisitorFactoryTest {
         Assertions.assertEquals(SQLType.UPDATE, recognizer.getSQLType());
         Assertions.assertEquals("t1", recognizer.getTableName());
     }
+
+    @Test
+    public void testSqlRecognizerCache() {
+        String sql = "update t_cache set name = ? where id = ?";
+        long hitCount = SQLVisitorFactory.getCacheHitCount();
+        long missCount = SQLVisitorFactory.getCacheMissCount();
+        List<SQLRecognizer> recognizers = SQLVisitorFactory.get(sql, JdbcConstants.MYSQL);
+        Assertions.assertSame(recognizers, SQLVisitorFactory.get(sql, JdbcConstants.MYSQL));
+        Assertions.assertEquals(missCount + 1, SQLVisitorFactory.getCacheMissCount());
+        Assertions.assertEquals(hitCount + 1, SQLVisitorFactory.getCacheHitCount());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> recognizers.add(null));
+
+        // the same sql of another db type is parsed by its own dialect
+        List<SQLRecognizer> oracleRecognizers = SQLVisitorFactory.get(sql, JdbcConstants.ORACLE);
+        Assertions.assertEquals(OracleUpdateRecognizer.class.getName(), oracleRecognizers.get(0).getClass().getName());
+
+        // the sql without recognizer is cached as well
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t_cache", JdbcConstants.MYSQL));
+        Assertions.assertNull(SQLVisitorFactory.get("select * from t_cache", JdbcConstants.MYSQL));
+    }
 }
@@ -15,9 +15,13 @@
  */
 package io.seata.rm.datasource.sql.struct.cache;
 
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -152,6 +156,44 @@ public class MysqlTableMetaCacheTest {
         getTableMetaCache().refresh(dataSourceProxy.getPlainConnection(), dataSourceProxy.getResourceId());
     }
 
+    @Test
+    public void refreshChangedTablesOnlyTest() throws SQLException {
+        MockDriver mockDriver = new MockDriver(columnMetas, indexMetas);
+        DruidDataSource druidDataSource = new DruidDataSource();
+        druidDataSource.setUrl("jdbc:mock:refresh");
+        druidDataSource.setDriver(mockDriver);
+        DataSourceProxy dataSourceProxy = new DataSourceProxy(druidDataSource);
+
+        Map<String, String> tableVersions = new HashMap<>();
+        AtomicInteger fetched = new AtomicInteger();
+        TableMetaCache tableMetaCache = new MysqlTableMetaCache() {
+            @Override
+            protected Map<String, String> fetchTableVersions(Connection connection) {
+                return tableVersions;
+            }
+
+            @Override
+            protected TableMeta fetchSchema(Connection connection, String tableName) throws SQLException {
+                fetched.incrementAndGet();
+                return super.fetchSchema(connection, tableName);
+            }
+        };
+        TableMeta tableMeta = tableMetaCache.getTableMeta(dataSourceProxy.getPlainConnection(), "mt1",
+            dataSourceProxy.getResourceId());
+        tableVersions.put(tableMeta.getTableName(), "1");
+        Assertions.assertEquals(1, fetched.get());
+
+        // the version is not known by the first refresh
+        tableMetaCache.refresh(dataSourceProxy.getPlainConnection(), dataSourceProxy.getResourceId());
+        Assertions.assertEquals(2, fetched.get());
+        tableMetaCache.refresh(dataSourceProxy.getPlainConnection(), dataSourceProxy.getResourceId());
+        Assertions.assertEquals(2, fetched.get());
+
+        tableVersions.put(tableMeta.getTableName(), "2");
+        tableMetaCache.refresh(dataSourceProxy.getPlainConnection(), dataSourceProxy.getResourceId());
+        Assertions.assertEquals(3, fetched.get());
+    }
+
     private void assertColumnMetaEquals(Object[] expected, ColumnMeta actual) {
         Assertions.assertEquals(expected[0], actual.getTableCat());
         Assertions.assertEquals(expected[3], actual.getColumnName());
@@ -0,0 +1,246 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.seata.common.util.IOUtil;
+import io.seata.rm.datasource.ConnectionContext;
+import io.seata.rm.datasource.ConnectionProxy;
+import io.seata.rm.datasource.DataSourceProxy;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.mysql.MySQLUndoLogManager;
+import io.seata.sqlparser.SQLType;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * The type Undo log chunks test.
+ */
+public class UndoLogChunksTest {
+
+    private static final String XID = "127.0.0.1:8091:1";
+
+    private static final long BRANCH_ID = 1L;
+
+    private static BasicDataSource dataSource;
+
+    @BeforeAll
+    public static void start() throws SQLException {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:undo_chunk;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        execSQL("CREATE TABLE undo_log (branch_id BIGINT NOT NULL, xid VARCHAR(128) NOT NULL,"
+            + " context VARCHAR(128) NOT NULL, rollback_info BLOB NOT NULL, log_status INT NOT NULL,"
+            + " log_created TIMESTAMP NOT NULL, log_modified TIMESTAMP NOT NULL, chunk_index INT DEFAULT 0 NOT NULL,"
+            + " CONSTRAINT ux_undo_log UNIQUE (xid, branch_id, chunk_index))");
+    }
+
+    @AfterAll
+    public static void stop() throws SQLException {
+        execSQL("DROP TABLE undo_log");
+        dataSource.close();
+    }
+
+    @BeforeEach
+    public void cleanUndoLog() throws SQLException {
+        execSQL("DELETE FROM undo_log");
+    }
+
+    @Test
+    public void testSplitByPrimaryKeys() {
+        SQLUndoLog sqlUndoLog = newUpdateUndoLog(5);
+        // the after image is queried by the pks, its rows may come back in another order
+        Collections.reverse(sqlUndoLog.getAfterImage().getRows());
+
+        List<SQLUndoLog> items = UndoLogChunks.split(sqlUndoLog, 2);
+        Assertions.assertEquals(3, items.size());
+        for (SQLUndoLog item : items) {
+            Assertions.assertEquals(SQLType.UPDATE, item.getSqlType());
+            Assertions.assertEquals("t_chunk", item.getTableName());
+            Assertions.assertEquals(ids(item.getBeforeImage()), ids(item.getAfterImage()));
+        }
+        Assertions.assertEquals(2, items.get(0).getBeforeImage().size());
+        Assertions.assertEquals(1, items.get(2).getBeforeImage().size());
+
+        // the rows can not be paired
+        sqlUndoLog.getAfterImage().getRows().get(0).getFields().get(0).setValue(100L);
+        Assertions.assertEquals(1, UndoLogChunks.split(sqlUndoLog, 2).size());
+        Assertions.assertEquals(1, UndoLogChunks.split(newUpdateUndoLog(2), 2).size());
+    }
+
+    @Test
+    public void testChunk() {
+        List<List<SQLUndoLog>> chunks = UndoLogChunks.chunk(
+            Arrays.asList(newUpdateUndoLog(5), newUpdateUndoLog(1)), 2);
+        // [1, 2], [3, 4], [5] and the single row of the second statement
+        Assertions.assertEquals(3, chunks.size());
+        Assertions.assertEquals(1, chunks.get(0).size());
+        Assertions.assertEquals(1, chunks.get(1).size());
+        Assertions.assertEquals(2, chunks.get(2).size());
+        Assertions.assertEquals(1, UndoLogChunks.chunk(Collections.singletonList(newUpdateUndoLog(2)), 2).size());
+    }
+
+    @Test
+    public void testFlushAndUndoChunks() throws Exception {
+        RecordingUndoLogManager undoLogManager = new RecordingUndoLogManager();
+        try (Connection conn = dataSource.getConnection()) {
+            undoLogManager.flushUndoLogs(newConnectionProxy(conn, newUpdateUndoLog(5), newUpdateUndoLog(1)), 2);
+        }
+        // one undo_log row per chunk
+        Assertions.assertEquals(Arrays.asList(0, 1, 2), chunkIndexes());
+
+        undoLogManager.undo(newDataSourceProxy(), XID, BRANCH_ID);
+        // the chunks are replayed from the last one, each in the reverse order
+        Assertions.assertEquals(Arrays.asList(Collections.singletonList(1L), Collections.singletonList(5L),
+            Arrays.asList(3L, 4L), Arrays.asList(1L, 2L)), undoLogManager.replayed);
+        // the rows of all chunks are deleted
+        Assertions.assertEquals(Collections.emptyList(), chunkIndexes());
+    }
+
+    @Test
+    public void testFlushAndUndoWithoutChunk() throws Exception {
+        RecordingUndoLogManager undoLogManager = new RecordingUndoLogManager();
+        try (Connection conn = dataSource.getConnection()) {
+            undoLogManager.flushUndoLogs(newConnectionProxy(conn, newUpdateUndoLog(5), newUpdateUndoLog(1)), 0);
+        }
+        // written without the chunk index column
+        Assertions.assertEquals(Collections.singletonList(0), chunkIndexes());
+
+        undoLogManager.undo(newDataSourceProxy(), XID, BRANCH_ID);
+        Assertions.assertEquals(Arrays.asList(Collections.singletonList(1L), Arrays.asList(1L, 2L, 3L, 4L, 5L)),
+            undoLogManager.replayed);
+        Assertions.assertEquals(Collections.emptyList(), chunkIndexes());
+    }
+
+    private static ConnectionProxy newConnectionProxy(Connection conn, SQLUndoLog... sqlUndoLogs) throws Exception {
+        ConnectionContext context = new ConnectionContext();
+        Method bind = ConnectionContext.class.getDeclaredMethod("bind", String.class);
+        bind.setAccessible(true);
+        bind.invoke(context, XID);
+        Method setBranchId = ConnectionContext.class.getDeclaredMethod("setBranchId", Long.class);
+        setBranchId.setAccessible(true);
+        setBranchId.invoke(context, BRANCH_ID);
+        Method appendUndoItem = ConnectionContext.class.getDeclaredMethod("appendUndoItem", SQLUndoLog.class);
+        appendUndoItem.setAccessible(true);
+        for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+            appendUndoItem.invoke(context, sqlUndoLog);
+        }
+        ConnectionProxy connectionProxy = Mockito.mock(ConnectionProxy.class);
+        Mockito.when(connectionProxy.getContext()).thenReturn(context);
+        Mockito.when(connectionProxy.getTargetConnection()).thenReturn(conn);
+        return connectionProxy;
+    }
+
+    private static DataSourceProxy newDataSourceProxy() throws SQLException {
+        DataSourceProxy dataSourceProxy = Mockito.mock(DataSourceProxy.class);
+        Mockito.when(dataSourceProxy.getPlainConnection()).thenAnswer(invocation -> dataSource.getConnection());
+        return dataSourceProxy;
+    }
+
+    private static List<Integer> chunkIndexes() throws SQLException {
+        List<Integer> chunkIndexes = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement pst = conn.prepareStatement(
+                 "SELECT chunk_index FROM undo_log WHERE xid = ? AND branch_id = ? ORDER BY chunk_index")) {
+            pst.setString(1, XID);
+            pst.setLong(2, BRANCH_ID);
+            try (ResultSet rs = pst.executeQuery()) {
+                while (rs.next()) {
+                    chunkIndexes.add(rs.getInt(1));
+                }
+            }
+        }
+        return chunkIndexes;
+    }
+
+    private static void execSQL(String sql) throws SQLException {
+        Connection conn = null;
+        Statement s = null;
+        try {
+            conn = dataSource.getConnection();
+            s = conn.createStatement();
+            s.execute(sql);
+        } finally {
+            IOUtil.close(s, conn);
+        }
+    }
+
+    private static SQLUndoLog newUpdateUndoLog(int rows) {
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("t_chunk");
+        sqlUndoLog.setBeforeImage(newImage(rows, "before"));
+        sqlUndoLog.setAfterImage(newImage(rows, "after"));
+        return sqlUndoLog;
+    }
+
+    private static TableRecords newImage(int rows, String name) {
+        TableRecords image = new TableRecords();
+        image.setTableName("t_chunk");
+        for (long id = 1; id <= rows; id++) {
+            Row row = new Row();
+            row.add(new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), id));
+            row.getFields().get(0).setKeyType(KeyType.PRIMARY_KEY);
+            row.add(new Field("name", JDBCType.VARCHAR.getVendorTypeNumber(), name + id));
+            image.getRows().add(row);
+        }
+        return image;
+    }
+
+    private static List<Long> ids(TableRecords image) {
+        List<Long> ids = new ArrayList<>();
+        for (Row row : image.getRows()) {
+            ids.add(((Number)row.primaryKeys().get(0).getValue()).longValue());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static class RecordingUndoLogManager extends MySQLUndoLogManager {
+
+        private final List<List<Long>> replayed = new ArrayList<>();
+
+        @Override
+        protected void executeUndoLogs(DataSourceProxy dataSourceProxy, Connection conn,
+                                       List<SQLUndoLog> sqlUndoLogs) {
+            for (SQLUndoLog sqlUndoLog : sqlUndoLogs) {
+                Assertions.assertEquals(ids(sqlUndoLog.getBeforeImage()), ids(sqlUndoLog.getAfterImage()));
+                replayed.add(ids(sqlUndoLog.getBeforeImage()));
+            }
+        }
+    }
+}
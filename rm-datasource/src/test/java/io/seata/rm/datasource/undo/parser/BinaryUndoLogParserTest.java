@@ -0,0 +1,165 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.rm.datasource.undo.parser;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+import io.seata.common.loader.EnhancedServiceLoader;
+import io.seata.rm.datasource.DataCompareUtils;
+import io.seata.rm.datasource.sql.struct.Field;
+import io.seata.rm.datasource.sql.struct.KeyType;
+import io.seata.rm.datasource.sql.struct.Row;
+import io.seata.rm.datasource.sql.struct.TableRecords;
+import io.seata.rm.datasource.undo.BaseUndoLogParserTest;
+import io.seata.rm.datasource.undo.BranchUndoLog;
+import io.seata.rm.datasource.undo.SQLUndoLog;
+import io.seata.rm.datasource.undo.UndoLogParser;
+import io.seata.sqlparser.SQLType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Binary undo log parser test.
+ */
+public class BinaryUndoLogParserTest extends BaseUndoLogParserTest {
+
+    BinaryUndoLogParser parser = (BinaryUndoLogParser) EnhancedServiceLoader.load(UndoLogParser.class, BinaryUndoLogParser.NAME);
+
+    @Test
+    public void testValueTypes() throws SQLException {
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field("bigint_type", JDBCType.BIGINT.getVendorTypeNumber(), 9223372036854775807L));
+        fields.add(new Field("int_type", JDBCType.INTEGER.getVendorTypeNumber(), -12345));
+        fields.add(new Field("unsigned_type", JDBCType.BIGINT.getVendorTypeNumber(), new BigInteger("18446744073709551615")));
+        fields.add(new Field("decimal_type", JDBCType.DECIMAL.getVendorTypeNumber(), new BigDecimal("55555555555555555555.55555555555555555555")));
+        fields.add(new Field("double_type", JDBCType.DOUBLE.getVendorTypeNumber(), 999999.999999999));
+        fields.add(new Field("bit_type", JDBCType.BIT.getVendorTypeNumber(), Boolean.TRUE));
+        fields.add(new Field("varchar_type", JDBCType.VARCHAR.getVendorTypeNumber(), "hello 你好"));
+        fields.add(new Field("null_type", JDBCType.VARCHAR.getVendorTypeNumber(), null));
+        fields.add(new Field("timestamp_type", JDBCType.TIMESTAMP.getVendorTypeNumber(), Timestamp.valueOf("2019-08-10 10:49:26.926554")));
+        fields.add(new Field("localdatetime_type", JDBCType.TIMESTAMP.getVendorTypeNumber(), LocalDateTime.of(2021, 5, 18, 17, 23, 22, 222333000)));
+        fields.add(new Field("blob_type", JDBCType.BLOB.getVendorTypeNumber(), new SerialBlob("hello".getBytes())));
+        fields.add(new Field("clob_type", JDBCType.CLOB.getVendorTypeNumber(), new SerialClob("hello".toCharArray())));
+        fields.add(new Field("binary_type", JDBCType.BINARY.getVendorTypeNumber(), new byte[] {1, 2, 3}));
+        fields.get(0).setKeyType(KeyType.PRIMARY_KEY);
+
+        Row row = new Row();
+        row.setFields(fields);
+        TableRecords image = new TableRecords();
+        image.setTableName("t_binary");
+        image.add(row);
+        // the after image holds only a part of the columns
+        Row updated = new Row();
+        updated.add(fields.get(0));
+        updated.add(new Field("varchar_type", JDBCType.VARCHAR.getVendorTypeNumber(), "world"));
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("t_binary");
+        afterImage.add(updated);
+
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.UPDATE);
+        sqlUndoLog.setTableName("t_binary");
+        sqlUndoLog.setBeforeImage(image);
+        sqlUndoLog.setAfterImage(afterImage);
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("127.0.0.1:8091:123");
+        branchUndoLog.setBranchId(456L);
+        branchUndoLog.setSqlUndoLogs(Collections.singletonList(sqlUndoLog));
+
+        BranchUndoLog decoded = parser.decode(parser.encode(branchUndoLog));
+        SQLUndoLog decodedUndoLog = decoded.getSqlUndoLogs().get(0);
+        Assertions.assertEquals(SQLType.UPDATE, decodedUndoLog.getSqlType());
+        Assertions.assertEquals("t_binary", decodedUndoLog.getTableName());
+        assertRowEquals(row, decodedUndoLog.getBeforeImage().getRows().get(0));
+        assertRowEquals(updated, decodedUndoLog.getAfterImage().getRows().get(0));
+        Assertions.assertEquals("t_binary", decodedUndoLog.getAfterImage().getTableName());
+    }
+
+    @Test
+    public void testSerializableAllowList() {
+        OffsetDateTime dateTime = OffsetDateTime.of(2021, 5, 18, 17, 23, 22, 0, ZoneOffset.ofHours(8));
+        BranchUndoLog decoded = parser.decode(parser.encode(newBranchUndoLog(dateTime)));
+        Assertions.assertEquals(dateTime,
+            decoded.getSqlUndoLogs().get(0).getBeforeImage().getRows().get(0).getFields().get(1).getValue());
+
+        // a class out of the allow list is rejected when the undo log is written, not when it is rolled back
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> parser.encode(newBranchUndoLog(new CustomValue())));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> parser.encode(newBranchUndoLog(new ArrayList<>(Collections.singletonList(new CustomValue())))));
+
+        Assertions.assertTrue(BinaryUndoLogParser.isSerializableAllowed("java.time.OffsetDateTime"));
+        Assertions.assertTrue(BinaryUndoLogParser.isSerializableAllowed("[[I"));
+        Assertions.assertTrue(BinaryUndoLogParser.isSerializableAllowed("[Ljava.lang.String;"));
+        Assertions.assertFalse(BinaryUndoLogParser.isSerializableAllowed("[Lorg.example.Gadget;"));
+        Assertions.assertFalse(BinaryUndoLogParser.isSerializableAllowed("java.lang.reflect.Proxy"));
+        Assertions.assertFalse(BinaryUndoLogParser.isSerializableAllowed(
+            "com.sun.org.apache.xalan.internal.xsltc.trax.TemplatesImpl"));
+    }
+
+    private static BranchUndoLog newBranchUndoLog(Object value) {
+        Row row = new Row();
+        row.add(new Field("id", JDBCType.BIGINT.getVendorTypeNumber(), 1L));
+        row.add(new Field("other_type", JDBCType.OTHER.getVendorTypeNumber(), value));
+        TableRecords image = new TableRecords();
+        image.setTableName("t_binary");
+        image.add(row);
+        SQLUndoLog sqlUndoLog = new SQLUndoLog();
+        sqlUndoLog.setSqlType(SQLType.DELETE);
+        sqlUndoLog.setTableName("t_binary");
+        sqlUndoLog.setBeforeImage(image);
+        TableRecords afterImage = new TableRecords();
+        afterImage.setTableName("t_binary");
+        sqlUndoLog.setAfterImage(afterImage);
+        BranchUndoLog branchUndoLog = new BranchUndoLog();
+        branchUndoLog.setXid("127.0.0.1:8091:123");
+        branchUndoLog.setBranchId(456L);
+        branchUndoLog.setSqlUndoLogs(Collections.singletonList(sqlUndoLog));
+        return branchUndoLog;
+    }
+
+    private static class CustomValue implements Serializable {
+    }
+
+    private static void assertRowEquals(Row expected, Row actual) {
+        Assertions.assertEquals(expected.getFields().size(), actual.getFields().size());
+        for (int i = 0; i < expected.getFields().size(); i++) {
+            Field field = expected.getFields().get(i);
+            Field decodedField = actual.getFields().get(i);
+            Assertions.assertEquals(field.getName(), decodedField.getName());
+            Assertions.assertEquals(field.getKeyType(), decodedField.getKeyType());
+            Assertions.assertTrue(DataCompareUtils.isFieldEquals(field, decodedField).getResult(), field.getName());
+        }
+    }
+
+    @Override
+    public UndoLogParser getParser() {
+        return parser;
+    }
+}
@@ -16,6 +16,7 @@
 package io.seata.rm;
 
 import io.seata.common.exception.NotSupportYetException;
+import io.seata.common.util.FutureUtils;
 import io.seata.core.exception.RmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
@@ -24,6 +25,8 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.Resource;
 import io.seata.core.model.ResourceManager;
 import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.AbstractTransactionRequest;
+import io.seata.core.protocol.transaction.AbstractTransactionResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRegisterResponse;
 import io.seata.core.protocol.transaction.BranchReportRequest;
@@ -32,6 +35,7 @@ import io.seata.core.rpc.netty.RmNettyRemotingClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -106,6 +110,60 @@ public abstract class AbstractResourceManager implements ResourceManager {
         }
     }
 
+    @Override
+    public CompletableFuture<Long> branchRegisterAsync(BranchType branchType, String resourceId, String clientId,
+                                                       String xid, String applicationData, String lockKeys) {
+        BranchRegisterRequest request = new BranchRegisterRequest();
+        request.setXid(xid);
+        request.setLockKey(lockKeys);
+        request.setResourceId(resourceId);
+        request.setBranchType(branchType);
+        request.setApplicationData(applicationData);
+
+        return asyncCall(request, TransactionExceptionCode.BranchRegisterFailed)
+            .thenApply(response -> ((BranchRegisterResponse) response).getBranchId());
+    }
+
+    @Override
+    public CompletableFuture<Void> branchReportAsync(BranchType branchType, String xid, long branchId,
+                                                     BranchStatus status, String applicationData) {
+        BranchReportRequest request = new BranchReportRequest();
+        request.setXid(xid);
+        request.setBranchId(branchId);
+        request.setStatus(status);
+        request.setApplicationData(applicationData);
+
+        return asyncCall(request, TransactionExceptionCode.BranchReportFailed).thenApply(response -> null);
+    }
+
+    private CompletableFuture<AbstractTransactionResponse> asyncCall(AbstractTransactionRequest request,
+                                                                      TransactionExceptionCode runtimeCode) {
+        CompletableFuture<Object> responseFuture;
+        try {
+            responseFuture = RmNettyRemotingClient.getInstance().sendSyncRequestAsync(request);
+        } catch (RuntimeException rex) {
+            return FutureUtils.failed(new RmTransactionException(runtimeCode, "Runtime", rex));
+        }
+        CompletableFuture<AbstractTransactionResponse> future = new CompletableFuture<>();
+        responseFuture.whenComplete((result, e) -> {
+            if (e == null) {
+                AbstractTransactionResponse response = (AbstractTransactionResponse) result;
+                if (response.getResultCode() == ResultCode.Failed) {
+                    future.completeExceptionally(new RmTransactionException(response.getTransactionExceptionCode(),
+                        String.format("Response[ %s ]", response.getMsg())));
+                } else {
+                    future.complete(response);
+                }
+                return;
+            }
+            Throwable cause = FutureUtils.unwrap(e);
+            future.completeExceptionally(cause instanceof TimeoutException
+                ? new RmTransactionException(TransactionExceptionCode.IO, "RPC Timeout", cause)
+                : new RmTransactionException(runtimeCode, "Runtime", cause));
+        });
+        return future;
+    }
+
     @Override
     public boolean lockQuery(BranchType branchType, String resourceId, String xid, String lockKeys) throws TransactionException {
         return false;
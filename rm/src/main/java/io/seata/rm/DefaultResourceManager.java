@@ -18,6 +18,7 @@ package io.seata.rm;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.exception.FrameworkException;
@@ -103,6 +104,19 @@ public class DefaultResourceManager implements ResourceManager {
         getResourceManager(branchType).branchReport(branchType, xid, branchId, status, applicationData);
     }
 
+    @Override
+    public CompletableFuture<Long> branchRegisterAsync(BranchType branchType, String resourceId, String clientId,
+                                                       String xid, String applicationData, String lockKeys) {
+        return getResourceManager(branchType).branchRegisterAsync(branchType, resourceId, clientId, xid,
+            applicationData, lockKeys);
+    }
+
+    @Override
+    public CompletableFuture<Void> branchReportAsync(BranchType branchType, String xid, long branchId,
+                                                     BranchStatus status, String applicationData) {
+        return getResourceManager(branchType).branchReportAsync(branchType, xid, branchId, status, applicationData);
+    }
+
     @Override
     public boolean lockQuery(BranchType branchType, String resourceId,
                              String xid, String lockKeys) throws TransactionException {
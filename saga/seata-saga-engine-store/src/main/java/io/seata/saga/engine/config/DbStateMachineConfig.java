@@ -27,6 +27,7 @@ import io.seata.saga.engine.impl.DefaultStateMachineConfig;
 import io.seata.saga.engine.serializer.impl.ParamsSerializer;
 import io.seata.saga.engine.store.db.DbAndReportTcStateLogStore;
 import io.seata.saga.engine.store.db.DbStateLangStore;
+import io.seata.saga.engine.store.db.WriteBehindDbAndReportTcStateLogStore;
 import io.seata.saga.tm.DefaultSagaTransactionalTemplate;
 import io.seata.saga.tm.SagaTransactionalTemplate;
 import org.slf4j.Logger;
@@ -38,6 +39,9 @@ import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
 
 /**
@@ -57,6 +61,9 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private boolean rmReportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
+    private boolean sagaStateLogWriteBehindEnable = DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE;
+    private int sagaStateLogFlushSize = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+    private long sagaStateLogFlushInterval = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
 
 
     public DbStateMachineConfig() {
@@ -72,6 +79,12 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
                     DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE));
                 setSagaCompensatePersistModeUpdate(configuration.getBoolean(ConfigurationKeys.CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE,
                     DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE));
+                this.sagaStateLogWriteBehindEnable = configuration.getBoolean(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE);
+                this.sagaStateLogFlushSize = configuration.getInt(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_FLUSH_SIZE,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE);
+                this.sagaStateLogFlushInterval = configuration.getLong(ConfigurationKeys.CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL,
+                    DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL);
             }
         } catch (Exception e) {
             LOGGER.warn("Load SEATA configuration failed, use default configuration instead.", e);
@@ -91,7 +104,15 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
         dbType = getDbTypeFromDataSource(dataSource);
 
         if (getStateLogStore() == null) {
-            DbAndReportTcStateLogStore dbStateLogStore = new DbAndReportTcStateLogStore();
+            DbAndReportTcStateLogStore dbStateLogStore;
+            if (sagaStateLogWriteBehindEnable) {
+                WriteBehindDbAndReportTcStateLogStore writeBehindStateLogStore = new WriteBehindDbAndReportTcStateLogStore();
+                writeBehindStateLogStore.setFlushSize(sagaStateLogFlushSize);
+                writeBehindStateLogStore.setFlushInterval(sagaStateLogFlushInterval);
+                dbStateLogStore = writeBehindStateLogStore;
+            } else {
+                dbStateLogStore = new DbAndReportTcStateLogStore();
+            }
             dbStateLogStore.setDataSource(dataSource);
             dbStateLogStore.setTablePrefix(tablePrefix);
             dbStateLogStore.setDbType(dbType);
@@ -197,4 +218,28 @@ public class DbStateMachineConfig extends DefaultStateMachineConfig implements D
     public void setRmReportSuccessEnable(boolean rmReportSuccessEnable) {
         this.rmReportSuccessEnable = rmReportSuccessEnable;
     }
+
+    public boolean isSagaStateLogWriteBehindEnable() {
+        return sagaStateLogWriteBehindEnable;
+    }
+
+    public void setSagaStateLogWriteBehindEnable(boolean sagaStateLogWriteBehindEnable) {
+        this.sagaStateLogWriteBehindEnable = sagaStateLogWriteBehindEnable;
+    }
+
+    public int getSagaStateLogFlushSize() {
+        return sagaStateLogFlushSize;
+    }
+
+    public void setSagaStateLogFlushSize(int sagaStateLogFlushSize) {
+        this.sagaStateLogFlushSize = sagaStateLogFlushSize;
+    }
+
+    public long getSagaStateLogFlushInterval() {
+        return sagaStateLogFlushInterval;
+    }
+
+    public void setSagaStateLogFlushInterval(long sagaStateLogFlushInterval) {
+        this.sagaStateLogFlushInterval = sagaStateLogFlushInterval;
+    }
 }
@@ -80,6 +80,8 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                                                                                                = new StateInstanceToStatementForInsert();
     private static final StateInstanceToStatementForUpdate        STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE
                                                                                                = new StateInstanceToStatementForUpdate();
+    private static final StateInstanceToStatementForUpdateStatus  STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE_STATUS
+                                                                                               = new StateInstanceToStatementForUpdateStatus();
     private static final ResultSetToStateInstance                 RESULT_SET_TO_STATE_INSTANCE = new ResultSetToStateInstance();
     private SagaTransactionalTemplate sagaTransactionalTemplate;
     private Serializer<Object, String>    paramsSerializer    = new ParamsSerializer();
@@ -284,17 +286,29 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             stateInstance.setSerializedInputParams(paramsSerializer.serialize(stateInstance.getInputParams()));
             if (!isUpdateMode) {
-                executeUpdate(stateLogStoreSqls.getRecordStateStartedSql(dbType),
+                executeStateUpdate(stateLogStoreSqls.getRecordStateStartedSql(dbType),
                     STATE_INSTANCE_TO_STATEMENT_FOR_INSERT, stateInstance);
             } else {
                 // if this retry/compensate state do not need persist, just update last inst
-                executeUpdate(stateLogStoreSqls.getUpdateStateExecutionStatusSql(dbType),
-                    stateInstance.getStatus().name(), new Timestamp(System.currentTimeMillis()),
-                    stateInstance.getMachineInstanceId(), stateInstance.getId());
+                stateInstance.setGmtUpdated(new Date());
+                executeStateUpdate(stateLogStoreSqls.getUpdateStateExecutionStatusSql(dbType),
+                    STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE_STATUS, stateInstance);
             }
         }
     }
 
+    /**
+     * persist a state instance record
+     *
+     * @param sql
+     * @param objectToStatement
+     * @param stateInstance
+     */
+    protected void executeStateUpdate(String sql, ObjectToStatement<StateInstance> objectToStatement,
+                                      StateInstance stateInstance) {
+        executeUpdate(sql, objectToStatement, stateInstance);
+    }
+
     protected void branchRegister(StateInstance stateInstance, ProcessContext context) {
         if (sagaTransactionalTemplate != null) {
             StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
@@ -459,7 +473,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
 
             stateInstance.setSerializedOutputParams(paramsSerializer.serialize(stateInstance.getOutputParams()));
             stateInstance.setSerializedException(exceptionSerializer.serialize(stateInstance.getException()));
-            executeUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
+            executeStateUpdate(stateLogStoreSqls.getRecordStateFinishedSql(dbType), STATE_INSTANCE_TO_STATEMENT_FOR_UPDATE,
                     stateInstance);
 
             //A switch to skip branch report on branch success, in order to optimize performance
@@ -546,8 +560,7 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
                     throw new EngineExecutionException("Global transaction is not exists", FrameworkErrorCode.ObjectNotExists);
                 }
 
-                sagaTransactionalTemplate.branchReport(globalTransaction.getXid(), Long.parseLong(originalStateInst.getId()), branchStatus,
-                        null);
+                reportBranch(globalTransaction.getXid(), originalStateInst, branchStatus);
             } catch (TransactionException e) {
                 LOGGER.error(
                         "Report branch status to server error: {}, StateMachine:{}, StateName:{}, XID: {}, branchId: {}, branchStatus:{},"
@@ -576,6 +589,19 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
+    /**
+     * report the status of the branch registered for the original state instance
+     *
+     * @param xid
+     * @param originalStateInst
+     * @param branchStatus
+     * @throws TransactionException
+     */
+    protected void reportBranch(String xid, StateInstance originalStateInst, BranchStatus branchStatus)
+            throws TransactionException {
+        sagaTransactionalTemplate.branchReport(xid, Long.parseLong(originalStateInst.getId()), branchStatus, null);
+    }
+
     private StateInstance findOutOriginalStateInstanceOfRetryState(StateInstance stateInstance) {
         StateInstance originalStateInst;
         Map<String, StateInstance> stateInstanceMap = stateInstance.getStateMachineInstance().getStateMap();
@@ -858,6 +884,16 @@ public class DbAndReportTcStateLogStore extends AbstractStore implements StateLo
         }
     }
 
+    private static class StateInstanceToStatementForUpdateStatus implements ObjectToStatement<StateInstance> {
+        @Override
+        public void toStatement(StateInstance stateInstance, PreparedStatement statement) throws SQLException {
+            statement.setString(1, stateInstance.getStatus().name());
+            statement.setTimestamp(2, new Timestamp(stateInstance.getGmtUpdated().getTime()));
+            statement.setString(3, stateInstance.getMachineInstanceId());
+            statement.setString(4, stateInstance.getId());
+        }
+    }
+
     private static class ResultSetToStateMachineInstance implements ResultSetToObject<StateMachineInstance> {
         @Override
         public StateMachineInstance toObject(ResultSet resultSet) throws SQLException {
@@ -0,0 +1,430 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.store.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.util.FutureUtils;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.saga.engine.config.DbStateMachineConfig;
+import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.RecoverStrategy;
+import io.seata.saga.statelang.domain.State;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.TaskState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+
+/**
+ * State logs are buffered per state machine instance and written to database in one JDBC batch at safe points:
+ * <ul>
+ * <li>before a state is executed if a branch was registered for it, the state has a compensate state or the state
+ * machine is recovered forward, so the recovery always finds the states which were executed</li>
+ * <li>when the compensation is triggered</li>
+ * <li>when the state machine instance finished, before the global transaction status is reported</li>
+ * <li>when the buffered records reach the flush size or are older than the flush interval</li>
+ * <li>before the state logs of the state machine instance are read</li>
+ * </ul>
+ * Branch reports are sent together after the state logs they describe were written. The buffer of a state machine
+ * instance which is not finished normally is flushed and dropped once it was not accessed for the expire time.
+ */
+public class WriteBehindDbAndReportTcStateLogStore extends DbAndReportTcStateLogStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindDbAndReportTcStateLogStore.class);
+
+    private static final long DEFAULT_BUFFER_EXPIRE_TIME = 60 * 1000L;
+
+    private final Map<String, StateLogBuffer> stateLogBuffers = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastExpireTime = new AtomicLong(System.currentTimeMillis());
+
+    private int flushSize = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+
+    private long flushInterval = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
+
+    private long bufferExpireTime = DEFAULT_BUFFER_EXPIRE_TIME;
+
+    @Override
+    public void recordStateMachineFinished(StateMachineInstance machineInstance, ProcessContext context) {
+        if (machineInstance != null && machineInstance.getId() != null) {
+            StateLogBuffer buffer = stateLogBuffers.remove(machineInstance.getId());
+            if (buffer != null) {
+                try {
+                    expireAndFlush(buffer);
+                } catch (RuntimeException e) {
+                    // leave the state machine instance running, it will be recovered from the persisted state logs
+                    this.clearUp();
+                    throw e;
+                }
+            }
+        }
+        super.recordStateMachineFinished(machineInstance, context);
+    }
+
+    @Override
+    public void recordStateStarted(StateInstance stateInstance, ProcessContext context) {
+        super.recordStateStarted(stateInstance, context);
+        if (stateInstance != null) {
+            StateLogBuffer buffer = getStateLogBuffer(stateInstance.getMachineInstanceId());
+            boolean isCompensationTriggered = false;
+            if (StringUtils.hasLength(stateInstance.getStateIdCompensatedFor())) {
+                synchronized (buffer) {
+                    isCompensationTriggered = !buffer.compensating;
+                    buffer.compensating = true;
+                }
+            }
+            if (isCompensationTriggered || isWriteAheadRequired(stateInstance, context) || buffer.isFull()) {
+                flush(buffer);
+            }
+        }
+    }
+
+    @Override
+    public void recordStateFinished(StateInstance stateInstance, ProcessContext context) {
+        super.recordStateFinished(stateInstance, context);
+        if (stateInstance != null) {
+            StateLogBuffer buffer = getStateLogBuffer(stateInstance.getMachineInstanceId());
+            if (buffer.isFull()) {
+                flush(buffer);
+            }
+        }
+    }
+
+    @Override
+    protected void executeStateUpdate(String sql, ObjectToStatement<StateInstance> objectToStatement,
+                                      StateInstance stateInstance) {
+        // the record is bound to the statement when flushed, so the latest values of the state instance are written
+        StateLogRecord record = new StateLogRecord(sql, objectToStatement, stateInstance);
+        while (true) {
+            StateLogBuffer buffer = getStateLogBuffer(stateInstance.getMachineInstanceId());
+            synchronized (buffer) {
+                if (!buffer.expired) {
+                    buffer.lastAccessTime = System.currentTimeMillis();
+                    if (buffer.records.isEmpty()) {
+                        buffer.firstRecordTime = buffer.lastAccessTime;
+                    }
+                    buffer.records.add(record);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void reportBranch(String xid, StateInstance originalStateInst, BranchStatus branchStatus) {
+        long branchId = Long.parseLong(originalStateInst.getId());
+        BranchReport report = new BranchReport(xid, branchId, branchStatus, originalStateInst);
+        while (true) {
+            StateLogBuffer buffer = getStateLogBuffer(originalStateInst.getMachineInstanceId());
+            synchronized (buffer) {
+                if (!buffer.expired) {
+                    buffer.lastAccessTime = System.currentTimeMillis();
+                    // only the last status of a branch is reported
+                    buffer.branchReports.remove(branchId);
+                    buffer.branchReports.put(branchId, report);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+        flush(machineInstId);
+        return super.getStateInstance(stateInstanceId, machineInstId);
+    }
+
+    @Override
+    public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+        flush(stateMachineInstanceId);
+        return super.queryStateInstanceListByMachineInstanceId(stateMachineInstanceId);
+    }
+
+    /**
+     * flush the buffered state logs of the state machine instance
+     *
+     * @param machineInstanceId
+     */
+    public void flush(String machineInstanceId) {
+        if (machineInstanceId != null) {
+            StateLogBuffer buffer = stateLogBuffers.get(machineInstanceId);
+            if (buffer != null) {
+                flush(buffer);
+            }
+        }
+    }
+
+    private void flush(StateLogBuffer buffer) {
+        List<BranchReport> branchReports;
+        synchronized (buffer) {
+            if (!buffer.records.isEmpty()) {
+                executeBatch(buffer.records);
+                buffer.records.clear();
+            }
+            if (buffer.branchReports.isEmpty()) {
+                return;
+            }
+            branchReports = new ArrayList<>(buffer.branchReports.values());
+            buffer.branchReports.clear();
+        }
+        reportBranches(branchReports);
+    }
+
+    /**
+     * write the records in one transaction, consecutive records of the same sql share one batch
+     */
+    private void executeBatch(List<StateLogRecord> records) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        boolean originalAutoCommit = true;
+        try {
+            connection = dataSource.getConnection();
+            originalAutoCommit = connection.getAutoCommit();
+            if (originalAutoCommit) {
+                connection.setAutoCommit(false);
+            }
+
+            String sql = null;
+            for (StateLogRecord record : records) {
+                if (!record.sql.equals(sql)) {
+                    if (stmt != null) {
+                        stmt.executeBatch();
+                        closeSilent(stmt);
+                    }
+                    sql = record.sql;
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Preparing SQL: {}", sql);
+                    }
+                    stmt = connection.prepareStatement(sql);
+                }
+                record.objectToStatement.toStatement(record.stateInstance, stmt);
+                stmt.addBatch();
+            }
+            if (stmt != null) {
+                stmt.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackEx) {
+                    LOGGER.warn("Rollback state logs failed: {}", rollbackEx.getMessage(), rollbackEx);
+                }
+            }
+            throw new StoreException(e);
+        } finally {
+            closeSilent(stmt);
+            if (connection != null) {
+                try {
+                    connection.setAutoCommit(originalAutoCommit);
+                } catch (SQLException e) {
+                    LOGGER.warn("Restore auto commit failed: {}", e.getMessage(), e);
+                }
+            }
+            closeSilent(connection);
+        }
+    }
+
+    /**
+     * send the branch reports at the same time, so that they can be merged into one request
+     */
+    private void reportBranches(List<BranchReport> branchReports) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(branchReports.size());
+        for (BranchReport report : branchReports) {
+            futures.add(getSagaTransactionalTemplate().branchReportAsync(report.xid, report.branchId,
+                report.branchStatus, null));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).join();
+            } catch (RuntimeException e) {
+                Throwable cause = FutureUtils.unwrap(e);
+                BranchReport report = branchReports.get(i);
+                LOGGER.error(
+                    "Report branch status to server error: {}, StateMachine:{}, StateName:{}, XID: {}, branchId: {}, branchStatus:{},"
+                        + " Reason:{} "
+                    , cause instanceof TransactionException ? ((TransactionException)cause).getCode() : null
+                    , report.stateInstance.getStateMachineInstance().getStateMachine().getName()
+                    , report.stateInstance.getName()
+                    , report.xid
+                    , report.branchId
+                    , report.branchStatus
+                    , cause.getMessage()
+                    , cause);
+            }
+        }
+    }
+
+    /**
+     * whether the state has to be persisted before it is executed, it is the case if the TC may drive the recovery
+     * of its branch, the state may be compensated or the state machine is recovered forward
+     */
+    private boolean isWriteAheadRequired(StateInstance stateInstance, ProcessContext context) {
+        StateMachineInstance machineInstance = stateInstance.getStateMachineInstance();
+        if (machineInstance != null && machineInstance.getStateMachine() != null
+            && RecoverStrategy.Forward.equals(machineInstance.getStateMachine().getRecoverStrategy())) {
+            return true;
+        }
+        return isBranchRegistered(stateInstance, context) || isCompensable(context);
+    }
+
+    private boolean isBranchRegistered(StateInstance stateInstance, ProcessContext context) {
+        // the same condition as the branch registration of recordStateStarted
+        if (getSagaTransactionalTemplate() == null || StringUtils.hasLength(stateInstance.getStateIdRetriedFor())
+            || StringUtils.hasLength(stateInstance.getStateIdCompensatedFor())) {
+            return false;
+        }
+        Object stateMachineConfig = context.getVariable(DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        return !(stateMachineConfig instanceof DbStateMachineConfig)
+            || ((DbStateMachineConfig)stateMachineConfig).isSagaBranchRegisterEnable();
+    }
+
+    private boolean isCompensable(ProcessContext context) {
+        StateInstruction instruction = context.getInstruction(StateInstruction.class);
+        if (instruction == null) {
+            return false;
+        }
+        State state = instruction.getState(context);
+        return state instanceof TaskState && StringUtils.hasLength(((TaskState)state).getCompensateState());
+    }
+
+    private StateLogBuffer getStateLogBuffer(String machineInstanceId) {
+        expireStateLogBuffers();
+        return stateLogBuffers.computeIfAbsent(machineInstanceId, id -> new StateLogBuffer());
+    }
+
+    /**
+     * flush and drop the buffers which were not accessed for the expire time, they belong to state machine instances
+     * which did not finish normally
+     */
+    private void expireStateLogBuffers() {
+        long now = System.currentTimeMillis();
+        long last = lastExpireTime.get();
+        if (now - last < bufferExpireTime || !lastExpireTime.compareAndSet(last, now)) {
+            return;
+        }
+        for (Map.Entry<String, StateLogBuffer> entry : stateLogBuffers.entrySet()) {
+            StateLogBuffer buffer = entry.getValue();
+            synchronized (buffer) {
+                if (now - buffer.lastAccessTime < bufferExpireTime) {
+                    continue;
+                }
+            }
+            if (stateLogBuffers.remove(entry.getKey(), buffer)) {
+                try {
+                    expireAndFlush(buffer);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Flush expired state logs of StateMachineInstance[{}] failed: {}", entry.getKey(),
+                        e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * flush a buffer which was removed, the later records of its state machine instance go to a new buffer
+     */
+    private void expireAndFlush(StateLogBuffer buffer) {
+        synchronized (buffer) {
+            buffer.expired = true;
+        }
+        flush(buffer);
+    }
+
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public void setBufferExpireTime(long bufferExpireTime) {
+        this.bufferExpireTime = bufferExpireTime;
+    }
+
+    private class StateLogBuffer {
+
+        private final List<StateLogRecord> records = new ArrayList<>();
+
+        private final Map<Long, BranchReport> branchReports = new LinkedHashMap<>();
+
+        private long firstRecordTime;
+
+        private long lastAccessTime = System.currentTimeMillis();
+
+        private boolean compensating;
+
+        private boolean expired;
+
+        private synchronized boolean isFull() {
+            return records.size() + branchReports.size() >= flushSize
+                || (!records.isEmpty() && System.currentTimeMillis() - firstRecordTime >= flushInterval);
+        }
+    }
+
+    private static class StateLogRecord {
+
+        private final String sql;
+
+        private final ObjectToStatement<StateInstance> objectToStatement;
+
+        private final StateInstance stateInstance;
+
+        StateLogRecord(String sql, ObjectToStatement<StateInstance> objectToStatement, StateInstance stateInstance) {
+            this.sql = sql;
+            this.objectToStatement = objectToStatement;
+            this.stateInstance = stateInstance;
+        }
+    }
+
+    private static class BranchReport {
+
+        private final String xid;
+
+        private final long branchId;
+
+        private final BranchStatus branchStatus;
+
+        private final StateInstance stateInstance;
+
+        BranchReport(String xid, long branchId, BranchStatus branchStatus, StateInstance stateInstance) {
+            this.xid = xid;
+            this.branchId = branchId;
+            this.branchStatus = branchStatus;
+            this.stateInstance = stateInstance;
+        }
+    }
+}
@@ -122,6 +122,27 @@ public interface StateMachineConfig {
      */
     ProcessCtrlEventPublisher getAsyncProcessCtrlEventPublisher();
 
+    /**
+     * Gets get loop process ctrl event publisher, the loop tasks are published by it.
+     *
+     * @return the get loop process ctrl event publisher
+     */
+    ProcessCtrlEventPublisher getLoopProcessCtrlEventPublisher();
+
+    /**
+     * get the max parallel of a loop state, not limited if not greater than 0
+     *
+     * @return
+     */
+    int getLoopMaxParallel();
+
+    /**
+     * get the number of finished loop tasks put into the loop result per batch
+     *
+     * @return
+     */
+    int getLoopResultBatchSize();
+
     /**
      * Gets get application context.
      *
@@ -85,6 +85,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
 
     private static final int DEFAULT_TRANS_OPER_TIMEOUT     = 60000 * 30;
     private static final int DEFAULT_SERVICE_INVOKE_TIMEOUT = 60000 * 5;
+    private static final int DEFAULT_LOOP_RESULT_BATCH_SIZE = 16;
 
     private int transOperationTimeout = DEFAULT_TRANS_OPER_TIMEOUT;
     private int serviceInvokeTimeout  = DEFAULT_SERVICE_INVOKE_TIMEOUT;
@@ -100,9 +101,13 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
 
     private ProcessCtrlEventPublisher syncProcessCtrlEventPublisher;
     private ProcessCtrlEventPublisher asyncProcessCtrlEventPublisher;
+    private ProcessCtrlEventPublisher loopProcessCtrlEventPublisher;
     private ApplicationContext applicationContext;
     private ThreadPoolExecutor threadPoolExecutor;
     private boolean enableAsync;
+    private ThreadPoolExecutor loopThreadPoolExecutor;
+    private int loopMaxParallel;
+    private int loopResultBatchSize = DEFAULT_LOOP_RESULT_BATCH_SIZE;
     private ServiceInvokerManager serviceInvokerManager;
 
     private Resource[] resources = new Resource[0];
@@ -142,6 +147,10 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
                 new ExceptionMatchEvaluatorFactory());
         }
 
+        if (this.scriptEngineManager == null) {
+            this.scriptEngineManager = new ScriptEngineManager();
+        }
+
         if (stateMachineRepository == null) {
             StateMachineRepositoryImpl stateMachineRepository = new StateMachineRepositoryImpl();
             stateMachineRepository.setCharset(charset);
@@ -149,6 +158,7 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             stateMachineRepository.setStateLangStore(stateLangStore);
             stateMachineRepository.setDefaultTenantId(defaultTenantId);
             stateMachineRepository.setJsonParserName(sagaJsonParser);
+            stateMachineRepository.setStateMachineConfig(this);
             if (resources != null) {
                 try {
                     stateMachineRepository.registryByResources(resources, defaultTenantId);
@@ -202,6 +212,24 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             asyncProcessCtrlEventPublisher = asyncEventPublisher;
         }
 
+        // loop tasks run on their own pool if configured, so a large loop will not starve the other state machines
+        if (enableAsync && loopProcessCtrlEventPublisher == null && loopThreadPoolExecutor != null) {
+            ProcessCtrlEventPublisher loopEventPublisher = new ProcessCtrlEventPublisher();
+
+            ProcessControllerImpl processorController = createProcessorController(loopEventPublisher);
+
+            ProcessCtrlEventConsumer processCtrlEventConsumer = new ProcessCtrlEventConsumer();
+            processCtrlEventConsumer.setProcessController(processorController);
+
+            AsyncEventBus loopEventBus = new AsyncEventBus();
+            loopEventBus.setThreadPoolExecutor(loopThreadPoolExecutor);
+            loopEventPublisher.setEventBus(loopEventBus);
+
+            loopEventBus.registerEventConsumer(processCtrlEventConsumer);
+
+            loopProcessCtrlEventPublisher = loopEventPublisher;
+        }
+
         if (this.serviceInvokerManager == null) {
             this.serviceInvokerManager = new ServiceInvokerManager();
 
@@ -212,10 +240,6 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
             this.serviceInvokerManager.putServiceInvoker(DomainConstants.SERVICE_TYPE_SPRING_BEAN,
                 springBeanServiceInvoker);
         }
-
-        if (this.scriptEngineManager == null) {
-            this.scriptEngineManager = new ScriptEngineManager();
-        }
     }
 
     protected ProcessControllerImpl createProcessorController(ProcessCtrlEventPublisher eventPublisher) throws Exception {
@@ -385,6 +409,15 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
         this.asyncProcessCtrlEventPublisher = asyncProcessCtrlEventPublisher;
     }
 
+    @Override
+    public ProcessCtrlEventPublisher getLoopProcessCtrlEventPublisher() {
+        return loopProcessCtrlEventPublisher != null ? loopProcessCtrlEventPublisher : asyncProcessCtrlEventPublisher;
+    }
+
+    public void setLoopProcessCtrlEventPublisher(ProcessCtrlEventPublisher loopProcessCtrlEventPublisher) {
+        this.loopProcessCtrlEventPublisher = loopProcessCtrlEventPublisher;
+    }
+
     @Override
     public ApplicationContext getApplicationContext() {
         return applicationContext;
@@ -413,6 +446,32 @@ public class DefaultStateMachineConfig implements StateMachineConfig, Applicatio
         this.enableAsync = enableAsync;
     }
 
+    public ThreadPoolExecutor getLoopThreadPoolExecutor() {
+        return loopThreadPoolExecutor;
+    }
+
+    public void setLoopThreadPoolExecutor(ThreadPoolExecutor loopThreadPoolExecutor) {
+        this.loopThreadPoolExecutor = loopThreadPoolExecutor;
+    }
+
+    @Override
+    public int getLoopMaxParallel() {
+        return loopMaxParallel;
+    }
+
+    public void setLoopMaxParallel(int loopMaxParallel) {
+        this.loopMaxParallel = loopMaxParallel;
+    }
+
+    @Override
+    public int getLoopResultBatchSize() {
+        return loopResultBatchSize;
+    }
+
+    public void setLoopResultBatchSize(int loopResultBatchSize) {
+        this.loopResultBatchSize = loopResultBatchSize;
+    }
+
     @Override
     public StateLogRepository getStateLogRepository() {
         return stateLogRepository;
@@ -31,7 +31,6 @@ import io.seata.saga.engine.pcext.utils.LoopContextHolder;
 import io.seata.saga.engine.pcext.utils.LoopTaskUtils;
 import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
-import io.seata.saga.proctrl.impl.ProcessContextImpl;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.StateMachineInstance;
 import io.seata.saga.statelang.domain.TaskState.Loop;
@@ -64,11 +63,10 @@ public class LoopStartStateHandler implements StateHandler {
         LoopContextHolder loopContextHolder = LoopContextHolder.getCurrent(context, true);
         Semaphore semaphore = null;
         int maxInstances = 0;
-        List<ProcessContext> loopContextList = new ArrayList<>();
 
         if (null != loop) {
 
-            if (!stateMachineConfig.isEnableAsync() || null == stateMachineConfig.getAsyncProcessCtrlEventPublisher()) {
+            if (!stateMachineConfig.isEnableAsync() || null == stateMachineConfig.getLoopProcessCtrlEventPublisher()) {
                 throw new EngineExecutionException(
                     "Asynchronous start is disabled. Loop execution will run asynchronous, please set "
                         + "StateMachineConfig.enableAsync=true first.", FrameworkErrorCode.AsynchronousStartDisabled);
@@ -83,39 +81,34 @@ public class LoopStartStateHandler implements StateHandler {
                 totalInstances = loopContextHolder.getNrOfInstances().get();
             }
             maxInstances = Math.min(loop.getParallel(), totalInstances);
+            if (stateMachineConfig.getLoopMaxParallel() > 0) {
+                maxInstances = Math.min(maxInstances, stateMachineConfig.getLoopMaxParallel());
+            }
             semaphore = new Semaphore(maxInstances);
             context.setVariable(DomainConstants.LOOP_SEMAPHORE, semaphore);
             context.setVariable(DomainConstants.VAR_NAME_IS_LOOP_STATE, true);
 
-            // publish loop tasks
-            for (int i = 0; i < totalInstances; i++) {
+            // start the loop tasks, each finished loop task takes the next loop counter by itself
+            for (int i = 0; i < maxInstances; i++) {
                 try {
                     semaphore.acquire();
-
-                    ProcessContextImpl tempContext;
-                    // fail end inst should be forward without completion condition check
-                    if (!loopContextHolder.getForwardCounterStack().isEmpty()) {
-                        int failEndLoopCounter = loopContextHolder.getForwardCounterStack().pop();
-                        tempContext = (ProcessContextImpl)LoopTaskUtils.createLoopEventContext(context, failEndLoopCounter);
-                    } else if (loopContextHolder.isFailEnd() || LoopTaskUtils.isCompletionConditionSatisfied(context)) {
-                        semaphore.release();
-                        break;
-                    } else {
-                        tempContext = (ProcessContextImpl)LoopTaskUtils.createLoopEventContext(context, -1);
-                    }
-
-                    if (DomainConstants.OPERATION_NAME_FORWARD.equals(context.getVariable(DomainConstants.VAR_NAME_OPERATION_NAME))) {
-                        ((HierarchicalProcessContext)context).setVariableLocally(
-                            DomainConstants.VAR_NAME_IS_FOR_SUB_STATMACHINE_FORWARD, LoopTaskUtils.isForSubStateMachineForward(tempContext));
-                    }
-                    stateMachineConfig.getAsyncProcessCtrlEventPublisher().publish(tempContext);
-                    loopContextHolder.getNrOfActiveInstances().incrementAndGet();
-                    loopContextList.add(tempContext);
                 } catch (InterruptedException e) {
                     LOGGER.error("try execute loop task for State: [{}] is interrupted, message: [{}]",
                         instruction.getStateName(), e.getMessage());
                     throw new EngineExecutionException(e);
                 }
+
+                ProcessContext loopContext = null;
+                try {
+                    loopContext = LoopTaskUtils.publishNextLoopTask(context);
+                } finally {
+                    if (null == loopContext) {
+                        semaphore.release();
+                    }
+                }
+                if (null == loopContext) {
+                    break;
+                }
             }
         } else {
             LOGGER.warn("Loop config of State [{}] is illegal, will execute as normal", instruction.getStateName());
@@ -132,9 +125,7 @@ public class LoopStartStateHandler implements StateHandler {
                     isFinished = semaphore.tryAcquire(maxInstances, AWAIT_TIMEOUT, TimeUnit.MILLISECONDS);
                 }
 
-                if (loopContextList.size() > 0) {
-                    LoopTaskUtils.putContextToParent(context, loopContextList, instruction.getState(context));
-                }
+                LoopTaskUtils.putContextToParent(context);
             }
         } catch (InterruptedException e) {
             LOGGER.error("State: [{}] wait loop execution complete is interrupted, message: [{}]",
@@ -147,6 +138,7 @@ public class LoopStartStateHandler implements StateHandler {
         }
 
         if (loopContextHolder.isFailEnd()) {
+            List<ProcessContext> loopContextList = new ArrayList<>(loopContextHolder.getFailedLoopContexts());
             String currentExceptionRoute = LoopTaskUtils.decideCurrentExceptionRoute(loopContextList, stateMachineInstance.getStateMachine());
             if (StringUtils.isNotBlank(currentExceptionRoute)) {
                 ((HierarchicalProcessContext)context).setVariableLocally(DomainConstants.VAR_NAME_CURRENT_EXCEPTION_ROUTE, currentExceptionRoute);
@@ -23,6 +23,7 @@ import io.seata.saga.engine.pcext.InterceptableStateHandler;
 import io.seata.saga.engine.pcext.StateHandler;
 import io.seata.saga.engine.pcext.StateHandlerInterceptor;
 import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.engine.pcext.utils.CompileUtils;
 import io.seata.saga.engine.pcext.utils.EngineUtils;
 import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
@@ -32,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.SimpleBindings;
@@ -71,13 +73,19 @@ public class ScriptTaskStateHandler implements StateHandler, InterceptableStateH
                         state.getName(), scriptType, input);
             }
 
-            StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
-                    DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
-
-            ScriptEngine scriptEngine = getScriptEngineFromCache(scriptType, stateMachineConfig.getScriptEngineManager());
-            if (scriptEngine == null) {
-                throw new EngineExecutionException("No such ScriptType[" + scriptType + "]",
-                        FrameworkErrorCode.ObjectNotExists);
+            // the script is usually compiled when the state machine is registered
+            CompiledScript compiledScript = state.getCompiledScript();
+            ScriptEngine scriptEngine = null;
+            if (compiledScript == null) {
+                StateMachineConfig stateMachineConfig = (StateMachineConfig) context.getVariable(
+                        DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+
+                scriptEngine = getScriptEngineFromCache(scriptType, stateMachineConfig.getScriptEngineManager());
+                if (scriptEngine == null) {
+                    throw new EngineExecutionException("No such ScriptType[" + scriptType + "]",
+                            FrameworkErrorCode.ObjectNotExists);
+                }
+                compiledScript = CompileUtils.compileScript(scriptEngine, state);
             }
 
             Bindings bindings = null;
@@ -100,7 +108,9 @@ public class ScriptTaskStateHandler implements StateHandler, InterceptableStateH
                     }
                 }
             }
-            if (bindings != null) {
+            if (compiledScript != null) {
+                result = bindings != null ? compiledScript.eval(bindings) : compiledScript.eval();
+            } else if (bindings != null) {
                 result = scriptEngine.eval(scriptContent, bindings);
             }
             else {
@@ -19,7 +19,6 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
 
 import io.seata.common.loader.LoadLevel;
 import io.seata.saga.engine.exception.EngineExecutionException;
@@ -107,13 +106,6 @@ public class LoopTaskHandlerInterceptor implements StateHandlerInterceptor {
                 exp = e;
             }
 
-            if (null != e) {
-                if (context.hasVariable(DomainConstants.LOOP_SEMAPHORE)) {
-                    Semaphore semaphore = (Semaphore)context.getVariable(DomainConstants.LOOP_SEMAPHORE);
-                    semaphore.release();
-                }
-            }
-
             if (null != exp) {
                 LoopContextHolder.getCurrent(context, true).setFailEnd(true);
             } else {
@@ -121,6 +113,11 @@ public class LoopTaskHandlerInterceptor implements StateHandlerInterceptor {
             }
             LoopContextHolder.getCurrent(context, true).getNrOfActiveInstances().decrementAndGet();
 
+            // the route will not be done if the handler failed, so finish the loop task here
+            if (null != e) {
+                LoopTaskUtils.finishLoopTask(context);
+            }
+
         }
     }
 
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.pcext.utils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.evaluation.Evaluator;
+import io.seata.saga.engine.evaluation.EvaluatorFactory;
+import io.seata.saga.engine.evaluation.EvaluatorFactoryManager;
+import io.seata.saga.statelang.domain.ChoiceState;
+import io.seata.saga.statelang.domain.State;
+import io.seata.saga.statelang.domain.StateMachine;
+import io.seata.saga.statelang.domain.impl.AbstractTaskState;
+import io.seata.saga.statelang.domain.impl.ChoiceStateImpl;
+import io.seata.saga.statelang.domain.impl.ScriptTaskStateImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compile the scripts and expressions of the states once, so the executions only evaluate them
+ */
+public class CompileUtils {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompileUtils.class);
+
+    private CompileUtils() {
+    }
+
+    /**
+     * Compile the scripts, the choice conditions and the input and output expressions of all the states of a
+     * state machine. A state failing to compile is compiled again at its execution, where the failure is handled.
+     *
+     * @param stateMachine       the state machine
+     * @param stateMachineConfig the state machine config
+     */
+    public static void precompile(StateMachine stateMachine, StateMachineConfig stateMachineConfig) {
+        if (stateMachine.getStates() == null) {
+            return;
+        }
+        Map<String, ScriptEngine> scriptEngines = new HashMap<>();
+        for (State state : stateMachine.getStates().values()) {
+            try {
+                if (state instanceof AbstractTaskState && stateMachineConfig.getExpressionFactoryManager() != null) {
+                    ParameterUtils.getInputExpressions(stateMachineConfig.getExpressionFactoryManager(),
+                        (AbstractTaskState) state);
+                    ParameterUtils.getOutputExpressions(stateMachineConfig.getExpressionFactoryManager(),
+                        (AbstractTaskState) state);
+                }
+                if (state instanceof ScriptTaskStateImpl && stateMachineConfig.getScriptEngineManager() != null) {
+                    ScriptTaskStateImpl scriptTaskState = (ScriptTaskStateImpl) state;
+                    ScriptEngineManager scriptEngineManager = stateMachineConfig.getScriptEngineManager();
+                    ScriptEngine scriptEngine = scriptEngines.computeIfAbsent(scriptTaskState.getScriptType(),
+                        scriptEngineManager::getEngineByName);
+                    if (scriptEngine != null) {
+                        compileScript(scriptEngine, scriptTaskState);
+                    }
+                } else if (state instanceof ChoiceStateImpl && stateMachineConfig.getEvaluatorFactoryManager() != null) {
+                    getChoiceEvaluators(stateMachineConfig.getEvaluatorFactoryManager().getEvaluatorFactory(
+                        EvaluatorFactoryManager.EVALUATOR_TYPE_DEFAULT), (ChoiceStateImpl) state);
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Precompile state [{}] of StateMachine [{}] failed, it will be compiled at execution: {}",
+                    state.getName(), stateMachine.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the compiled script of the script task state, compiled at the first call.
+     *
+     * @param scriptEngine    the script engine of the script type
+     * @param scriptTaskState the script task state
+     * @return the compiled script, null if the script engine can not compile
+     * @throws ScriptException the script exception
+     */
+    public static CompiledScript compileScript(ScriptEngine scriptEngine, ScriptTaskStateImpl scriptTaskState)
+        throws ScriptException {
+        CompiledScript compiledScript = scriptTaskState.getCompiledScript();
+        if (compiledScript == null && scriptEngine instanceof Compilable) {
+            synchronized (scriptTaskState) {
+                compiledScript = scriptTaskState.getCompiledScript();
+                if (compiledScript == null) {
+                    compiledScript = ((Compilable) scriptEngine).compile(scriptTaskState.getScriptContent());
+                    scriptTaskState.setCompiledScript(compiledScript);
+                }
+            }
+        }
+        return compiledScript;
+    }
+
+    /**
+     * Get the evaluators of the choices of the choice state, created at the first call.
+     *
+     * @param evaluatorFactory the evaluator factory
+     * @param choiceState      the choice state
+     * @return the evaluators, key: Evaluator, value: Next
+     */
+    public static Map<Object, String> getChoiceEvaluators(EvaluatorFactory evaluatorFactory,
+                                                          ChoiceStateImpl choiceState) {
+        Map<Object, String> choiceEvaluators = choiceState.getChoiceEvaluators();
+        if (choiceEvaluators == null) {
+            synchronized (choiceState) {
+                choiceEvaluators = choiceState.getChoiceEvaluators();
+                if (choiceEvaluators == null) {
+
+                    List<ChoiceState.Choice> choices = choiceState.getChoices();
+                    if (choices == null) {
+                        choiceEvaluators = new LinkedHashMap<>(0);
+                    } else {
+                        choiceEvaluators = new LinkedHashMap<>(choices.size());
+                        for (ChoiceState.Choice choice : choices) {
+                            Evaluator evaluator = evaluatorFactory.createEvaluator(choice.getExpression());
+                            choiceEvaluators.put(evaluator, choice.getNext());
+                        }
+                    }
+                    choiceState.setChoiceEvaluators(choiceEvaluators);
+                }
+            }
+        }
+        return choiceEvaluators;
+    }
+}
@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Semaphore;
 
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
@@ -81,10 +80,7 @@ public class EngineUtils {
     public static void endStateMachine(ProcessContext context) {
 
         if (context.hasVariable(DomainConstants.VAR_NAME_IS_LOOP_STATE)) {
-            if (context.hasVariable(DomainConstants.LOOP_SEMAPHORE)) {
-                Semaphore semaphore = (Semaphore)context.getVariable(DomainConstants.LOOP_SEMAPHORE);
-                semaphore.release();
-            }
+            LoopTaskUtils.finishLoopTask(context);
             return;
         }
 
@@ -16,7 +16,11 @@
 package io.seata.saga.engine.pcext.utils;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import io.seata.saga.proctrl.ProcessContext;
@@ -36,6 +40,10 @@ public class LoopContextHolder {
     private volatile boolean completionConditionSatisfied = false;
     private final Stack<Integer> loopCounterStack = new Stack<>();
     private final Stack<Integer> forwardCounterStack = new Stack<>();
+    private final Queue<ProcessContext> pendingLoopContexts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nrOfPendingLoopContexts = new AtomicInteger();
+    private final Queue<ProcessContext> failedLoopContexts = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, Map<String, Object>> loopResults = new ConcurrentSkipListMap<>();
     private Collection collection;
 
     public static LoopContextHolder getCurrent(ProcessContext context, boolean forceCreate) {
@@ -95,6 +103,22 @@ public class LoopContextHolder {
         return forwardCounterStack;
     }
 
+    public Queue<ProcessContext> getPendingLoopContexts() {
+        return pendingLoopContexts;
+    }
+
+    public AtomicInteger getNrOfPendingLoopContexts() {
+        return nrOfPendingLoopContexts;
+    }
+
+    public Queue<ProcessContext> getFailedLoopContexts() {
+        return failedLoopContexts;
+    }
+
+    public Map<Integer, Map<String, Object>> getLoopResults() {
+        return loopResults;
+    }
+
     public Collection getCollection() {
         return collection;
     }
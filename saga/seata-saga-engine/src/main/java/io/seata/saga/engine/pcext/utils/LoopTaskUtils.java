@@ -15,13 +15,16 @@
  */
 package io.seata.saga.engine.pcext.utils;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.EmptyStackException;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import io.seata.common.exception.FrameworkErrorCode;
@@ -33,6 +36,7 @@ import io.seata.saga.engine.evaluation.EvaluatorFactoryManager;
 import io.seata.saga.engine.evaluation.expression.ExpressionEvaluator;
 import io.seata.saga.engine.exception.ForwardInvalidException;
 import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.proctrl.HierarchicalProcessContext;
 import io.seata.saga.proctrl.ProcessContext;
 import io.seata.saga.proctrl.impl.ProcessContextImpl;
 import io.seata.saga.statelang.domain.DomainConstants;
@@ -60,6 +64,11 @@ public class LoopTaskUtils {
 
     private static final Map<String, ExpressionEvaluator> EXPRESSION_EVALUATOR_MAP = new ConcurrentHashMap<>();
 
+    /**
+     * the loop start contexts of the loop tasks finished on the stack of the publish loop of the current thread
+     */
+    private static final ThreadLocal<Deque<ProcessContext>> FINISHED_LOOP_TASKS = new ThreadLocal<>();
+
     /**
      * get Loop Config from State
      *
@@ -291,31 +300,179 @@ public class LoopTaskUtils {
     }
 
     /**
-     * put loop out params to parent context
+     * publish the next loop task, the loop counters are shared by all the running loop tasks,
+     * so whichever finishes first takes the next one
      *
-     * @param context
+     * @param context the loop start context
+     * @return the published loop task context, null if there is no loop task left
      */
-    public static void putContextToParent(ProcessContext context, List<ProcessContext> subContextList, State state) {
+    public static ProcessContext publishNextLoopTask(ProcessContext context) {
 
-        Map<String, Object> contextVariables = (Map<String, Object>)context.getVariable(
-            DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT);
-        if (CollectionUtils.isNotEmpty(subContextList)) {
+        LoopContextHolder loopContextHolder = LoopContextHolder.getCurrent(context, true);
+        StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
 
-            StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
-                DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        ProcessContext tempContext;
+        synchronized (loopContextHolder) {
+            // fail end inst should be forward without completion condition check
+            if (!loopContextHolder.getForwardCounterStack().isEmpty()) {
+                int failEndLoopCounter = loopContextHolder.getForwardCounterStack().pop();
+                tempContext = createLoopEventContext(context, failEndLoopCounter);
+            } else if (loopContextHolder.isFailEnd() || isCompletionConditionSatisfied(context)) {
+                return null;
+            } else {
+                int loopCounter = acquireNextLoopCounter(context);
+                if (loopCounter < 0) {
+                    return null;
+                }
+                tempContext = createLoopEventContext(context, loopCounter);
+            }
+            loopContextHolder.getNrOfActiveInstances().incrementAndGet();
+        }
 
-            List<Map<String, Object>> subContextVariables = new ArrayList<>();
-            for (ProcessContext subProcessContext : subContextList) {
-                StateInstance stateInstance = (StateInstance)subProcessContext.getVariable(DomainConstants.VAR_NAME_STATE_INST);
+        try {
+            if (DomainConstants.OPERATION_NAME_FORWARD.equals(context.getVariable(DomainConstants.VAR_NAME_OPERATION_NAME))) {
+                ((HierarchicalProcessContext)context).setVariableLocally(
+                    DomainConstants.VAR_NAME_IS_FOR_SUB_STATMACHINE_FORWARD, isForSubStateMachineForward(tempContext));
+            }
+            stateMachineConfig.getLoopProcessCtrlEventPublisher().publish(tempContext);
+        } catch (RuntimeException e) {
+            loopContextHolder.getNrOfActiveInstances().decrementAndGet();
+            throw e;
+        }
+        return tempContext;
+    }
 
-                Map<String, Object> outputVariablesToContext = ParameterUtils.createOutputParams(
-                    stateMachineConfig.getExpressionFactoryManager(), (AbstractTaskState)state, stateInstance.getOutputParams());
-                subContextVariables.add(outputVariablesToContext);
+    /**
+     * finish the loop task, collect its result and go on with the next loop task, the loop semaphore
+     * is released only when there is no loop task left
+     *
+     * @param context the loop task context
+     */
+    public static void finishLoopTask(ProcessContext context) {
+
+        if (!context.hasVariable(DomainConstants.LOOP_SEMAPHORE)) {
+            return;
+        }
+        ProcessContext loopStartContext = ((ProcessContextImpl)context).getParent();
+
+        try {
+            collectLoopContext(loopStartContext, context);
+        } catch (RuntimeException e) {
+            LOGGER.error("Collect loop task of State: [{}] failed", context.getInstruction(
+                StateInstruction.class).getStateName(), e);
+            LoopContextHolder.getCurrent(loopStartContext, true).setFailEnd(true);
+        }
+
+        Deque<ProcessContext> finishedLoopTasks = FINISHED_LOOP_TASKS.get();
+        if (null != finishedLoopTasks) {
+            // the loop task ran on the stack of a publish (e.g. CallerRunsPolicy), hand its permit back to that
+            // publish loop rather than publishing from here, so the stack does not grow with the loop counters
+            finishedLoopTasks.add(loopStartContext);
+            return;
+        }
+
+        finishedLoopTasks = new ArrayDeque<>();
+        finishedLoopTasks.add(loopStartContext);
+        FINISHED_LOOP_TASKS.set(finishedLoopTasks);
+        try {
+            ProcessContext finishedLoopTask;
+            while ((finishedLoopTask = finishedLoopTasks.poll()) != null) {
+                publishNextLoopTaskOrRelease(finishedLoopTask);
             }
+        } finally {
+            FINISHED_LOOP_TASKS.remove();
+        }
+    }
+
+    /**
+     * publish the next loop task with the permit of a finished one, the permit is released if there is no loop
+     * task left
+     *
+     * @param context the loop start context
+     */
+    private static void publishNextLoopTaskOrRelease(ProcessContext context) {
+
+        Semaphore semaphore = (Semaphore)context.getVariable(DomainConstants.LOOP_SEMAPHORE);
 
-            contextVariables.put(DomainConstants.LOOP_RESULT, subContextVariables);
+        ProcessContext nextContext = null;
+        try {
+            nextContext = publishNextLoopTask(context);
+        } catch (RuntimeException e) {
+            LOGGER.error("Publish next loop task of State: [{}] failed", context.getInstruction(
+                StateInstruction.class).getStateName(), e);
+            LoopContextHolder.getCurrent(context, true).setFailEnd(true);
+        } finally {
+            if (null == nextContext) {
+                semaphore.release();
+            }
+        }
+    }
+
+    /**
+     * collect the finished loop task context, the out params are put into the loop result in batches
+     *
+     * @param context     the loop start context
+     * @param loopContext the finished loop task context
+     */
+    public static void collectLoopContext(ProcessContext context, ProcessContext loopContext) {
+
+        LoopContextHolder loopContextHolder = LoopContextHolder.getCurrent(context, true);
+        if (loopContext.hasVariable(DomainConstants.VAR_NAME_CURRENT_EXCEPTION)
+            || loopContext.hasVariable(DomainConstants.VAR_NAME_CURRENT_EXCEPTION_ROUTE)) {
+            loopContextHolder.getFailedLoopContexts().add(loopContext);
+        }
+        loopContextHolder.getPendingLoopContexts().add(loopContext);
+
+        StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        if (loopContextHolder.getNrOfPendingLoopContexts().incrementAndGet() >= stateMachineConfig.getLoopResultBatchSize()) {
+            aggregateLoopResults(context);
+        }
+    }
+
+    /**
+     * put loop out params to parent context
+     *
+     * @param context
+     */
+    public static void putContextToParent(ProcessContext context) {
+
+        aggregateLoopResults(context);
+
+        Map<Integer, Map<String, Object>> loopResults = LoopContextHolder.getCurrent(context, true).getLoopResults();
+        if (!loopResults.isEmpty()) {
+            Map<String, Object> contextVariables = (Map<String, Object>)context.getVariable(
+                DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT);
+            contextVariables.put(DomainConstants.LOOP_RESULT, new ArrayList<>(loopResults.values()));
         }
+    }
+
+    /**
+     * turn the pending loop task contexts into loop results ordered by loop counter
+     *
+     * @param context the loop start context
+     */
+    private static void aggregateLoopResults(ProcessContext context) {
 
+        LoopContextHolder loopContextHolder = LoopContextHolder.getCurrent(context, true);
+        StateMachineConfig stateMachineConfig = (StateMachineConfig)context.getVariable(
+            DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        AbstractTaskState state = (AbstractTaskState)context.getInstruction(StateInstruction.class).getState(context);
+
+        ProcessContext subProcessContext;
+        while ((subProcessContext = loopContextHolder.getPendingLoopContexts().poll()) != null) {
+            loopContextHolder.getNrOfPendingLoopContexts().decrementAndGet();
+
+            StateInstance stateInstance = (StateInstance)subProcessContext.getVariable(DomainConstants.VAR_NAME_STATE_INST);
+            if (null == stateInstance) {
+                continue;
+            }
+            Map<String, Object> outputVariablesToContext = ParameterUtils.createOutputParams(
+                stateMachineConfig.getExpressionFactoryManager(), state, stateInstance.getOutputParams());
+            loopContextHolder.getLoopResults().put((int)subProcessContext.getVariable(DomainConstants.LOOP_COUNTER),
+                outputVariablesToContext);
+        }
     }
 
     /**
@@ -41,9 +41,44 @@ public class ParameterUtils {
     public static List<Object> createInputParams(ExpressionFactoryManager expressionFactoryManager,
                                                  StateInstanceImpl stateInstance,
                                                  AbstractTaskState serviceTaskState, Object variablesFrom) {
+        List<Object> inputExpressions = getInputExpressions(expressionFactoryManager, serviceTaskState);
+        if (inputExpressions == null) {
+            return new ArrayList<>(0);
+        }
+        List<Object> inputValues = new ArrayList<>(inputExpressions.size());
+        for (Object valueExpression : inputExpressions) {
+            Object value = getValue(valueExpression, variablesFrom, stateInstance);
+            inputValues.add(value);
+        }
+
+        return inputValues;
+    }
+
+    public static Map<String, Object> createOutputParams(ExpressionFactoryManager expressionFactoryManager,
+                                                         AbstractTaskState serviceTaskState, Object variablesFrom) {
+        Map<String, Object> outputExpressions = getOutputExpressions(expressionFactoryManager, serviceTaskState);
+        if (outputExpressions == null) {
+            return new LinkedHashMap<>(0);
+        }
+        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size());
+        for (String paramName : outputExpressions.keySet()) {
+            outputValues.put(paramName, getValue(outputExpressions.get(paramName), variablesFrom, null));
+        }
+        return outputValues;
+    }
+
+    /**
+     * Get the input expressions of the task state, created at the first call.
+     *
+     * @param expressionFactoryManager the expression factory manager
+     * @param serviceTaskState         the task state
+     * @return the input expressions, null if the state has no input
+     */
+    public static List<Object> getInputExpressions(ExpressionFactoryManager expressionFactoryManager,
+                                                   AbstractTaskState serviceTaskState) {
         List<Object> inputAssignments = serviceTaskState.getInput();
         if (CollectionUtils.isEmpty(inputAssignments)) {
-            return new ArrayList<>(0);
+            return null;
         }
 
         List<Object> inputExpressions = serviceTaskState.getInputExpressions();
@@ -59,20 +94,21 @@ public class ParameterUtils {
                 serviceTaskState.setInputExpressions(inputExpressions);
             }
         }
-        List<Object> inputValues = new ArrayList<>(inputExpressions.size());
-        for (Object valueExpression : inputExpressions) {
-            Object value = getValue(valueExpression, variablesFrom, stateInstance);
-            inputValues.add(value);
-        }
-
-        return inputValues;
+        return inputExpressions;
     }
 
-    public static Map<String, Object> createOutputParams(ExpressionFactoryManager expressionFactoryManager,
-                                                         AbstractTaskState serviceTaskState, Object variablesFrom) {
+    /**
+     * Get the output expressions of the task state, created at the first call.
+     *
+     * @param expressionFactoryManager the expression factory manager
+     * @param serviceTaskState         the task state
+     * @return the output expressions, null if the state has no output
+     */
+    public static Map<String, Object> getOutputExpressions(ExpressionFactoryManager expressionFactoryManager,
+                                                           AbstractTaskState serviceTaskState) {
         Map<String, Object> outputAssignments = serviceTaskState.getOutput();
         if (CollectionUtils.isEmpty(outputAssignments)) {
-            return new LinkedHashMap<>(0);
+            return null;
         }
 
         Map<String, Object> outputExpressions = serviceTaskState.getOutputExpressions();
@@ -89,11 +125,7 @@ public class ParameterUtils {
                 serviceTaskState.setOutputExpressions(outputExpressions);
             }
         }
-        Map<String, Object> outputValues = new LinkedHashMap<>(outputExpressions.size());
-        for (String paramName : outputExpressions.keySet()) {
-            outputValues.put(paramName, getValue(outputExpressions.get(paramName), variablesFrom, null));
-        }
-        return outputValues;
+        return outputExpressions;
     }
 
     public static Object getValue(Object valueExpression, Object variablesFrom, StateInstance stateInstance) {
@@ -25,6 +25,8 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
+import io.seata.saga.engine.StateMachineConfig;
+import io.seata.saga.engine.pcext.utils.CompileUtils;
 import io.seata.saga.engine.repo.StateMachineRepository;
 import io.seata.saga.engine.sequence.SeqGenerator;
 import io.seata.saga.engine.sequence.SpringJvmUUIDSeqGenerator;
@@ -52,6 +54,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
     private String charset = "UTF-8";
     private String defaultTenantId;
     private String jsonParserName = DomainConstants.DEFAULT_JSON_PARSER;
+    private StateMachineConfig stateMachineConfig;
 
     @Override
     public StateMachine getStateMachineById(String stateMachineId) {
@@ -71,6 +74,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
                         }
                         stateMachine.setStartState(parsedStatMachine.getStartState());
                         stateMachine.getStates().putAll(parsedStatMachine.getStates());
+                        precompile(stateMachine);
                         item.setValue(stateMachine);
                         stateMachineMapById.put(stateMachine.getName() + "_" + stateMachine.getTenantId(),
                             item);
@@ -99,6 +103,7 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
                         }
                         stateMachine.setStartState(parsedStatMachine.getStartState());
                         stateMachine.getStates().putAll(parsedStatMachine.getStates());
+                        precompile(stateMachine);
                         item.setValue(stateMachine);
                         stateMachineMapById.put(stateMachine.getId(), item);
                     }
@@ -120,6 +125,8 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         String stateMachineName = stateMachine.getName();
         String tenantId = stateMachine.getTenantId();
 
+        precompile(stateMachine);
+
         if (stateLangStore != null) {
             StateMachine oldStateMachine = stateLangStore.getLastVersionStateMachine(stateMachineName, tenantId);
 
@@ -186,6 +193,21 @@ public class StateMachineRepositoryImpl implements StateMachineRepository {
         }
     }
 
+    /**
+     * Compile the scripts and expressions of the state machine once, before any execution
+     *
+     * @param stateMachine the state machine
+     */
+    private void precompile(StateMachine stateMachine) {
+        if (stateMachineConfig != null) {
+            CompileUtils.precompile(stateMachine, stateMachineConfig);
+        }
+    }
+
+    public void setStateMachineConfig(StateMachineConfig stateMachineConfig) {
+        this.stateMachineConfig = stateMachineConfig;
+    }
+
     public void setStateLangStore(StateLangStore stateLangStore) {
         this.stateLangStore = stateLangStore;
     }
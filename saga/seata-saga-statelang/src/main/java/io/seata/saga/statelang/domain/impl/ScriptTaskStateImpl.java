@@ -15,6 +15,8 @@
  */
 package io.seata.saga.statelang.domain.impl;
 
+import javax.script.CompiledScript;
+
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ScriptTaskState;
 
@@ -31,6 +33,11 @@ public class ScriptTaskStateImpl extends AbstractTaskState implements ScriptTask
 
     private String scriptContent;
 
+    /**
+     * the script content compiled by a Compilable script engine
+     */
+    private CompiledScript compiledScript;
+
     public ScriptTaskStateImpl() {
         setType(DomainConstants.STATE_TYPE_SCRIPT_TASK);
     }
@@ -52,4 +59,12 @@ public class ScriptTaskStateImpl extends AbstractTaskState implements ScriptTask
     public void setScriptContent(String scriptContent) {
         this.scriptContent = scriptContent;
     }
+
+    public CompiledScript getCompiledScript() {
+        return compiledScript;
+    }
+
+    public void setCompiledScript(CompiledScript compiledScript) {
+        this.compiledScript = compiledScript;
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package io.seata.saga.tm;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
@@ -123,6 +124,12 @@ public class DefaultSagaTransactionalTemplate
         DefaultResourceManager.get().branchReport(BranchType.SAGA, xid, branchId, status, applicationData);
     }
 
+    @Override
+    public CompletableFuture<Void> branchReportAsync(String xid, long branchId, BranchStatus status,
+                                                     String applicationData) {
+        return DefaultResourceManager.get().branchReportAsync(BranchType.SAGA, xid, branchId, status, applicationData);
+    }
+
     protected void triggerBeforeBegin() {
         for (TransactionHook hook : getCurrentHooks()) {
             try {
@@ -15,6 +15,9 @@
  */
 package io.seata.saga.tm;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.FutureUtils;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -48,6 +51,14 @@ public interface SagaTransactionalTemplate {
     void branchReport(String xid, long branchId, BranchStatus status, String applicationData)
         throws TransactionException;
 
+    default CompletableFuture<Void> branchReportAsync(String xid, long branchId, BranchStatus status,
+                                                      String applicationData) {
+        return FutureUtils.call(() -> {
+            branchReport(xid, branchId, status, applicationData);
+            return null;
+        });
+    }
+
     void triggerAfterCompletion();
 
     void cleanUp();
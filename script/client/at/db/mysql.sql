@@ -8,7 +8,8 @@ CREATE TABLE IF NOT EXISTS `undo_log`
     `log_status`    INT(11)      NOT NULL COMMENT '0:normal status,1:defense status',
     `log_created`   DATETIME(6)  NOT NULL COMMENT 'create datetime',
     `log_modified`  DATETIME(6)  NOT NULL COMMENT 'modify datetime',
-    UNIQUE KEY `ux_undo_log` (`xid`, `branch_id`)
+    `chunk_index`   INT(11)      NOT NULL DEFAULT 0 COMMENT 'undo log chunk index',
+    UNIQUE KEY `ux_undo_log` (`xid`, `branch_id`, `chunk_index`)
 ) ENGINE = InnoDB
   AUTO_INCREMENT = 1
   DEFAULT CHARSET = utf8 COMMENT ='AT transaction mode undo table';
@@ -9,8 +9,9 @@ CREATE TABLE undo_log
     log_status    NUMBER(10)    NOT NULL,
     log_created   TIMESTAMP(0)  NOT NULL,
     log_modified  TIMESTAMP(0)  NOT NULL,
+    chunk_index   NUMBER(10)    DEFAULT 0 NOT NULL,
     PRIMARY KEY (id),
-    CONSTRAINT ux_undo_log UNIQUE (xid, branch_id)
+    CONSTRAINT ux_undo_log UNIQUE (xid, branch_id, chunk_index)
 );
 
 COMMENT ON TABLE undo_log IS 'AT transaction mode undo table';
@@ -9,8 +9,9 @@ CREATE TABLE IF NOT EXISTS public.undo_log
     log_status    INT          NOT NULL,
     log_created   TIMESTAMP(0) NOT NULL,
     log_modified  TIMESTAMP(0) NOT NULL,
+    chunk_index   INT          NOT NULL DEFAULT 0,
     CONSTRAINT pk_undo_log PRIMARY KEY (id),
-    CONSTRAINT ux_undo_log UNIQUE (xid, branch_id)
+    CONSTRAINT ux_undo_log UNIQUE (xid, branch_id, chunk_index)
 );
 
 CREATE SEQUENCE IF NOT EXISTS undo_log_id_seq INCREMENT BY 1 MINVALUE 1 ;
\ No newline at end of file
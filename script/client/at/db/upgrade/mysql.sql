@@ -0,0 +1,6 @@
+-- upgrade the undo_log table created before the chunk_index column, it is required by client.undo.chunk.enable=true.
+ALTER TABLE `undo_log`
+    ADD COLUMN `chunk_index` INT(11) NOT NULL DEFAULT 0 COMMENT 'undo log chunk index';
+ALTER TABLE `undo_log`
+    DROP INDEX `ux_undo_log`,
+    ADD UNIQUE KEY `ux_undo_log` (`xid`, `branch_id`, `chunk_index`);
@@ -0,0 +1,4 @@
+-- upgrade the undo_log table created before the chunk_index column, it is required by client.undo.chunk.enable=true.
+ALTER TABLE undo_log ADD chunk_index NUMBER(10) DEFAULT 0 NOT NULL;
+ALTER TABLE undo_log DROP CONSTRAINT ux_undo_log;
+ALTER TABLE undo_log ADD CONSTRAINT ux_undo_log UNIQUE (xid, branch_id, chunk_index);
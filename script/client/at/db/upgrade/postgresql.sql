@@ -0,0 +1,4 @@
+-- upgrade the undo_log table created before the chunk_index column, it is required by client.undo.chunk.enable=true.
+ALTER TABLE public.undo_log ADD COLUMN IF NOT EXISTS chunk_index INT NOT NULL DEFAULT 0;
+ALTER TABLE public.undo_log DROP CONSTRAINT ux_undo_log;
+ALTER TABLE public.undo_log ADD CONSTRAINT ux_undo_log UNIQUE (xid, branch_id, chunk_index);
@@ -19,14 +19,21 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_THREADS;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_CLIENT_SQL_RECOGNIZER_CACHE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
 import static io.seata.common.DefaultValues.DEFAULT_SAGA_JSON_PARSER;
 import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_CHECKER_INTERVAL;
+import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_PRELOAD_TABLES;
+import static io.seata.common.DefaultValues.DEFAULT_TABLE_META_PRELOAD_THREADS;
 import static io.seata.common.DefaultValues.TCC_ACTION_INTERCEPTOR_ORDER;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.CLIENT_RM_PREFIX;
 
@@ -37,14 +44,21 @@ import static io.seata.spring.boot.autoconfigure.StarterConstants.CLIENT_RM_PREF
 @ConfigurationProperties(prefix = CLIENT_RM_PREFIX)
 public class RmProperties {
     private int asyncCommitBufferLimit = DEFAULT_CLIENT_ASYNC_COMMIT_BUFFER_LIMIT;
+    private int asyncCommitWorkerThreads = DEFAULT_CLIENT_ASYNC_COMMIT_WORKER_THREADS;
     private int reportRetryCount = DEFAULT_CLIENT_REPORT_RETRY_COUNT;
     private boolean tableMetaCheckEnable = DEFAULT_CLIENT_TABLE_META_CHECK_ENABLE;
     private long tableMetaCheckerInterval = DEFAULT_TABLE_META_CHECKER_INTERVAL;
+    private String tableMetaPreloadTables = DEFAULT_TABLE_META_PRELOAD_TABLES;
+    private int tableMetaPreloadThreads = DEFAULT_TABLE_META_PRELOAD_THREADS;
+    private int sqlRecognizerCacheSize = DEFAULT_CLIENT_SQL_RECOGNIZER_CACHE_SIZE;
     private boolean reportSuccessEnable = DEFAULT_CLIENT_REPORT_SUCCESS_ENABLE;
     private boolean sagaBranchRegisterEnable = DEFAULT_CLIENT_SAGA_BRANCH_REGISTER_ENABLE;
     private String sagaJsonParser = DEFAULT_SAGA_JSON_PARSER;
     private boolean sagaRetryPersistModeUpdate = DEFAULT_CLIENT_SAGA_RETRY_PERSIST_MODE_UPDATE;
     private boolean sagaCompensatePersistModeUpdate = DEFAULT_CLIENT_SAGA_COMPENSATE_PERSIST_MODE_UPDATE;
+    private boolean sagaStateLogWriteBehindEnable = DEFAULT_CLIENT_SAGA_STATE_LOG_WRITE_BEHIND_ENABLE;
+    private int sagaStateLogFlushSize = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_SIZE;
+    private long sagaStateLogFlushInterval = DEFAULT_CLIENT_SAGA_STATE_LOG_FLUSH_INTERVAL;
     private int tccActionInterceptorOrder = TCC_ACTION_INTERCEPTOR_ORDER;
 
     public int getAsyncCommitBufferLimit() {
@@ -56,6 +70,15 @@ public class RmProperties {
         return this;
     }
 
+    public int getAsyncCommitWorkerThreads() {
+        return asyncCommitWorkerThreads;
+    }
+
+    public RmProperties setAsyncCommitWorkerThreads(int asyncCommitWorkerThreads) {
+        this.asyncCommitWorkerThreads = asyncCommitWorkerThreads;
+        return this;
+    }
+
     public int getReportRetryCount() {
         return reportRetryCount;
     }
@@ -108,6 +131,30 @@ public class RmProperties {
         this.tableMetaCheckerInterval = tableMetaCheckerInterval;
     }
 
+    public String getTableMetaPreloadTables() {
+        return tableMetaPreloadTables;
+    }
+
+    public void setTableMetaPreloadTables(String tableMetaPreloadTables) {
+        this.tableMetaPreloadTables = tableMetaPreloadTables;
+    }
+
+    public int getTableMetaPreloadThreads() {
+        return tableMetaPreloadThreads;
+    }
+
+    public void setTableMetaPreloadThreads(int tableMetaPreloadThreads) {
+        this.tableMetaPreloadThreads = tableMetaPreloadThreads;
+    }
+
+    public int getSqlRecognizerCacheSize() {
+        return sqlRecognizerCacheSize;
+    }
+
+    public void setSqlRecognizerCacheSize(int sqlRecognizerCacheSize) {
+        this.sqlRecognizerCacheSize = sqlRecognizerCacheSize;
+    }
+
     public boolean isSagaRetryPersistModeUpdate() {
         return sagaRetryPersistModeUpdate;
     }
@@ -124,6 +171,30 @@ public class RmProperties {
         this.sagaCompensatePersistModeUpdate = sagaCompensatePersistModeUpdate;
     }
 
+    public boolean isSagaStateLogWriteBehindEnable() {
+        return sagaStateLogWriteBehindEnable;
+    }
+
+    public void setSagaStateLogWriteBehindEnable(boolean sagaStateLogWriteBehindEnable) {
+        this.sagaStateLogWriteBehindEnable = sagaStateLogWriteBehindEnable;
+    }
+
+    public int getSagaStateLogFlushSize() {
+        return sagaStateLogFlushSize;
+    }
+
+    public void setSagaStateLogFlushSize(int sagaStateLogFlushSize) {
+        this.sagaStateLogFlushSize = sagaStateLogFlushSize;
+    }
+
+    public long getSagaStateLogFlushInterval() {
+        return sagaStateLogFlushInterval;
+    }
+
+    public void setSagaStateLogFlushInterval(long sagaStateLogFlushInterval) {
+        this.sagaStateLogFlushInterval = sagaStateLogFlushInterval;
+    }
+
     public int getTccActionInterceptorOrder() {
         return tccActionInterceptorOrder;
     }
@@ -23,6 +23,8 @@ import static io.seata.common.DefaultValues.DEFAULT_TM_COMMIT_RETRY_COUNT;
 import static io.seata.common.DefaultValues.DEFAULT_TM_DEGRADE_CHECK;
 import static io.seata.common.DefaultValues.DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES;
 import static io.seata.common.DefaultValues.DEFAULT_TM_DEGRADE_CHECK_PERIOD;
+import static io.seata.common.DefaultValues.DEFAULT_TM_LAZY_BEGIN_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE;
 import static io.seata.common.DefaultValues.DEFAULT_TM_ROLLBACK_RETRY_COUNT;
 import static io.seata.common.DefaultValues.TM_INTERCEPTOR_ORDER;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.CLIENT_TM_PREFIX;
@@ -40,6 +42,8 @@ public class TmProperties {
     private int degradeCheckAllowTimes = DEFAULT_TM_DEGRADE_CHECK_ALLOW_TIMES;
     private int degradeCheckPeriod = DEFAULT_TM_DEGRADE_CHECK_PERIOD;
     private int interceptorOrder = TM_INTERCEPTOR_ORDER;
+    private boolean lazyBeginEnable = DEFAULT_TM_LAZY_BEGIN_ENABLE;
+    private int lazyBeginLeaseSize = DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE;
 
     public int getCommitRetryCount() {
         return commitRetryCount;
@@ -102,4 +106,22 @@ public class TmProperties {
         this.interceptorOrder = interceptorOrder;
         return this;
     }
+
+    public boolean isLazyBeginEnable() {
+        return lazyBeginEnable;
+    }
+
+    public TmProperties setLazyBeginEnable(boolean lazyBeginEnable) {
+        this.lazyBeginEnable = lazyBeginEnable;
+        return this;
+    }
+
+    public int getLazyBeginLeaseSize() {
+        return lazyBeginLeaseSize;
+    }
+
+    public TmProperties setLazyBeginLeaseSize(int lazyBeginLeaseSize) {
+        this.lazyBeginLeaseSize = lazyBeginLeaseSize;
+        return this;
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.spring.boot.autoconfigure.properties.client;
+
+import io.seata.common.DefaultValues;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import static io.seata.spring.boot.autoconfigure.StarterConstants.CHUNK_PREFIX;
+
+/**
+ * The undo log chunk properties.
+ */
+@Component
+@ConfigurationProperties(prefix = CHUNK_PREFIX)
+public class UndoChunkProperties {
+    private boolean enable = DefaultValues.DEFAULT_CLIENT_UNDO_CHUNK_ENABLE;
+    private int size = DefaultValues.DEFAULT_CLIENT_UNDO_CHUNK_SIZE;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public UndoChunkProperties setEnable(boolean enable) {
+        this.enable = enable;
+        return this;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public UndoChunkProperties setSize(int size) {
+        this.size = size;
+        return this;
+    }
+}
@@ -37,6 +37,7 @@ public interface StarterConstants {
     String LOAD_BALANCE_PREFIX = CLIENT_PREFIX + ".loadBalance";
     String LOG_PREFIX = SEATA_PREFIX + ".log";
     String COMPRESS_PREFIX = UNDO_PREFIX + ".compress";
+    String CHUNK_PREFIX = UNDO_PREFIX + ".chunk";
     String TCC_FENCE_PREFIX_KEBAB_STYLE = SEATA_PREFIX + ".tcc-fence";
     String TCC_FENCE_CONFIG_PREFIX_KEBAB_STYLE = TCC_FENCE_PREFIX_KEBAB_STYLE + ".config";
 
@@ -20,6 +20,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 
+import static io.seata.common.DefaultValues.DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS;
 import static io.seata.spring.boot.autoconfigure.StarterConstants.SERVER_PREFIX;
 
 /**
@@ -33,6 +34,14 @@ public class ServerProperties {
     private Boolean rollbackRetryTimeoutUnlockEnable = false;
     private Boolean enableCheckAuth = true;
     private Integer retryDeadThreshold = 130000;
+    private Boolean parallelBranchDispatchEnable = false;
+    private Integer parallelBranchDispatchThreads = DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS;
+    private Boolean batchBranchLockEnable = false;
+    private Boolean parallelMergedRequestEnable = false;
+    private Boolean lockWaitQueueEnable = false;
+    private Long lockWaitTimeout = 300L;
+    private Boolean lazyBeginEnable = false;
+    private Long lazyBeginLeaseTime = 10000L;
 
     public Duration getMaxCommitRetryTimeout() {
         return maxCommitRetryTimeout;
@@ -78,4 +87,76 @@ public class ServerProperties {
         this.retryDeadThreshold = retryDeadThreshold;
         return this;
     }
+
+    public Boolean getParallelBranchDispatchEnable() {
+        return parallelBranchDispatchEnable;
+    }
+
+    public ServerProperties setParallelBranchDispatchEnable(Boolean parallelBranchDispatchEnable) {
+        this.parallelBranchDispatchEnable = parallelBranchDispatchEnable;
+        return this;
+    }
+
+    public Integer getParallelBranchDispatchThreads() {
+        return parallelBranchDispatchThreads;
+    }
+
+    public ServerProperties setParallelBranchDispatchThreads(Integer parallelBranchDispatchThreads) {
+        this.parallelBranchDispatchThreads = parallelBranchDispatchThreads;
+        return this;
+    }
+
+    public Boolean getBatchBranchLockEnable() {
+        return batchBranchLockEnable;
+    }
+
+    public ServerProperties setBatchBranchLockEnable(Boolean batchBranchLockEnable) {
+        this.batchBranchLockEnable = batchBranchLockEnable;
+        return this;
+    }
+
+    public Boolean getParallelMergedRequestEnable() {
+        return parallelMergedRequestEnable;
+    }
+
+    public ServerProperties setParallelMergedRequestEnable(Boolean parallelMergedRequestEnable) {
+        this.parallelMergedRequestEnable = parallelMergedRequestEnable;
+        return this;
+    }
+
+    public Boolean getLockWaitQueueEnable() {
+        return lockWaitQueueEnable;
+    }
+
+    public ServerProperties setLockWaitQueueEnable(Boolean lockWaitQueueEnable) {
+        this.lockWaitQueueEnable = lockWaitQueueEnable;
+        return this;
+    }
+
+    public Long getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    public ServerProperties setLockWaitTimeout(Long lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+        return this;
+    }
+
+    public Boolean getLazyBeginEnable() {
+        return lazyBeginEnable;
+    }
+
+    public ServerProperties setLazyBeginEnable(Boolean lazyBeginEnable) {
+        this.lazyBeginEnable = lazyBeginEnable;
+        return this;
+    }
+
+    public Long getLazyBeginLeaseTime() {
+        return lazyBeginLeaseTime;
+    }
+
+    public ServerProperties setLazyBeginLeaseTime(Long lazyBeginLeaseTime) {
+        this.lazyBeginLeaseTime = lazyBeginLeaseTime;
+        return this;
+    }
 }
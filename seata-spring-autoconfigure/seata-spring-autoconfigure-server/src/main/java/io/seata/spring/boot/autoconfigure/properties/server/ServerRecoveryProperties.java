@@ -30,6 +30,12 @@ public class ServerRecoveryProperties {
     private Integer asynCommittingRetryPeriod = 1000;
     private Integer rollbackingRetryPeriod = 1000;
     private Integer timeoutRetryPeriod = 1000;
+    private Boolean shardEnable = false;
+    private Integer shardCount = Runtime.getRuntime().availableProcessors() * 2;
+    private Integer shardMaxPending = 1000;
+    private Boolean timeoutIndexEnable = false;
+    private Integer timeoutFullScanPeriod = 60000;
+    private Integer scanMaxPages = 10;
 
     public Integer getCommittingRetryPeriod() {
         return committingRetryPeriod;
@@ -66,4 +72,58 @@ public class ServerRecoveryProperties {
         this.timeoutRetryPeriod = timeoutRetryPeriod;
         return this;
     }
+
+    public Boolean getShardEnable() {
+        return shardEnable;
+    }
+
+    public ServerRecoveryProperties setShardEnable(Boolean shardEnable) {
+        this.shardEnable = shardEnable;
+        return this;
+    }
+
+    public Integer getShardCount() {
+        return shardCount;
+    }
+
+    public ServerRecoveryProperties setShardCount(Integer shardCount) {
+        this.shardCount = shardCount;
+        return this;
+    }
+
+    public Integer getShardMaxPending() {
+        return shardMaxPending;
+    }
+
+    public ServerRecoveryProperties setShardMaxPending(Integer shardMaxPending) {
+        this.shardMaxPending = shardMaxPending;
+        return this;
+    }
+
+    public Boolean getTimeoutIndexEnable() {
+        return timeoutIndexEnable;
+    }
+
+    public ServerRecoveryProperties setTimeoutIndexEnable(Boolean timeoutIndexEnable) {
+        this.timeoutIndexEnable = timeoutIndexEnable;
+        return this;
+    }
+
+    public Integer getTimeoutFullScanPeriod() {
+        return timeoutFullScanPeriod;
+    }
+
+    public ServerRecoveryProperties setTimeoutFullScanPeriod(Integer timeoutFullScanPeriod) {
+        this.timeoutFullScanPeriod = timeoutFullScanPeriod;
+        return this;
+    }
+
+    public Integer getScanMaxPages() {
+        return scanMaxPages;
+    }
+
+    public ServerRecoveryProperties setScanMaxPages(Integer scanMaxPages) {
+        this.scanMaxPages = scanMaxPages;
+        return this;
+    }
 }
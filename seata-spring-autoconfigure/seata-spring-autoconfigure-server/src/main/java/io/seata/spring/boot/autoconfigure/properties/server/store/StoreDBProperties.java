@@ -39,6 +39,9 @@ public class StoreDBProperties {
     private String lockTable = "lock_table";
     private Integer queryLimit = 100;
     private Integer maxWait = 5000;
+    private Boolean sessionCacheEnable = false;
+    private Integer sessionCacheSize = 10000;
+    private Long sessionCacheLease = 1000L;
 
     public String getDatasource() {
         return datasource;
@@ -156,4 +159,31 @@ public class StoreDBProperties {
         this.maxWait = maxWait;
         return this;
     }
+
+    public Boolean getSessionCacheEnable() {
+        return sessionCacheEnable;
+    }
+
+    public StoreDBProperties setSessionCacheEnable(Boolean sessionCacheEnable) {
+        this.sessionCacheEnable = sessionCacheEnable;
+        return this;
+    }
+
+    public Integer getSessionCacheSize() {
+        return sessionCacheSize;
+    }
+
+    public StoreDBProperties setSessionCacheSize(Integer sessionCacheSize) {
+        this.sessionCacheSize = sessionCacheSize;
+        return this;
+    }
+
+    public Long getSessionCacheLease() {
+        return sessionCacheLease;
+    }
+
+    public StoreDBProperties setSessionCacheLease(Long sessionCacheLease) {
+        this.sessionCacheLease = sessionCacheLease;
+        return this;
+    }
 }
@@ -32,6 +32,13 @@ public class StoreFileProperties {
     private Integer fileWriteBufferCacheSize = 16384;
     private Integer sessionReloadReadSize = 100;
     private String flushDiskMode = "async";
+    private Boolean groupCommitEnable = false;
+    private Integer groupCommitMaxBatch = 256;
+    private Integer groupCommitMaxDelay = 1;
+    private Boolean segmentLogEnable = false;
+    private Integer segmentSize = 67108864;
+    private Long segmentCompactInterval = 10000L;
+    private Boolean compactLockTableEnable = false;
 
     public String getDir() {
         return dir;
@@ -86,4 +93,67 @@ public class StoreFileProperties {
         this.flushDiskMode = flushDiskMode;
         return this;
     }
+
+    public Boolean getGroupCommitEnable() {
+        return groupCommitEnable;
+    }
+
+    public StoreFileProperties setGroupCommitEnable(Boolean groupCommitEnable) {
+        this.groupCommitEnable = groupCommitEnable;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxBatch() {
+        return groupCommitMaxBatch;
+    }
+
+    public StoreFileProperties setGroupCommitMaxBatch(Integer groupCommitMaxBatch) {
+        this.groupCommitMaxBatch = groupCommitMaxBatch;
+        return this;
+    }
+
+    public Integer getGroupCommitMaxDelay() {
+        return groupCommitMaxDelay;
+    }
+
+    public StoreFileProperties setGroupCommitMaxDelay(Integer groupCommitMaxDelay) {
+        this.groupCommitMaxDelay = groupCommitMaxDelay;
+        return this;
+    }
+
+    public Boolean getSegmentLogEnable() {
+        return segmentLogEnable;
+    }
+
+    public StoreFileProperties setSegmentLogEnable(Boolean segmentLogEnable) {
+        this.segmentLogEnable = segmentLogEnable;
+        return this;
+    }
+
+    public Integer getSegmentSize() {
+        return segmentSize;
+    }
+
+    public StoreFileProperties setSegmentSize(Integer segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    public Long getSegmentCompactInterval() {
+        return segmentCompactInterval;
+    }
+
+    public StoreFileProperties setSegmentCompactInterval(Long segmentCompactInterval) {
+        this.segmentCompactInterval = segmentCompactInterval;
+        return this;
+    }
+
+    public Boolean getCompactLockTableEnable() {
+        return compactLockTableEnable;
+    }
+
+    public StoreFileProperties setCompactLockTableEnable(Boolean compactLockTableEnable) {
+        this.compactLockTableEnable = compactLockTableEnable;
+        return this;
+    }
 }
@@ -44,6 +44,8 @@ import io.seata.serializer.seata.protocol.transaction.GlobalRollbackRequestCodec
 import io.seata.serializer.seata.protocol.transaction.GlobalRollbackResponseCodec;
 import io.seata.serializer.seata.protocol.transaction.GlobalStatusRequestCodec;
 import io.seata.serializer.seata.protocol.transaction.GlobalStatusResponseCodec;
+import io.seata.serializer.seata.protocol.transaction.TransactionIdLeaseRequestCodec;
+import io.seata.serializer.seata.protocol.transaction.TransactionIdLeaseResponseCodec;
 import io.seata.serializer.seata.protocol.transaction.UndoLogDeleteRequestCodec;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.MergeResultMessage;
@@ -73,6 +75,8 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 
 /**
@@ -179,6 +183,8 @@ public class MessageCodecFactory {
                 return new BranchReportRequestCodec();
             case MessageType.TYPE_GLOBAL_REPORT:
                 return new GlobalReportRequestCodec();
+            case MessageType.TYPE_TRANSACTION_ID_LEASE:
+                return new TransactionIdLeaseRequestCodec();
             default:
                 throw new IllegalArgumentException("not support typeCode," + typeCode);
         }
@@ -214,6 +220,8 @@ public class MessageCodecFactory {
                 return new UndoLogDeleteRequestCodec();
             case MessageType.TYPE_GLOBAL_REPORT_RESULT:
                 return new GlobalReportResponseCodec();
+            case MessageType.TYPE_TRANSACTION_ID_LEASE_RESULT:
+                return new TransactionIdLeaseResponseCodec();
             default:
                 throw new IllegalArgumentException("not support typeCode," + typeCode);
         }
@@ -305,6 +313,8 @@ public class MessageCodecFactory {
                 return new BranchReportRequest();
             case MessageType.TYPE_GLOBAL_REPORT:
                 return new GlobalReportRequest();
+            case MessageType.TYPE_TRANSACTION_ID_LEASE:
+                return new TransactionIdLeaseRequest();
             default:
                 throw new IllegalArgumentException("not support typeCode," + typeCode);
         }
@@ -338,6 +348,8 @@ public class MessageCodecFactory {
                 return new BranchRollbackResponse();
             case MessageType.TYPE_GLOBAL_REPORT_RESULT:
                 return new GlobalReportResponse();
+            case MessageType.TYPE_TRANSACTION_ID_LEASE_RESULT:
+                return new TransactionIdLeaseResponse();
             default:
                 throw new IllegalArgumentException("not support typeCode," + typeCode);
         }
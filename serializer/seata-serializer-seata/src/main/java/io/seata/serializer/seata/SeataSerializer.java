@@ -33,6 +33,15 @@ public class SeataSerializer implements Serializer {
 
     @Override
     public <T> byte[] serialize(T t) {
+        ByteBuf out = Unpooled.buffer(1024);
+        serialize(t, out);
+        byte[] content = new byte[out.readableBytes()];
+        out.readBytes(content);
+        return content;
+    }
+
+    @Override
+    public <T> void serialize(T t, ByteBuf out) {
         if (t == null || !(t instanceof AbstractMessage)) {
             throw new IllegalArgumentException("AbstractMessage isn't available.");
         }
@@ -41,22 +50,9 @@ public class SeataSerializer implements Serializer {
         short typecode = abstractMessage.getTypeCode();
         //msg codec
         MessageSeataCodec messageCodec = MessageCodecFactory.getMessageCodec(typecode);
-        //get empty ByteBuffer
-        ByteBuf out = Unpooled.buffer(1024);
-        //msg encode
+        //typecode + body, encode into the buffer directly
+        out.writeShort(typecode);
         messageCodec.encode(t, out);
-        byte[] body = new byte[out.readableBytes()];
-        out.readBytes(body);
-
-        //typecode + body
-        ByteBuffer byteBuffer = ByteBuffer.allocate(2 + body.length);
-        byteBuffer.putShort(typecode);
-        byteBuffer.put(body);
-
-        byteBuffer.flip();
-        byte[] content = new byte[byteBuffer.limit()];
-        byteBuffer.get(content);
-        return content;
     }
 
     @Override
@@ -67,13 +63,27 @@ public class SeataSerializer implements Serializer {
         if (bytes.length < 2) {
             throw new IllegalArgumentException("The byte[] isn't available for decode.");
         }
-        ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in) {
+        if (in == null || !in.isReadable()) {
+            throw new IllegalArgumentException("Nothing to decode.");
+        }
+        if (in.readableBytes() < 2) {
+            throw new IllegalArgumentException("The ByteBuf isn't available for decode.");
+        }
+        // decode from a view of the readable bytes, no copy if the buffer is backed by a single array or memory
+        ByteBuffer byteBuffer = in.nioBuffer();
+        T message = decode(byteBuffer);
+        in.skipBytes(byteBuffer.position());
+        return message;
+    }
+
+    private <T> T decode(ByteBuffer in) {
         //typecode
-        short typecode = byteBuffer.getShort();
-        //msg body
-        byte[] body = new byte[byteBuffer.remaining()];
-        byteBuffer.get(body);
-        ByteBuffer in = ByteBuffer.wrap(body);
+        short typecode = in.getShort();
         //new Messgae
         AbstractMessage abstractMessage = MessageCodecFactory.getMessage(typecode);
         //get messageCodec
@@ -52,7 +52,7 @@ public class MergeResultMessageCodec extends AbstractMessageCodec {
             messageCodec.encode(msg, out);
         }
 
-        int length = out.readableBytes() - 4;
+        int length = out.writerIndex() - writeIndex - 4;
         out.setInt(writeIndex,length);
         if (msgs.length > 20) {
             if (LOGGER.isDebugEnabled()) {
@@ -0,0 +1,47 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.nio.ByteBuffer;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+
+/**
+ * The type Transaction id lease request codec.
+ */
+public class TransactionIdLeaseRequestCodec extends AbstractTransactionRequestToTCCodec {
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return TransactionIdLeaseRequest.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        TransactionIdLeaseRequest transactionIdLeaseRequest = (TransactionIdLeaseRequest)t;
+        out.writeInt(transactionIdLeaseRequest.getSize());
+        out.writeInt(transactionIdLeaseRequest.getTimeout());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        TransactionIdLeaseRequest transactionIdLeaseRequest = (TransactionIdLeaseRequest)t;
+        transactionIdLeaseRequest.setSize(in.getInt());
+        transactionIdLeaseRequest.setTimeout(in.getInt());
+    }
+
+}
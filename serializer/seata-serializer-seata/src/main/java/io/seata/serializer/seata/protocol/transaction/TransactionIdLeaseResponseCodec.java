@@ -0,0 +1,68 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import java.nio.ByteBuffer;
+
+import io.netty.buffer.ByteBuf;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
+
+/**
+ * The type Transaction id lease response codec.
+ */
+public class TransactionIdLeaseResponseCodec extends AbstractTransactionResponseCodec {
+
+    @Override
+    public Class<?> getMessageClassType() {
+        return TransactionIdLeaseResponse.class;
+    }
+
+    @Override
+    public <T> void encode(T t, ByteBuf out) {
+        super.encode(t, out);
+
+        TransactionIdLeaseResponse transactionIdLeaseResponse = (TransactionIdLeaseResponse)t;
+        String serverAddress = transactionIdLeaseResponse.getServerAddress();
+        if (serverAddress != null) {
+            byte[] bs = serverAddress.getBytes(UTF8);
+            out.writeShort((short)bs.length);
+            if (bs.length > 0) {
+                out.writeBytes(bs);
+            }
+        } else {
+            out.writeShort((short)0);
+        }
+        out.writeLong(transactionIdLeaseResponse.getStartTransactionId());
+        out.writeInt(transactionIdLeaseResponse.getSize());
+        out.writeLong(transactionIdLeaseResponse.getLeaseTime());
+    }
+
+    @Override
+    public <T> void decode(T t, ByteBuffer in) {
+        super.decode(t, in);
+
+        TransactionIdLeaseResponse transactionIdLeaseResponse = (TransactionIdLeaseResponse)t;
+        short len = in.getShort();
+        if (len > 0) {
+            byte[] bs = new byte[len];
+            in.get(bs);
+            transactionIdLeaseResponse.setServerAddress(new String(bs, UTF8));
+        }
+        transactionIdLeaseResponse.setStartTransactionId(in.getLong());
+        transactionIdLeaseResponse.setSize(in.getInt());
+        transactionIdLeaseResponse.setLeaseTime(in.getLong());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.seata.core.compressor.CompressorType;
+import io.seata.core.protocol.MergedWarpMessage;
+import io.seata.core.protocol.ProtocolConstants;
+import io.seata.core.protocol.RpcMessage;
+import io.seata.core.protocol.transaction.GlobalBeginRequest;
+import io.seata.core.rpc.netty.v1.ProtocolV1Decoder;
+import io.seata.core.rpc.netty.v1.ProtocolV1Encoder;
+import io.seata.core.serializer.SerializerType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Seata serializer test.
+ */
+public class SeataSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * The ByteBuf path writes the same bytes as the byte[] path.
+     */
+    @Test
+    public void test_byteBuf_codec() {
+        MergedWarpMessage mergedWarpMessage = buildMergedWarpMessage();
+        byte[] bytes = seataSerializer.serialize(mergedWarpMessage);
+
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer();
+        try {
+            out.writeInt(0xCAFE);
+            seataSerializer.serialize(mergedWarpMessage, out);
+            assertThat(out.readInt()).isEqualTo(0xCAFE);
+            assertThat(ByteBufUtil.getBytes(out)).isEqualTo(bytes);
+
+            MergedWarpMessage decoded = seataSerializer.deserialize(out);
+            assertThat(out.isReadable()).isFalse();
+            assertMergedWarpMessage(decoded);
+        } finally {
+            out.release();
+        }
+
+        assertMergedWarpMessage(seataSerializer.deserialize(Unpooled.wrappedBuffer(bytes)));
+    }
+
+    /**
+     * The message goes through the protocol encoder and decoder without copying the body.
+     */
+    @Test
+    public void test_protocol_codec() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ProtocolV1Encoder(), new ProtocolV1Decoder());
+        RpcMessage rpcMessage = new RpcMessage();
+        rpcMessage.setId(1);
+        rpcMessage.setMessageType(ProtocolConstants.MSGTYPE_RESQUEST_ONEWAY);
+        rpcMessage.setCodec(SerializerType.SEATA.getCode());
+        rpcMessage.setCompressor(CompressorType.NONE.getCode());
+        rpcMessage.setBody(buildMergedWarpMessage());
+
+        assertThat(channel.writeOutbound(rpcMessage)).isTrue();
+        ByteBuf frame = channel.readOutbound();
+        assertThat(channel.writeInbound(frame)).isTrue();
+        RpcMessage decoded = channel.readInbound();
+
+        assertThat(decoded.getId()).isEqualTo(1);
+        assertMergedWarpMessage((MergedWarpMessage)decoded.getBody());
+        channel.finishAndReleaseAll();
+    }
+
+    private static MergedWarpMessage buildMergedWarpMessage() {
+        MergedWarpMessage mergedWarpMessage = new MergedWarpMessage();
+        for (int i = 0; i < 2; i++) {
+            GlobalBeginRequest globalBeginRequest = new GlobalBeginRequest();
+            globalBeginRequest.setTransactionName("x" + i);
+            globalBeginRequest.setTimeout(3000);
+            mergedWarpMessage.msgs.add(globalBeginRequest);
+            mergedWarpMessage.msgIds.add(i);
+        }
+        return mergedWarpMessage;
+    }
+
+    private static void assertMergedWarpMessage(MergedWarpMessage mergedWarpMessage) {
+        assertThat(mergedWarpMessage.msgs.size()).isEqualTo(2);
+        for (int i = 0; i < 2; i++) {
+            GlobalBeginRequest globalBeginRequest = (GlobalBeginRequest)mergedWarpMessage.msgs.get(i);
+            assertThat(globalBeginRequest.getTransactionName()).isEqualTo("x" + i);
+            assertThat(globalBeginRequest.getTimeout()).isEqualTo(3000);
+        }
+    }
+}
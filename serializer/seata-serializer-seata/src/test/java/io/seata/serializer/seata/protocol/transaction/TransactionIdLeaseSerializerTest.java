@@ -0,0 +1,73 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.serializer.seata.protocol.transaction;
+
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
+import io.seata.serializer.seata.SeataSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Transaction id lease codec test.
+ */
+public class TransactionIdLeaseSerializerTest {
+
+    /**
+     * The Seata codec.
+     */
+    SeataSerializer seataSerializer = new SeataSerializer();
+
+    /**
+     * Test request codec.
+     */
+    @Test
+    public void test_requestCodec() {
+        TransactionIdLeaseRequest transactionIdLeaseRequest = new TransactionIdLeaseRequest();
+        transactionIdLeaseRequest.setSize(100);
+        transactionIdLeaseRequest.setTimeout(30000);
+
+        byte[] bytes = seataSerializer.serialize(transactionIdLeaseRequest);
+
+        TransactionIdLeaseRequest transactionIdLeaseRequest2 = seataSerializer.deserialize(bytes);
+        assertThat(transactionIdLeaseRequest2.getSize()).isEqualTo(transactionIdLeaseRequest.getSize());
+        assertThat(transactionIdLeaseRequest2.getTimeout()).isEqualTo(transactionIdLeaseRequest.getTimeout());
+    }
+
+    /**
+     * Test response codec.
+     */
+    @Test
+    public void test_responseCodec() {
+        TransactionIdLeaseResponse transactionIdLeaseResponse = new TransactionIdLeaseResponse();
+        transactionIdLeaseResponse.setResultCode(ResultCode.Success);
+        transactionIdLeaseResponse.setServerAddress("127.0.0.1:8091");
+        transactionIdLeaseResponse.setStartTransactionId(2454L);
+        transactionIdLeaseResponse.setSize(100);
+        transactionIdLeaseResponse.setLeaseTime(10000L);
+
+        byte[] bytes = seataSerializer.serialize(transactionIdLeaseResponse);
+
+        TransactionIdLeaseResponse transactionIdLeaseResponse2 = seataSerializer.deserialize(bytes);
+        assertThat(transactionIdLeaseResponse2.getResultCode()).isEqualTo(transactionIdLeaseResponse.getResultCode());
+        assertThat(transactionIdLeaseResponse2.getServerAddress()).isEqualTo(transactionIdLeaseResponse.getServerAddress());
+        assertThat(transactionIdLeaseResponse2.getStartTransactionId()).isEqualTo(transactionIdLeaseResponse.getStartTransactionId());
+        assertThat(transactionIdLeaseResponse2.getSize()).isEqualTo(transactionIdLeaseResponse.getSize());
+        assertThat(transactionIdLeaseResponse2.getLeaseTime()).isEqualTo(transactionIdLeaseResponse.getLeaseTime());
+    }
+}
@@ -38,6 +38,8 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
 import io.seata.core.protocol.transaction.TCInboundHandler;
 import io.seata.core.rpc.RpcContext;
 import io.seata.server.session.GlobalSession;
@@ -330,6 +332,30 @@ public abstract class AbstractTCInboundHandler extends AbstractExceptionHandler
     protected abstract void doGlobalReport(GlobalReportRequest request, GlobalReportResponse response,
                                            RpcContext rpcContext) throws TransactionException;
 
+    @Override
+    public TransactionIdLeaseResponse handle(TransactionIdLeaseRequest request, final RpcContext rpcContext) {
+        TransactionIdLeaseResponse response = new TransactionIdLeaseResponse();
+        exceptionHandleTemplate(new AbstractCallback<TransactionIdLeaseRequest, TransactionIdLeaseResponse>() {
+            @Override
+            public void execute(TransactionIdLeaseRequest request, TransactionIdLeaseResponse response)
+                throws TransactionException {
+                doTransactionIdLease(request, response, rpcContext);
+            }
+        }, request, response);
+        return response;
+    }
+
+    /**
+     * Do transaction id lease.
+     *
+     * @param request    the request
+     * @param response   the response
+     * @param rpcContext the rpc context
+     * @throws TransactionException the transaction exception
+     */
+    protected abstract void doTransactionIdLease(TransactionIdLeaseRequest request, TransactionIdLeaseResponse response,
+                                                 RpcContext rpcContext) throws TransactionException;
+
     private void checkTransactionStatus(AbstractGlobalEndRequest request, AbstractGlobalEndResponse response) {
         try {
             GlobalSession globalSession = SessionHolder.findGlobalSession(request.getXid(), false);
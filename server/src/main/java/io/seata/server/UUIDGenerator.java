@@ -41,6 +41,22 @@ public class UUIDGenerator {
         return idWorker.nextId();
     }
 
+    /**
+     * generate a range of continuous UUIDs using snowflake algorithm
+     * @param size the size of the range
+     * @return the first UUID of the range
+     */
+    public static long generateUUIDs(int size) {
+        if (idWorker == null) {
+            synchronized (UUIDGenerator.class) {
+                if (idWorker == null) {
+                    init(null);
+                }
+            }
+        }
+        return idWorker.nextIds(size);
+    }
+
     /**
      * init IdWorker
      * @param serverNode the server node id, consider as machine id in snowflake
@@ -16,6 +16,7 @@
 package io.seata.server.coordinator;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 
 import io.seata.core.context.RootContext;
@@ -28,6 +29,7 @@ import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.transaction.BranchCommitRequest;
 import io.seata.core.protocol.transaction.BranchCommitResponse;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.protocol.transaction.BranchRollbackRequest;
 import io.seata.core.protocol.transaction.BranchRollbackResponse;
 import io.seata.core.rpc.RemotingServer;
@@ -37,6 +39,7 @@ import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.TransactionIdLeases;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -73,7 +76,7 @@ public abstract class AbstractCore implements Core {
     @Override
     public Long branchRegister(BranchType branchType, String resourceId, String clientId, String xid,
                                String applicationData, String lockKeys) throws TransactionException {
-        GlobalSession globalSession = assertGlobalSessionNotNull(xid, false);
+        GlobalSession globalSession = assertGlobalSessionNotNullOrBegin(xid);
         return SessionHolder.lockAndExecute(globalSession, () -> {
             globalSessionStatusCheck(globalSession);
             globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
@@ -81,22 +84,69 @@ public abstract class AbstractCore implements Core {
                     applicationData, lockKeys, clientId);
             MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
             branchSessionLock(globalSession, branchSession);
-            try {
-                globalSession.addBranch(branchSession);
-            } catch (RuntimeException ex) {
-                branchSessionUnlock(branchSession);
-                throw new BranchTransactionException(FailedToAddBranch, String
-                        .format("Failed to store branch xid = %s branchId = %s", globalSession.getXid(),
-                                branchSession.getBranchId()), ex);
-            }
-            if (LOGGER.isInfoEnabled()) {
-                LOGGER.info("Register branch successfully, xid = {}, branchId = {}, resourceId = {} ,lockKeys = {}",
-                    globalSession.getXid(), branchSession.getBranchId(), resourceId, lockKeys);
-            }
-            return branchSession.getBranchId();
+            return addBranch(globalSession, branchSession);
         });
     }
 
+    /**
+     * Register the branch whose global locks are acquired beforehand, the locks are released if it fails.
+     *
+     * @param lockedBranchSession the locked branch session
+     * @return the branch id
+     * @throws TransactionException the transaction exception
+     */
+    public Long branchRegister(BranchSession lockedBranchSession) throws TransactionException {
+        GlobalSession globalSession = null;
+        try {
+            globalSession = assertGlobalSessionNotNullOrBegin(lockedBranchSession.getXid());
+            final GlobalSession lockedGlobalSession = globalSession;
+            return SessionHolder.lockAndExecute(globalSession, () -> {
+                globalSessionStatusCheck(lockedGlobalSession);
+                lockedGlobalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+                MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(lockedBranchSession.getBranchId()));
+                return addBranch(lockedGlobalSession, lockedBranchSession);
+            });
+        } catch (TransactionException | RuntimeException e) {
+            if (globalSession == null || globalSession.getBranch(lockedBranchSession.getBranchId()) == null) {
+                branchSessionUnlock(lockedBranchSession);
+            }
+            throw e;
+        }
+    }
+
+    private Long addBranch(GlobalSession globalSession, BranchSession branchSession) throws TransactionException {
+        try {
+            globalSession.addBranch(branchSession);
+        } catch (TransactionException ex) {
+            branchSessionUnlock(branchSession);
+            throw ex;
+        } catch (RuntimeException ex) {
+            branchSessionUnlock(branchSession);
+            throw new BranchTransactionException(FailedToAddBranch, String
+                    .format("Failed to store branch xid = %s branchId = %s", globalSession.getXid(),
+                            branchSession.getBranchId()), ex);
+        }
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("Register branch successfully, xid = {}, branchId = {}, resourceId = {} ,lockKeys = {}",
+                globalSession.getXid(), branchSession.getBranchId(), branchSession.getResourceId(),
+                branchSession.getLockKey());
+        }
+        return branchSession.getBranchId();
+    }
+
+    /**
+     * Create the branches of the register requests and acquire their global locks in one batch.
+     *
+     * @param requests the branch register requests
+     * @param clientId the client id
+     * @return the locked branch of each request, or null if the request has to be registered one by one
+     * @throws TransactionException the transaction exception
+     */
+    public BranchSession[] batchBranchSessionLock(List<BranchRegisterRequest> requests, String clientId)
+        throws TransactionException {
+        return new BranchSession[requests.size()];
+    }
+
     protected void globalSessionStatusCheck(GlobalSession globalSession) throws GlobalTransactionException {
         if (!globalSession.isActive()) {
             throw new GlobalTransactionException(GlobalTransactionNotActive, String.format(
@@ -128,6 +178,26 @@ public abstract class AbstractCore implements Core {
         return globalSession;
     }
 
+    /**
+     * Find the global session to register a branch into, the session of a leased xid is begun at its first
+     * branch registration.
+     *
+     * @param xid the xid
+     * @return the global session
+     * @throws TransactionException the transaction exception
+     */
+    private GlobalSession assertGlobalSessionNotNullOrBegin(String xid) throws TransactionException {
+        GlobalSession globalSession = SessionHolder.findGlobalSessionForBranchRegister(xid);
+        if (globalSession == null) {
+            globalSession = TransactionIdLeases.getInstance().begin(xid);
+        }
+        if (globalSession == null) {
+            throw new GlobalTransactionException(TransactionExceptionCode.GlobalTransactionNotExist,
+                    String.format("Could not found global transaction xid = %s, may be has finished.", xid));
+        }
+        return globalSession;
+    }
+
     @Override
     public void branchReport(BranchType branchType, String xid, long branchId, BranchStatus status,
                              String applicationData) throws TransactionException {
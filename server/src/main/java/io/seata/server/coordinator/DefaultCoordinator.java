@@ -16,26 +16,34 @@
 package io.seata.server.coordinator;
 
 import java.time.Duration;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import io.netty.channel.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import io.seata.common.XID;
+import io.seata.common.exception.StoreException;
 import io.seata.common.thread.NamedThreadFactory;
-import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.DurationUtil;
+import io.seata.common.util.StringUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.BranchType;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.protocol.AbstractMessage;
 import io.seata.core.protocol.AbstractResultMessage;
+import io.seata.core.protocol.ResultCode;
 import io.seata.core.protocol.transaction.AbstractTransactionRequestToTC;
 import io.seata.core.protocol.transaction.AbstractTransactionResponse;
 import io.seata.core.protocol.transaction.BranchRegisterRequest;
@@ -54,6 +62,8 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
 import io.seata.core.protocol.transaction.UndoLogDeleteRequest;
 import io.seata.core.rpc.Disposable;
 import io.seata.core.rpc.RemotingServer;
@@ -63,15 +73,25 @@ import io.seata.core.rpc.netty.ChannelManager;
 import io.seata.core.rpc.netty.NettyRemotingServer;
 import io.seata.server.AbstractTCInboundHandler;
 import io.seata.server.event.EventBusManager;
+import io.seata.server.lock.LockerManagerFactory;
+import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import io.seata.server.session.GlobalSessionTimeoutIndex;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.SessionManager;
+import io.seata.server.session.TransactionIdLeases;
 
 import static io.seata.common.Constants.RETRY_COMMITTING;
 import static io.seata.common.Constants.RETRY_ROLLBACKING;
 import static io.seata.common.Constants.ASYNC_COMMITTING;
 import static io.seata.common.Constants.TX_TIMEOUT_CHECK;
 import static io.seata.common.Constants.UNDOLOG_DELETE;
+import static io.seata.common.DefaultValues.DEFAULT_BATCH_BRANCH_LOCK_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_RECOVERY_SHARD_MAX_PENDING;
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_FULL_SCAN_PERIOD;
 
 /**
  * The type Default coordinator.
@@ -127,6 +147,21 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private static final boolean ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
         ConfigurationKeys.ROLLBACK_RETRY_TIMEOUT_UNLOCK_ENABLE, false);
 
+    private static final boolean BATCH_BRANCH_LOCK_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.BATCH_BRANCH_LOCK_ENABLE, DEFAULT_BATCH_BRANCH_LOCK_ENABLE);
+
+    private static final boolean RECOVERY_SHARD_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.RECOVERY_SHARD_ENABLE, DEFAULT_RECOVERY_SHARD_ENABLE);
+
+    private static final int RECOVERY_SHARD_COUNT = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.RECOVERY_SHARD_COUNT, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final int RECOVERY_SHARD_MAX_PENDING = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.RECOVERY_SHARD_MAX_PENDING, DEFAULT_RECOVERY_SHARD_MAX_PENDING);
+
+    private static final long TIMEOUT_FULL_SCAN_PERIOD = ConfigurationFactory.getInstance().getLong(
+        ConfigurationKeys.TIMEOUT_FULL_SCAN_PERIOD, DEFAULT_TIMEOUT_FULL_SCAN_PERIOD);
+
     private ScheduledThreadPoolExecutor retryRollbacking = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("RetryRollbacking", 1));
 
@@ -142,6 +177,11 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
     private ScheduledThreadPoolExecutor undoLogDelete = new ScheduledThreadPoolExecutor(1,
         new NamedThreadFactory("UndoLogDelete", 1));
 
+    private ShardedSessionExecutor recoveryExecutor = RECOVERY_SHARD_ENABLE
+        ? new ShardedSessionExecutor("RecoveryShard", RECOVERY_SHARD_COUNT, RECOVERY_SHARD_MAX_PENDING) : null;
+
+    private volatile long lastTimeoutFullScanTime;
+
     private RemotingServer remotingServer;
 
     private DefaultCore core;
@@ -197,6 +237,18 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         response.setGlobalStatus(core.globalReport(request.getXid(), request.getGlobalStatus()));
     }
 
+    @Override
+    protected void doTransactionIdLease(TransactionIdLeaseRequest request, TransactionIdLeaseResponse response,
+                                        RpcContext rpcContext) throws TransactionException {
+        TransactionIdLeases leases = TransactionIdLeases.getInstance();
+        TransactionIdLeases.Lease lease = leases.grant(rpcContext.getApplicationId(),
+            rpcContext.getTransactionServiceGroup(), request.getSize(), request.getTimeout());
+        response.setServerAddress(XID.getIpAddressAndPort());
+        response.setStartTransactionId(lease.getStartTransactionId());
+        response.setSize(lease.getSize());
+        response.setLeaseTime(leases.getLeaseTime());
+    }
+
     @Override
     protected void doBranchRegister(BranchRegisterRequest request, BranchRegisterResponse response,
                                     RpcContext rpcContext) throws TransactionException {
@@ -229,60 +281,85 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * @throws TransactionException the transaction exception
      */
     protected void timeoutCheck() throws TransactionException {
-        Collection<GlobalSession> allSessions = SessionHolder.getRootSessionManager().allSessions();
-        if (CollectionUtils.isEmpty(allSessions)) {
-            return;
-        }
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check begin, size: {}", allSessions.size());
+        if (GlobalSessionTimeoutIndex.isEnable()) {
+            long now = System.currentTimeMillis();
+            if (now - lastTimeoutFullScanTime < TIMEOUT_FULL_SCAN_PERIOD) {
+                timeoutCheckByIndex(now);
+                return;
+            }
+            lastTimeoutFullScanTime = now;
         }
-        SessionHelper.forEach(allSessions, globalSession -> {
+        SessionHolder.getRootSessionManager().scanSessions(new GlobalStatus[] {GlobalStatus.Begin}, false, page -> {
             if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug(
-                    globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
-                        + globalSession.getTimeout());
+                LOGGER.debug("Global transaction timeout check, page size: {}", page.size());
             }
-            SessionHolder.lockAndExecute(globalSession, () -> {
-                if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
-                    return false;
+            SessionHelper.forEach(page, this::handleTimeout);
+        });
+    }
+
+    /**
+     * Timeout check of the sessions whose deadline has passed in the timeout index.
+     *
+     * @param now the current time millis
+     */
+    private void timeoutCheckByIndex(long now) {
+        GlobalSessionTimeoutIndex.getInstance().forEachExpired(now, xid -> {
+            MDC.put(RootContext.MDC_KEY_XID, xid);
+            try {
+                GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
+                if (globalSession == null) {
+                    return true;
                 }
+                handleTimeout(globalSession);
+                // still begin if the session lock was not acquired, check it again on the next round
+                return globalSession.getStatus() != GlobalStatus.Begin;
+            } catch (Throwable th) {
+                LOGGER.error("handle global session failed: {}", xid, th);
+                return false;
+            } finally {
+                MDC.remove(RootContext.MDC_KEY_XID);
+            }
+        });
+    }
 
-                LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
+    private void handleTimeout(GlobalSession globalSession) throws TransactionException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                globalSession.getXid() + " " + globalSession.getStatus() + " " + globalSession.getBeginTime() + " "
+                    + globalSession.getTimeout());
+        }
+        SessionHolder.lockAndExecute(globalSession, () -> {
+            if (globalSession.getStatus() != GlobalStatus.Begin || !globalSession.isTimeout()) {
+                return false;
+            }
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
-                globalSession.close();
-                globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
+            LOGGER.info("Global transaction[{}] is timeout and will be rollback.", globalSession.getXid());
 
-                globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
-                SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.close();
+            globalSession.setStatus(GlobalStatus.TimeoutRollbacking);
 
-                // transaction timeout and start rollbacking event
-                eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
-                        GlobalTransactionEvent.ROLE_TC,
-                        globalSession.getTransactionName(),
-                        globalSession.getApplicationId(),
-                        globalSession.getTransactionServiceGroup(),
-                        globalSession.getBeginTime(), null, globalSession.getStatus()));
+            globalSession.addSessionLifecycleListener(SessionHolder.getRetryRollbackingSessionManager());
+            SessionHolder.getRetryRollbackingSessionManager().addGlobalSession(globalSession);
 
-                return true;
-            });
-        });
-        if (allSessions.size() > 0 && LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Global transaction timeout check end. ");
-        }
+            // transaction timeout and start rollbacking event
+            eventBus.post(new GlobalTransactionEvent(globalSession.getTransactionId(),
+                    GlobalTransactionEvent.ROLE_TC,
+                    globalSession.getTransactionName(),
+                    globalSession.getApplicationId(),
+                    globalSession.getTransactionServiceGroup(),
+                    globalSession.getBeginTime(), null, globalSession.getStatus()));
 
+            return true;
+        });
     }
 
     /**
      * Handle retry rollbacking.
      */
     protected void handleRetryRollbacking() {
-        Collection<GlobalSession> rollbackingSessions = SessionHolder.getRetryRollbackingSessionManager().allSessions();
-        if (CollectionUtils.isEmpty(rollbackingSessions)) {
-            return;
-        }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(rollbackingSessions, rollbackingSession -> {
+        forEachRecovering(SessionHolder.getRetryRollbackingSessionManager(), rollbackingSession -> {
             try {
                 // prevent repeated rollback
                 if (rollbackingSession.getStatus().equals(GlobalStatus.Rollbacking) && !rollbackingSession.isDeadSession()) {
@@ -313,12 +390,8 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Handle retry committing.
      */
     protected void handleRetryCommitting() {
-        Collection<GlobalSession> committingSessions = SessionHolder.getRetryCommittingSessionManager().allSessions();
-        if (CollectionUtils.isEmpty(committingSessions)) {
-            return;
-        }
         long now = System.currentTimeMillis();
-        SessionHelper.forEach(committingSessions, committingSession -> {
+        forEachRecovering(SessionHolder.getRetryCommittingSessionManager(), committingSession -> {
             try {
                 // prevent repeated commit
                 if (committingSession.getStatus().equals(GlobalStatus.Committing) && !committingSession.isDeadSession()) {
@@ -342,6 +415,22 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         });
     }
 
+    /**
+     * Foreach the sessions to recover page by page, in parallel shards if the recovery shard is enabled.
+     *
+     * @param sessionManager the session manager of the sessions
+     * @param handler        the handler
+     */
+    private void forEachRecovering(SessionManager sessionManager, GlobalSessionHandler handler) {
+        sessionManager.scanSessions(null, true, page -> {
+            if (recoveryExecutor != null) {
+                recoveryExecutor.forEach(page, handler);
+            } else {
+                SessionHelper.forEach(page, handler);
+            }
+        });
+    }
+
     private boolean isRetryTimeout(long now, long timeout, long beginTime) {
         return timeout >= ALWAYS_RETRY_BOUNDARY && now - beginTime > timeout;
     }
@@ -350,12 +439,7 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
      * Handle async committing.
      */
     protected void handleAsyncCommitting() {
-        Collection<GlobalSession> asyncCommittingSessions = SessionHolder.getAsyncCommittingSessionManager()
-            .allSessions();
-        if (CollectionUtils.isEmpty(asyncCommittingSessions)) {
-            return;
-        }
-        SessionHelper.forEach(asyncCommittingSessions, asyncCommittingSession -> {
+        forEachRecovering(SessionHolder.getAsyncCommittingSessionManager(), asyncCommittingSession -> {
             try {
                 // Instruction reordering in DefaultCore#asyncCommit may cause this situation
                 if (GlobalStatus.AsyncCommitting != asyncCommittingSession.getStatus()) {
@@ -477,6 +561,96 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         return transactionRequest.handle(context);
     }
 
+    @Override
+    public CompletableFuture<AbstractResultMessage> retryLater(AbstractMessage request, AbstractResultMessage response,
+                                                               RpcContext context, Executor executor) {
+        if (!(request instanceof BranchRegisterRequest) || !isLockConflict(response)) {
+            return null;
+        }
+        BranchRegisterRequest registerRequest = (BranchRegisterRequest)request;
+        return LockerManagerFactory.getLockManager().retryOnRelease(registerRequest.getXid(),
+            registerRequest.getResourceId(), registerRequest.getLockKey(), executor,
+            () -> onRequest(request, context), DefaultCoordinator::isLockConflict);
+    }
+
+    private static boolean isLockConflict(AbstractResultMessage response) {
+        return response instanceof BranchRegisterResponse && response.getResultCode() == ResultCode.Failed
+            && ((BranchRegisterResponse)response).getTransactionExceptionCode()
+            == TransactionExceptionCode.LockKeyConflict;
+    }
+
+    @Override
+    public AbstractResultMessage[] onRequest(List<AbstractMessage> requests, RpcContext context) {
+        BranchSession[] lockedBranchSessions = BATCH_BRANCH_LOCK_ENABLE ? batchBranchLock(requests, context) : null;
+        AbstractResultMessage[] results = new AbstractResultMessage[requests.size()];
+        for (int i = 0; i < results.length; i++) {
+            BranchSession lockedBranchSession = lockedBranchSessions == null ? null : lockedBranchSessions[i];
+            if (lockedBranchSession != null) {
+                results[i] = handleLockedBranchRegister((BranchRegisterRequest)requests.get(i), lockedBranchSession);
+            } else {
+                results[i] = onRequest(requests.get(i), context);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Acquire the global locks of the AT branch register requests merged in one message by one batch.
+     *
+     * @param requests the merged requests
+     * @param context  the rpc context
+     * @return the locked branch of each request, or null if no request is locked
+     */
+    private BranchSession[] batchBranchLock(List<AbstractMessage> requests, RpcContext context) {
+        List<BranchRegisterRequest> registerRequests = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            if (!(requests.get(i) instanceof BranchRegisterRequest)) {
+                continue;
+            }
+            BranchRegisterRequest request = (BranchRegisterRequest)requests.get(i);
+            if (request.getBranchType() == BranchType.AT && StringUtils.isNotBlank(request.getLockKey())) {
+                registerRequests.add(request);
+                indexes.add(i);
+            }
+        }
+        if (registerRequests.size() < 2) {
+            return null;
+        }
+        BranchSession[] lockedRegisterBranches;
+        try {
+            lockedRegisterBranches = core.getCore(BranchType.AT).batchBranchSessionLock(registerRequests,
+                context.getClientId());
+        } catch (TransactionException | RuntimeException e) {
+            LOGGER.warn("batch branch lock failed, the branches are registered one by one: {}", e.getMessage(), e);
+            return null;
+        }
+        BranchSession[] lockedBranchSessions = new BranchSession[requests.size()];
+        for (int i = 0; i < lockedRegisterBranches.length; i++) {
+            lockedBranchSessions[indexes.get(i)] = lockedRegisterBranches[i];
+        }
+        return lockedBranchSessions;
+    }
+
+    private BranchRegisterResponse handleLockedBranchRegister(BranchRegisterRequest request,
+                                                              BranchSession lockedBranchSession) {
+        BranchRegisterResponse response = new BranchRegisterResponse();
+        exceptionHandleTemplate(new AbstractCallback<BranchRegisterRequest, BranchRegisterResponse>() {
+            @Override
+            public void execute(BranchRegisterRequest request, BranchRegisterResponse response)
+                throws TransactionException {
+                MDC.put(RootContext.MDC_KEY_XID, request.getXid());
+                try {
+                    response.setBranchId(core.getCore(BranchType.AT).branchRegister(lockedBranchSession));
+                } catch (StoreException e) {
+                    throw new TransactionException(TransactionExceptionCode.FailedStore, String
+                        .format("branch register request failed. xid=%s, msg=%s", request.getXid(), e.getMessage()), e);
+                }
+            }
+        }, request, response);
+        return response;
+    }
+
     @Override
     public void onResponse(AbstractResultMessage response, RpcContext context) {
         if (!(response instanceof AbstractTransactionResponse)) {
@@ -492,14 +666,22 @@ public class DefaultCoordinator extends AbstractTCInboundHandler implements Tran
         retryCommitting.shutdown();
         asyncCommitting.shutdown();
         timeoutCheck.shutdown();
+        if (recoveryExecutor != null) {
+            recoveryExecutor.shutdown();
+        }
         try {
             retryRollbacking.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             retryCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             asyncCommitting.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
             timeoutCheck.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            if (recoveryExecutor != null) {
+                recoveryExecutor.awaitTermination(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS, TimeUnit.MILLISECONDS);
+            }
         } catch (InterruptedException ignore) {
 
         }
+        // the branches dispatched by the timed tasks still need the netty channels
+        core.destroy(TIMED_TASK_SHUTDOWN_MAX_WAIT_MILLS);
         // 2. second close netty flow
         if (remotingServer instanceof NettyRemotingServer) {
             ((NettyRemotingServer) remotingServer).destroy();
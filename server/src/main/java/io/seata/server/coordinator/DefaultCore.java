@@ -15,13 +15,17 @@
  */
 package io.seata.server.coordinator;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import io.seata.common.exception.NotSupportYetException;
 import io.seata.common.loader.EnhancedServiceLoader;
 import io.seata.common.util.CollectionUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
 import io.seata.core.event.EventBus;
 import io.seata.core.event.GlobalTransactionEvent;
@@ -36,10 +40,13 @@ import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionHelper;
 import io.seata.server.session.SessionHolder;
+import io.seata.server.session.TransactionIdLeases;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import static io.seata.common.DefaultValues.DEFAULT_PARALLEL_BRANCH_DISPATCH_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS;
 import static io.seata.server.session.BranchSessionHandler.CONTINUE;
 
 /**
@@ -55,6 +62,15 @@ public class DefaultCore implements Core {
 
     private static Map<BranchType, AbstractCore> coreMap = new ConcurrentHashMap<>();
 
+    private static final boolean PARALLEL_BRANCH_DISPATCH_ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.PARALLEL_BRANCH_DISPATCH_ENABLE, DEFAULT_PARALLEL_BRANCH_DISPATCH_ENABLE);
+
+    private static final int PARALLEL_BRANCH_DISPATCH_THREADS = ConfigurationFactory.getInstance().getInt(
+        ConfigurationKeys.PARALLEL_BRANCH_DISPATCH_THREADS, DEFAULT_PARALLEL_BRANCH_DISPATCH_THREADS);
+
+    private ParallelBranchDispatcher branchDispatcher = PARALLEL_BRANCH_DISPATCH_ENABLE
+        ? new ParallelBranchDispatcher(PARALLEL_BRANCH_DISPATCH_THREADS) : null;
+
     /**
      * get the Default core.
      *
@@ -84,6 +100,23 @@ public class DefaultCore implements Core {
         return core;
     }
 
+    /**
+     * Shutdown the parallel branch dispatcher and wait for the dispatched branches.
+     *
+     * @param timeoutMills the max wait time in milliseconds
+     */
+    public void destroy(long timeoutMills) {
+        if (branchDispatcher == null) {
+            return;
+        }
+        branchDispatcher.shutdown();
+        try {
+            branchDispatcher.awaitTermination(timeoutMills);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * only for mock
      *
@@ -140,9 +173,23 @@ public class DefaultCore implements Core {
         return session.getXid();
     }
 
+    /**
+     * Find the global session to end, a leased xid without session is ended so no branch can begin it later.
+     *
+     * @param xid the xid
+     * @return the global session, null if there is none
+     */
+    private GlobalSession findGlobalSessionOrEnd(String xid) {
+        GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+        if (globalSession == null && !TransactionIdLeases.getInstance().end(xid)) {
+            globalSession = SessionHolder.findGlobalSession(xid);
+        }
+        return globalSession;
+    }
+
     @Override
     public GlobalStatus commit(String xid) throws TransactionException {
-        GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+        GlobalSession globalSession = findGlobalSessionOrEnd(xid);
         if (globalSession == null) {
             return GlobalStatus.Finished;
         }
@@ -189,7 +236,10 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalCommit(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getSortedBranches(), branchSession -> {
+            List<BranchSession> sortedBranches = globalSession.getSortedBranches();
+            Map<Long, CompletableFuture<BranchStatus>> dispatched = dispatchBranchCommit(globalSession,
+                sortedBranches, retrying);
+            Boolean result = SessionHelper.forEach(sortedBranches, branchSession -> {
                 // if not retrying, skip the canBeCommittedAsync branches
                 if (!retrying && branchSession.canBeCommittedAsync()) {
                     return CONTINUE;
@@ -201,7 +251,10 @@ public class DefaultCore implements Core {
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+                    BranchStatus branchStatus = awaitDispatched(dispatched, branchSession);
+                    if (branchStatus == null) {
+                        branchStatus = getCore(branchSession.getBranchType()).branchCommit(globalSession, branchSession);
+                    }
 
                     switch (branchStatus) {
                         case PhaseTwo_Committed:
@@ -269,7 +322,7 @@ public class DefaultCore implements Core {
 
     @Override
     public GlobalStatus rollback(String xid) throws TransactionException {
-        GlobalSession globalSession = SessionHolder.findGlobalSession(xid);
+        GlobalSession globalSession = findGlobalSessionOrEnd(xid);
         if (globalSession == null) {
             return GlobalStatus.Finished;
         }
@@ -304,14 +357,20 @@ public class DefaultCore implements Core {
         if (globalSession.isSaga()) {
             success = getCore(BranchType.SAGA).doGlobalRollback(globalSession, retrying);
         } else {
-            Boolean result = SessionHelper.forEach(globalSession.getReverseSortedBranches(), branchSession -> {
+            List<BranchSession> reverseSortedBranches = globalSession.getReverseSortedBranches();
+            Map<Long, CompletableFuture<BranchStatus>> dispatched = dispatchBranchRollback(globalSession,
+                reverseSortedBranches);
+            Boolean result = SessionHelper.forEach(reverseSortedBranches, branchSession -> {
                 BranchStatus currentBranchStatus = branchSession.getStatus();
                 if (currentBranchStatus == BranchStatus.PhaseOne_Failed) {
                     globalSession.removeBranch(branchSession);
                     return CONTINUE;
                 }
                 try {
-                    BranchStatus branchStatus = branchRollback(globalSession, branchSession);
+                    BranchStatus branchStatus = awaitDispatched(dispatched, branchSession);
+                    if (branchStatus == null) {
+                        branchStatus = branchRollback(globalSession, branchSession);
+                    }
                     switch (branchStatus) {
                         case PhaseTwo_Rollbacked:
                             globalSession.removeBranch(branchSession);
@@ -371,6 +430,68 @@ public class DefaultCore implements Core {
         return success;
     }
 
+    /**
+     * Send the branch commits concurrently if the parallel branch dispatch is enabled.
+     *
+     * @param globalSession the global session
+     * @param branches      the sorted branches
+     * @param retrying      the retrying
+     * @return the dispatched branch status futures, null if not dispatched
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchCommit(GlobalSession globalSession,
+                                                                            List<BranchSession> branches,
+                                                                            boolean retrying) {
+        if (branchDispatcher == null) {
+            return null;
+        }
+        List<BranchSession> toCommit = new ArrayList<>(branches.size());
+        for (BranchSession branchSession : branches) {
+            // the same branches skipped by doGlobalCommit
+            if ((!retrying && branchSession.canBeCommittedAsync())
+                || branchSession.getStatus() == BranchStatus.PhaseOne_Failed) {
+                continue;
+            }
+            toCommit.add(branchSession);
+        }
+        if (toCommit.size() <= 1) {
+            return null;
+        }
+        return branchDispatcher.dispatchCommit(globalSession, toCommit, this::branchCommit);
+    }
+
+    /**
+     * Send the branch rollbacks concurrently by resource if the parallel branch dispatch is enabled.
+     *
+     * @param globalSession the global session
+     * @param branches      the reverse sorted branches
+     * @return the dispatched branch status futures, null if not dispatched
+     */
+    private Map<Long, CompletableFuture<BranchStatus>> dispatchBranchRollback(GlobalSession globalSession,
+                                                                              List<BranchSession> branches) {
+        if (branchDispatcher == null) {
+            return null;
+        }
+        List<BranchSession> toRollback = new ArrayList<>(branches.size());
+        for (BranchSession branchSession : branches) {
+            if (branchSession.getStatus() != BranchStatus.PhaseOne_Failed) {
+                toRollback.add(branchSession);
+            }
+        }
+        if (toRollback.size() <= 1) {
+            return null;
+        }
+        return branchDispatcher.dispatchRollback(globalSession, toRollback, this::branchRollback);
+    }
+
+    private BranchStatus awaitDispatched(Map<Long, CompletableFuture<BranchStatus>> dispatched,
+                                         BranchSession branchSession) throws Exception {
+        if (dispatched == null) {
+            return null;
+        }
+        CompletableFuture<BranchStatus> future = dispatched.get(branchSession.getBranchId());
+        return future == null ? null : ParallelBranchDispatcher.await(future);
+    }
+
     @Override
     public GlobalStatus getStatus(String xid) throws TransactionException {
         GlobalSession globalSession = SessionHolder.findGlobalSession(xid, false);
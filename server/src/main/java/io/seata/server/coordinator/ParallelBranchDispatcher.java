@@ -0,0 +1,204 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.context.RootContext;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.slf4j.MDC;
+
+/**
+ * Dispatches the phase two requests of the branches of one global transaction concurrently.
+ * <p>
+ * The dispatcher only sends the requests, the results are still handled one by one in the branch order
+ * by {@link DefaultCore}, so the status changes of the global session keep the same order as the serial mode.
+ * Branch commits are independent and all of them are sent at once. Branch rollbacks of the same resource
+ * keep the reverse order and run one after another, only rollbacks of different resources run concurrently.
+ *
+ * @since 1.5.0
+ */
+public class ParallelBranchDispatcher {
+
+    private static final int MAX_QUEUE_SIZE = 2048;
+
+    private static final long KEEP_ALIVE_TIME = 60 * 1000L;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Instantiates a new Parallel branch dispatcher.
+     *
+     * @param threads the max threads
+     */
+    public ParallelBranchDispatcher(int threads) {
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_QUEUE_SIZE), new NamedThreadFactory("BranchDispatch", threads),
+            // run in the caller thread when the queue is full or the executor is shutdown, never drop a branch
+            (task, executor) -> task.run());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Send the branch commits concurrently.
+     *
+     * @param globalSession the global session
+     * @param branches      the branches to commit
+     * @param call          the branch commit call
+     * @return the branch status future of each branch id
+     */
+    public Map<Long, CompletableFuture<BranchStatus>> dispatchCommit(GlobalSession globalSession,
+                                                                     List<BranchSession> branches, BranchCall call) {
+        Map<Long, CompletableFuture<BranchStatus>> futures = new HashMap<>(branches.size());
+        for (BranchSession branchSession : branches) {
+            CompletableFuture<BranchStatus> future = new CompletableFuture<>();
+            futures.put(branchSession.getBranchId(), future);
+            executor.execute(() -> execute(globalSession, branchSession, call, future));
+        }
+        return futures;
+    }
+
+    /**
+     * Send the branch rollbacks concurrently by resource.
+     * The rollbacks of one resource stop at the first branch not rollbacked, the following branches of this
+     * resource are completed with {@code null}, which means they are not sent.
+     *
+     * @param globalSession the global session
+     * @param branches      the branches to rollback, in reverse order
+     * @param call          the branch rollback call
+     * @return the branch status future of each branch id
+     */
+    public Map<Long, CompletableFuture<BranchStatus>> dispatchRollback(GlobalSession globalSession,
+                                                                       List<BranchSession> branches, BranchCall call) {
+        Map<String, List<BranchSession>> resourceBranches = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<BranchStatus>> futures = new HashMap<>(branches.size());
+        for (BranchSession branchSession : branches) {
+            resourceBranches.computeIfAbsent(String.valueOf(branchSession.getResourceId()), k -> new ArrayList<>())
+                .add(branchSession);
+            futures.put(branchSession.getBranchId(), new CompletableFuture<>());
+        }
+        for (List<BranchSession> sameResourceBranches : resourceBranches.values()) {
+            executor.execute(() -> {
+                boolean stopped = false;
+                for (BranchSession branchSession : sameResourceBranches) {
+                    CompletableFuture<BranchStatus> future = futures.get(branchSession.getBranchId());
+                    if (stopped) {
+                        future.complete(null);
+                        continue;
+                    }
+                    BranchStatus branchStatus = execute(globalSession, branchSession, call, future);
+                    stopped = branchStatus != BranchStatus.PhaseTwo_Rollbacked;
+                }
+            });
+        }
+        return futures;
+    }
+
+    /**
+     * Wait for the branch status.
+     *
+     * @param future the future
+     * @return the branch status, null if the branch is not sent and should be handled synchronously
+     * @throws Exception the exception thrown by the branch call
+     */
+    public static BranchStatus await(CompletableFuture<BranchStatus> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception)cause;
+            }
+            throw new TransactionException(cause);
+        }
+    }
+
+    /**
+     * Shutdown.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Wait for the dispatched branches to finish after the shutdown.
+     *
+     * @param timeoutMills the timeout in milliseconds
+     * @return whether the executor is terminated
+     * @throws InterruptedException the interrupted exception
+     */
+    public boolean awaitTermination(long timeoutMills) throws InterruptedException {
+        return executor.awaitTermination(timeoutMills, TimeUnit.MILLISECONDS);
+    }
+
+    private static BranchStatus execute(GlobalSession globalSession, BranchSession branchSession, BranchCall call,
+                                        CompletableFuture<BranchStatus> future) {
+        // the caller thread may run the task when the queue is full, so restore its MDC afterwards
+        String previousXid = MDC.get(RootContext.MDC_KEY_XID);
+        String previousBranchId = MDC.get(RootContext.MDC_KEY_BRANCH_ID);
+        MDC.put(RootContext.MDC_KEY_XID, globalSession.getXid());
+        MDC.put(RootContext.MDC_KEY_BRANCH_ID, String.valueOf(branchSession.getBranchId()));
+        try {
+            BranchStatus branchStatus = call.call(globalSession, branchSession);
+            future.complete(branchStatus);
+            return branchStatus;
+        } catch (Throwable th) {
+            future.completeExceptionally(th);
+            return null;
+        } finally {
+            restoreMDC(RootContext.MDC_KEY_XID, previousXid);
+            restoreMDC(RootContext.MDC_KEY_BRANCH_ID, previousBranchId);
+        }
+    }
+
+    private static void restoreMDC(String key, String value) {
+        if (value == null) {
+            MDC.remove(key);
+        } else {
+            MDC.put(key, value);
+        }
+    }
+
+    /**
+     * The branch phase two call.
+     */
+    @FunctionalInterface
+    public interface BranchCall {
+
+        /**
+         * Send the phase two request of the branch.
+         *
+         * @param globalSession the global session
+         * @param branchSession the branch session
+         * @return the branch status
+         * @throws TransactionException the transaction exception
+         */
+        BranchStatus call(GlobalSession globalSession, BranchSession branchSession) throws TransactionException;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.common.util.CollectionUtils;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.GlobalSessionHandler;
+import io.seata.server.session.SessionHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the recovery tasks of the coordinator on a bounded worker pool.
+ * <p>
+ * Sessions are partitioned into shards by transaction id, every shard is handled serially by one worker,
+ * and different shards run in parallel. So a slow branch only holds up the sessions of its own shard.
+ * Each shard accepts at most {@code shardMaxPending} sessions per round, the rest are left to the next round,
+ * and the window of a shard moves on every round so that the sessions left behind come first next time.
+ *
+ * @since 1.5.0
+ */
+public class ShardedSessionExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedSessionExecutor.class);
+
+    private static final long KEEP_ALIVE_TIME = Integer.MAX_VALUE;
+
+    private final int shardCount;
+
+    private final int shardMaxPending;
+
+    private final ThreadPoolExecutor workers;
+
+    private final AtomicIntegerArray shardOffsets;
+
+    /**
+     * Instantiates a new Sharded session executor.
+     *
+     * @param name            the name prefix of the worker threads
+     * @param shardCount      the shard count, also the size of the worker pool
+     * @param shardMaxPending the max sessions handled by one shard per round
+     */
+    public ShardedSessionExecutor(String name, int shardCount, int shardMaxPending) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be greater than 0, but was " + shardCount);
+        }
+        if (shardMaxPending <= 0) {
+            throw new IllegalArgumentException("shardMaxPending must be greater than 0, but was " + shardMaxPending);
+        }
+        this.shardCount = shardCount;
+        this.shardMaxPending = shardMaxPending;
+        this.shardOffsets = new AtomicIntegerArray(shardCount);
+        this.workers = new ThreadPoolExecutor(shardCount, shardCount, KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new NamedThreadFactory(name, shardCount));
+    }
+
+    /**
+     * Handle the sessions shard by shard, and wait until all shards of this round are done.
+     *
+     * @param sessions the global sessions
+     * @param handler  the handler
+     */
+    public void forEach(Collection<GlobalSession> sessions, GlobalSessionHandler handler) {
+        if (CollectionUtils.isEmpty(sessions)) {
+            return;
+        }
+        List<List<GlobalSession>> shards = partition(sessions);
+        List<List<GlobalSession>> activeShards = new ArrayList<>(shards.size());
+        for (List<GlobalSession> shard : shards) {
+            if (!shard.isEmpty()) {
+                activeShards.add(shard);
+            }
+        }
+        CountDownLatch latch = new CountDownLatch(activeShards.size());
+        for (List<GlobalSession> shard : activeShards) {
+            workers.execute(() -> {
+                try {
+                    SessionHelper.forEach(shard, handler);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for the session shards to finish.");
+        }
+    }
+
+    /**
+     * Partition the sessions by transaction id.
+     *
+     * @param sessions the global sessions
+     * @return the shards, the index is the shard number
+     */
+    List<List<GlobalSession>> partition(Collection<GlobalSession> sessions) {
+        List<List<GlobalSession>> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (GlobalSession session : sessions) {
+            shards.get(shardOf(session.getTransactionId())).add(session);
+        }
+        int deferred = 0;
+        for (int i = 0; i < shardCount; i++) {
+            List<GlobalSession> shard = shards.get(i);
+            int size = shard.size();
+            if (size <= shardMaxPending) {
+                continue;
+            }
+            // rotate the window, otherwise the sessions at the front keep failing and starve the rest
+            int from = Math.floorMod(shardOffsets.getAndAdd(i, shardMaxPending), size);
+            List<GlobalSession> window = new ArrayList<>(shardMaxPending);
+            for (int j = 0; j < shardMaxPending; j++) {
+                window.add(shard.get((from + j) % size));
+            }
+            shards.set(i, window);
+            deferred += size - shardMaxPending;
+        }
+        if (deferred > 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("{} sessions exceed the shard capacity and are deferred to the next round.", deferred);
+        }
+        return shards;
+    }
+
+    int shardOf(long transactionId) {
+        return (int)Math.floorMod(transactionId, (long)shardCount);
+    }
+
+    /**
+     * Shutdown the worker pool.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Await termination of the worker pool.
+     *
+     * @param timeout the timeout
+     * @param unit    the unit
+     * @throws InterruptedException the interrupted exception
+     */
+    public void awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        workers.awaitTermination(timeout, unit);
+    }
+}
@@ -16,18 +16,31 @@
 package io.seata.server.lock;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 import io.seata.common.XID;
 import io.seata.common.util.CollectionUtils;
 import io.seata.common.util.StringUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.core.lock.RowLock;
 import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_LOCK_WAIT_QUEUE_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_LOCK_WAIT_TIMEOUT;
+
 /**
  * The type Abstract lock manager.
  *
@@ -40,6 +53,22 @@ public abstract class AbstractLockManager implements LockManager {
      */
     protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractLockManager.class);
 
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    private static final String ROW_KEY_SPLIT = "^^^";
+
+    /**
+     * The wait queues of the conflicting acquirements, null if the conflicts fail at once.
+     */
+    protected LockWaitQueue lockWaitQueue = CONFIG.getBoolean(ConfigurationKeys.SERVER_LOCK_WAIT_QUEUE_ENABLE,
+        DEFAULT_SERVER_LOCK_WAIT_QUEUE_ENABLE) ? new LockWaitQueue() : null;
+
+    /**
+     * The max time in milliseconds a conflicting acquirement is retried on the release of the rows.
+     */
+    protected long lockWaitTimeout = CONFIG.getLong(ConfigurationKeys.SERVER_LOCK_WAIT_TIMEOUT,
+        DEFAULT_SERVER_LOCK_WAIT_TIMEOUT);
+
     @Override
     public boolean acquireLock(BranchSession branchSession) throws TransactionException {
         if (branchSession == null) {
@@ -59,6 +88,26 @@ public abstract class AbstractLockManager implements LockManager {
         return getLocker(branchSession).acquireLock(locks);
     }
 
+    @Override
+    public <T> CompletableFuture<T> retryOnRelease(String xid, String resourceId, String lockKey, Executor executor,
+                                                   Callable<T> attempt, Predicate<T> conflicted) {
+        if (lockWaitQueue == null || lockWaitTimeout <= 0 || StringUtils.isBlank(lockKey)) {
+            return null;
+        }
+        List<RowLock> locks = collectRowLocks(lockKey, resourceId, xid);
+        if (CollectionUtils.isEmpty(locks)) {
+            return null;
+        }
+        // retry when the holders release the rows instead of letting the client sleep and retry
+        return lockWaitQueue.retry(collectRowKeys(locks), lockWaitTimeout, executor, attempt, conflicted, () -> {
+            try {
+                return isLockable(xid, resourceId, lockKey);
+            } catch (TransactionException e) {
+                return false;
+            }
+        });
+    }
+
     @Override
     public boolean releaseLock(BranchSession branchSession) throws TransactionException {
         if (branchSession == null) {
@@ -70,7 +119,54 @@ public abstract class AbstractLockManager implements LockManager {
         } catch (Exception t) {
             LOGGER.error("unLock error, branchSession:{}", branchSession, t);
             return false;
+        } finally {
+            signalRowLockWaiters(locks);
+        }
+    }
+
+    @Override
+    public boolean[] acquireLock(List<BranchSession> branchSessions) throws TransactionException {
+        boolean[] results = new boolean[branchSessions.size()];
+        // the branches sharing a locker are acquired by one batch of the locker, the lockers in the order of the
+        // branches, so an earlier branch of the batch is never beaten by a later one of another locker
+        Map<Locker, List<Integer>> lockerIndexes = new IdentityHashMap<>();
+        List<Locker> lockers = new ArrayList<>();
+        for (int i = 0; i < branchSessions.size(); i++) {
+            BranchSession branchSession = branchSessions.get(i);
+            if (branchSession == null) {
+                throw new IllegalArgumentException("branchSession can't be null for memory/file locker.");
+            }
+            if (StringUtils.isNullOrEmpty(branchSession.getLockKey())) {
+                // no lock
+                results[i] = true;
+                continue;
+            }
+            lockerIndexes.computeIfAbsent(getLocker(branchSession), locker -> {
+                lockers.add(locker);
+                return new ArrayList<>();
+            }).add(i);
+        }
+        for (Locker locker : lockers) {
+            List<Integer> indexes = lockerIndexes.get(locker);
+            List<List<RowLock>> rowLockGroups = new ArrayList<>(indexes.size());
+            for (Integer index : indexes) {
+                rowLockGroups.add(collectRowLocks(branchSessions.get(index)));
+            }
+            boolean[] acquired = locker.acquireLocks(rowLockGroups);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = acquired[i];
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public boolean releaseLock(List<BranchSession> branchSessions) throws TransactionException {
+        boolean released = true;
+        for (BranchSession branchSession : branchSessions) {
+            released &= releaseLock(branchSession);
         }
+        return released;
     }
 
     @Override
@@ -94,6 +190,53 @@ public abstract class AbstractLockManager implements LockManager {
         getLocker().cleanAllLocks();
     }
 
+    /**
+     * Wake the acquirements waiting for the rows of the branch.
+     *
+     * @param branchSession the branch session released its locks
+     */
+    protected void signalLockWaiters(BranchSession branchSession) {
+        if (lockWaitQueue != null && lockWaitQueue.hasWaiters()) {
+            signalRowLockWaiters(collectRowLocks(branchSession));
+        }
+    }
+
+    /**
+     * Wake the acquirements waiting for the rows of the branches.
+     *
+     * @param branchSessions the branch sessions released their locks
+     */
+    protected void signalLockWaiters(List<BranchSession> branchSessions) {
+        if (lockWaitQueue != null && lockWaitQueue.hasWaiters()) {
+            for (BranchSession branchSession : branchSessions) {
+                signalRowLockWaiters(collectRowLocks(branchSession));
+            }
+        }
+    }
+
+    /**
+     * Wake the acquirements waiting for the rows of the global session.
+     *
+     * @param globalSession the global session released its locks
+     */
+    protected void signalLockWaiters(GlobalSession globalSession) {
+        signalLockWaiters(globalSession.getBranchSessions());
+    }
+
+    private void signalRowLockWaiters(List<RowLock> locks) {
+        if (lockWaitQueue != null && lockWaitQueue.hasWaiters() && CollectionUtils.isNotEmpty(locks)) {
+            lockWaitQueue.signal(collectRowKeys(locks));
+        }
+    }
+
+    private static List<String> collectRowKeys(List<RowLock> locks) {
+        List<String> rowKeys = new ArrayList<>(locks.size());
+        for (RowLock lock : locks) {
+            rowKeys.add(lock.getResourceId() + ROW_KEY_SPLIT + lock.getTableName() + ROW_KEY_SPLIT + lock.getPk());
+        }
+        return rowKeys;
+    }
+
     /**
      * Gets locker.
      *
@@ -15,6 +15,12 @@
  */
 package io.seata.server.lock;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
 import io.seata.core.exception.TransactionException;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
@@ -44,6 +50,24 @@ public interface LockManager {
      */
     boolean releaseLock(BranchSession branchSession) throws TransactionException;
 
+    /**
+     * Acquire the locks of several branches in one batch.
+     *
+     * @param branchSessions the branch sessions
+     * @return the acquire result of each branch
+     * @throws TransactionException the transaction exception
+     */
+    boolean[] acquireLock(List<BranchSession> branchSessions) throws TransactionException;
+
+    /**
+     * Un lock the branches in one batch.
+     *
+     * @param branchSessions the branch sessions
+     * @return the boolean
+     * @throws TransactionException the transaction exception
+     */
+    boolean releaseLock(List<BranchSession> branchSessions) throws TransactionException;
+
     /**
      * Un lock boolean.
      *
@@ -64,6 +88,23 @@ public interface LockManager {
      */
     boolean isLockable(String xid, String resourceId, String lockKey) throws TransactionException;
 
+    /**
+     * Retry an acquirement failed on a lock conflict when the conflicting rows are released, without blocking.
+     *
+     * @param xid        the xid
+     * @param resourceId the resource id
+     * @param lockKey    the lock key
+     * @param executor   the executor running the retries
+     * @param attempt    the attempt to acquire the locks
+     * @param conflicted whether the result of an attempt is a lock conflict
+     * @param <T>        the type of the result
+     * @return the future of the result of the last attempt, null if the conflicts are not retried
+     */
+    default <T> CompletableFuture<T> retryOnRelease(String xid, String resourceId, String lockKey, Executor executor,
+                                                    Callable<T> attempt, Predicate<T> conflicted) {
+        return null;
+    }
+
     /**
      * Clean all locks.
      *
@@ -0,0 +1,246 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import io.seata.common.thread.NamedThreadFactory;
+
+/**
+ * The wait queues of the conflicting row lock acquirements.
+ * <p>
+ * An acquirement failed on a lock conflict is queued on the rows it conflicts on, without blocking any thread:
+ * its response is completed later. It is retried on the given executor when one of the rows is released, and a
+ * last time when its timeout is reached, then the response of the last attempt is completed. A release wakes only
+ * the head waiter of each released row, so the waiters of a hot row retry one by one in FIFO order instead of all
+ * at once. A waiter giving up without the lock passes the wake-up on to the next one, so no release is lost.
+ * <p>
+ * The wake-ups are local to this server, the rows released on another TC of a cluster are only seen by the last
+ * attempt.
+ *
+ * @since 1.5.0
+ */
+public class LockWaitQueue {
+
+    private static final int WAITING = 0;
+
+    private static final int RETRYING = 1;
+
+    private static final int DONE = 2;
+
+    private final ConcurrentMap<String, Deque<Waiter<?>>> queues = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * Instantiates a new Lock wait queue.
+     */
+    public LockWaitQueue() {
+        this.timer = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("lockWaitQueue", 1, true));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Retry the attempt every time a row is released, until it does not conflict anymore or the timeout is reached.
+     * <p>
+     * The attempts are handed over to the executor by the timer thread, never run by the thread releasing the rows,
+     * which may hold the lock of another global session.
+     *
+     * @param rowKeys       the row keys the acquirement conflicts on
+     * @param timeoutMillis the timeout in milliseconds
+     * @param executor      the executor running the attempts
+     * @param attempt       the attempt to acquire the locks
+     * @param conflicted    whether the result of an attempt is a lock conflict
+     * @param released      whether the rows may have been released since the failed acquirement
+     * @param <T>           the type of the result
+     * @return the future of the result of the last attempt
+     */
+    public <T> CompletableFuture<T> retry(Collection<String> rowKeys, long timeoutMillis, Executor executor,
+                                          Callable<T> attempt, Predicate<T> conflicted, BooleanSupplier released) {
+        Waiter<T> waiter = new Waiter<>(rowKeys, executor, attempt, conflicted);
+        for (String rowKey : rowKeys) {
+            queues.compute(rowKey, (k, queue) -> {
+                if (queue == null) {
+                    queue = new ArrayDeque<>();
+                }
+                queue.addLast(waiter);
+                return queue;
+            });
+        }
+        try {
+            waiter.timeout = timer.schedule(waiter::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            waiter.finish(null, e, false);
+            return waiter.future;
+        }
+        // enqueued before the check, a release after the check is never missed
+        if (released.getAsBoolean()) {
+            waiter.signal();
+        }
+        return waiter.future;
+    }
+
+    /**
+     * Wake the head waiters of the released rows.
+     *
+     * @param rowKeys the row keys of the released locks
+     */
+    public void signal(Collection<String> rowKeys) {
+        for (String rowKey : rowKeys) {
+            queues.computeIfPresent(rowKey, (k, queue) -> {
+                queue.getFirst().signal();
+                return queue;
+            });
+        }
+    }
+
+    /**
+     * Whether any acquirement is waiting.
+     *
+     * @return true if there are waiters
+     */
+    public boolean hasWaiters() {
+        return !queues.isEmpty();
+    }
+
+    /**
+     * Shutdown the timer, the waiting acquirements are not retried anymore.
+     */
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    private void dequeue(String rowKey, Waiter<?> waiter, boolean passOn) {
+        queues.computeIfPresent(rowKey, (k, queue) -> {
+            boolean head = queue.peekFirst() == waiter;
+            queue.remove(waiter);
+            if (queue.isEmpty()) {
+                return null;
+            }
+            if (passOn && head) {
+                queue.getFirst().signal();
+            }
+            return queue;
+        });
+    }
+
+    private final class Waiter<T> {
+
+        private final Collection<String> rowKeys;
+
+        private final Executor executor;
+
+        private final Callable<T> attempt;
+
+        private final Predicate<T> conflicted;
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private volatile boolean signaled;
+
+        private volatile boolean expired;
+
+        private volatile ScheduledFuture<?> timeout;
+
+        Waiter(Collection<String> rowKeys, Executor executor, Callable<T> attempt, Predicate<T> conflicted) {
+            this.rowKeys = rowKeys;
+            this.executor = executor;
+            this.attempt = attempt;
+            this.conflicted = conflicted;
+        }
+
+        void signal() {
+            signaled = true;
+            if (state.compareAndSet(WAITING, RETRYING)) {
+                dispatch();
+            }
+        }
+
+        void expire() {
+            expired = true;
+            if (state.compareAndSet(WAITING, RETRYING)) {
+                dispatch();
+            }
+        }
+
+        private void dispatch() {
+            try {
+                timer.execute(() -> {
+                    try {
+                        executor.execute(this::retry);
+                    } catch (RejectedExecutionException e) {
+                        retry();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                finish(null, e, true);
+            }
+        }
+
+        private void retry() {
+            signaled = false;
+            T result;
+            try {
+                result = attempt.call();
+            } catch (Throwable t) {
+                finish(null, t, true);
+                return;
+            }
+            boolean conflict = conflicted.test(result);
+            if (!conflict || expired) {
+                finish(result, null, conflict);
+                return;
+            }
+            state.set(WAITING);
+            // a signal or the timeout may have come while retrying
+            if ((signaled || expired) && state.compareAndSet(WAITING, RETRYING)) {
+                dispatch();
+            }
+        }
+
+        private void finish(T result, Throwable error, boolean passOn) {
+            state.set(DONE);
+            ScheduledFuture<?> scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            for (String rowKey : rowKeys) {
+                dequeue(rowKey, this, passOn);
+            }
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
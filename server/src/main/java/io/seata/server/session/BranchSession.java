@@ -66,8 +66,9 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
 
     private String applicationData;
 
-    private ConcurrentMap<FileLocker.BucketLockMap, Set<String>> lockHolder
-        = new ConcurrentHashMap<>();
+    private volatile ConcurrentMap<FileLocker.BucketLockMap, Set<String>> lockHolder;
+
+    private volatile long[] rowLockKeys;
 
     /**
      * Gets application data.
@@ -264,12 +265,50 @@ public class BranchSession implements Lockable, Comparable<BranchSession>, Sessi
     }
 
     /**
-     * Gets lock holder.
+     * Gets lock holder, it is created on the first call, so the branches never locked by the {@link FileLocker}
+     * do not allocate it.
      *
      * @return the lock holder
      */
     public ConcurrentMap<FileLocker.BucketLockMap, Set<String>> getLockHolder() {
-        return lockHolder;
+        ConcurrentMap<FileLocker.BucketLockMap, Set<String>> holder = lockHolder;
+        if (holder == null) {
+            synchronized (this) {
+                holder = lockHolder;
+                if (holder == null) {
+                    holder = new ConcurrentHashMap<>();
+                    lockHolder = holder;
+                }
+            }
+        }
+        return holder;
+    }
+
+    /**
+     * Whether the lock holder has been created.
+     *
+     * @return true if the lock holder has been created
+     */
+    public boolean hasLockHolder() {
+        return lockHolder != null;
+    }
+
+    /**
+     * Gets the row keys locked in the row lock table.
+     *
+     * @return the row lock keys
+     */
+    public long[] getRowLockKeys() {
+        return rowLockKeys;
+    }
+
+    /**
+     * Sets the row keys locked in the row lock table.
+     *
+     * @param rowLockKeys the row lock keys
+     */
+    public void setRowLockKeys(long[] rowLockKeys) {
+        this.rowLockKeys = rowLockKeys;
     }
 
     @Override
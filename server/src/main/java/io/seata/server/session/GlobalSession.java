@@ -182,6 +182,9 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
         for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
             lifecycleListener.onBegin(this);
         }
+        if (GlobalSessionTimeoutIndex.isEnable()) {
+            GlobalSessionTimeoutIndex.getInstance().add(this);
+        }
     }
 
     @Override
@@ -208,6 +211,9 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public void close() throws TransactionException {
+        if (GlobalSessionTimeoutIndex.isEnable()) {
+            GlobalSessionTimeoutIndex.getInstance().remove(this);
+        }
         if (active) {
             for (SessionLifecycleListener lifecycleListener : lifecycleListeners) {
                 lifecycleListener.onClose(this);
@@ -217,6 +223,9 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
 
     @Override
     public void end() throws TransactionException {
+        if (GlobalSessionTimeoutIndex.isEnable()) {
+            GlobalSessionTimeoutIndex.getInstance().remove(this);
+        }
         // Clean locks first
         clean();
 
@@ -337,7 +346,21 @@ public class GlobalSession implements SessionLifecycle, SessionStorable {
      * @param timeout                 the timeout
      */
     public GlobalSession(String applicationId, String transactionServiceGroup, String transactionName, int timeout) {
-        this.transactionId = UUIDGenerator.generateUUID();
+        this(applicationId, transactionServiceGroup, transactionName, timeout, UUIDGenerator.generateUUID());
+    }
+
+    /**
+     * Instantiates a new Global session with the transaction id generated beforehand.
+     *
+     * @param applicationId           the application id
+     * @param transactionServiceGroup the transaction service group
+     * @param transactionName         the transaction name
+     * @param timeout                 the timeout
+     * @param transactionId           the transaction id
+     */
+    public GlobalSession(String applicationId, String transactionServiceGroup, String transactionName, int timeout,
+                         long transactionId) {
+        this.transactionId = transactionId;
         this.status = GlobalStatus.Begin;
 
         this.applicationId = applicationId;
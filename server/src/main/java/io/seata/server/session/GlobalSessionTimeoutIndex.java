@@ -0,0 +1,154 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+
+import static io.seata.common.DefaultValues.DEFAULT_TIMEOUT_INDEX_ENABLE;
+
+/**
+ * The deadline ordered index of the global sessions begun on this server.
+ * <p>
+ * A session is added when it begins and removed when it is closed or ended, so the timeout check only
+ * touches the sessions whose deadline has passed, instead of scanning all of the sessions.
+ *
+ * @since 1.5.0
+ */
+public class GlobalSessionTimeoutIndex {
+
+    private static final boolean ENABLE = ConfigurationFactory.getInstance().getBoolean(
+        ConfigurationKeys.TIMEOUT_INDEX_ENABLE, DEFAULT_TIMEOUT_INDEX_ENABLE);
+
+    private static final GlobalSessionTimeoutIndex INSTANCE = new GlobalSessionTimeoutIndex();
+
+    private final ConcurrentSkipListSet<Deadline> deadlines = new ConcurrentSkipListSet<>();
+
+    /**
+     * Whether the timeout index is enabled.
+     *
+     * @return the boolean
+     */
+    public static boolean isEnable() {
+        return ENABLE;
+    }
+
+    /**
+     * Gets the instance.
+     *
+     * @return the instance
+     */
+    public static GlobalSessionTimeoutIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add the global session.
+     *
+     * @param globalSession the global session
+     */
+    public void add(GlobalSession globalSession) {
+        deadlines.add(new Deadline(globalSession));
+    }
+
+    /**
+     * Remove the global session.
+     *
+     * @param globalSession the global session
+     */
+    public void remove(GlobalSession globalSession) {
+        deadlines.remove(new Deadline(globalSession));
+    }
+
+    /**
+     * Visit the xid of the sessions whose deadline is before now, in the deadline order. An entry is removed only
+     * when the handler returns true, so a session the handler could not time out yet is visited again next time.
+     *
+     * @param now     the current time millis
+     * @param handler the handler, returns whether the entry can be removed
+     */
+    public void forEachExpired(long now, Predicate<String> handler) {
+        Iterator<Deadline> iterator = deadlines.headSet(new Deadline(now, Long.MIN_VALUE, null)).iterator();
+        while (iterator.hasNext()) {
+            if (handler.test(iterator.next().xid)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The size of the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Clear the index.
+     */
+    public void clear() {
+        deadlines.clear();
+    }
+
+    private static class Deadline implements Comparable<Deadline> {
+
+        private final long deadline;
+
+        private final long transactionId;
+
+        private final String xid;
+
+        Deadline(GlobalSession globalSession) {
+            this(globalSession.getBeginTime() + globalSession.getTimeout(), globalSession.getTransactionId(),
+                globalSession.getXid());
+        }
+
+        Deadline(long deadline, long transactionId, String xid) {
+            this.deadline = deadline;
+            this.transactionId = transactionId;
+            this.xid = xid;
+        }
+
+        @Override
+        public int compareTo(Deadline o) {
+            int result = Long.compare(deadline, o.deadline);
+            return result != 0 ? result : Long.compare(transactionId, o.transactionId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Deadline)) {
+                return false;
+            }
+            Deadline that = (Deadline)o;
+            return deadline == that.deadline && transactionId == that.transactionId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(deadline) * 31 + Long.hashCode(transactionId);
+        }
+    }
+}
@@ -141,6 +141,7 @@ public class SessionHolder {
             // unknown store
             throw new IllegalArgumentException("unknown store mode:" + mode);
         }
+        TransactionIdLeases.getInstance().init(storeMode);
         reload(storeMode);
     }
 
@@ -333,6 +334,16 @@ public class SessionHolder {
         return getRootSessionManager().findGlobalSession(xid, withBranchSessions);
     }
 
+    /**
+     * Find the global session to register a branch into.
+     *
+     * @param xid the xid
+     * @return the global session
+     */
+    public static GlobalSession findGlobalSessionForBranchRegister(String xid) {
+        return getRootSessionManager().findGlobalSessionForBranchRegister(xid);
+    }
+
     /**
      * lock and execute
      *
@@ -15,8 +15,12 @@
  */
 package io.seata.server.session;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -54,6 +58,18 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     GlobalSession findGlobalSession(String xid, boolean withBranchSessions);
 
+    /**
+     * Find the global session to register a branch into, without its branches. The store may return a
+     * session whose status is out of date, as long as it adds the branch only if the stored session is still
+     * begun.
+     *
+     * @param xid the xid
+     * @return the global session
+     */
+    default GlobalSession findGlobalSessionForBranchRegister(String xid) {
+        return findGlobalSession(xid, false);
+    }
+
     /**
      * Update global session status.
      *
@@ -113,6 +129,32 @@ public interface SessionManager extends SessionLifecycleListener, Disposable {
      */
     List<GlobalSession> findGlobalSessions(SessionCondition condition);
 
+    /**
+     * Scan the sessions page by page, the stores holding the sessions out of memory read a bounded number of
+     * pages per call and resume from where the previous call stopped.
+     *
+     * @param statuses           the statuses, null for the sessions of {@link #allSessions()}
+     * @param withBranchSessions whether the branch sessions are needed by the page handler
+     * @param pageHandler        the page handler
+     */
+    default void scanSessions(GlobalStatus[] statuses, boolean withBranchSessions,
+                              Consumer<Collection<GlobalSession>> pageHandler) {
+        Collection<GlobalSession> sessions = allSessions();
+        if (statuses != null && sessions != null) {
+            List<GlobalStatus> statusList = Arrays.asList(statuses);
+            List<GlobalSession> filtered = new ArrayList<>();
+            for (GlobalSession session : sessions) {
+                if (statusList.contains(session.getStatus())) {
+                    filtered.add(session);
+                }
+            }
+            sessions = filtered;
+        }
+        if (sessions != null && !sessions.isEmpty()) {
+            pageHandler.accept(sessions);
+        }
+    }
+
     /**
      * lock and execute
      *
@@ -0,0 +1,323 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import io.seata.common.XID;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.event.GlobalTransactionEvent;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.store.StoreMode;
+import io.seata.server.UUIDGenerator;
+import io.seata.server.event.EventBusManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_LAZY_BEGIN_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_SERVER_LAZY_BEGIN_LEASE_TIME;
+
+/**
+ * The transaction id ranges leased to the TMs beginning global transactions lazily.
+ * <p>
+ * The TM mints the xids of a leased range locally, the global session of such a xid is begun on this server
+ * at its first branch registration, or never if no branch registers. A leased transaction id is begun or
+ * ended at most once, so a branch registering after the transaction is committed or rolled back can not
+ * begin it again.
+ * <p>
+ * The leases live in the memory of the server which granted them only, and the xids of a lease must reach that
+ * server, so the leases are granted only if server.lazyBeginEnable is set and the session store mode is file, i.e.
+ * the deployment is a single TC. The leases are lost when the TC restarts: the first branch registration of such a
+ * xid fails with GlobalTransactionNotExist, and the global transaction is rolled back by the TM.
+ *
+ * @since 1.5.0
+ */
+public class TransactionIdLeases {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionIdLeases.class);
+
+    /**
+     * The name of the global sessions begun lazily, the TM does not send the name.
+     */
+    public static final String LAZY_BEGIN_TRANSACTION_NAME = "lazy-begin";
+
+    /**
+     * The max size of a range, one millisecond of the sequence of the snowflake ids.
+     */
+    public static final int MAX_LEASE_SIZE = 4096;
+
+    private static final int UNTOUCHED = 0;
+
+    private static final int BEGINNING = 1;
+
+    private static final int TOUCHED = 2;
+
+    private static final TransactionIdLeases INSTANCE = new TransactionIdLeases(ConfigurationFactory.getInstance()
+        .getLong(ConfigurationKeys.SERVER_LAZY_BEGIN_LEASE_TIME, DEFAULT_SERVER_LAZY_BEGIN_LEASE_TIME), false);
+
+    private final long leaseTime;
+
+    private volatile boolean enabled;
+
+    private final ConcurrentSkipListMap<Long, Lease> leases = new ConcurrentSkipListMap<>();
+
+    /**
+     * Instantiates a new Transaction id leases.
+     *
+     * @param leaseTime the millis the TM can mint the xids of a range for
+     */
+    public TransactionIdLeases(long leaseTime) {
+        this(leaseTime, true);
+    }
+
+    /**
+     * Instantiates a new Transaction id leases.
+     *
+     * @param leaseTime the millis the TM can mint the xids of a range for
+     * @param enabled   whether the leases are granted
+     */
+    public TransactionIdLeases(long leaseTime, boolean enabled) {
+        this.leaseTime = leaseTime;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the instance.
+     *
+     * @return the instance
+     */
+    public static TransactionIdLeases getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Init by the session store mode, the leases are granted by a single TC only.
+     *
+     * @param sessionStoreMode the session store mode
+     */
+    public void init(StoreMode sessionStoreMode) {
+        init(ConfigurationFactory.getInstance().getBoolean(ConfigurationKeys.SERVER_LAZY_BEGIN_ENABLE,
+            DEFAULT_SERVER_LAZY_BEGIN_ENABLE), sessionStoreMode);
+    }
+
+    void init(boolean lazyBeginEnable, StoreMode sessionStoreMode) {
+        enabled = lazyBeginEnable && StoreMode.FILE.equals(sessionStoreMode);
+        if (lazyBeginEnable && !enabled) {
+            LOGGER.error("The lazy begin is supported by a single TC only, no transaction id is leased with the "
+                + "session store mode: {}", sessionStoreMode);
+        }
+    }
+
+    /**
+     * Whether the leases are granted.
+     *
+     * @return the boolean
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Lease a range of transaction ids.
+     *
+     * @param applicationId           the application id of the TM
+     * @param transactionServiceGroup the transaction service group of the TM
+     * @param size                    the requested size of the range
+     * @param timeout                 the timeout of the global transactions begun with the range
+     * @return the lease
+     * @throws TransactionException if the leases are not granted by this server
+     */
+    public Lease grant(String applicationId, String transactionServiceGroup, int size, int timeout)
+        throws TransactionException {
+        if (!enabled) {
+            throw new TransactionException(TransactionExceptionCode.BeginFailed,
+                "the lazy begin is disabled on this TC");
+        }
+        long now = System.currentTimeMillis();
+        purgeExpired(now);
+        int leaseSize = Math.max(1, Math.min(size, MAX_LEASE_SIZE));
+        long startTransactionId = UUIDGenerator.generateUUIDs(leaseSize);
+        // the TM mints a xid until the lease time is over, its first branch registers within the timeout
+        Lease lease = new Lease(startTransactionId, leaseSize, applicationId, transactionServiceGroup, timeout,
+            now + 2 * leaseTime + timeout);
+        leases.put(startTransactionId, lease);
+        return lease;
+    }
+
+    /**
+     * Begin the global session of a leased xid, at its first branch registration.
+     *
+     * @param xid the xid
+     * @return the global session, null if the xid is not leased by this server or was begun or ended before
+     * @throws TransactionException the transaction exception
+     */
+    public GlobalSession begin(String xid) throws TransactionException {
+        Lease lease = find(xid);
+        if (lease == null) {
+            return null;
+        }
+        int index = (int)(XID.getTransactionId(xid) - lease.startTransactionId);
+        if (!lease.states.compareAndSet(index, UNTOUCHED, BEGINNING)) {
+            // another branch may be beginning it right now
+            lease.awaitTouched(index);
+            return SessionHolder.findGlobalSession(xid, false);
+        }
+        try {
+            GlobalSession globalSession = new GlobalSession(lease.applicationId, lease.transactionServiceGroup,
+                LAZY_BEGIN_TRANSACTION_NAME, lease.timeout, XID.getTransactionId(xid));
+            globalSession.addSessionLifecycleListener(SessionHolder.getRootSessionManager());
+            globalSession.begin();
+            EventBusManager.get().post(new GlobalTransactionEvent(globalSession.getTransactionId(),
+                GlobalTransactionEvent.ROLE_TC, globalSession.getTransactionName(), globalSession.getApplicationId(),
+                globalSession.getTransactionServiceGroup(), globalSession.getBeginTime(), null,
+                globalSession.getStatus()));
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Begin the leased global transaction [{}] at its first branch registration.", xid);
+            }
+            return globalSession;
+        } finally {
+            lease.touch(index);
+        }
+    }
+
+    /**
+     * End a leased xid committed or rolled back before any branch registered.
+     *
+     * @param xid the xid
+     * @return false if its global session was begun meanwhile and has to be read again
+     */
+    public boolean end(String xid) {
+        Lease lease = find(xid);
+        if (lease == null) {
+            return true;
+        }
+        int index = (int)(XID.getTransactionId(xid) - lease.startTransactionId);
+        if (lease.states.compareAndSet(index, UNTOUCHED, TOUCHED)) {
+            return true;
+        }
+        lease.awaitTouched(index);
+        return false;
+    }
+
+    /**
+     * Gets the millis the TM can mint the xids of a range for.
+     *
+     * @return the lease time
+     */
+    public long getLeaseTime() {
+        return leaseTime;
+    }
+
+    /**
+     * The count of the unexpired leases.
+     *
+     * @return the size
+     */
+    public int size() {
+        return leases.size();
+    }
+
+    private Lease find(String xid) {
+        if (xid == null || !xid.startsWith(XID.getIpAddressAndPort() + ":")) {
+            return null;
+        }
+        long transactionId = XID.getTransactionId(xid);
+        Map.Entry<Long, Lease> entry = leases.floorEntry(transactionId);
+        if (entry == null) {
+            return null;
+        }
+        Lease lease = entry.getValue();
+        if (transactionId >= lease.startTransactionId + lease.size
+            || lease.expireTime < System.currentTimeMillis()) {
+            return null;
+        }
+        return lease;
+    }
+
+    private void purgeExpired(long now) {
+        // the later leases start with the greater ids, but the timeout may differ from one TM to another
+        leases.values().removeIf(lease -> lease.expireTime < now);
+    }
+
+    /**
+     * The leased range of transaction ids.
+     */
+    public static class Lease {
+
+        private final long startTransactionId;
+
+        private final int size;
+
+        private final String applicationId;
+
+        private final String transactionServiceGroup;
+
+        private final int timeout;
+
+        private final long expireTime;
+
+        private final AtomicIntegerArray states;
+
+        Lease(long startTransactionId, int size, String applicationId, String transactionServiceGroup, int timeout,
+              long expireTime) {
+            this.startTransactionId = startTransactionId;
+            this.size = size;
+            this.applicationId = applicationId;
+            this.transactionServiceGroup = transactionServiceGroup;
+            this.timeout = timeout;
+            this.expireTime = expireTime;
+            this.states = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * Gets the first transaction id of the range.
+         *
+         * @return the start transaction id
+         */
+        public long getStartTransactionId() {
+            return startTransactionId;
+        }
+
+        /**
+         * Gets the size of the range.
+         *
+         * @return the size
+         */
+        public int getSize() {
+            return size;
+        }
+
+        private synchronized void touch(int index) {
+            states.set(index, TOUCHED);
+            notifyAll();
+        }
+
+        private synchronized void awaitTouched(int index) {
+            while (states.get(index) == BEGINNING) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package io.seata.server.storage.db.lock;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 
@@ -60,6 +61,8 @@ public class DataBaseLockManager extends AbstractLockManager implements Initiali
         } catch (Exception t) {
             LOGGER.error("unLock error, xid {}, branchId:{}", branchSession.getXid(), branchSession.getBranchId(), t);
             return false;
+        } finally {
+            signalLockWaiters(branchSession);
         }
     }
 
@@ -68,6 +71,25 @@ public class DataBaseLockManager extends AbstractLockManager implements Initiali
         return locker;
     }
 
+    @Override
+    public boolean releaseLock(List<BranchSession> branchSessions) throws TransactionException {
+        Map<String, List<Long>> xidBranchIds = branchSessions.stream().collect(
+            Collectors.groupingBy(BranchSession::getXid, Collectors.mapping(BranchSession::getBranchId,
+                Collectors.toList())));
+        boolean released = true;
+        for (Map.Entry<String, List<Long>> entry : xidBranchIds.entrySet()) {
+            try {
+                released &= getLocker().releaseLock(entry.getKey(), entry.getValue());
+            } catch (Exception t) {
+                LOGGER.error("unLock error, xid {}, branchIds:{}", entry.getKey(),
+                    CollectionUtils.toString(entry.getValue()), t);
+                released = false;
+            }
+        }
+        signalLockWaiters(branchSessions);
+        return released;
+    }
+
     @Override
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
         List<BranchSession> branchSessions = globalSession.getBranchSessions();
@@ -81,6 +103,8 @@ public class DataBaseLockManager extends AbstractLockManager implements Initiali
             LOGGER.error("unLock globalSession error, xid:{} branchIds:{}", globalSession.getXid(),
                 CollectionUtils.toString(branchIds), t);
             return false;
+        } finally {
+            signalLockWaiters(globalSession);
         }
     }
 }
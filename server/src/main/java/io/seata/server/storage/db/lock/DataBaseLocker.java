@@ -15,6 +15,7 @@
  */
 package io.seata.server.storage.db.lock;
 
+import java.util.ArrayList;
 import java.util.List;
 import javax.sql.DataSource;
 
@@ -23,6 +24,7 @@ import io.seata.common.exception.StoreException;
 import io.seata.common.util.CollectionUtils;
 import io.seata.core.lock.AbstractLocker;
 import io.seata.core.lock.RowLock;
+import io.seata.core.store.LockDO;
 import io.seata.core.store.LockStore;
 
 /**
@@ -65,6 +67,22 @@ public class DataBaseLocker extends AbstractLocker {
         }
     }
 
+    @Override
+    public boolean[] acquireLocks(List<List<RowLock>> rowLockGroups) {
+        List<List<LockDO>> lockDOGroups = new ArrayList<>(rowLockGroups.size());
+        for (List<RowLock> locks : rowLockGroups) {
+            lockDOGroups.add(convertToLockDO(locks));
+        }
+        try {
+            return lockStore.acquireLocks(lockDOGroups);
+        } catch (StoreException e) {
+            throw e;
+        } catch (Exception t) {
+            LOGGER.error("AcquireLocks error, branch count:{}", rowLockGroups.size(), t);
+            return new boolean[rowLockGroups.size()];
+        }
+    }
+
     @Override
     public boolean releaseLock(List<RowLock> locks) {
         if (CollectionUtils.isEmpty(locks)) {
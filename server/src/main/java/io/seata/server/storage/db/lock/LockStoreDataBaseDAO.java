@@ -20,9 +20,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
@@ -194,6 +199,112 @@ public class LockStoreDataBaseDAO implements LockStore {
         }
     }
 
+    @Override
+    public boolean[] acquireLocks(List<List<LockDO>> lockDOGroups) {
+        boolean[] results = new boolean[lockDOGroups.size()];
+        List<List<LockDO>> distinctGroups = new ArrayList<>(lockDOGroups.size());
+        Set<String> rowKeys = new LinkedHashSet<>();
+        for (List<LockDO> lockDOs : lockDOGroups) {
+            if (lockDOs.size() > 1) {
+                lockDOs = lockDOs.stream().filter(LambdaUtils.distinctByKey(LockDO::getRowKey))
+                    .collect(Collectors.toList());
+            }
+            distinctGroups.add(lockDOs);
+            lockDOs.forEach(lockDO -> rowKeys.add(lockDO.getRowKey()));
+        }
+        if (rowKeys.isEmpty()) {
+            Arrays.fill(results, true);
+            return results;
+        }
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        boolean originalAutoCommit = true;
+        boolean batchInsertFailed = false;
+        try {
+            conn = lockStoreDataSource.getConnection();
+            if (originalAutoCommit = conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+            }
+            //check the locks of all branches by one query
+            StringJoiner sj = new StringJoiner(",");
+            for (int i = 0; i < rowKeys.size(); i++) {
+                sj.add("?");
+            }
+            String checkLockSQL = LockStoreSqlFactory.getLogStoreSql(dbType).getCheckLockableSql(lockTable, sj.toString());
+            ps = conn.prepareStatement(checkLockSQL);
+            int index = 1;
+            for (String rowKey : rowKeys) {
+                ps.setString(index++, rowKey);
+            }
+            rs = ps.executeQuery();
+            Map<String, String> rowKeyOwners = new HashMap<>(rowKeys.size());
+            while (rs.next()) {
+                rowKeyOwners.put(rs.getString(ServerTableColumnsName.LOCK_TABLE_ROW_KEY),
+                    rs.getString(ServerTableColumnsName.LOCK_TABLE_XID));
+            }
+            //the rows locked by a branch of the batch are owned by its xid for the following branches
+            List<LockDO> unrepeatedLockDOs = new ArrayList<>();
+            for (int i = 0; i < distinctGroups.size(); i++) {
+                List<LockDO> lockDOs = distinctGroups.get(i);
+                LockDO conflict = lockDOs.stream().filter(lockDO -> {
+                    String ownerXid = rowKeyOwners.get(lockDO.getRowKey());
+                    return ownerXid != null && !StringUtils.equals(ownerXid, lockDO.getXid());
+                }).findFirst().orElse(null);
+                if (conflict != null) {
+                    if (LOGGER.isInfoEnabled()) {
+                        LOGGER.info("Global lock on [{}:{}] is holding by xid {}", conflict.getTableName(),
+                            conflict.getPk(), rowKeyOwners.get(conflict.getRowKey()));
+                    }
+                    continue;
+                }
+                for (LockDO lockDO : lockDOs) {
+                    if (rowKeyOwners.putIfAbsent(lockDO.getRowKey(), lockDO.getXid()) == null) {
+                        unrepeatedLockDOs.add(lockDO);
+                    }
+                }
+                results[i] = true;
+            }
+            if (unrepeatedLockDOs.isEmpty()) {
+                conn.rollback();
+                return results;
+            }
+            //lock the rows of all branches by one batch
+            if (!doAcquireLocks(conn, unrepeatedLockDOs)) {
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("Global lock batch acquire of {} branches failed, acquire them one by one",
+                        lockDOGroups.size());
+                }
+                conn.rollback();
+                batchInsertFailed = true;
+            } else {
+                conn.commit();
+            }
+        } catch (SQLException e) {
+            throw new StoreException(e);
+        } finally {
+            IOUtil.close(rs, ps);
+            if (conn != null) {
+                try {
+                    if (originalAutoCommit) {
+                        conn.setAutoCommit(true);
+                    }
+                    conn.close();
+                } catch (SQLException e) {
+                }
+            }
+        }
+        if (batchInsertFailed) {
+            // some rows are locked by others after the check, the branches are acquired separately
+            for (int i = 0; i < results.length; i++) {
+                if (results[i]) {
+                    results[i] = acquireLock(lockDOGroups.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
     @Override
     public boolean unLock(LockDO lockDO) {
         return unLock(Collections.singletonList(lockDO));
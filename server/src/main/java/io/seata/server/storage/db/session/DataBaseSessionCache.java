@@ -0,0 +1,198 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.db.session;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.seata.common.XID;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.server.session.GlobalSession;
+
+import static io.seata.common.Constants.IP_PORT_SPLIT_CHAR;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_SESSION_CACHE_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_SESSION_CACHE_LEASE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_DB_SESSION_CACHE_SIZE;
+
+/**
+ * The global sessions this tc node owns in db mode, kept so the requests of a transaction do not read the
+ * global table again and again.
+ * <p>
+ * A node owns the xids it generated. The sessions of the other nodes are never cached here, so a node taking
+ * over an xid always reads it from the db. The owner writes its own changes through, and a failed write drops
+ * the entry, the next lookup falls back to the db.
+ * <p>
+ * Only the branch registrations are served from the cache. The status of a cached session may be out of date,
+ * since commit, rollback and the timeout check may run on other nodes, so the branch is inserted only while
+ * the global session is still begun in the db, and the entry is dropped otherwise. All the other lookups read
+ * the db. An entry is kept for a lease after it was read from the db.
+ */
+public class DataBaseSessionCache {
+
+    private static final DataBaseSessionCache DISABLED = new DataBaseSessionCache(0, 0);
+
+    private static volatile DataBaseSessionCache instance;
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final long leaseMillis;
+
+    /**
+     * Instantiates a new session cache.
+     *
+     * @param maxSize     the max number of the cached sessions
+     * @param leaseMillis how long a session read from the db is trusted
+     */
+    public DataBaseSessionCache(int maxSize, long leaseMillis) {
+        this.maxSize = maxSize;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Get the session cache of this node.
+     *
+     * @return the session cache, null if it is disabled
+     */
+    public static DataBaseSessionCache getInstance() {
+        if (instance == null) {
+            synchronized (DataBaseSessionCache.class) {
+                if (instance == null) {
+                    Configuration config = ConfigurationFactory.getInstance();
+                    boolean enable = config.getBoolean(ConfigurationKeys.STORE_DB_SESSION_CACHE_ENABLE,
+                        DEFAULT_STORE_DB_SESSION_CACHE_ENABLE);
+                    int maxSize = config.getInt(ConfigurationKeys.STORE_DB_SESSION_CACHE_SIZE,
+                        DEFAULT_STORE_DB_SESSION_CACHE_SIZE);
+                    long leaseMillis = config.getLong(ConfigurationKeys.STORE_DB_SESSION_CACHE_LEASE,
+                        DEFAULT_STORE_DB_SESSION_CACHE_LEASE);
+                    instance = enable && maxSize > 0 && leaseMillis > 0
+                        ? new DataBaseSessionCache(maxSize, leaseMillis) : DISABLED;
+                }
+            }
+        }
+        return instance == DISABLED ? null : instance;
+    }
+
+    /**
+     * Whether the xid was generated by this node.
+     *
+     * @param xid the xid
+     * @return true if this node owns it
+     */
+    public boolean isOwner(String xid) {
+        return xid != null && xid.startsWith(XID.getIpAddressAndPort() + IP_PORT_SPLIT_CHAR);
+    }
+
+    /**
+     * Get the session of the xid if its lease is not expired.
+     *
+     * @param xid the xid
+     * @return the session, null if it has to be read from the db
+     */
+    public GlobalSession get(String xid) {
+        Entry entry = sessions.get(xid);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expired(System.currentTimeMillis())) {
+            sessions.remove(xid, entry);
+            return null;
+        }
+        return entry.session;
+    }
+
+    /**
+     * Cache a session just read from or written to the db, its lease starts over.
+     *
+     * @param session the session
+     */
+    public void put(GlobalSession session) {
+        String xid = session.getXid();
+        if (!isOwner(xid)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (sessions.size() >= maxSize && !sessions.containsKey(xid)) {
+            evictExpired(now);
+            if (sessions.size() >= maxSize) {
+                return;
+            }
+        }
+        sessions.put(xid, new Entry(session, now + leaseMillis));
+    }
+
+    /**
+     * Keep the session written through by this node. The lease is not renewed: the entry still only reflects
+     * the db as of the last time it was read.
+     *
+     * @param session the session
+     */
+    public void update(GlobalSession session) {
+        Entry entry = sessions.get(session.getXid());
+        if (entry != null && entry.session != session) {
+            sessions.replace(session.getXid(), entry, new Entry(session, entry.leaseExpireTime));
+        }
+    }
+
+    /**
+     * Drop the session of the xid, the next lookup reads it from the db.
+     *
+     * @param xid the xid
+     */
+    public void invalidate(String xid) {
+        if (xid != null) {
+            sessions.remove(xid);
+        }
+    }
+
+    /**
+     * Get the number of the cached sessions.
+     *
+     * @return the size
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final GlobalSession session;
+
+        private final long leaseExpireTime;
+
+        private Entry(GlobalSession session, long leaseExpireTime) {
+            this.session = session;
+            this.leaseExpireTime = leaseExpireTime;
+        }
+
+        private boolean expired(long now) {
+            return now >= leaseExpireTime;
+        }
+    }
+}
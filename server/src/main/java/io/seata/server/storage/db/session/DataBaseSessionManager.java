@@ -15,14 +15,23 @@
  */
 package io.seata.server.storage.db.session;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import io.seata.common.DefaultValues;
 import io.seata.common.exception.StoreException;
 import io.seata.common.executor.Initialize;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
+import io.seata.core.exception.GlobalTransactionException;
 import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
 import io.seata.server.session.AbstractSessionManager;
@@ -31,6 +40,7 @@ import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
 import io.seata.server.session.SessionHolder;
 import io.seata.server.storage.db.store.DataBaseTransactionStoreManager;
+import io.seata.server.store.SessionStorable;
 import io.seata.server.store.TransactionStoreManager.LogOperation;
 import io.seata.common.loader.Scope;
 import org.slf4j.Logger;
@@ -55,6 +65,22 @@ public class DataBaseSessionManager extends AbstractSessionManager
      */
     protected String taskName;
 
+    /**
+     * The sessions owned by this node, null if the cache is disabled.
+     */
+    protected DataBaseSessionCache sessionCache;
+
+    /**
+     * The max pages read by one scan.
+     */
+    protected int scanMaxPages = ConfigurationFactory.getInstance().getInt(ConfigurationKeys.RECOVERY_SCAN_MAX_PAGES,
+        DefaultValues.DEFAULT_RECOVERY_SCAN_MAX_PAGES);
+
+    /**
+     * The transaction id the next scan of the statuses resumes after.
+     */
+    private final Map<String, Long> scanCursors = new ConcurrentHashMap<>();
+
     /**
      * Instantiates a new Data base session manager.
      */
@@ -75,19 +101,29 @@ public class DataBaseSessionManager extends AbstractSessionManager
     @Override
     public void init() {
         transactionStoreManager = DataBaseTransactionStoreManager.getInstance();
+        sessionCache = DataBaseSessionCache.getInstance();
+    }
+
+    /**
+     * Sets the session cache.
+     *
+     * @param sessionCache the session cache, null to disable it
+     */
+    public void setSessionCache(DataBaseSessionCache sessionCache) {
+        this.sessionCache = sessionCache;
     }
 
     @Override
     public void addGlobalSession(GlobalSession session) throws TransactionException {
         if (StringUtils.isBlank(taskName)) {
-            boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_ADD, session);
-            if (!ret) {
-                throw new StoreException("addGlobalSession failed.");
+            writeSession(LogOperation.GLOBAL_ADD, session, session.getXid(), "addGlobalSession failed.");
+            if (sessionCache != null) {
+                sessionCache.put(session);
             }
         } else {
-            boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_UPDATE, session);
-            if (!ret) {
-                throw new StoreException("addGlobalSession failed.");
+            writeSession(LogOperation.GLOBAL_UPDATE, session, session.getXid(), "addGlobalSession failed.");
+            if (sessionCache != null) {
+                sessionCache.update(session);
             }
         }
     }
@@ -98,9 +134,9 @@ public class DataBaseSessionManager extends AbstractSessionManager
             return;
         }
         session.setStatus(status);
-        boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_UPDATE, session);
-        if (!ret) {
-            throw new StoreException("updateGlobalSessionStatus failed.");
+        writeSession(LogOperation.GLOBAL_UPDATE, session, session.getXid(), "updateGlobalSessionStatus failed.");
+        if (sessionCache != null) {
+            sessionCache.update(session);
         }
     }
 
@@ -113,10 +149,10 @@ public class DataBaseSessionManager extends AbstractSessionManager
      */
     @Override
     public void removeGlobalSession(GlobalSession session) throws TransactionException {
-        boolean ret = transactionStoreManager.writeSession(LogOperation.GLOBAL_REMOVE, session);
-        if (!ret) {
-            throw new StoreException("removeGlobalSession failed.");
+        if (sessionCache != null) {
+            sessionCache.invalidate(session.getXid());
         }
+        writeSession(LogOperation.GLOBAL_REMOVE, session, session.getXid(), "removeGlobalSession failed.");
     }
 
     @Override
@@ -124,9 +160,23 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (StringUtils.isNotBlank(taskName)) {
             return;
         }
-        boolean ret = transactionStoreManager.writeSession(LogOperation.BRANCH_ADD, session);
-        if (!ret) {
-            throw new StoreException("addBranchSession failed.");
+        if (sessionCache == null || !(transactionStoreManager instanceof DataBaseTransactionStoreManager)) {
+            writeSession(LogOperation.BRANCH_ADD, session, session.getXid(), "addBranchSession failed.");
+            return;
+        }
+        // the global session may come from the cache, the branch is added only while the stored one is begun
+        boolean added = false;
+        try {
+            added = ((DataBaseTransactionStoreManager)transactionStoreManager).writeBranchSessionIfGlobalBegin(session);
+        } finally {
+            if (!added) {
+                sessionCache.invalidate(session.getXid());
+            }
+        }
+        if (!added) {
+            throw new GlobalTransactionException(TransactionExceptionCode.GlobalTransactionNotActive, String.format(
+                "Could not register branch into global session xid = %s, cause by globalSession not begun anymore",
+                session.getXid()));
         }
     }
 
@@ -135,10 +185,7 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (StringUtils.isNotBlank(taskName)) {
             return;
         }
-        boolean ret = transactionStoreManager.writeSession(LogOperation.BRANCH_UPDATE, session);
-        if (!ret) {
-            throw new StoreException("updateBranchSessionStatus failed.");
-        }
+        writeSession(LogOperation.BRANCH_UPDATE, session, session.getXid(), "updateBranchSessionStatus failed.");
     }
 
     @Override
@@ -146,10 +193,7 @@ public class DataBaseSessionManager extends AbstractSessionManager
         if (StringUtils.isNotBlank(taskName)) {
             return;
         }
-        boolean ret = transactionStoreManager.writeSession(LogOperation.BRANCH_REMOVE, session);
-        if (!ret) {
-            throw new StoreException("removeBranchSession failed.");
-        }
+        writeSession(LogOperation.BRANCH_REMOVE, session, session.getXid(), "removeBranchSession failed.");
     }
 
     @Override
@@ -159,26 +203,86 @@ public class DataBaseSessionManager extends AbstractSessionManager
 
     @Override
     public GlobalSession findGlobalSession(String xid, boolean withBranchSessions) {
-        return transactionStoreManager.readSession(xid, withBranchSessions);
+        GlobalSession globalSession = transactionStoreManager.readSession(xid, withBranchSessions);
+        if (sessionCache != null && sessionCache.isOwner(xid)) {
+            if (globalSession == null) {
+                sessionCache.invalidate(xid);
+            } else {
+                sessionCache.put(globalSession);
+            }
+        }
+        return globalSession;
+    }
+
+    @Override
+    public GlobalSession findGlobalSessionForBranchRegister(String xid) {
+        // the status may have been changed by other nodes, addBranchSession checks it in the db again
+        if (sessionCache != null && sessionCache.isOwner(xid)) {
+            GlobalSession globalSession = sessionCache.get(xid);
+            if (globalSession != null) {
+                return globalSession;
+            }
+        }
+        return findGlobalSession(xid, false);
     }
 
     @Override
     public Collection<GlobalSession> allSessions() {
+        return findGlobalSessions(new SessionCondition(taskStatuses()));
+    }
+
+    @Override
+    public void scanSessions(GlobalStatus[] statuses, boolean withBranchSessions,
+                             Consumer<Collection<GlobalSession>> pageHandler) {
+        if (!(transactionStoreManager instanceof DataBaseTransactionStoreManager)) {
+            super.scanSessions(statuses, withBranchSessions, pageHandler);
+            return;
+        }
+        DataBaseTransactionStoreManager storeManager = (DataBaseTransactionStoreManager)transactionStoreManager;
+        GlobalStatus[] scanStatuses = statuses != null ? statuses : taskStatuses();
+        String cursorKey = Arrays.toString(scanStatuses);
+        int limit = storeManager.getLogQueryLimit();
+        // the transaction id never changes, unlike gmt_modified, so the sessions updated by the handler keep their place
+        long cursor = scanCursors.getOrDefault(cursorKey, Long.MIN_VALUE);
+        for (int page = 0; page < scanMaxPages; page++) {
+            List<GlobalSession> globalSessions = storeManager.readSession(scanStatuses, cursor, limit, withBranchSessions);
+            cursor = globalSessions.size() < limit ? Long.MIN_VALUE
+                : globalSessions.get(globalSessions.size() - 1).getTransactionId();
+            if (!globalSessions.isEmpty()) {
+                pageHandler.accept(globalSessions);
+            }
+            if (cursor == Long.MIN_VALUE) {
+                break;
+            }
+        }
+        scanCursors.put(cursorKey, cursor);
+    }
+
+    /**
+     * Sets the max pages read by one scan.
+     *
+     * @param scanMaxPages the max pages
+     */
+    public void setScanMaxPages(int scanMaxPages) {
+        this.scanMaxPages = scanMaxPages;
+    }
+
+    private GlobalStatus[] taskStatuses() {
         // get by taskName
         if (SessionHolder.ASYNC_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(GlobalStatus.AsyncCommitting));
+            return new GlobalStatus[] {GlobalStatus.AsyncCommitting};
         } else if (SessionHolder.RETRY_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing}));
+            return new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing};
         } else if (SessionHolder.RETRY_ROLLBACKING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
-                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying}));
+            return new GlobalStatus[] {GlobalStatus.RollbackRetrying,
+                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying};
         } else {
             // all data
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {
+            return new GlobalStatus[] {
                 GlobalStatus.UnKnown, GlobalStatus.Begin,
                 GlobalStatus.Committing, GlobalStatus.CommitRetrying, GlobalStatus.Rollbacking,
                 GlobalStatus.RollbackRetrying,
-                GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying, GlobalStatus.AsyncCommitting}));
+                GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying, GlobalStatus.AsyncCommitting};
         }
     }
 
@@ -191,6 +295,30 @@ public class DataBaseSessionManager extends AbstractSessionManager
     @Override
     public <T> T lockAndExecute(GlobalSession globalSession, GlobalSession.LockCallable<T> lockCallable)
             throws TransactionException {
-        return lockCallable.call();
+        if (sessionCache == null) {
+            return lockCallable.call();
+        }
+        // the cached sessions are shared by the requests of the same transaction
+        globalSession.lock();
+        try {
+            return lockCallable.call();
+        } finally {
+            globalSession.unlock();
+        }
+    }
+
+    private void writeSession(LogOperation logOperation, SessionStorable session, String xid, String failedMessage) {
+        boolean ret = false;
+        try {
+            ret = transactionStoreManager.writeSession(logOperation, session);
+        } finally {
+            if (!ret && sessionCache != null) {
+                // the session in memory may differ from the db now
+                sessionCache.invalidate(xid);
+            }
+        }
+        if (!ret) {
+            throw new StoreException(failedMessage);
+        }
     }
 }
@@ -16,6 +16,7 @@
 package io.seata.server.storage.db.store;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
 import io.seata.core.store.LogStore;
 import io.seata.core.store.db.DataSourceProvider;
+import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
 import io.seata.server.session.SessionCondition;
 import io.seata.server.store.AbstractTransactionStoreManager;
@@ -115,6 +117,17 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         }
     }
 
+    /**
+     * Write the branch session only while its global session is still begun in the db.
+     *
+     * @param session the branch session
+     * @return false if the global session was changed or removed meanwhile
+     */
+    public boolean writeBranchSessionIfGlobalBegin(BranchSession session) {
+        return logStore.insertBranchTransactionDO(SessionConverter.convertBranchTransactionDO(session),
+            GlobalStatus.Begin.getCode());
+    }
+
     /**
      * Read session global session.
      *
@@ -192,6 +205,38 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
             .collect(Collectors.toList());
     }
 
+    /**
+     * Read a page of the sessions ordered by the transaction id.
+     *
+     * @param statuses           the statuses
+     * @param afterTransactionId the transaction id of the last session of the previous page
+     * @param limit              the page size
+     * @param withBranchSessions whether to read the branch sessions of the page
+     * @return the sessions of the page, never null
+     */
+    public List<GlobalSession> readSession(GlobalStatus[] statuses, long afterTransactionId, int limit,
+                                           boolean withBranchSessions) {
+        int[] states = new int[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            states[i] = statuses[i].getCode();
+        }
+        List<GlobalTransactionDO> globalTransactionDOs = logStore.queryGlobalTransactionDO(states, afterTransactionId, limit);
+        if (CollectionUtils.isEmpty(globalTransactionDOs)) {
+            return new ArrayList<>();
+        }
+        Map<String, List<BranchTransactionDO>> branchTransactionDOsMap = new HashMap<>();
+        if (withBranchSessions) {
+            List<String> xids = globalTransactionDOs.stream().map(GlobalTransactionDO::getXid).collect(Collectors.toList());
+            branchTransactionDOsMap = logStore.queryBranchTransactionDO(xids).stream()
+                .collect(Collectors.groupingBy(BranchTransactionDO::getXid, LinkedHashMap::new, Collectors.toList()));
+        }
+        List<GlobalSession> globalSessions = new ArrayList<>(globalTransactionDOs.size());
+        for (GlobalTransactionDO globalTransactionDO : globalTransactionDOs) {
+            globalSessions.add(getGlobalSession(globalTransactionDO, branchTransactionDOsMap.get(globalTransactionDO.getXid())));
+        }
+        return globalSessions;
+    }
+
     @Override
     public List<GlobalSession> readSession(SessionCondition sessionCondition) {
         if (StringUtils.isNotBlank(sessionCondition.getXid())) {
@@ -236,6 +281,15 @@ public class DataBaseTransactionStoreManager extends AbstractTransactionStoreMan
         this.logStore = logStore;
     }
 
+    /**
+     * Gets log query limit.
+     *
+     * @return the log query limit
+     */
+    public int getLogQueryLimit() {
+        return logQueryLimit;
+    }
+
     /**
      * Sets log query limit.
      *
@@ -185,6 +185,37 @@ public class LogStoreDataBaseDAO implements LogStore {
         }
     }
 
+    @Override
+    public List<GlobalTransactionDO> queryGlobalTransactionDO(int[] statuses, long afterTransactionId, int limit) {
+        List<GlobalTransactionDO> ret = new ArrayList<>();
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            conn = logStoreDataSource.getConnection();
+            conn.setAutoCommit(true);
+
+            String paramsPlaceHolder = org.apache.commons.lang.StringUtils.repeat("?", ",", statuses.length);
+
+            String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getQueryGlobalTransactionPageSQLByStatus(globalTable, paramsPlaceHolder);
+            ps = conn.prepareStatement(sql);
+            for (int i = 0; i < statuses.length; i++) {
+                ps.setInt(i + 1, statuses[i]);
+            }
+            ps.setLong(statuses.length + 1, afterTransactionId);
+            ps.setInt(statuses.length + 2, limit);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                ret.add(convertGlobalTransactionDO(rs));
+            }
+            return ret;
+        } catch (SQLException e) {
+            throw new DataAccessException(e);
+        } finally {
+            IOUtil.close(rs, ps, conn);
+        }
+    }
+
     @Override
     public boolean insertGlobalTransactionDO(GlobalTransactionDO globalTransactionDO) {
         String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertGlobalTransactionSQL(globalTable);
@@ -312,6 +343,18 @@ public class LogStoreDataBaseDAO implements LogStore {
     @Override
     public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO) {
         String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertBranchTransactionSQL(branchTable);
+        return insertBranchTransactionDO(sql, branchTransactionDO, null);
+    }
+
+    @Override
+    public boolean insertBranchTransactionDO(BranchTransactionDO branchTransactionDO, int globalStatus) {
+        String sql = LogStoreSqlsFactory.getLogStoreSqls(dbType).getInsertBranchTransactionIfGlobalStatusSQL(
+            branchTable, globalTable);
+        return insertBranchTransactionDO(sql, branchTransactionDO, globalStatus);
+    }
+
+    private boolean insertBranchTransactionDO(String sql, BranchTransactionDO branchTransactionDO,
+                                              Integer globalStatus) {
         Connection conn = null;
         PreparedStatement ps = null;
         try {
@@ -328,6 +371,10 @@ public class LogStoreDataBaseDAO implements LogStore {
             ps.setInt(index++, branchTransactionDO.getStatus());
             ps.setString(index++, branchTransactionDO.getClientId());
             ps.setString(index++, branchTransactionDO.getApplicationData());
+            if (globalStatus != null) {
+                ps.setString(index++, branchTransactionDO.getXid());
+                ps.setInt(index++, globalStatus);
+            }
             return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new StoreException(e);
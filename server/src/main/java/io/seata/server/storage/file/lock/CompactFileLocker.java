@@ -0,0 +1,148 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.seata.common.util.CollectionUtils;
+import io.seata.core.lock.AbstractLocker;
+import io.seata.core.lock.RowLock;
+import io.seata.server.session.BranchSession;
+
+/**
+ * The file locker based on the {@link RowLockTable}, the branch session holds its row keys in a long array.
+ *
+ * @since 1.5.0
+ */
+public class CompactFileLocker extends AbstractLocker {
+
+    private static final RowLockTable LOCK_TABLE = new RowLockTable();
+
+    /**
+     * The Branch session.
+     */
+    protected BranchSession branchSession = null;
+
+    /**
+     * Instantiates a new Compact file locker.
+     *
+     * @param branchSession the branch session
+     */
+    public CompactFileLocker(BranchSession branchSession) {
+        this.branchSession = branchSession;
+    }
+
+    @Override
+    public boolean acquireLock(List<RowLock> rowLocks) {
+        if (CollectionUtils.isEmpty(rowLocks)) {
+            //no lock
+            return true;
+        }
+        String resourceId = branchSession.getResourceId();
+        long transactionId = branchSession.getTransactionId();
+
+        long[] acquired = new long[rowLocks.size()];
+        int acquiredCount = 0;
+        for (RowLock lock : rowLocks) {
+            long rowKey = RowLockTable.rowKey(LOCK_TABLE.tableId(resourceId, lock.getTableName()), lock.getPk());
+            long previousLockTransactionId = LOCK_TABLE.lock(rowKey, transactionId);
+            if (previousLockTransactionId == RowLockTable.NO_OWNER) {
+                //No existing lock, and now locked by myself
+                acquired[acquiredCount++] = rowKey;
+            } else if (previousLockTransactionId == transactionId) {
+                // Locked by me before
+                continue;
+            } else {
+                LOGGER.info("Global lock on [" + lock.getTableName() + ":" + lock.getPk() + "] is holding by "
+                    + previousLockTransactionId);
+                holdRowKeys(acquired, acquiredCount);
+                // Release all acquired locks.
+                releaseRowKeys();
+                return false;
+            }
+        }
+        holdRowKeys(acquired, acquiredCount);
+        return true;
+    }
+
+    private void holdRowKeys(long[] acquired, int acquiredCount) {
+        if (acquiredCount == 0) {
+            return;
+        }
+        synchronized (branchSession) {
+            long[] held = branchSession.getRowLockKeys();
+            if (held == null) {
+                branchSession.setRowLockKeys(Arrays.copyOf(acquired, acquiredCount));
+            } else {
+                long[] merged = Arrays.copyOf(held, held.length + acquiredCount);
+                System.arraycopy(acquired, 0, merged, held.length, acquiredCount);
+                branchSession.setRowLockKeys(merged);
+            }
+        }
+    }
+
+    @Override
+    public boolean releaseLock(List<RowLock> rowLock) {
+        if (CollectionUtils.isEmpty(rowLock)) {
+            //no lock
+            return true;
+        }
+        releaseRowKeys();
+        return true;
+    }
+
+    private void releaseRowKeys() {
+        long[] held;
+        synchronized (branchSession) {
+            held = branchSession.getRowLockKeys();
+            branchSession.setRowLockKeys(null);
+        }
+        if (held == null) {
+            return;
+        }
+        for (long rowKey : held) {
+            // remove lock only if it locked by myself
+            LOCK_TABLE.unlock(rowKey, branchSession.getTransactionId());
+        }
+    }
+
+    @Override
+    public boolean isLockable(List<RowLock> rowLocks) {
+        if (CollectionUtils.isEmpty(rowLocks)) {
+            //no lock
+            return true;
+        }
+        long transactionId = rowLocks.get(0).getTransactionId();
+        String resourceId = rowLocks.get(0).getResourceId();
+        for (RowLock rowLock : rowLocks) {
+            long rowKey = RowLockTable.rowKey(LOCK_TABLE.tableId(resourceId, rowLock.getTableName()),
+                rowLock.getPk());
+            long lockingTransactionId = LOCK_TABLE.owner(rowKey);
+            if (lockingTransactionId != RowLockTable.NO_OWNER && lockingTransactionId != transactionId) {
+                LOGGER.info("Global lock on [" + rowLock.getTableName() + ":" + rowLock.getPk() + "] is holding by "
+                    + lockingTransactionId);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void cleanAllLocks() {
+        LOCK_TABLE.clear();
+    }
+}
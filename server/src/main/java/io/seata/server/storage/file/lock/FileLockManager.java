@@ -23,6 +23,7 @@ import io.seata.core.lock.Locker;
 import io.seata.server.lock.AbstractLockManager;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
+import io.seata.server.store.StoreConfig;
 import org.slf4j.MDC;
 
 import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
@@ -35,8 +36,13 @@ import static io.seata.core.context.RootContext.MDC_KEY_BRANCH_ID;
 @LoadLevel(name = "file")
 public class FileLockManager extends AbstractLockManager {
 
+    private static final boolean COMPACT_LOCK_TABLE_ENABLE = StoreConfig.isCompactLockTableEnable();
+
     @Override
     public Locker getLocker(BranchSession branchSession) {
+        if (COMPACT_LOCK_TABLE_ENABLE) {
+            return new CompactFileLocker(branchSession);
+        }
         return new FileLocker(branchSession);
     }
 
@@ -106,8 +106,11 @@ public class FileLocker extends AbstractLocker {
             //no lock
             return true;
         }
+        if (!branchSession.hasLockHolder()) {
+            return true;
+        }
         ConcurrentMap<BucketLockMap, Set<String>> lockHolder = branchSession.getLockHolder();
-        if (CollectionUtils.isEmpty(lockHolder)) {
+        if (lockHolder.isEmpty()) {
             return true;
         }
         for (Map.Entry<BucketLockMap, Set<String>> entry : lockHolder.entrySet()) {
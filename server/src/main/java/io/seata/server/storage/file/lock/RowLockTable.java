@@ -0,0 +1,327 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.lock;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The row lock table keyed by primitive long row keys.
+ * <p>
+ * A row key is the 64 bits hash of the interned table id and the pk, the owner is the primitive transaction id.
+ * The keys and the owners are stored in parallel long arrays of open-addressing segments, a segment is
+ * selected by the high bits of the row key and guarded by its own monitor. A segment allocates its arrays on the
+ * first lock, halves them when less than 1/8 of the slots are used, and frees them when its last row is unlocked.
+ * <p>
+ * Memory footprint per held row lock, 64-bit JVM with compressed oops:
+ * <ul>
+ * <li>{@link FileLocker}: the ConcurrentHashMap node (32b), the pk String (24b + 16b array header + pk length),
+ * the boxed Long (16b), the table slot (4b), the node (32b) and the slot (4b) of the key set in the branch
+ * lock holder, about 150 bytes for a 16 chars pk, not counting the bucket maps and resizes.</li>
+ * <li>{@link RowLockTable}: the key and the owner (16b) with a load factor of at most 0.75, and the key in the
+ * long array of the branch (8b), about 30 bytes whatever the pk length, with no object per lock.</li>
+ * </ul>
+ * Different pks of the same table may share a row key with a probability of about n/2^64, they are then
+ * treated as the same row, which may only fail a lock acquisition, never grant a conflicting one.
+ *
+ * @since 1.5.0
+ */
+public class RowLockTable {
+
+    /**
+     * The owner returned when the row is not locked, transaction ids are always positive.
+     */
+    public static final long NO_OWNER = 0L;
+
+    private static final String TABLE_SPLIT = "^^^";
+
+    private static final long EMPTY_KEY = 0L;
+
+    private static final int SEGMENT_BITS = 6;
+
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 64;
+
+    private final ConcurrentMap<String, Integer> tableIds = new ConcurrentHashMap<>();
+
+    private final AtomicInteger tableIdGenerator = new AtomicInteger();
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    /**
+     * Instantiates a new Row lock table.
+     */
+    public RowLockTable() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Gets the interned id of the table.
+     *
+     * @param resourceId the resource id
+     * @param tableName  the table name
+     * @return the table id
+     */
+    public int tableId(String resourceId, String tableName) {
+        String key = resourceId + TABLE_SPLIT + tableName;
+        Integer tableId = tableIds.get(key);
+        if (tableId == null) {
+            tableId = tableIds.computeIfAbsent(key, k -> tableIdGenerator.incrementAndGet());
+        }
+        return tableId;
+    }
+
+    /**
+     * Gets the row key of the pk.
+     *
+     * @param tableId the table id
+     * @param pk      the pk
+     * @return the row key, never 0
+     */
+    public static long rowKey(int tableId, String pk) {
+        // FNV-1a over the chars, no byte array is created for the pk
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < pk.length(); i++) {
+            hash ^= pk.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        long key = mix(hash ^ (tableId * 0x9e3779b97f4a7c15L));
+        return key == EMPTY_KEY ? 1L : key;
+    }
+
+    /**
+     * Lock the row if it is not locked.
+     *
+     * @param rowKey        the row key
+     * @param transactionId the transaction id
+     * @return {@link #NO_OWNER} if the row is locked by this call, or else the owner of the row
+     */
+    public long lock(long rowKey, long transactionId) {
+        return segmentFor(rowKey).putIfAbsent(rowKey, transactionId);
+    }
+
+    /**
+     * Gets the owner of the row.
+     *
+     * @param rowKey the row key
+     * @return the owner transaction id, or {@link #NO_OWNER}
+     */
+    public long owner(long rowKey) {
+        return segmentFor(rowKey).get(rowKey);
+    }
+
+    /**
+     * Unlock the row if it is locked by the transaction.
+     *
+     * @param rowKey        the row key
+     * @param transactionId the transaction id
+     * @return true if the row is unlocked by this call
+     */
+    public boolean unlock(long rowKey, long transactionId) {
+        return segmentFor(rowKey).remove(rowKey, transactionId);
+    }
+
+    /**
+     * The number of the locked rows.
+     *
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * The bytes of the slot arrays.
+     *
+     * @return the bytes
+     */
+    public long slotBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.slotBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Unlock all rows.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(long rowKey) {
+        return segments[(int)(rowKey >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * The open-addressing segment with linear probing, the removal shifts the following entries back,
+     * so there is no tombstone.
+     */
+    private static final class Segment {
+
+        private long[] keys;
+
+        private long[] owners;
+
+        private int mask;
+
+        private int size;
+
+        private void init(int capacity) {
+            keys = new long[capacity];
+            owners = new long[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int indexOf(long key) {
+            return (int)(key ^ (key >>> 32)) & mask;
+        }
+
+        private void release() {
+            keys = null;
+            owners = null;
+            mask = 0;
+            size = 0;
+        }
+
+        synchronized long putIfAbsent(long key, long owner) {
+            if (keys == null) {
+                init(INITIAL_SEGMENT_CAPACITY);
+            }
+            int i = indexOf(key);
+            while (keys[i] != EMPTY_KEY) {
+                if (keys[i] == key) {
+                    return owners[i];
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            owners[i] = owner;
+            if (++size > (mask + 1) / 4 * 3) {
+                resize((mask + 1) << 1);
+            }
+            return NO_OWNER;
+        }
+
+        synchronized long get(long key) {
+            if (size == 0) {
+                return NO_OWNER;
+            }
+            int i = indexOf(key);
+            while (keys[i] != EMPTY_KEY) {
+                if (keys[i] == key) {
+                    return owners[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return NO_OWNER;
+        }
+
+        synchronized boolean remove(long key, long owner) {
+            if (size == 0) {
+                return false;
+            }
+            int i = indexOf(key);
+            while (keys[i] != EMPTY_KEY) {
+                if (keys[i] == key) {
+                    if (owners[i] != owner) {
+                        return false;
+                    }
+                    shiftBack(i);
+                    if (--size == 0) {
+                        release();
+                    } else if (mask + 1 > INITIAL_SEGMENT_CAPACITY && size < (mask + 1) / 8) {
+                        resize((mask + 1) >>> 1);
+                    }
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        private void shiftBack(int hole) {
+            int i = hole;
+            int j = hole;
+            while (true) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY_KEY) {
+                    break;
+                }
+                int home = indexOf(keys[j]);
+                // move the entry back unless its home slot is cyclically in (hole, j]
+                boolean stay = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!stay) {
+                    keys[i] = keys[j];
+                    owners[i] = owners[j];
+                    i = j;
+                }
+            }
+            keys[i] = EMPTY_KEY;
+            owners[i] = NO_OWNER;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldOwners = owners;
+            init(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY_KEY) {
+                    int j = indexOf(oldKeys[i]);
+                    while (keys[j] != EMPTY_KEY) {
+                        j = (j + 1) & mask;
+                    }
+                    keys[j] = oldKeys[i];
+                    owners[j] = oldOwners[i];
+                    size++;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long slotBytes() {
+            return keys == null ? 0L : (long)(keys.length + owners.length) * Long.BYTES;
+        }
+
+        synchronized void clear() {
+            release();
+        }
+    }
+}
@@ -75,9 +75,9 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private static final String HIS_DATA_FILENAME_POSTFIX = ".1";
 
-    private static final AtomicLong FILE_TRX_NUM = new AtomicLong(0);
+    private final AtomicLong fileTrxNum = new AtomicLong(0);
 
-    private static final AtomicLong FILE_FLUSH_NUM = new AtomicLong(0);
+    private final AtomicLong fileFlushNum = new AtomicLong(0);
 
     private static final int MARK_SIZE = 4;
 
@@ -119,10 +119,18 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MAX_WRITE_BUFFER_SIZE);
 
-    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+    private final FlushDiskMode flushDiskMode;
 
     private static final int MAX_WAIT_FOR_FLUSH_TIME_MILLS = 2 * 1000;
 
+    private final boolean groupCommitEnable;
+
+    private final int groupCommitMaxBatch;
+
+    private final long groupCommitMaxDelayNanos;
+
+    private final AtomicLong forceTimes = new AtomicLong(0);
+
     private static final int MAX_WAIT_FOR_CLOSE_TIME_MILLS = 2 * 1000;
 
     private static final int INT_BYTE_SIZE = 4;
@@ -135,6 +143,28 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
      * @throws IOException the io exception
      */
     public FileTransactionStoreManager(String fullFileName, SessionManager sessionManager) throws IOException {
+        this(fullFileName, sessionManager, StoreConfig.getFlushDiskMode(), StoreConfig.isGroupCommitEnable(),
+            StoreConfig.getGroupCommitMaxBatch(), StoreConfig.getGroupCommitMaxDelay());
+    }
+
+    /**
+     * Instantiates a new File transaction store manager.
+     *
+     * @param fullFileName        the dir path
+     * @param sessionManager      the session manager
+     * @param flushDiskMode       the flush disk mode
+     * @param groupCommitEnable   whether to group the sync flush requests
+     * @param groupCommitMaxBatch the max sync flush requests of a group
+     * @param groupCommitMaxDelay the max time in milliseconds a group waits for more requests
+     * @throws IOException the io exception
+     */
+    FileTransactionStoreManager(String fullFileName, SessionManager sessionManager, FlushDiskMode flushDiskMode,
+                                boolean groupCommitEnable, int groupCommitMaxBatch, int groupCommitMaxDelay)
+        throws IOException {
+        this.flushDiskMode = flushDiskMode;
+        this.groupCommitEnable = groupCommitEnable;
+        this.groupCommitMaxBatch = Math.max(1, groupCommitMaxBatch);
+        this.groupCommitMaxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, groupCommitMaxDelay));
         initFile(fullFileName);
         fileWriteExecutor = new ThreadPoolExecutor(MAX_THREAD_WRITE, MAX_THREAD_WRITE, Integer.MAX_VALUE,
             TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
@@ -178,7 +208,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 return false;
             }
             lastModifiedTime = System.currentTimeMillis();
-            curFileTrxNum = FILE_TRX_NUM.incrementAndGet();
+            curFileTrxNum = fileTrxNum.incrementAndGet();
             if (curFileTrxNum % PER_FILE_BLOCK_SIZE == 0
                     && (System.currentTimeMillis() - trxStartTimeMills) > MAX_TRX_TIMEOUT_MILLS) {
                 return saveHistory();
@@ -195,7 +225,7 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
 
     private void flushDisk(long curFileNum, FileChannel currFileChannel) {
 
-        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+        if (flushDiskMode == FlushDiskMode.SYNC_MODEL) {
             SyncFlushRequest syncFlushRequest = new SyncFlushRequest(curFileNum, currFileChannel);
             writeDataFileRunnable.putRequest(syncFlushRequest);
             syncFlushRequest.waitForFlush(MAX_WAIT_FOR_FLUSH_TIME_MILLS);
@@ -317,6 +347,15 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         throw new StoreException("unsupport for read from file");
     }
 
+    /**
+     * Gets the times the flush thread forced the data files to the disk.
+     *
+     * @return the force times
+     */
+    long getForceTimes() {
+        return forceTimes.get();
+    }
+
     @Override
     public void shutdown() {
         if (fileWriteExecutor != null) {
@@ -598,7 +637,11 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
                 flushOnCondition(currFileChannel);
             }
             if (storeRequest instanceof SyncFlushRequest) {
-                syncFlush((SyncFlushRequest)storeRequest);
+                if (groupCommitEnable) {
+                    groupFlush((SyncFlushRequest)storeRequest);
+                } else {
+                    syncFlush((SyncFlushRequest)storeRequest);
+                }
             } else if (storeRequest instanceof AsyncFlushRequest) {
                 async((AsyncFlushRequest)storeRequest);
             } else if (storeRequest instanceof CloseFileRequest) {
@@ -607,9 +650,9 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
 
         private void closeAndFlush(CloseFileRequest req) {
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            long diff = fileTrxNum.get() - fileFlushNum.get();
             flush(req.getFileChannel());
-            FILE_FLUSH_NUM.addAndGet(diff);
+            fileFlushNum.addAndGet(diff);
             closeFile(req.getFile());
             req.wakeup();
         }
@@ -619,32 +662,79 @@ public class FileTransactionStoreManager extends AbstractTransactionStoreManager
         }
 
         private void syncFlush(SyncFlushRequest req) {
-            if (req.getCurFileTrxNum() > FILE_FLUSH_NUM.get()) {
-                long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            if (req.getCurFileTrxNum() > fileFlushNum.get()) {
+                long diff = fileTrxNum.get() - fileFlushNum.get();
                 flush(req.getCurFileChannel());
-                FILE_FLUSH_NUM.addAndGet(diff);
+                fileFlushNum.addAndGet(diff);
             }
             // notify
             req.wakeup();
         }
 
+        /**
+         * group the sync flush requests of the same file, one force covers all of them.
+         * unlike the sync flush, which only skips the requests already covered by the last force,
+         * the group waits at most group commit max delay for more writers until it reaches the max batch.
+         */
+        private void groupFlush(SyncFlushRequest first) {
+            List<SyncFlushRequest> group = new ArrayList<>(Math.min(groupCommitMaxBatch, storeRequests.size() + 1));
+            group.add(first);
+            StoreRequest next = null;
+            long deadline = System.nanoTime() + groupCommitMaxDelayNanos;
+            while (group.size() < groupCommitMaxBatch) {
+                long waitNanos = deadline - System.nanoTime();
+                try {
+                    next = waitNanos > 0 ? storeRequests.poll(waitNanos, TimeUnit.NANOSECONDS) : storeRequests.poll();
+                } catch (InterruptedException e) {
+                    // stop waiting and take only the queued requests, the flush thread is stopped by the
+                    // stopping flag, keeping the interrupt status would make every later poll fail at once
+                    LOGGER.warn("Interrupted while grouping the sync flush requests.");
+                    deadline = System.nanoTime();
+                    continue;
+                }
+                if (!(next instanceof SyncFlushRequest)
+                    || ((SyncFlushRequest)next).getCurFileChannel() != first.getCurFileChannel()) {
+                    break;
+                }
+                group.add((SyncFlushRequest)next);
+                next = null;
+            }
+            long maxFileTrxNum = 0;
+            for (SyncFlushRequest req : group) {
+                maxFileTrxNum = Math.max(maxFileTrxNum, req.getCurFileTrxNum());
+            }
+            if (maxFileTrxNum > fileFlushNum.get()) {
+                long diff = fileTrxNum.get() - fileFlushNum.get();
+                flush(first.getCurFileChannel());
+                fileFlushNum.addAndGet(diff);
+            }
+            // notify
+            for (SyncFlushRequest req : group) {
+                req.wakeup();
+            }
+            if (next != null) {
+                handleStoreRequest(next);
+            }
+        }
+
         private void flushOnCondition(FileChannel fileChannel) {
-            if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+            if (flushDiskMode == FlushDiskMode.SYNC_MODEL) {
                 return;
             }
-            long diff = FILE_TRX_NUM.get() - FILE_FLUSH_NUM.get();
+            long diff = fileTrxNum.get() - fileFlushNum.get();
             if (diff == 0) {
                 return;
             }
             if (diff % MAX_FLUSH_NUM == 0 || System.currentTimeMillis() - lastModifiedTime > MAX_FLUSH_TIME_MILLS) {
                 flush(fileChannel);
-                FILE_FLUSH_NUM.addAndGet(diff);
+                fileFlushNum.addAndGet(diff);
             }
         }
 
         private void flush(FileChannel fileChannel) {
             try {
                 fileChannel.force(false);
+                forceTimes.incrementAndGet();
             } catch (IOException exx) {
                 LOGGER.error("flush error: {}", exx.getMessage(), exx);
             }
@@ -0,0 +1,814 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import io.seata.common.exception.StoreException;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionCondition;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.storage.file.ReloadableStore;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.store.AbstractTransactionStoreManager;
+import io.seata.server.store.SessionStorable;
+import io.seata.server.store.StoreConfig;
+import io.seata.server.store.TransactionStoreManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The transaction store manager based on fixed size memory-mapped segments.
+ * <p>
+ * The records are appended to the active segment framed by their length and CRC32, a new segment is created when
+ * the active one is full, and the full one is unmapped. The segment index keeps the location of the latest record
+ * of every live global and branch session. The compaction copies the live records of the oldest sealed segments
+ * into one new segment file without holding the write lock, and only takes it to swap the new file in and delete
+ * the compacted segments, so the restart only reads the live records and the records not compacted yet.
+ * <p>
+ * A batch of segments is compacted only if the segments before it hold no dead record, and its segments are
+ * deleted from the oldest one, so a remove record is never dropped before the records it removes.
+ *
+ * @since 1.5.0
+ */
+public class MappedSegmentTransactionStoreManager extends AbstractTransactionStoreManager
+    implements TransactionStoreManager, ReloadableStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappedSegmentTransactionStoreManager.class);
+
+    private static final String SEGMENT_DIR_POSTFIX = ".segments";
+
+    private static final String SEGMENT_FILE_NAME_FORMAT = "%020d";
+
+    private static final String COMPACT_FILE_POSTFIX = ".compact";
+
+    private static final int MARK_SIZE = 4;
+
+    /**
+     * the length and the crc of a record
+     */
+    private static final int HEADER_SIZE = MARK_SIZE * 2;
+
+    private static final long MAX_FLUSH_TIME_MILLS = 1000;
+
+    private static final FlushDiskMode FLUSH_DISK_MODE = StoreConfig.getFlushDiskMode();
+
+    private final File segmentDir;
+
+    private final int segmentSize;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * only one compaction at a time, the compaction copies the records without the write lock
+     */
+    private final ReentrantLock compactLock = new ReentrantLock();
+
+    /**
+     * the segments from the oldest to the active one, guarded by the write lock
+     */
+    private final List<Segment> segments = new ArrayList<>();
+
+    /**
+     * the segment index of the live sessions, guarded by the write lock
+     */
+    private final Map<String, LiveSession> liveSessions = new HashMap<>();
+
+    private final ScheduledExecutorService maintainExecutor;
+
+    private volatile Segment activeSegment;
+
+    private final List<Segment> recoverSegments;
+
+    private int recoverSegmentIndex = 0;
+
+    private int recoverPosition = 0;
+
+    private volatile boolean recovered;
+
+    /**
+     * Instantiates a new Mapped segment transaction store manager.
+     *
+     * @param fullFileName the full file name, the segments are stored in the directory named after it
+     * @throws IOException the io exception
+     */
+    public MappedSegmentTransactionStoreManager(String fullFileName) throws IOException {
+        this(fullFileName, StoreConfig.getSegmentSize(), StoreConfig.getSegmentCompactInterval());
+    }
+
+    /**
+     * Instantiates a new Mapped segment transaction store manager.
+     *
+     * @param fullFileName    the full file name, the segments are stored in the directory named after it
+     * @param segmentSize     the segment size
+     * @param compactInterval the compact interval millis, no background compaction if it is not positive
+     * @throws IOException the io exception
+     */
+    public MappedSegmentTransactionStoreManager(String fullFileName, int segmentSize, long compactInterval)
+        throws IOException {
+        this.segmentDir = new File(fullFileName + SEGMENT_DIR_POSTFIX);
+        this.segmentSize = segmentSize;
+        if (!segmentDir.exists() && !segmentDir.mkdirs()) {
+            throw new IOException("create segment dir error: " + segmentDir.getAbsolutePath());
+        }
+        loadSegments();
+        this.recoverSegments = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            recoverSegments.add(segment);
+            if (segment.broken) {
+                // the records after a bad one can not be trusted, stop the replay there
+                LOGGER.error("segment {} has a bad record at {}, the records after it are not replayed",
+                    segment.file.getName(), segment.writePosition);
+                break;
+            }
+        }
+        this.recovered = !hasRemaining(false);
+        if (recovered) {
+            sealRecoveredSegments();
+        }
+        this.maintainExecutor = new ScheduledThreadPoolExecutor(1,
+            new NamedThreadFactory("segmentTransactionStore", 1, true));
+        if (compactInterval > 0) {
+            maintainExecutor.scheduleWithFixedDelay(this::compactQuietly, compactInterval, compactInterval,
+                TimeUnit.MILLISECONDS);
+        }
+        if (FLUSH_DISK_MODE != FlushDiskMode.SYNC_MODEL) {
+            maintainExecutor.scheduleWithFixedDelay(this::flushQuietly, MAX_FLUSH_TIME_MILLS, MAX_FLUSH_TIME_MILLS,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        // a compaction interrupted before its file was swapped in, the segments it copied are all still there
+        File[] unfinished = segmentDir.listFiles((dir, name) -> name.endsWith(COMPACT_FILE_POSTFIX));
+        if (unfinished != null) {
+            for (File file : unfinished) {
+                if (!file.delete()) {
+                    LOGGER.warn("delete unfinished compact file failed: {}", file.getAbsolutePath());
+                }
+            }
+        }
+        File[] files = segmentDir.listFiles((dir, name) -> name.matches("\\d+"));
+        if (files != null) {
+            Arrays.sort(files, (f1, f2) -> Long.compare(Long.parseLong(f1.getName()), Long.parseLong(f2.getName())));
+            for (File file : files) {
+                segments.add(Segment.open(file, Long.parseLong(file.getName()), segmentSize));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.open(segmentFile(1), 1, segmentSize));
+        }
+        activeSegment = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Unmap the segments before the active one, they are only read by the compaction after the recovery.
+     */
+    private void sealRecoveredSegments() {
+        for (Segment segment : segments) {
+            if (segment != activeSegment) {
+                segment.seal();
+            }
+        }
+    }
+
+    private File segmentFile(long id) {
+        return new File(segmentDir, String.format(SEGMENT_FILE_NAME_FORMAT, id));
+    }
+
+    @Override
+    public boolean writeSession(LogOperation logOperation, SessionStorable session) {
+        Segment segment;
+        byte[] data;
+        try {
+            data = new TransactionWriteStore(session, logOperation).encode();
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        }
+        writeLock.lock();
+        try {
+            Location location = append(data);
+            if (location == null) {
+                return false;
+            }
+            track(logOperation, session, location);
+            segment = location.segment;
+        } catch (Exception exx) {
+            LOGGER.error("writeSession error, {}", exx.getMessage(), exx);
+            return false;
+        } finally {
+            writeLock.unlock();
+        }
+        if (FLUSH_DISK_MODE == FlushDiskMode.SYNC_MODEL) {
+            segment.force();
+        }
+        return true;
+    }
+
+    private Location append(byte[] data) throws IOException {
+        if (HEADER_SIZE + MARK_SIZE + data.length > segmentSize) {
+            LOGGER.error("record size {} is larger than the segment size {}", data.length, segmentSize);
+            return null;
+        }
+        int position = activeSegment.append(data);
+        if (position < 0) {
+            Segment next = Segment.open(segmentFile(activeSegment.id + 1), activeSegment.id + 1, segmentSize);
+            Segment full = activeSegment;
+            segments.add(next);
+            activeSegment = next;
+            if (recovered) {
+                full.seal();
+            }
+            position = activeSegment.append(data);
+        }
+        return new Location(activeSegment, position, data.length);
+    }
+
+    private void track(LogOperation logOperation, SessionStorable session, Location location) {
+        switch (logOperation) {
+            case GLOBAL_ADD:
+            case GLOBAL_UPDATE: {
+                String xid = ((GlobalSession)session).getXid();
+                LiveSession liveSession = liveSessions.computeIfAbsent(xid, k -> new LiveSession());
+                release(liveSession.global);
+                liveSession.global = location.live(xid, 0);
+                break;
+            }
+            case GLOBAL_REMOVE: {
+                LiveSession liveSession = liveSessions.remove(((GlobalSession)session).getXid());
+                if (liveSession != null) {
+                    release(liveSession.global);
+                    liveSession.branches.values().forEach(this::release);
+                }
+                break;
+            }
+            case BRANCH_ADD:
+            case BRANCH_UPDATE: {
+                BranchSession branchSession = (BranchSession)session;
+                LiveSession liveSession = liveSessions.computeIfAbsent(branchSession.getXid(),
+                    k -> new LiveSession());
+                release(liveSession.branches.put(branchSession.getBranchId(),
+                    location.live(branchSession.getXid(), branchSession.getBranchId())));
+                break;
+            }
+            case BRANCH_REMOVE: {
+                BranchSession branchSession = (BranchSession)session;
+                LiveSession liveSession = liveSessions.get(branchSession.getXid());
+                if (liveSession != null) {
+                    release(liveSession.branches.remove(branchSession.getBranchId()));
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void release(Location location) {
+        if (location != null) {
+            location.segment.liveRecords.remove(location.position);
+            location.segment.liveBytes -= location.length;
+        }
+    }
+
+    /**
+     * Compact the sealed segments from the oldest dirty one, the live records are copied to a new segment file.
+     * Nothing is compacted before the restart recovery is finished, since the segment index is built by it.
+     *
+     * @return the number of the compacted segments
+     * @throws IOException the io exception
+     */
+    int compact() throws IOException {
+        if (!recovered) {
+            return 0;
+        }
+        int compacted = 0;
+        int deleted = 0;
+        compactLock.lock();
+        try {
+            // every round makes a dirty segment clean or deletes segments, the records dying meanwhile aside
+            for (int rounds = segmentCount(); rounds > 0; rounds--) {
+                List<Segment> batch = new ArrayList<>();
+                List<Location> snapshot = new ArrayList<>();
+                writeLock.lock();
+                try {
+                    selectBatch(batch, snapshot);
+                } finally {
+                    writeLock.unlock();
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                deleted += compactBatch(batch, snapshot);
+                compacted += batch.size();
+            }
+        } finally {
+            compactLock.unlock();
+        }
+        if (compacted > 0 && LOGGER.isInfoEnabled()) {
+            LOGGER.info("compacted {} segments, deleted {}, live sessions: {}", compacted, deleted,
+                liveSessions.size());
+        }
+        return compacted;
+    }
+
+    /**
+     * Select the sealed segments to compact together and snapshot their live records, under the write lock.
+     * The clean segments before the first dirty one are skipped, the batch then takes the following segments as
+     * long as their live records fit in one segment.
+     */
+    private void selectBatch(List<Segment> batch, List<Location> snapshot) {
+        long size = MARK_SIZE;
+        for (Segment segment : segments) {
+            if (segment == activeSegment) {
+                break;
+            }
+            if (batch.isEmpty() && segment.deadBytes() == 0) {
+                continue;
+            }
+            long liveSize = segment.liveBytes + (long)HEADER_SIZE * segment.liveRecords.size();
+            if (!batch.isEmpty() && size + liveSize > segmentSize) {
+                break;
+            }
+            size += liveSize;
+            batch.add(segment);
+            snapshot.addAll(segment.liveRecords.values());
+        }
+    }
+
+    /**
+     * Copy the snapshot records to a new file without the write lock, then take it to swap the file in place of the
+     * oldest segment of the batch and delete the others from the oldest one. The new file holds the records of the
+     * batch in their written order, and the segments after it hold the records written meanwhile, so a restart at
+     * any step replays the records in order.
+     *
+     * @return the number of the deleted segments
+     */
+    private int compactBatch(List<Segment> batch, List<Location> snapshot) throws IOException {
+        Segment first = batch.get(0);
+        File compactFile = new File(segmentDir, first.file.getName() + COMPACT_FILE_POSTFIX);
+        int[] positions = new int[snapshot.size()];
+        int writePosition = 0;
+        if (!snapshot.isEmpty()) {
+            try (RandomAccessFile raf = new RandomAccessFile(compactFile, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                raf.setLength(0);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    Location location = snapshot.get(i);
+                    byte[] data = location.segment.read(location.position);
+                    ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + data.length);
+                    record.putInt(data.length).putInt(Segment.crc(data)).put(data);
+                    record.flip();
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    positions[i] = writePosition;
+                    writePosition += record.capacity();
+                }
+                channel.force(true);
+            }
+        }
+        writeLock.lock();
+        try {
+            int index = segments.indexOf(first);
+            Segment compacted = null;
+            if (writePosition > 0) {
+                first.close();
+                Files.move(compactFile.toPath(), first.file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+                compacted = Segment.compacted(first.id, first.file, writePosition);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    Location location = snapshot.get(i);
+                    if (location.segment.liveRecords.get(location.position) != location) {
+                        // updated or removed during the copy, the copy is dead and dropped by the next compaction
+                        continue;
+                    }
+                    release(location);
+                    LiveSession liveSession = liveSessions.get(location.xid);
+                    Location copied = new Location(compacted, positions[i], location.length);
+                    if (location.branchId == 0) {
+                        liveSession.global = copied.live(location.xid, 0);
+                    } else {
+                        liveSession.branches.put(location.branchId, copied.live(location.xid, location.branchId));
+                    }
+                }
+            }
+            segments.subList(index, index + batch.size()).clear();
+            if (compacted != null) {
+                segments.add(index, compacted);
+            }
+            int deleted = 0;
+            for (Segment segment : batch) {
+                if (segment != first || compacted == null) {
+                    segment.delete();
+                    deleted++;
+                }
+            }
+            return deleted;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception exx) {
+            LOGGER.error("compact segments error: {}", exx.getMessage(), exx);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            activeSegment.force();
+        } catch (Exception exx) {
+            LOGGER.error("flush segment error: {}", exx.getMessage(), exx);
+        }
+    }
+
+    /**
+     * The number of the segments.
+     *
+     * @return the segment count
+     */
+    int segmentCount() {
+        writeLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public GlobalSession readSession(String xid) {
+        throw new StoreException("unsupport for read from file, xid:" + xid);
+    }
+
+    @Override
+    public List<GlobalSession> readSession(SessionCondition sessionCondition) {
+        throw new StoreException("unsupport for read from file");
+    }
+
+    @Override
+    public List<TransactionWriteStore> readWriteStore(int readSize, boolean isHistory) {
+        if (isHistory) {
+            return Collections.emptyList();
+        }
+        List<TransactionWriteStore> transactionWriteStores = new ArrayList<>(readSize);
+        writeLock.lock();
+        try {
+            while (transactionWriteStores.size() < readSize && recoverSegmentIndex < recoverSegments.size()) {
+                Segment segment = recoverSegments.get(recoverSegmentIndex);
+                if (recoverPosition >= segment.writePosition) {
+                    recoverSegmentIndex++;
+                    recoverPosition = 0;
+                    continue;
+                }
+                byte[] data = segment.read(recoverPosition);
+                Location location = new Location(segment, recoverPosition, data.length);
+                recoverPosition += HEADER_SIZE + data.length;
+                try {
+                    TransactionWriteStore writeStore = new TransactionWriteStore();
+                    writeStore.decode(data);
+                    track(writeStore.getOperate(), writeStore.getSessionRequest(), location);
+                    transactionWriteStores.add(writeStore);
+                } catch (Exception ex) {
+                    LOGGER.error("decode segment {} error:{}", segment.file.getName(), ex.getMessage(), ex);
+                }
+            }
+            // the last read may end right at the end of the records, the index is only moved past it by a next read
+            recovered = !hasRemaining(false);
+            if (recovered) {
+                sealRecoveredSegments();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return transactionWriteStores;
+    }
+
+    @Override
+    public boolean hasRemaining(boolean isHistory) {
+        if (isHistory) {
+            return false;
+        }
+        for (int i = recoverSegmentIndex; i < recoverSegments.size(); i++) {
+            int position = i == recoverSegmentIndex ? recoverPosition : 0;
+            if (position < recoverSegments.get(i).writePosition) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void shutdown() {
+        maintainExecutor.shutdown();
+        try {
+            maintainExecutor.awaitTermination(MAX_FLUSH_TIME_MILLS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            activeSegment.force();
+            for (Segment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The live records of a global session and its branches.
+     */
+    private static class LiveSession {
+
+        private Location global;
+
+        private final Map<Long, Location> branches = new HashMap<>();
+    }
+
+    /**
+     * The location of a record in a segment.
+     */
+    private static class Location {
+
+        private final Segment segment;
+
+        private final int position;
+
+        private final int length;
+
+        private String xid;
+
+        private long branchId;
+
+        Location(Segment segment, int position, int length) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+
+        /**
+         * mark the record as the live record of the session, branch id is 0 for a global session
+         */
+        Location live(String xid, long branchId) {
+            this.xid = xid;
+            this.branchId = branchId;
+            segment.liveRecords.put(position, this);
+            segment.liveBytes += length;
+            return this;
+        }
+    }
+
+    /**
+     * A memory-mapped segment file.
+     * <p>
+     * The record is framed as [length][crc32][data], the length is written after the data, and the next length is
+     * cleared before, so an unfinished record is read as the end of the segment, and a torn one fails the crc.
+     * The segment is unmapped once it is full, then its records are read through the file channel.
+     */
+    static class Segment {
+
+        private final long id;
+
+        private final File file;
+
+        private MappedByteBuffer buffer;
+
+        private FileChannel readChannel;
+
+        private int writePosition;
+
+        /**
+         * whether the scan stopped at a bad record rather than at the end of the records
+         */
+        private boolean broken;
+
+        private long liveBytes;
+
+        /**
+         * the live records ordered by position, the compaction copies them in the written order
+         */
+        private final TreeMap<Integer, Location> liveRecords = new TreeMap<>();
+
+        private Segment(long id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        /**
+         * The sealed segment written by the compaction, it is read through the file channel.
+         */
+        static Segment compacted(long id, File file, int writePosition) {
+            Segment segment = new Segment(id, file, null);
+            segment.writePosition = writePosition;
+            return segment;
+        }
+
+        static Segment open(File file, long id, int segmentSize) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                long size = Math.max(raf.length(), segmentSize);
+                Segment segment = new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                segment.scan();
+                return segment;
+            }
+        }
+
+        /**
+         * The bytes of the records which are no longer live.
+         */
+        long deadBytes() {
+            return writePosition - liveBytes - (long)HEADER_SIZE * liveRecords.size();
+        }
+
+        private void scan() {
+            int position = 0;
+            int capacity = buffer.capacity();
+            while (position + HEADER_SIZE <= capacity) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    break;
+                }
+                if (length < 0 || position + HEADER_SIZE + length > capacity
+                    || buffer.getInt(position + MARK_SIZE) != crc(read(position))) {
+                    broken = true;
+                    break;
+                }
+                position += HEADER_SIZE + length;
+            }
+            writePosition = position;
+        }
+
+        /**
+         * Append the record.
+         *
+         * @param data the record data
+         * @return the position of the record, -1 if the segment is full
+         */
+        int append(byte[] data) {
+            int position = writePosition;
+            int next = position + HEADER_SIZE + data.length;
+            if (next + MARK_SIZE > buffer.capacity()) {
+                return -1;
+            }
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(position + HEADER_SIZE);
+            slice.put(data);
+            buffer.putInt(position + MARK_SIZE, crc(data));
+            buffer.putInt(next, 0);
+            buffer.putInt(position, data.length);
+            writePosition = next;
+            return position;
+        }
+
+        byte[] read(int position) {
+            if (buffer != null) {
+                byte[] data = new byte[buffer.getInt(position)];
+                ByteBuffer slice = buffer.duplicate();
+                slice.position(position + HEADER_SIZE);
+                slice.get(data);
+                return data;
+            }
+            try {
+                if (readChannel == null) {
+                    readChannel = new RandomAccessFile(file, "r").getChannel();
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                readFully(header, position);
+                ByteBuffer data = ByteBuffer.allocate(header.getInt(0));
+                readFully(data, position + HEADER_SIZE);
+                return data.array();
+            } catch (IOException exx) {
+                throw new StoreException(exx, "read segment " + file.getName() + " error: " + exx.getMessage());
+            }
+        }
+
+        private void readFully(ByteBuffer dst, long position) throws IOException {
+            while (dst.hasRemaining()) {
+                if (readChannel.read(dst, position + dst.position()) < 0) {
+                    throw new IOException("unexpected end of segment at " + position);
+                }
+            }
+        }
+
+        synchronized void force() {
+            if (buffer != null) {
+                buffer.force();
+            }
+        }
+
+        /**
+         * Force and unmap the full segment.
+         */
+        synchronized void seal() {
+            if (buffer != null) {
+                buffer.force();
+                unmap(buffer);
+                buffer = null;
+            }
+        }
+
+        /**
+         * Unmap the segment and close its file channel.
+         */
+        synchronized void close() {
+            seal();
+            if (readChannel != null) {
+                try {
+                    readChannel.close();
+                } catch (IOException exx) {
+                    LOGGER.warn("close segment file error: {}", exx.getMessage());
+                }
+                readChannel = null;
+            }
+        }
+
+        /**
+         * Close and delete the segment file.
+         */
+        void delete() {
+            close();
+            if (!file.delete()) {
+                LOGGER.warn("delete segment file failed: {}", file.getAbsolutePath());
+            }
+        }
+
+        private static int crc(byte[] data) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(data, 0, data.length);
+            return (int)crc32.getValue();
+        }
+
+        /**
+         * Release the mapped memory right away rather than when the buffer is collected, the buffer must not be
+         * used after.
+         */
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner;
+                try {
+                    invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                } catch (NoSuchMethodException e) {
+                    invokeCleaner = null;
+                }
+                if (invokeCleaner != null) {
+                    java.lang.reflect.Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                    theUnsafe.setAccessible(true);
+                    invokeCleaner.invoke(theUnsafe.get(null), buffer);
+                    return;
+                }
+                // java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (Exception exx) {
+                LOGGER.warn("unmap segment error, it is released when collected: {}", exx.getMessage());
+            }
+        }
+    }
+}
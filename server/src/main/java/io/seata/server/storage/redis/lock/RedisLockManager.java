@@ -16,6 +16,7 @@
 package io.seata.server.storage.redis.lock;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import io.seata.common.executor.Initialize;
@@ -55,9 +56,30 @@ public class RedisLockManager extends AbstractLockManager implements Initialize
         } catch (Exception t) {
             LOGGER.error("unLock error, xid {}, branchId:{}", branchSession.getXid(), branchSession.getBranchId(), t);
             return false;
+        } finally {
+            signalLockWaiters(branchSession);
         }
     }
 
+    @Override
+    public boolean releaseLock(List<BranchSession> branchSessions) throws TransactionException {
+        Map<String, List<Long>> xidBranchIds = branchSessions.stream().collect(
+            Collectors.groupingBy(BranchSession::getXid, Collectors.mapping(BranchSession::getBranchId,
+                Collectors.toList())));
+        boolean released = true;
+        for (Map.Entry<String, List<Long>> entry : xidBranchIds.entrySet()) {
+            try {
+                released &= getLocker().releaseLock(entry.getKey(), entry.getValue());
+            } catch (Exception t) {
+                LOGGER.error("unLock error, xid {}, branchIds:{}", entry.getKey(),
+                    CollectionUtils.toString(entry.getValue()), t);
+                released = false;
+            }
+        }
+        signalLockWaiters(branchSessions);
+        return released;
+    }
+
     @Override
     public boolean releaseGlobalSessionLock(GlobalSession globalSession) throws TransactionException {
         List<BranchSession> branchSessions = globalSession.getBranchSessions();
@@ -71,6 +93,8 @@ public class RedisLockManager extends AbstractLockManager implements Initialize
             LOGGER.error("unLock globalSession error, xid:{} branchIds:{}", globalSession.getXid(),
                 CollectionUtils.toString(branchIds), t);
             return false;
+        } finally {
+            signalLockWaiters(globalSession);
         }
     }
 }
\ No newline at end of file
@@ -21,6 +21,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -41,6 +43,7 @@ import io.seata.core.store.LockDO;
 import io.seata.server.storage.redis.JedisPooledFactory;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -81,8 +84,16 @@ public class RedisLocker extends AbstractLocker {
 
     private static final String REDIS_LUA_FILE_NAME = "lua/redislocker/redislock.lua";
 
+    private static final String REDIS_UNLOCK_LUA_FILE_NAME = "lua/redislocker/redisunlock.lua";
+
     private static String ACQUIRE_LOCK_SHA;
 
+    private static String ACQUIRE_LOCK_LUA;
+
+    private static String RELEASE_LOCK_SHA;
+
+    private static String RELEASE_LOCK_LUA;
+
     private static final String WHITE_SPACE = " ";
 
     private static final String ANNOTATION_LUA = "--";
@@ -92,34 +103,59 @@ public class RedisLocker extends AbstractLocker {
      */
     public RedisLocker() {
         if (ACQUIRE_LOCK_SHA == null) {
-            File luaFile = FileLoader.load(REDIS_LUA_FILE_NAME);
-            if (luaFile != null) {
-                StringBuilder acquireLockLuaByFile = new StringBuilder();
-                try (FileInputStream fis = new FileInputStream(luaFile)) {
-                    BufferedReader br = new BufferedReader(new InputStreamReader(fis));
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (line.trim().startsWith(ANNOTATION_LUA)) {
-                            continue;
-                        }
-                        acquireLockLuaByFile.append(line);
-                        acquireLockLuaByFile.append(WHITE_SPACE);
-                    }
-                // if it fails to read the file, pipeline mode is used
-                } catch (IOException e) {
-                    LOGGER.info("redis locker use pipeline mode");
-                    return;
-                }
-                try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
-                    ACQUIRE_LOCK_SHA = jedis.scriptLoad(acquireLockLuaByFile.toString());
-                    LOGGER.info("redis locker use lua mode");
-                }
-            } else {
+            String acquireLockLua = readLuaFile(REDIS_LUA_FILE_NAME);
+            String releaseLockLua = readLuaFile(REDIS_UNLOCK_LUA_FILE_NAME);
+            // if it fails to read the files, pipeline mode is used
+            if (acquireLockLua == null || releaseLockLua == null) {
                 LOGGER.info("redis locker use pipeline mode");
+                return;
+            }
+            try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+                ACQUIRE_LOCK_LUA = acquireLockLua;
+                RELEASE_LOCK_LUA = releaseLockLua;
+                RELEASE_LOCK_SHA = jedis.scriptLoad(releaseLockLua);
+                ACQUIRE_LOCK_SHA = jedis.scriptLoad(acquireLockLua);
+                LOGGER.info("redis locker use lua mode");
             }
         }
     }
 
+    private static String readLuaFile(String fileName) {
+        File luaFile = FileLoader.load(fileName);
+        if (luaFile == null) {
+            return null;
+        }
+        StringBuilder luaByFile = new StringBuilder();
+        try (FileInputStream fis = new FileInputStream(luaFile)) {
+            BufferedReader br = new BufferedReader(new InputStreamReader(fis));
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().startsWith(ANNOTATION_LUA)) {
+                    continue;
+                }
+                luaByFile.append(line);
+                luaByFile.append(WHITE_SPACE);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("read the lua file {} failed: {}", fileName, e.getMessage());
+            return null;
+        }
+        return luaByFile.toString();
+    }
+
+    /**
+     * Eval the script by its sha, the script is loaded again if the redis server has lost it, e.g. after a restart.
+     */
+    private static Object evalsha(Jedis jedis, String sha, String lua, List<String> keys, List<String> args) {
+        try {
+            return jedis.evalsha(sha, keys, args);
+        } catch (JedisNoScriptException e) {
+            LOGGER.info("redis lua script {} not found, load it again", sha);
+            jedis.scriptLoad(lua);
+            return jedis.evalsha(sha, keys, args);
+        }
+    }
+
     @Override
     public boolean acquireLock(List<RowLock> rowLocks) {
         if (CollectionUtils.isEmpty(rowLocks)) {
@@ -207,15 +243,61 @@ public class RedisLocker extends AbstractLocker {
         return true;
     }
 
+    @Override
+    public boolean[] acquireLocks(List<List<RowLock>> rowLockGroups) {
+        if (ACQUIRE_LOCK_SHA == null) {
+            return super.acquireLocks(rowLockGroups);
+        }
+        boolean[] results = new boolean[rowLockGroups.size()];
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            // one script call per branch, all of them in one pipeline
+            Pipeline pipeline = jedis.pipelined();
+            List<Integer> pipelinedIndexes = new ArrayList<>(rowLockGroups.size());
+            for (int i = 0; i < rowLockGroups.size(); i++) {
+                List<RowLock> rowLocks = rowLockGroups.get(i);
+                if (CollectionUtils.isEmpty(rowLocks)) {
+                    results[i] = true;
+                    continue;
+                }
+                List<String> keys = new ArrayList<>();
+                List<String> args = new ArrayList<>();
+                buildLuaKeysAndArgs(rowLocks, keys, args);
+                pipeline.evalsha(ACQUIRE_LOCK_SHA, keys, args);
+                pipelinedIndexes.add(i);
+            }
+            if (pipelinedIndexes.isEmpty()) {
+                return results;
+            }
+            List<Object> replies = pipeline.syncAndReturnAll();
+            for (int i = 0; i < pipelinedIndexes.size(); i++) {
+                int index = pipelinedIndexes.get(i);
+                Object reply = replies.get(i);
+                if (reply instanceof JedisNoScriptException) {
+                    // the script is lost by the redis server, acquire the branch again after loading it
+                    results[index] = acquireLockByLua(jedis, rowLockGroups.get(index));
+                } else {
+                    results[index] = reply instanceof Long && SUCCEED == (long)reply;
+                }
+            }
+        }
+        return results;
+    }
+
     private boolean acquireLockByLua(Jedis jedis, List<RowLock> rowLocks) {
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        buildLuaKeysAndArgs(rowLocks, keys, args);
+        long result = (long)evalsha(jedis, ACQUIRE_LOCK_SHA, ACQUIRE_LOCK_LUA, keys, args);
+        return SUCCEED == result;
+    }
+
+    private void buildLuaKeysAndArgs(List<RowLock> rowLocks, List<String> keys, List<String> args) {
         String needLockXid = rowLocks.get(0).getXid();
         Long branchId = rowLocks.get(0).getBranchId();
         List<LockDO> needLockDOs = rowLocks.stream()
                 .map(this::convertToLockDO)
                 .filter(LambdaUtils.distinctByKey(LockDO::getRowKey))
                 .collect(Collectors.toList());
-        ArrayList<String> keys = new ArrayList<>();
-        ArrayList<String> args = new ArrayList<>();
         int size = needLockDOs.size();
         args.add(String.valueOf(size));
         // args index 2 placeholder
@@ -238,8 +320,6 @@ public class RedisLocker extends AbstractLocker {
         args.add(lockKeysString.toString());
         // reset args index 2
         args.set(1, String.valueOf(args.size()));
-        long result = (long)jedis.evalsha(ACQUIRE_LOCK_SHA, keys, args);
-        return SUCCEED == result;
     }
 
     @Override
@@ -275,8 +355,10 @@ public class RedisLocker extends AbstractLocker {
             for (int i = 0; i < branchIds.size(); i++) {
                 branchIdsArray[i] = branchIds.get(i).toString();
             }
+            if (RELEASE_LOCK_SHA != null) {
+                return releaseLockByLua(jedis, xid, xidLockKey, branchIdsArray);
+            }
             List<String> rowKeys = jedis.hmget(xidLockKey, branchIdsArray);
-
             if (CollectionUtils.isNotEmpty(rowKeys)) {
                 Pipeline pipelined = jedis.pipelined();
                 pipelined.hdel(xidLockKey, branchIdsArray);
@@ -296,6 +378,20 @@ public class RedisLocker extends AbstractLocker {
         }
     }
 
+    /**
+     * Release the row locks in one atomic call, the script reads the row keys of the branches from the xid lock key
+     * itself, so they can not change between the read and the release
+     */
+    private boolean releaseLockByLua(Jedis jedis, String xid, String xidLockKey, String[] branchIds) {
+        List<String> keys = Collections.singletonList(xidLockKey);
+        List<String> args = new ArrayList<>(branchIds.length + 2);
+        args.add(xid);
+        args.add(ROW_LOCK_KEY_SPLIT_CHAR);
+        args.addAll(Arrays.asList(branchIds));
+        long result = (long)evalsha(jedis, RELEASE_LOCK_SHA, RELEASE_LOCK_LUA, keys, args);
+        return SUCCEED == result;
+    }
+
     @Override
     public boolean releaseLock(String xid, Long branchId) {
         List<Long> branchIds = new ArrayList<>();
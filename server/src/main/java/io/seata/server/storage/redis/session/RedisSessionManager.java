@@ -17,12 +17,18 @@ package io.seata.server.storage.redis.session;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+import io.seata.common.DefaultValues;
 import io.seata.common.exception.StoreException;
 import io.seata.common.executor.Initialize;
 import io.seata.common.loader.LoadLevel;
 import io.seata.common.loader.Scope;
 import io.seata.common.util.StringUtils;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchStatus;
 import io.seata.core.model.GlobalStatus;
@@ -52,6 +58,17 @@ public class RedisSessionManager extends AbstractSessionManager
      */
     protected String taskName;
 
+    /**
+     * The max pages read by one scan.
+     */
+    protected int scanMaxPages = ConfigurationFactory.getInstance().getInt(ConfigurationKeys.RECOVERY_SCAN_MAX_PAGES,
+        DefaultValues.DEFAULT_RECOVERY_SCAN_MAX_PAGES);
+
+    /**
+     * The index the next scan of the status list resumes from.
+     */
+    private final Map<GlobalStatus, Long> scanCursors = new ConcurrentHashMap<>();
+
     /**
      * Instantiates a new Data base session manager.
      */
@@ -163,20 +180,51 @@ public class RedisSessionManager extends AbstractSessionManager
 
     @Override
     public Collection<GlobalSession> allSessions() {
+        return findGlobalSessions(new SessionCondition(taskStatuses()));
+    }
+
+    @Override
+    public void scanSessions(GlobalStatus[] statuses, boolean withBranchSessions,
+                             Consumer<Collection<GlobalSession>> pageHandler) {
+        if (!(transactionStoreManager instanceof RedisTransactionStoreManager)) {
+            super.scanSessions(statuses, withBranchSessions, pageHandler);
+            return;
+        }
+        RedisTransactionStoreManager storeManager = (RedisTransactionStoreManager)transactionStoreManager;
+        int limit = storeManager.getLogQueryLimit();
+        for (GlobalStatus status : statuses != null ? statuses : taskStatuses()) {
+            // the removals shift the list while it is paged, the sessions skipped so are read by the next scan
+            long start = scanCursors.getOrDefault(status, 0L);
+            for (int page = 0; page < scanMaxPages; page++) {
+                List<String> xids = storeManager.readXids(status, start, limit);
+                start = xids.size() < limit ? 0L : start + limit;
+                List<GlobalSession> globalSessions = storeManager.readSession(xids, withBranchSessions);
+                if (!globalSessions.isEmpty()) {
+                    pageHandler.accept(globalSessions);
+                }
+                if (start == 0L) {
+                    break;
+                }
+            }
+            scanCursors.put(status, start);
+        }
+    }
+
+    private GlobalStatus[] taskStatuses() {
         // get by taskName
         if (SessionHolder.ASYNC_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(GlobalStatus.AsyncCommitting));
+            return new GlobalStatus[] {GlobalStatus.AsyncCommitting};
         } else if (SessionHolder.RETRY_COMMITTING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing}));
+            return new GlobalStatus[] {GlobalStatus.CommitRetrying, GlobalStatus.Committing};
         } else if (SessionHolder.RETRY_ROLLBACKING_SESSION_MANAGER_NAME.equalsIgnoreCase(taskName)) {
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.RollbackRetrying,
-                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying}));
+            return new GlobalStatus[] {GlobalStatus.RollbackRetrying,
+                GlobalStatus.Rollbacking, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying};
         } else {
             // all data
-            return findGlobalSessions(new SessionCondition(new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
+            return new GlobalStatus[] {GlobalStatus.UnKnown, GlobalStatus.Begin,
                 GlobalStatus.Committing, GlobalStatus.CommitRetrying, GlobalStatus.Rollbacking,
                 GlobalStatus.RollbackRetrying, GlobalStatus.TimeoutRollbacking, GlobalStatus.TimeoutRollbackRetrying,
-                GlobalStatus.AsyncCommitting}));
+                GlobalStatus.AsyncCommitting};
         }
     }
 
@@ -35,6 +35,8 @@ import io.seata.common.util.StringUtils;
 import io.seata.common.exception.RedisException;
 import io.seata.common.util.BeanUtils;
 import io.seata.common.XID;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.store.BranchTransactionDO;
 import io.seata.core.store.GlobalTransactionDO;
@@ -80,6 +82,13 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
 
     private static final String OK = "OK";
 
+    /**the default page size of the session scans*/
+    private static final int DEFAULT_LOG_QUERY_LIMIT = 100;
+
+    /**the page size of the session scans*/
+    private int logQueryLimit = ConfigurationFactory.getInstance().getInt(ConfigurationKeys.STORE_REDIS_QUERY_LIMIT,
+        DEFAULT_LOG_QUERY_LIMIT);
+
     /**
      * Get the instance.
      */
@@ -366,6 +375,47 @@ public class RedisTransactionStoreManager extends AbstractTransactionStoreManage
         }
     }
 
+    /**
+     * Read a page of the xids of the global status list
+     *
+     * @param status the global status
+     * @param start  the index of the first xid of the page
+     * @param limit  the page size
+     * @return the xids of the page
+     */
+    public List<String> readXids(GlobalStatus status, long start, int limit) {
+        try (Jedis jedis = JedisPooledFactory.getJedisInstance()) {
+            return jedis.lrange(buildGlobalStatus(status.getCode()), start, start + limit - 1);
+        }
+    }
+
+    /**
+     * Read the global sessions of the xids, the sessions removed meanwhile are skipped
+     *
+     * @param xids the xids
+     * @param withBranchSessions the withBranchSessions
+     * @return the global sessions
+     */
+    public List<GlobalSession> readSession(List<String> xids, boolean withBranchSessions) {
+        List<GlobalSession> globalSessions = new ArrayList<>(xids.size());
+        for (String xid : xids) {
+            GlobalSession globalSession = this.readSession(xid, withBranchSessions);
+            if (globalSession != null) {
+                globalSessions.add(globalSession);
+            }
+        }
+        return globalSessions;
+    }
+
+    /**
+     * Get the page size of the session scans
+     *
+     * @return the page size
+     */
+    public int getLogQueryLimit() {
+        return logQueryLimit;
+    }
+
     /**
      * read the global session list by different condition
      * @param sessionCondition the session condition
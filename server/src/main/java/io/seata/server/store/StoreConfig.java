@@ -19,6 +19,9 @@ import io.seata.config.Configuration;
 import io.seata.config.ConfigurationFactory;
 import io.seata.server.storage.file.FlushDiskMode;
 
+import static io.seata.common.DefaultValues.DEFAULT_STORE_FILE_GROUP_COMMIT_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_BATCH;
+import static io.seata.common.DefaultValues.DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_DELAY;
 import static io.seata.core.constants.ConfigurationKeys.STORE_FILE_PREFIX;
 
 
@@ -45,6 +48,16 @@ public class StoreConfig {
      */
     private static final int DEFAULT_WRITE_BUFFER_SIZE = 1024 * 16;
 
+    /**
+     * Default 64mb.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024 * 64;
+
+    /**
+     * Default 10s.
+     */
+    private static final long DEFAULT_SEGMENT_COMPACT_INTERVAL = 10 * 1000L;
+
     public static int getMaxBranchSessionSize() {
         return CONFIGURATION.getInt(STORE_FILE_PREFIX + "maxBranchSessionSize", DEFAULT_MAX_BRANCH_SESSION_SIZE);
     }
@@ -60,4 +73,32 @@ public class StoreConfig {
     public static FlushDiskMode getFlushDiskMode() {
         return FlushDiskMode.findDiskMode(CONFIGURATION.getConfig(STORE_FILE_PREFIX + "flushDiskMode"));
     }
+
+    public static boolean isGroupCommitEnable() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "groupCommitEnable", DEFAULT_STORE_FILE_GROUP_COMMIT_ENABLE);
+    }
+
+    public static int getGroupCommitMaxBatch() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxBatch", DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_BATCH);
+    }
+
+    public static int getGroupCommitMaxDelay() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "groupCommitMaxDelay", DEFAULT_STORE_FILE_GROUP_COMMIT_MAX_DELAY);
+    }
+
+    public static boolean isSegmentLogEnable() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "segmentLogEnable", false);
+    }
+
+    public static int getSegmentSize() {
+        return CONFIGURATION.getInt(STORE_FILE_PREFIX + "segmentSize", DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static long getSegmentCompactInterval() {
+        return CONFIGURATION.getLong(STORE_FILE_PREFIX + "segmentCompactInterval", DEFAULT_SEGMENT_COMPACT_INTERVAL);
+    }
+
+    public static boolean isCompactLockTableEnable() {
+        return CONFIGURATION.getBoolean(STORE_FILE_PREFIX + "compactLockTableEnable", false);
+    }
 }
@@ -15,13 +15,20 @@
  */
 package io.seata.server.transaction.at;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.seata.core.exception.BranchTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.BranchType;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.protocol.transaction.BranchRegisterRequest;
 import io.seata.core.rpc.RemotingServer;
 import io.seata.server.coordinator.AbstractCore;
 import io.seata.server.session.BranchSession;
 import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.session.SessionHolder;
 
 import static io.seata.core.exception.TransactionExceptionCode.LockKeyConflict;
 
@@ -50,6 +57,35 @@ public class ATCore extends AbstractCore {
         }
     }
 
+    @Override
+    public BranchSession[] batchBranchSessionLock(List<BranchRegisterRequest> requests, String clientId)
+        throws TransactionException {
+        BranchSession[] lockedBranchSessions = new BranchSession[requests.size()];
+        List<BranchSession> branchSessions = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BranchRegisterRequest request = requests.get(i);
+            GlobalSession globalSession = SessionHolder.findGlobalSessionForBranchRegister(request.getXid());
+            // the requests of inactive global sessions get their errors from the normal register
+            if (globalSession == null || !globalSession.isActive() || globalSession.getStatus() != GlobalStatus.Begin) {
+                continue;
+            }
+            branchSessions.add(SessionHelper.newBranchByGlobal(globalSession, request.getBranchType(),
+                request.getResourceId(), request.getApplicationData(), request.getLockKey(), clientId));
+            indexes.add(i);
+        }
+        if (branchSessions.isEmpty()) {
+            return lockedBranchSessions;
+        }
+        boolean[] locked = lockManager.acquireLock(branchSessions);
+        for (int i = 0; i < locked.length; i++) {
+            if (locked[i]) {
+                lockedBranchSessions[indexes.get(i)] = branchSessions.get(i);
+            }
+        }
+        return lockedBranchSessions;
+    }
+
     @Override
     protected void branchSessionUnlock(BranchSession branchSession) throws TransactionException {
         branchSession.unlock();
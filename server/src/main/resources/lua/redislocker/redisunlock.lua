@@ -0,0 +1,24 @@
+--
+-- Release the row locks of the branches of a global transaction
+--
+-- KEYS[1]: the global lock key of the xid
+-- ARGV[1]: the xid, ARGV[2]: the separator of the row lock keys, ARGV[3..n]: the branch ids
+--
+local xidLockKey = KEYS[1]; local xid = ARGV[1];
+-- match the row lock keys between the separators, the separator escaped as a plain character
+local rowKeyPattern = '[^' .. (string.gsub(ARGV[2], '%p', '%%%0')) .. ']+';
+for i = 3, #ARGV do
+    -- the row lock keys held by the branch, read in the same call as they are released
+    local rowKeys = redis.call('HGET', xidLockKey, ARGV[i]);
+    if (rowKeys) then
+        for rowKey in string.gmatch(rowKeys, rowKeyPattern) do
+            -- delete the row lock only if it is still held by the xid
+            if (redis.call('HGET', rowKey, 'xid') == xid)
+                then redis.call('DEL', rowKey);
+            end
+        end
+        redis.call('HDEL', xidLockKey, ARGV[i]);
+    end
+end
+--  return success
+return 1
@@ -0,0 +1,131 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Parallel branch dispatcher test.
+ */
+public class ParallelBranchDispatcherTest {
+
+    private final ParallelBranchDispatcher dispatcher = new ParallelBranchDispatcher(4);
+
+    @AfterEach
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testDispatchCommitConcurrently() throws Exception {
+        List<BranchSession> branches = branches("r1", "r2", "r3", "r4");
+        // every call waits for the others, so it only finishes if all of them run at the same time
+        CountDownLatch latch = new CountDownLatch(branches.size());
+        Map<Long, CompletableFuture<BranchStatus>> futures = dispatcher.dispatchCommit(new GlobalSession(), branches,
+            (globalSession, branchSession) -> {
+                latch.countDown();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new TransactionException(e);
+                }
+                return BranchStatus.PhaseTwo_Committed;
+            });
+        for (BranchSession branchSession : branches) {
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed,
+                ParallelBranchDispatcher.await(futures.get(branchSession.getBranchId())));
+        }
+        Assertions.assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    public void testDispatchCommitException() {
+        List<BranchSession> branches = branches("r1", "r2");
+        Map<Long, CompletableFuture<BranchStatus>> futures = dispatcher.dispatchCommit(new GlobalSession(), branches,
+            (globalSession, branchSession) -> {
+                throw new TransactionException("mock");
+            });
+        Assertions.assertThrows(TransactionException.class,
+            () -> ParallelBranchDispatcher.await(futures.get(branches.get(0).getBranchId())));
+    }
+
+    @Test
+    public void testDispatchRollbackStopsInSameResource() throws Exception {
+        List<BranchSession> branches = branches("r1", "r2", "r1", "r2");
+        List<Long> rollbacked = new ArrayList<>();
+        Map<Long, CompletableFuture<BranchStatus>> futures = dispatcher.dispatchRollback(new GlobalSession(), branches,
+            (globalSession, branchSession) -> {
+                synchronized (rollbacked) {
+                    rollbacked.add(branchSession.getBranchId());
+                }
+                return "r1".equals(branchSession.getResourceId()) ? BranchStatus.PhaseTwo_RollbackFailed_Retryable
+                    : BranchStatus.PhaseTwo_Rollbacked;
+            });
+        Assertions.assertEquals(BranchStatus.PhaseTwo_RollbackFailed_Retryable,
+            ParallelBranchDispatcher.await(futures.get(1L)));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, ParallelBranchDispatcher.await(futures.get(2L)));
+        Assertions.assertNull(ParallelBranchDispatcher.await(futures.get(3L)));
+        Assertions.assertEquals(BranchStatus.PhaseTwo_Rollbacked, ParallelBranchDispatcher.await(futures.get(4L)));
+        Assertions.assertEquals(3, rollbacked.size());
+        Assertions.assertFalse(rollbacked.contains(3L));
+    }
+
+    @Test
+    public void testShutdownWaitsForDispatchedBranches() throws Exception {
+        List<BranchSession> branches = branches("r1", "r2");
+        CountDownLatch started = new CountDownLatch(branches.size());
+        Map<Long, CompletableFuture<BranchStatus>> futures = dispatcher.dispatchCommit(new GlobalSession(), branches,
+            (globalSession, branchSession) -> {
+                started.countDown();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    throw new TransactionException(e);
+                }
+                return BranchStatus.PhaseTwo_Committed;
+            });
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        Assertions.assertTrue(dispatcher.awaitTermination(5000));
+        for (CompletableFuture<BranchStatus> future : futures.values()) {
+            Assertions.assertEquals(BranchStatus.PhaseTwo_Committed, future.getNow(null));
+        }
+    }
+
+    private static List<BranchSession> branches(String... resourceIds) {
+        List<BranchSession> branches = new ArrayList<>(resourceIds.length);
+        for (int i = 0; i < resourceIds.length; i++) {
+            BranchSession branchSession = new BranchSession();
+            branchSession.setBranchId(i + 1);
+            branchSession.setResourceId(resourceIds[i]);
+            branches.add(branchSession);
+        }
+        return branches;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.coordinator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.server.session.GlobalSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Sharded session executor test.
+ */
+public class ShardedSessionExecutorTest {
+
+    private ShardedSessionExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new ShardedSessionExecutor("ShardTest", 4, 3);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testPartitionByTransactionId() {
+        List<List<GlobalSession>> shards = executor.partition(sessions(8));
+        Assertions.assertEquals(4, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            Assertions.assertEquals(2, shards.get(i).size());
+            for (GlobalSession session : shards.get(i)) {
+                Assertions.assertEquals(i, executor.shardOf(session.getTransactionId()));
+            }
+        }
+        Assertions.assertTrue(executor.shardOf(-5L) >= 0);
+    }
+
+    @Test
+    public void testShardMaxPending() {
+        List<List<GlobalSession>> shards = executor.partition(sessions(20));
+        for (List<GlobalSession> shard : shards) {
+            Assertions.assertEquals(3, shard.size());
+        }
+    }
+
+    @Test
+    public void testDeferredSessionsComeFirst() {
+        List<GlobalSession> sessions = sessions(20);
+        // shard 0 holds the transactions 0, 4, 8, 12 and 16, 3 of them per round
+        Assertions.assertEquals(Arrays.asList(0L, 4L, 8L), transactionIds(executor.partition(sessions).get(0)));
+        Assertions.assertEquals(Arrays.asList(12L, 16L, 0L), transactionIds(executor.partition(sessions).get(0)));
+        Assertions.assertEquals(Arrays.asList(4L, 8L, 12L), transactionIds(executor.partition(sessions).get(0)));
+    }
+
+    @Test
+    public void testForEach() {
+        AtomicInteger handled = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        executor.forEach(sessions(12), globalSession -> {
+            threads.add(Thread.currentThread().getName());
+            handled.incrementAndGet();
+        });
+        Assertions.assertEquals(12, handled.get());
+        Assertions.assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    public void testForEachFailedShard() {
+        AtomicInteger handled = new AtomicInteger();
+        executor.forEach(sessions(8), globalSession -> {
+            if (executor.shardOf(globalSession.getTransactionId()) == 0) {
+                throw new RuntimeException("mock failure");
+            }
+            handled.incrementAndGet();
+        });
+        Assertions.assertEquals(6, handled.get());
+    }
+
+    private static List<Long> transactionIds(List<GlobalSession> shard) {
+        List<Long> transactionIds = new ArrayList<>(shard.size());
+        for (GlobalSession session : shard) {
+            transactionIds.add(session.getTransactionId());
+        }
+        return transactionIds;
+    }
+
+    private static List<GlobalSession> sessions(int size) {
+        List<GlobalSession> sessions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GlobalSession session = new GlobalSession();
+            session.setTransactionId(i);
+            session.setXid("127.0.0.1:8091:" + i);
+            sessions.add(session);
+        }
+        return sessions;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.storage.file.lock.FileLockManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Lock wait queue test.
+ */
+public class LockWaitQueueTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testRetryAfterRelease() throws Exception {
+        FileLockManager lockManager = new FileLockManager();
+        lockManager.lockWaitQueue = new LockWaitQueue();
+        lockManager.lockWaitTimeout = 5000L;
+        BranchSession holder = newBranchSession(1L, "wait_t:1,2");
+        BranchSession waiter = newBranchSession(2L, "wait_t:2,3");
+        Assertions.assertTrue(lockManager.acquireLock(holder));
+        Assertions.assertFalse(lockManager.acquireLock(waiter));
+
+        // no thread waits for the release
+        CompletableFuture<Boolean> acquired = retryOnRelease(lockManager, waiter);
+        Assertions.assertFalse(acquired.isDone());
+        Assertions.assertTrue(lockManager.lockWaitQueue.hasWaiters());
+
+        Assertions.assertTrue(lockManager.releaseLock(holder));
+        Assertions.assertTrue(acquired.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(lockManager.lockWaitQueue.hasWaiters());
+        Assertions.assertFalse(lockManager.isLockable(holder.getXid(), holder.getResourceId(), "wait_t:3"));
+
+        // the conflict is returned by the last attempt when the row is not released in time
+        lockManager.lockWaitTimeout = 50L;
+        BranchSession late = newBranchSession(3L, "wait_t:3");
+        Assertions.assertFalse(retryOnRelease(lockManager, late).get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(lockManager.lockWaitQueue.hasWaiters());
+        Assertions.assertTrue(lockManager.releaseLock(waiter));
+
+        // the rows released before the waiter is queued are retried at once
+        lockManager.lockWaitTimeout = 5000L;
+        Assertions.assertTrue(retryOnRelease(lockManager, late).get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(lockManager.releaseLock(late));
+        lockManager.lockWaitQueue.destroy();
+    }
+
+    @Test
+    public void testWakeUpInOrder() throws Exception {
+        LockWaitQueue lockWaitQueue = new LockWaitQueue();
+        List<String> rowKeys = Collections.singletonList("row");
+        AtomicBoolean released = new AtomicBoolean();
+        AtomicInteger firstAttempts = new AtomicInteger();
+        AtomicInteger secondAttempts = new AtomicInteger();
+        CompletableFuture<Boolean> first = lockWaitQueue.retry(rowKeys, 5000L, executor, () -> {
+            firstAttempts.incrementAndGet();
+            return released.get();
+        }, acquired -> !acquired, () -> false);
+        CompletableFuture<Boolean> second = lockWaitQueue.retry(rowKeys, 200L, executor, () -> {
+            secondAttempts.incrementAndGet();
+            return false;
+        }, acquired -> !acquired, () -> false);
+
+        // only the head waiter is woken by the release
+        released.set(true);
+        lockWaitQueue.signal(rowKeys);
+        Assertions.assertTrue(first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, firstAttempts.get());
+        Assertions.assertEquals(0, secondAttempts.get());
+
+        // the second one tries once more at its timeout
+        Assertions.assertFalse(second.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, secondAttempts.get());
+        Assertions.assertFalse(lockWaitQueue.hasWaiters());
+        lockWaitQueue.destroy();
+    }
+
+    @Test
+    public void testRetryNotRunByReleasingThread() throws Exception {
+        LockWaitQueue lockWaitQueue = new LockWaitQueue();
+        List<String> rowKeys = Collections.singletonList("row");
+        Thread releasingThread = Thread.currentThread();
+        CompletableFuture<Thread> retried = lockWaitQueue.retry(rowKeys, 5000L, Runnable::run,
+            Thread::currentThread, thread -> false, () -> false);
+
+        lockWaitQueue.signal(rowKeys);
+        Assertions.assertNotSame(releasingThread, retried.get(5, TimeUnit.SECONDS));
+        lockWaitQueue.destroy();
+    }
+
+    private CompletableFuture<Boolean> retryOnRelease(FileLockManager lockManager, BranchSession branchSession) {
+        return lockManager.retryOnRelease(branchSession.getXid(), branchSession.getResourceId(),
+            branchSession.getLockKey(), executor, () -> lockManager.acquireLock(branchSession),
+            acquired -> !acquired);
+    }
+
+    private static BranchSession newBranchSession(long transactionId, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setTransactionId(transactionId);
+        branchSession.setXid("127.0.0.1:8091:" + transactionId);
+        branchSession.setBranchId(transactionId * 10);
+        branchSession.setResourceId("wait_queue_resource");
+        branchSession.setLockKey(lockKey);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+}
@@ -271,6 +271,42 @@ public class DataBaseLockStoreDAOTest {
 
     }
 
+    @Test
+    public void test_batch_acquireLocks() {
+        // branch 1 and 2 of xid 1 share the row 2, branch 3 of xid 2 conflicts on the row 1, branch 4 of xid 2 is free
+        List<List<LockDO>> lockDOGroups = new ArrayList<>();
+        lockDOGroups.add(newLockDOs("batch-1:1", 1L, 1L, "1", "2"));
+        lockDOGroups.add(newLockDOs("batch-1:1", 1L, 2L, "2", "3"));
+        lockDOGroups.add(newLockDOs("batch-2:2", 2L, 3L, "1", "4"));
+        lockDOGroups.add(newLockDOs("batch-2:2", 2L, 4L, "5"));
+
+        boolean[] results = dataBaseLockStoreDAO.acquireLocks(lockDOGroups);
+        Assertions.assertArrayEquals(new boolean[] {true, true, false, true}, results);
+        Assertions.assertFalse(dataBaseLockStoreDAO.isLockable(newLockDOs("batch-2:2", 2L, 5L, "3")));
+        Assertions.assertTrue(dataBaseLockStoreDAO.isLockable(newLockDOs("batch-2:2", 2L, 5L, "4", "5")));
+
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock("batch-1:1", 1L));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock("batch-1:1", 2L));
+        Assertions.assertTrue(dataBaseLockStoreDAO.unLock("batch-2:2", 4L));
+        Assertions.assertTrue(dataBaseLockStoreDAO.isLockable(newLockDOs("batch-3:3", 3L, 6L, "1", "2", "3", "5")));
+    }
+
+    private static List<LockDO> newLockDOs(String xid, long transactionId, long branchId, String... pks) {
+        List<LockDO> lockDOs = new ArrayList<>();
+        for (String pk : pks) {
+            LockDO lock = new LockDO();
+            lock.setResourceId("batch");
+            lock.setXid(xid);
+            lock.setTransactionId(transactionId);
+            lock.setBranchId(branchId);
+            lock.setRowKey("batch-" + pk);
+            lock.setPk(pk);
+            lock.setTableName("t");
+            lockDOs.add(lock);
+        }
+        return lockDOs;
+    }
+
     @AfterAll
     public static void clearStoreDB(){
         FileUtils.deleteRecursive("db_store", true);
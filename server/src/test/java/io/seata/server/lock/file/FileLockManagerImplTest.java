@@ -25,6 +25,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 
@@ -71,6 +73,33 @@ public class FileLockManagerImplTest {
         Assertions.assertTrue(resultOne);
     }
 
+    /**
+     * Batch acquire lock in order test, the first branch of the batch wins the row over the later ones.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void batchAcquireLockInOrderTest() throws Exception {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            long tid = UUIDGenerator.generateUUID();
+            BranchSession branchSession = new BranchSession();
+            branchSession.setXid(XID.generateXID(tid));
+            branchSession.setBranchId(i + 1);
+            branchSession.setTransactionId(tid);
+            branchSession.setResourceId(resourceId);
+            branchSession.setLockKey("tb_1:99");
+            branchSession.setBranchType(BranchType.AT);
+            branchSessions.add(branchSession);
+        }
+        boolean[] results = lockManager.acquireLock(branchSessions);
+        Assertions.assertTrue(results[0]);
+        for (int i = 1; i < results.length; i++) {
+            Assertions.assertFalse(results[i]);
+        }
+        Assertions.assertTrue(lockManager.releaseLock(branchSessions));
+    }
+
     /**
      * Branch session provider object [ ] [ ].
      *
@@ -0,0 +1,139 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.lock.file;
+
+import io.seata.core.lock.Locker;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.storage.file.lock.CompactFileLocker;
+import io.seata.server.storage.file.lock.FileLockManager;
+import io.seata.server.storage.file.lock.RowLockTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Row lock table test.
+ */
+public class RowLockTableTest {
+
+    private static final int ROWS = 100000;
+
+    @Test
+    public void testLockAndUnlock() {
+        RowLockTable table = new RowLockTable();
+        int tableId = table.tableId("jdbc:mysql://127.0.0.1/seata", "t_order");
+        Assertions.assertEquals(tableId, table.tableId("jdbc:mysql://127.0.0.1/seata", "t_order"));
+        Assertions.assertNotEquals(tableId, table.tableId("jdbc:mysql://127.0.0.1/seata", "t_stock"));
+
+        for (int i = 0; i < ROWS; i++) {
+            Assertions.assertEquals(RowLockTable.NO_OWNER, table.lock(RowLockTable.rowKey(tableId, "pk" + i), i + 1));
+        }
+        Assertions.assertEquals(ROWS, table.size());
+        Assertions.assertEquals(1L, table.lock(RowLockTable.rowKey(tableId, "pk0"), 2L));
+        Assertions.assertFalse(table.unlock(RowLockTable.rowKey(tableId, "pk0"), 2L));
+
+        // remove every other row, the rest must still be found after the entries are shifted back
+        for (int i = 0; i < ROWS; i += 2) {
+            Assertions.assertTrue(table.unlock(RowLockTable.rowKey(tableId, "pk" + i), i + 1));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            long expected = i % 2 == 0 ? RowLockTable.NO_OWNER : i + 1;
+            Assertions.assertEquals(expected, table.owner(RowLockTable.rowKey(tableId, "pk" + i)));
+        }
+        Assertions.assertEquals(ROWS / 2, table.size());
+        table.clear();
+        Assertions.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testMemoryFootprint() {
+        RowLockTable table = new RowLockTable();
+        int tableId = table.tableId("jdbc:mysql://127.0.0.1/seata", "t_order");
+        for (int i = 0; i < ROWS; i++) {
+            table.lock(RowLockTable.rowKey(tableId, "pk" + i), 1L);
+        }
+        // 16 bytes per slot with a load factor between 0.375 and 0.75
+        long bytesPerLock = table.slotBytes() / ROWS;
+        Assertions.assertTrue(bytesPerLock <= 16 * 3, "bytes per lock: " + bytesPerLock);
+    }
+
+    @Test
+    public void testSegmentsReclaimed() {
+        RowLockTable table = new RowLockTable();
+        Assertions.assertEquals(0L, table.slotBytes());
+        int tableId = table.tableId("jdbc:mysql://127.0.0.1/seata", "t_order");
+        for (int i = 0; i < ROWS; i++) {
+            table.lock(RowLockTable.rowKey(tableId, "pk" + i), 1L);
+        }
+        long peakBytes = table.slotBytes();
+
+        // keep 1% of the rows, the segments shrink with them
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 100 != 0) {
+                table.unlock(RowLockTable.rowKey(tableId, "pk" + i), 1L);
+            }
+        }
+        Assertions.assertEquals(ROWS / 100, table.size());
+        Assertions.assertTrue(table.slotBytes() * 10 < peakBytes, "bytes after release: " + table.slotBytes());
+        for (int i = 0; i < ROWS; i += 100) {
+            Assertions.assertEquals(1L, table.owner(RowLockTable.rowKey(tableId, "pk" + i)));
+        }
+
+        // the empty segments free their arrays
+        for (int i = 0; i < ROWS; i += 100) {
+            Assertions.assertTrue(table.unlock(RowLockTable.rowKey(tableId, "pk" + i), 1L));
+        }
+        Assertions.assertEquals(0, table.size());
+        Assertions.assertEquals(0L, table.slotBytes());
+    }
+
+    @Test
+    public void testCompactFileLocker() throws Exception {
+        FileLockManager lockManager = new FileLockManager() {
+            @Override
+            public Locker getLocker(BranchSession branchSession) {
+                return new CompactFileLocker(branchSession);
+            }
+        };
+        BranchSession branch1 = newBranchSession(1L, "t:1,2");
+        BranchSession branch2 = newBranchSession(2L, "t:2,3");
+        Assertions.assertTrue(lockManager.acquireLock(branch1));
+        Assertions.assertEquals(2, branch1.getRowLockKeys().length);
+        Assertions.assertFalse(lockManager.acquireLock(branch2));
+        Assertions.assertNull(branch2.getRowLockKeys());
+        Assertions.assertFalse(lockManager.isLockable(branch2.getXid(), branch2.getResourceId(), "t:3,2"));
+
+        Assertions.assertTrue(lockManager.releaseLock(branch1));
+        Assertions.assertNull(branch1.getRowLockKeys());
+        Assertions.assertTrue(lockManager.isLockable(branch2.getXid(), branch2.getResourceId(), "t:3,2"));
+        Assertions.assertTrue(lockManager.acquireLock(branch2));
+        Assertions.assertTrue(lockManager.releaseLock(branch2));
+        // the compact locker never creates the lock holder of the file locker
+        Assertions.assertFalse(branch1.hasLockHolder());
+        Assertions.assertFalse(branch2.hasLockHolder());
+    }
+
+    private static BranchSession newBranchSession(long transactionId, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setTransactionId(transactionId);
+        branchSession.setXid("127.0.0.1:8091:" + transactionId);
+        branchSession.setBranchId(transactionId * 10);
+        branchSession.setResourceId("compact_locker_resource");
+        branchSession.setLockKey(lockKey);
+        branchSession.setBranchType(BranchType.AT);
+        return branchSession;
+    }
+}
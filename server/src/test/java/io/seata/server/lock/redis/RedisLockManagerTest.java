@@ -17,6 +17,9 @@
 package io.seata.server.lock.redis;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 import io.seata.core.exception.TransactionException;
 import io.seata.core.lock.Locker;
 import io.seata.server.lock.LockManager;
@@ -93,6 +96,43 @@ public class RedisLockManagerTest {
             branchSession2.getLockKey()));
     }
 
+    @Test
+    public void acquireLockConflictAndRelease() throws TransactionException {
+        BranchSession branchSession = newBranchSession("abc-123:1001", 1001, 10011, "t3:1,2");
+        BranchSession conflictBranchSession = newBranchSession("abc-123:1002", 1002, 10021, "t3:2,3");
+        Assertions.assertTrue(lockManager.acquireLock(branchSession));
+        // all or nothing, the row 3 is not locked by the failed branch
+        Assertions.assertFalse(lockManager.acquireLock(conflictBranchSession));
+        Assertions.assertTrue(lockManager.isLockable("abc-123:1003", "abcss", "t3:3"));
+
+        Assertions.assertTrue(lockManager.releaseLock(branchSession));
+        Assertions.assertTrue(lockManager.isLockable("abc-123:1003", "abcss", "t3:1,2"));
+        Assertions.assertTrue(lockManager.acquireLock(conflictBranchSession));
+        Assertions.assertTrue(lockManager.releaseLock(conflictBranchSession));
+    }
+
+    @Test
+    public void batchAcquireLock() throws TransactionException {
+        List<BranchSession> branchSessions = new ArrayList<>();
+        branchSessions.add(newBranchSession("abc-123:2001", 2001, 20011, "t4:1,2"));
+        branchSessions.add(newBranchSession("abc-123:2001", 2001, 20012, "t4:2,3"));
+        branchSessions.add(newBranchSession("abc-123:2002", 2002, 20021, "t4:3,4"));
+        Assertions.assertArrayEquals(new boolean[] {true, true, false}, lockManager.acquireLock(branchSessions));
+
+        Assertions.assertTrue(lockManager.releaseLock(branchSessions));
+        Assertions.assertTrue(lockManager.isLockable("abc-123:2003", "abcss", "t4:1,2,3,4"));
+    }
+
+    private static BranchSession newBranchSession(String xid, long transactionId, long branchId, String lockKey) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(xid);
+        branchSession.setTransactionId(transactionId);
+        branchSession.setBranchId(branchId);
+        branchSession.setResourceId("abcss");
+        branchSession.setLockKey(lockKey);
+        return branchSession;
+    }
+
     @AfterAll
     public static void after() {
         server.stop();
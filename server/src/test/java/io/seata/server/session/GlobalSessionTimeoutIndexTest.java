@@ -0,0 +1,88 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Global session timeout index test.
+ */
+public class GlobalSessionTimeoutIndexTest {
+
+    private final GlobalSessionTimeoutIndex index = GlobalSessionTimeoutIndex.getInstance();
+
+    @AfterEach
+    public void tearDown() {
+        index.clear();
+    }
+
+    @Test
+    public void testForEachExpired() {
+        long now = System.currentTimeMillis();
+        GlobalSession expired1 = newSession(now - 2000, 1000);
+        GlobalSession expired2 = newSession(now - 3000, 1000);
+        GlobalSession alive = newSession(now, 60000);
+        index.add(expired1);
+        index.add(expired2);
+        index.add(alive);
+
+        List<String> expiredXids = new ArrayList<>();
+        index.forEachExpired(now, expiredXids::add);
+        Assertions.assertEquals(2, expiredXids.size());
+        Assertions.assertEquals(expired2.getXid(), expiredXids.get(0));
+        Assertions.assertEquals(expired1.getXid(), expiredXids.get(1));
+        Assertions.assertEquals(1, index.size());
+        index.forEachExpired(now, xid -> Assertions.fail("visited again: " + xid));
+    }
+
+    @Test
+    public void testKeepUnhandledExpired() {
+        long now = System.currentTimeMillis();
+        GlobalSession handled = newSession(now - 2000, 1000);
+        GlobalSession unhandled = newSession(now - 3000, 1000);
+        index.add(handled);
+        index.add(unhandled);
+
+        index.forEachExpired(now, xid -> !unhandled.getXid().equals(xid));
+        Assertions.assertEquals(1, index.size());
+        List<String> expiredXids = new ArrayList<>();
+        index.forEachExpired(now, expiredXids::add);
+        Assertions.assertEquals(Collections.singletonList(unhandled.getXid()), expiredXids);
+        Assertions.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testRemove() {
+        long now = System.currentTimeMillis();
+        GlobalSession session = newSession(now - 2000, 1000);
+        index.add(session);
+        index.remove(session);
+        Assertions.assertEquals(0, index.size());
+        index.forEachExpired(now, xid -> Assertions.fail("removed session visited: " + xid));
+    }
+
+    private static GlobalSession newSession(long beginTime, int timeout) {
+        GlobalSession session = new GlobalSession("demo-app", "my_test_tx_group", "test", timeout);
+        session.setBeginTime(beginTime);
+        return session;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session;
+
+import io.seata.common.XID;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.GlobalStatus;
+import io.seata.core.store.StoreMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Transaction id leases test.
+ */
+public class TransactionIdLeasesTest {
+
+    @BeforeAll
+    public static void initSessionManager() {
+        XID.setIpAddress("127.0.0.1");
+        XID.setPort(8091);
+        SessionHolder.init(null);
+    }
+
+    @AfterAll
+    public static void destroySessionManager() {
+        SessionHolder.destroy();
+    }
+
+    @Test
+    public void testBeginAndEnd() throws Exception {
+        TransactionIdLeases leases = new TransactionIdLeases(10000L);
+        TransactionIdLeases.Lease lease = leases.grant("app", "group", 2, 30000);
+        Assertions.assertEquals(2, lease.getSize());
+        Assertions.assertEquals(1, leases.size());
+
+        String first = XID.generateXID(lease.getStartTransactionId());
+        String second = XID.generateXID(lease.getStartTransactionId() + 1);
+        GlobalSession globalSession = leases.begin(first);
+        try {
+            Assertions.assertNotNull(globalSession);
+            Assertions.assertEquals(first, globalSession.getXid());
+            Assertions.assertEquals(GlobalStatus.Begin, globalSession.getStatus());
+            Assertions.assertEquals(TransactionIdLeases.LAZY_BEGIN_TRANSACTION_NAME,
+                globalSession.getTransactionName());
+            Assertions.assertEquals(30000, globalSession.getTimeout());
+            // begun once only
+            Assertions.assertEquals(first, leases.begin(first).getXid());
+            Assertions.assertFalse(leases.end(first));
+        } finally {
+            globalSession.end();
+        }
+
+        // ended before any branch registered, it can't be begun anymore
+        Assertions.assertTrue(leases.end(second));
+        Assertions.assertNull(leases.begin(second));
+
+        // not leased
+        Assertions.assertNull(leases.begin(XID.generateXID(lease.getStartTransactionId() + 2)));
+        Assertions.assertNull(leases.begin("127.0.0.2:8091:" + lease.getStartTransactionId()));
+        Assertions.assertTrue(leases.end(XID.generateXID(lease.getStartTransactionId() + 2)));
+    }
+
+    @Test
+    public void testGrantRefusedUnlessSingleTC() throws TransactionException {
+        TransactionIdLeases leases = new TransactionIdLeases(10000L, false);
+        Assertions.assertThrows(TransactionException.class, () -> leases.grant("app", "group", 2, 30000));
+        // the lazy begin is not enabled by the configuration
+        leases.init(StoreMode.FILE);
+        Assertions.assertFalse(leases.isEnabled());
+        leases.init(StoreMode.DB);
+        Assertions.assertFalse(leases.isEnabled());
+        Assertions.assertFalse(TransactionIdLeases.getInstance().isEnabled());
+
+        leases.init(true, StoreMode.FILE);
+        Assertions.assertTrue(leases.isEnabled());
+        Assertions.assertEquals(2, leases.grant("app", "group", 2, 30000).getSize());
+        // the xids leased by a node of a TC cluster could reach the other nodes
+        leases.init(true, StoreMode.DB);
+        Assertions.assertFalse(leases.isEnabled());
+        leases.init(true, StoreMode.REDIS);
+        Assertions.assertFalse(leases.isEnabled());
+    }
+
+    @Test
+    public void testGrantClampsSize() throws TransactionException {
+        TransactionIdLeases leases = new TransactionIdLeases(10000L);
+        Assertions.assertEquals(TransactionIdLeases.MAX_LEASE_SIZE,
+            leases.grant("app", "group", Integer.MAX_VALUE, 30000).getSize());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.session.db;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import io.seata.common.XID;
+import io.seata.common.util.IOUtil;
+import io.seata.core.exception.GlobalTransactionException;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.exception.TransactionExceptionCode;
+import io.seata.core.model.BranchType;
+import io.seata.core.model.GlobalStatus;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.session.SessionHelper;
+import io.seata.server.storage.db.session.DataBaseSessionCache;
+import io.seata.server.storage.db.session.DataBaseSessionManager;
+import io.seata.server.storage.db.store.DataBaseTransactionStoreManager;
+import io.seata.server.storage.db.store.LogStoreDataBaseDAO;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Data base session cache test.
+ */
+public class DataBaseSessionCacheTest {
+
+    private static BasicDataSource dataSource;
+
+    private static DataBaseTransactionStoreManager transactionStoreManager;
+
+    @BeforeAll
+    public static void start() throws Exception {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:./db_store/db_session_cache");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+
+        LogStoreDataBaseDAO logStoreDataBaseDAO = new LogStoreDataBaseDAO(dataSource);
+        logStoreDataBaseDAO.setDbType("h2");
+        logStoreDataBaseDAO.setGlobalTable("global_table");
+        logStoreDataBaseDAO.setBranchTable("branch_table");
+
+        transactionStoreManager = DataBaseTransactionStoreManager.getInstance();
+        transactionStoreManager.setLogQueryLimit(100);
+        transactionStoreManager.setLogStore(logStoreDataBaseDAO);
+
+        Connection conn = dataSource.getConnection();
+        try {
+            Statement s = conn.createStatement();
+            s.execute("drop table if exists global_table");
+            s.execute("CREATE TABLE global_table ( xid varchar(96),  transaction_id long , STATUS int,  application_id varchar(32), transaction_service_group varchar(32) ,transaction_name varchar(128) ,timeout int,  begin_time long, application_data varchar(500), gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+            s.execute("drop table if exists branch_table");
+            s.execute("CREATE TABLE branch_table ( xid varchar(96),  transaction_id long , branch_id long, resource_group_id varchar(32), resource_id varchar(32) ,lock_key varchar(64) ,branch_type varchar(32) ,  status int , client_id varchar(128),  application_data varchar(500),  gmt_create TIMESTAMP(6) ,gmt_modified TIMESTAMP(6) ) ");
+        } finally {
+            IOUtil.close(conn);
+        }
+        logStoreDataBaseDAO.initTransactionNameSize();
+    }
+
+    @AfterAll
+    public static void stop() throws Exception {
+        dataSource.close();
+    }
+
+    @Test
+    public void test_readThrough() throws Exception {
+        DataBaseSessionManager sessionManager = newSessionManager(new DataBaseSessionCache(100, 60000));
+        GlobalSession session = newGlobalSession(XID.generateXID(1001L));
+        sessionManager.addGlobalSession(session);
+
+        // the lookups of the branch registrations are served from memory
+        Assertions.assertSame(session, sessionManager.findGlobalSessionForBranchRegister(session.getXid()));
+        deleteGlobalRow(session.getXid());
+        Assertions.assertSame(session, sessionManager.findGlobalSessionForBranchRegister(session.getXid()));
+
+        // the other lookups always read the db, and drop the sessions which are gone
+        Assertions.assertNull(sessionManager.findGlobalSession(session.getXid(), false));
+        Assertions.assertNull(sessionManager.findGlobalSessionForBranchRegister(session.getXid()));
+    }
+
+    @Test
+    public void test_branchNotAddedToStaleSession() throws Exception {
+        DataBaseSessionCache sessionCache = new DataBaseSessionCache(100, 60000);
+        DataBaseSessionManager sessionManager = newSessionManager(sessionCache);
+        GlobalSession session = newGlobalSession(XID.generateXID(1005L));
+        sessionManager.addGlobalSession(session);
+        session.addSessionLifecycleListener(sessionManager);
+        session.addBranch(SessionHelper.newBranchByGlobal(session, BranchType.AT, "res", "t:1", "c"));
+
+        // another node began to roll back, the cached session is still begun
+        updateGlobalStatus(session.getXid(), GlobalStatus.Rollbacking);
+        GlobalSession cached = sessionManager.findGlobalSessionForBranchRegister(session.getXid());
+        Assertions.assertSame(session, cached);
+        Assertions.assertEquals(GlobalStatus.Begin, cached.getStatus());
+        BranchSession late = SessionHelper.newBranchByGlobal(cached, BranchType.AT, "res", "t:2", "c");
+        GlobalTransactionException e = Assertions.assertThrows(GlobalTransactionException.class,
+            () -> cached.addBranch(late));
+        Assertions.assertEquals(TransactionExceptionCode.GlobalTransactionNotActive, e.getCode());
+        Assertions.assertNull(cached.getBranch(late.getBranchId()));
+        Assertions.assertNull(sessionCache.get(session.getXid()));
+
+        // the status is read from the db again
+        GlobalSession found = sessionManager.findGlobalSession(session.getXid(), true);
+        Assertions.assertEquals(GlobalStatus.Rollbacking, found.getStatus());
+        Assertions.assertEquals(1, found.getBranchSessions().size());
+        Assertions.assertEquals(GlobalStatus.Rollbacking,
+            sessionManager.findGlobalSessionForBranchRegister(session.getXid()).getStatus());
+        sessionManager.removeBranchSession(found, found.getBranchSessions().get(0));
+        sessionManager.removeGlobalSession(found);
+    }
+
+    @Test
+    public void test_writeThrough() throws Exception {
+        DataBaseSessionCache sessionCache = new DataBaseSessionCache(100, 60000);
+        DataBaseSessionManager sessionManager = newSessionManager(sessionCache);
+        GlobalSession session = newGlobalSession(XID.generateXID(1002L));
+        sessionManager.addGlobalSession(session);
+
+        GlobalSession found = sessionManager.findGlobalSession(session.getXid(), true);
+        Assertions.assertNotSame(session, found);
+        BranchSession branchSession = SessionHelper.newBranchByGlobal(found, BranchType.AT, "res", "t:1", "c");
+        sessionManager.lockAndExecute(found, () -> {
+            found.addSessionLifecycleListener(sessionManager);
+            found.addBranch(branchSession);
+            return null;
+        });
+        sessionManager.updateGlobalSessionStatus(found, GlobalStatus.Committing);
+
+        GlobalSession cached = sessionManager.findGlobalSessionForBranchRegister(session.getXid());
+        Assertions.assertSame(found, cached);
+        Assertions.assertEquals(GlobalStatus.Committing, cached.getStatus());
+        Assertions.assertEquals(1, sessionManager.findGlobalSession(session.getXid(), true).getBranchSessions().size());
+
+        sessionManager.removeGlobalSession(cached);
+        Assertions.assertEquals(0, sessionCache.size());
+        Assertions.assertNull(sessionManager.findGlobalSessionForBranchRegister(session.getXid()));
+    }
+
+    @Test
+    public void test_ownershipAndLease() throws Exception {
+        DataBaseSessionCache sessionCache = new DataBaseSessionCache(100, 1);
+        DataBaseSessionManager sessionManager = newSessionManager(sessionCache);
+
+        // the sessions begun on other nodes are always read from the db
+        GlobalSession other = newGlobalSession("192.0.2.1:8091:1003");
+        sessionManager.addGlobalSession(other);
+        Assertions.assertFalse(sessionCache.isOwner(other.getXid()));
+        Assertions.assertEquals(0, sessionCache.size());
+        Assertions.assertNotSame(other, sessionManager.findGlobalSessionForBranchRegister(other.getXid()));
+
+        // the owned sessions are read again once their lease expires
+        GlobalSession session = newGlobalSession(XID.generateXID(1004L));
+        sessionManager.addGlobalSession(session);
+        Thread.sleep(5);
+        Assertions.assertNull(sessionCache.get(session.getXid()));
+        GlobalSession found = sessionManager.findGlobalSessionForBranchRegister(session.getXid());
+        Assertions.assertNotSame(session, found);
+        Assertions.assertEquals(session.getXid(), found.getXid());
+
+        sessionManager.removeGlobalSession(other);
+        sessionManager.removeGlobalSession(found);
+    }
+
+    private static DataBaseSessionManager newSessionManager(DataBaseSessionCache sessionCache) {
+        DataBaseSessionManager sessionManager = new DataBaseSessionManager();
+        sessionManager.setTransactionStoreManager(transactionStoreManager);
+        sessionManager.setSessionCache(sessionCache);
+        return sessionManager;
+    }
+
+    private static GlobalSession newGlobalSession(String xid) {
+        GlobalSession session = GlobalSession.createGlobalSession("test", "test", "test123", 100);
+        session.setXid(xid);
+        session.setTransactionId(XID.getTransactionId(xid));
+        session.setBeginTime(System.currentTimeMillis());
+        session.setStatus(GlobalStatus.Begin);
+        return session;
+    }
+
+    private static void updateGlobalStatus(String xid, GlobalStatus status) throws Exception {
+        Connection conn = dataSource.getConnection();
+        try {
+            conn.createStatement().execute("update global_table set status = " + status.getCode() + " where xid= '"
+                + xid + "'");
+        } finally {
+            IOUtil.close(conn);
+        }
+    }
+
+    private static void deleteGlobalRow(String xid) throws Exception {
+        Connection conn = dataSource.getConnection();
+        try {
+            conn.createStatement().execute("delete from global_table where xid= '" + xid + "'");
+        } finally {
+            IOUtil.close(conn);
+        }
+    }
+}
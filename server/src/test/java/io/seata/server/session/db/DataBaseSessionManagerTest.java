@@ -40,6 +40,9 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * The type Data base session manager test.
@@ -595,6 +598,54 @@ public class DataBaseSessionManagerTest {
         }
     }
 
-
-
+    @Test
+    public void test_scanSessions() throws Exception {
+        DataBaseTransactionStoreManager transactionStoreManager = DataBaseTransactionStoreManager.getInstance();
+        DataBaseSessionManager scanSessionManager = new DataBaseSessionManager();
+        scanSessionManager.setTransactionStoreManager(transactionStoreManager);
+        scanSessionManager.setScanMaxPages(2);
+        Set<String> xids = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            GlobalSession globalSession = GlobalSession.createGlobalSession("test", "test", "test123", 100);
+            globalSession.setTransactionId(246757971L + i);
+            globalSession.setXid(XID.generateXID(globalSession.getTransactionId()));
+            globalSession.setBeginTime(System.currentTimeMillis());
+            globalSession.setStatus(GlobalStatus.Begin);
+            scanSessionManager.addGlobalSession(globalSession);
+            xids.add(globalSession.getXid());
+        }
+        transactionStoreManager.setLogQueryLimit(2);
+        try {
+            List<Integer> pageSizes = new ArrayList<>();
+            List<String> scanned = new ArrayList<>();
+            GlobalStatus[] statuses = new GlobalStatus[] {GlobalStatus.Begin};
+            // the first scan stops after two pages, the second one resumes from the cursor
+            scanSessionManager.scanSessions(statuses, false, page -> {
+                pageSizes.add(page.size());
+                page.forEach(session -> scanned.add(session.getXid()));
+            });
+            Assertions.assertEquals(2, pageSizes.size());
+            scanSessionManager.scanSessions(statuses, false, page -> {
+                pageSizes.add(page.size());
+                page.forEach(session -> scanned.add(session.getXid()));
+            });
+            Assertions.assertEquals(3, pageSizes.size());
+            Assertions.assertEquals(5, scanned.size());
+            Assertions.assertEquals(xids, new HashSet<>(scanned));
+
+            // the short page resets the cursor
+            List<String> rescanned = new ArrayList<>();
+            scanSessionManager.scanSessions(statuses, false, page -> page.forEach(session -> rescanned.add(session.getXid())));
+            Assertions.assertEquals(scanned.subList(0, 4), rescanned);
+        } finally {
+            transactionStoreManager.setLogQueryLimit(100);
+            Connection conn = null;
+            try {
+                conn = dataSource.getConnection();
+                conn.createStatement().execute("delete from global_table where transaction_id between 246757971 and 246757975");
+            } finally {
+                IOUtil.close(conn);
+            }
+        }
+    }
 }
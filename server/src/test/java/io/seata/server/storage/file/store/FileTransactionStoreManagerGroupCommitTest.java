@@ -0,0 +1,140 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.FlushDiskMode;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type File transaction store manager group commit test.
+ */
+public class FileTransactionStoreManagerGroupCommitTest {
+
+    private static final String FLUSH_THREAD_PREFIX = "fileTransactionStore";
+
+    private File dir;
+
+    private FileTransactionStoreManager storeManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("groupCommit").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (storeManager != null) {
+            storeManager.shutdown();
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testConcurrentWritesShareOneForce() throws Exception {
+        storeManager = newStoreManager(500);
+        int writers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                GlobalSession globalSession = newGlobalSession(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession);
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // the first request waits for the others, one force covers all the writes
+        Assertions.assertEquals(1, storeManager.getForceTimes());
+    }
+
+    @Test
+    public void testInterruptedWhileGrouping() throws Exception {
+        Set<Thread> threads = flushThreads();
+        storeManager = newStoreManager(1500);
+        Set<Thread> flushThreads = flushThreads();
+        flushThreads.removeAll(threads);
+        Assertions.assertEquals(1, flushThreads.size());
+        Thread flushThread = flushThreads.iterator().next();
+
+        Thread writer = new Thread(() -> storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(1)));
+        writer.start();
+        Thread.sleep(200);
+        flushThread.interrupt();
+        writer.join();
+        Assertions.assertEquals(1, storeManager.getForceTimes());
+
+        // the flush thread still takes the requests after the interrupt
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(2)));
+        long deadline = System.currentTimeMillis() + 3000;
+        while (storeManager.getForceTimes() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, storeManager.getForceTimes());
+    }
+
+    private FileTransactionStoreManager newStoreManager(int groupCommitMaxDelay) throws Exception {
+        return new FileTransactionStoreManager(dir.getAbsolutePath() + File.separator + "root.data", null,
+            FlushDiskMode.SYNC_MODEL, true, 64, groupCommitMaxDelay);
+    }
+
+    private static Set<Thread> flushThreads() {
+        Set<Thread> threads = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(FLUSH_THREAD_PREFIX)) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
+
+    private static GlobalSession newGlobalSession(long transactionId) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", 6000);
+        globalSession.setTransactionId(transactionId);
+        globalSession.setXid("127.0.0.1:8091:" + transactionId);
+        return globalSession;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.server.storage.file.store;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.BranchType;
+import io.seata.server.session.BranchSession;
+import io.seata.server.session.GlobalSession;
+import io.seata.server.storage.file.TransactionWriteStore;
+import io.seata.server.store.TransactionStoreManager.LogOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Mapped segment transaction store manager test.
+ */
+public class MappedSegmentTransactionStoreManagerTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    private File dir;
+
+    private String fullFileName;
+
+    private final List<MappedSegmentTransactionStoreManager> storeManagers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("segmentStore").toFile();
+        fullFileName = dir.getAbsolutePath() + File.separator + "root";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        for (MappedSegmentTransactionStoreManager storeManager : storeManagers) {
+            storeManager.shutdown();
+        }
+        delete(dir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    @Test
+    public void testReload() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = newStoreManager();
+        GlobalSession globalSession = newGlobalSession(1);
+        BranchSession branchSession = newBranchSession(globalSession, 11);
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, branchSession));
+        branchSession.setStatus(BranchStatus.PhaseOne_Done);
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_UPDATE, branchSession));
+        storeManager.shutdown();
+
+        List<TransactionWriteStore> stores = reload(newStoreManager());
+        Assertions.assertEquals(3, stores.size());
+        Assertions.assertEquals(LogOperation.GLOBAL_ADD, stores.get(0).getOperate());
+        Assertions.assertEquals(globalSession.getXid(), ((GlobalSession)stores.get(0).getSessionRequest()).getXid());
+        Assertions.assertEquals(LogOperation.BRANCH_UPDATE, stores.get(2).getOperate());
+        Assertions.assertEquals(BranchStatus.PhaseOne_Done,
+            ((BranchSession)stores.get(2).getSessionRequest()).getStatus());
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = newStoreManager();
+        GlobalSession live = newGlobalSession(1);
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, live));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, newBranchSession(live, 11)));
+        BranchSession removedBranch = newBranchSession(live, 12);
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, removedBranch));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_REMOVE, removedBranch));
+        for (long i = 2; storeManager.segmentCount() < 3; i++) {
+            GlobalSession ended = newGlobalSession(i);
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, ended));
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.BRANCH_ADD, newBranchSession(ended, i * 10)));
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, ended));
+        }
+
+        // the live records of both sealed segments are copied to one segment
+        Assertions.assertEquals(2, storeManager.compact());
+        Assertions.assertEquals(2, storeManager.segmentCount());
+        // the copied segment holds no dead record, there is nothing left to compact
+        Assertions.assertEquals(0, storeManager.compact());
+        storeManager.shutdown();
+
+        List<TransactionWriteStore> stores = reload(newStoreManager());
+        List<String> xids = new ArrayList<>();
+        List<Long> branchIds = new ArrayList<>();
+        for (TransactionWriteStore store : stores) {
+            if (store.getOperate() == LogOperation.GLOBAL_ADD) {
+                xids.add(((GlobalSession)store.getSessionRequest()).getXid());
+            } else if (store.getOperate() == LogOperation.BRANCH_ADD) {
+                branchIds.add(((BranchSession)store.getSessionRequest()).getBranchId());
+            }
+        }
+        Assertions.assertTrue(xids.contains(live.getXid()));
+        Assertions.assertTrue(branchIds.contains(11L));
+        Assertions.assertFalse(branchIds.contains(12L));
+        // only the records written to the active segment before the compaction are left besides the live records
+        Assertions.assertTrue(stores.size() < 3 * 3);
+    }
+
+    @Test
+    public void testNoCompactBeforeReload() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = newStoreManager();
+        for (long i = 1; storeManager.segmentCount() < 2; i++) {
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(i)));
+        }
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_REMOVE, newGlobalSession(1)));
+        storeManager.shutdown();
+
+        storeManager = newStoreManager();
+        Assertions.assertEquals(0, storeManager.compact());
+        reload(storeManager);
+        Assertions.assertEquals(1, storeManager.compact());
+        storeManager.shutdown();
+    }
+
+    @Test
+    public void testCompactWhileWriting() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = newStoreManager();
+        Set<String> expected = new HashSet<>();
+        for (long i = 1; i <= 10; i++) {
+            GlobalSession globalSession = newGlobalSession(i);
+            Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, globalSession));
+            expected.add(globalSession.getXid());
+        }
+        // every session but the last few is removed again while the segments are compacted
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicBoolean written = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (long i = 1000; i < 3000; i++) {
+                written.compareAndSet(true, storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(i)));
+                if (i >= 1005) {
+                    written.compareAndSet(true,
+                        storeManager.writeSession(LogOperation.GLOBAL_REMOVE, newGlobalSession(i - 5)));
+                }
+            }
+            writing.set(false);
+        });
+        writer.start();
+        int compacted = 0;
+        while (writing.get()) {
+            compacted += storeManager.compact();
+        }
+        writer.join();
+        compacted += storeManager.compact();
+        Assertions.assertTrue(written.get());
+        Assertions.assertTrue(compacted > 0);
+        for (long i = 2995; i < 3000; i++) {
+            expected.add(newGlobalSession(i).getXid());
+        }
+        storeManager.shutdown();
+
+        Set<String> replayed = new HashSet<>();
+        for (TransactionWriteStore store : reload(newStoreManager())) {
+            String xid = ((GlobalSession)store.getSessionRequest()).getXid();
+            if (store.getOperate() == LogOperation.GLOBAL_ADD) {
+                replayed.add(xid);
+            } else if (store.getOperate() == LogOperation.GLOBAL_REMOVE) {
+                replayed.remove(xid);
+            }
+        }
+        Assertions.assertEquals(expected, replayed);
+    }
+
+    @Test
+    public void testReloadStopsAtTornRecord() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = newStoreManager();
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(1)));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(2)));
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(3)));
+        storeManager.shutdown();
+
+        File segment = new File(fullFileName + ".segments").listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            // flip the last data byte of the second record, its length is still intact
+            int second = 8 + raf.readInt();
+            raf.seek(second);
+            int length = raf.readInt();
+            long last = second + 8 + length - 1;
+            raf.seek(last);
+            int b = raf.read();
+            raf.seek(last);
+            raf.write(b ^ 0xFF);
+        }
+
+        storeManager = newStoreManager();
+        List<TransactionWriteStore> stores = reload(storeManager);
+        Assertions.assertEquals(1, stores.size());
+        Assertions.assertEquals("127.0.0.1:8091:1", ((GlobalSession)stores.get(0).getSessionRequest()).getXid());
+        // the new records overwrite the torn one
+        Assertions.assertTrue(storeManager.writeSession(LogOperation.GLOBAL_ADD, newGlobalSession(4)));
+        storeManager.shutdown();
+        Assertions.assertEquals(2, reload(newStoreManager()).size());
+    }
+
+    private MappedSegmentTransactionStoreManager newStoreManager() throws Exception {
+        MappedSegmentTransactionStoreManager storeManager = new MappedSegmentTransactionStoreManager(fullFileName,
+            SEGMENT_SIZE, 0);
+        storeManagers.add(storeManager);
+        return storeManager;
+    }
+
+    private static List<TransactionWriteStore> reload(MappedSegmentTransactionStoreManager storeManager) {
+        List<TransactionWriteStore> stores = new ArrayList<>();
+        while (storeManager.hasRemaining(false)) {
+            stores.addAll(storeManager.readWriteStore(2, false));
+        }
+        return stores;
+    }
+
+    private static GlobalSession newGlobalSession(long transactionId) {
+        GlobalSession globalSession = new GlobalSession("demo-app", "my_test_tx_group", "test", 6000);
+        globalSession.setTransactionId(transactionId);
+        globalSession.setXid("127.0.0.1:8091:" + transactionId);
+        return globalSession;
+    }
+
+    private static BranchSession newBranchSession(GlobalSession globalSession, long branchId) {
+        BranchSession branchSession = new BranchSession();
+        branchSession.setXid(globalSession.getXid());
+        branchSession.setTransactionId(globalSession.getTransactionId());
+        branchSession.setBranchId(branchId);
+        branchSession.setResourceId("my_test_resource");
+        branchSession.setLockKey("t:" + branchId);
+        branchSession.setBranchType(BranchType.AT);
+        branchSession.setClientId("c1");
+        branchSession.setApplicationData("{\"data\":\"test\"}");
+        branchSession.setStatus(BranchStatus.Registered);
+        return branchSession;
+    }
+}
@@ -15,11 +15,16 @@
  */
 package io.seata.saga.engine;
 
+import io.seata.saga.engine.mock.DemoService;
 import io.seata.saga.engine.mock.DemoService.Engineer;
 import io.seata.saga.engine.mock.DemoService.People;
 import io.seata.saga.statelang.domain.DomainConstants;
 import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.StateMachine;
 import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.ChoiceStateImpl;
+import io.seata.saga.statelang.domain.impl.ScriptTaskStateImpl;
+import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
 import io.seata.saga.statelang.parser.JsonParserFactory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -27,8 +32,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,10 +46,16 @@ public class StateMachineTests {
 
     private static StateMachineEngine stateMachineEngine;
 
+    private static StateMachineEngine loopStateMachineEngine;
+
+    private static DemoService demoService;
+
     @BeforeAll
     public static void initApplicationContext() {
         ApplicationContext applicationContext = new ClassPathXmlApplicationContext("classpath:saga/spring/statemachine_engine_test.xml");
         stateMachineEngine = applicationContext.getBean("stateMachineEngine", StateMachineEngine.class);
+        loopStateMachineEngine = applicationContext.getBean("loopStateMachineEngine", StateMachineEngine.class);
+        demoService = applicationContext.getBean("demoService", DemoService.class);
     }
 
     @Test
@@ -182,6 +195,20 @@ public class StateMachineTests {
         Assertions.assertTrue(ExecutionStatus.FA.equals(inst.getStatus()));
     }
 
+    @Test
+    public void testPrecompiledStateMachine() {
+        StateMachineConfig stateMachineConfig = stateMachineEngine.getStateMachineConfig();
+        StateMachine stateMachine = stateMachineConfig.getStateMachineRepository().getStateMachine(
+            "simpleScriptTaskStateMachine", stateMachineConfig.getDefaultTenantId());
+
+        // compiled at registration, before any execution
+        Assertions.assertNotNull(((ScriptTaskStateImpl) stateMachine.getState("ScriptState")).getCompiledScript());
+        Assertions.assertEquals(2, ((ChoiceStateImpl) stateMachine.getState("ChoiceState")).getChoiceEvaluators().size());
+        ServiceTaskStateImpl firstState = (ServiceTaskStateImpl) stateMachine.getState("FirstState");
+        Assertions.assertNotNull(firstState.getInputExpressions());
+        Assertions.assertNotNull(firstState.getOutputExpressions());
+    }
+
     @Test
     public void testSimpleRetryStateMachine() {
 
@@ -361,4 +388,62 @@ public class StateMachineTests {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSimpleStateMachineWithLoop() {
+
+        StateMachineInstance inst = startParallelLoop(10, 0);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+
+        List<Map<String, Object>> loopResult = (List<Map<String, Object>>)inst.getContext().get(DomainConstants.LOOP_RESULT);
+        Assertions.assertNotNull(loopResult);
+        Assertions.assertEquals(10, loopResult.size());
+        // ordered by loop counter rather than by finish order
+        for (int i = 0; i < loopResult.size(); i++) {
+            Map<String, Object> fooResult = (Map<String, Object>)loopResult.get(i).get("fooResult");
+            Assertions.assertEquals(i, fooResult.get("loopCounter"));
+            Assertions.assertEquals(i, fooResult.get("element"));
+        }
+    }
+
+    @Test
+    public void testLoopMaxParallel() {
+
+        demoService.getAndResetMaxRunningFoo();
+
+        // the loop state asks for 3 in parallel, the engine caps it to 2
+        StateMachineInstance inst = startParallelLoop(20, 20);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+        int maxRunning = demoService.getAndResetMaxRunningFoo();
+        Assertions.assertTrue(maxRunning >= 1 && maxRunning <= 2, "max running loop tasks: " + maxRunning);
+    }
+
+    @Test
+    public void testLargeLoopWithCallerRunsPolicy() {
+
+        // the loop pool has no queue, so the next loop tasks keep running on the threads of the finished ones
+        StateMachineInstance inst = startParallelLoop(2000, 0);
+
+        Assertions.assertEquals(ExecutionStatus.SU, inst.getStatus());
+        List<Map<String, Object>> loopResult = (List<Map<String, Object>>)inst.getContext().get(DomainConstants.LOOP_RESULT);
+        Assertions.assertEquals(2000, loopResult.size());
+    }
+
+    private StateMachineInstance startParallelLoop(int size, int sleepTime) {
+
+        List<Integer> loopList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            loopList.add(i);
+        }
+
+        Map<String, Object> paramMap = new HashMap<>(2);
+        paramMap.put("collection", loopList);
+        if (sleepTime > 0) {
+            paramMap.put("sleepTime", sleepTime);
+        }
+
+        return loopStateMachineEngine.start("simpleParallelLoopTestStateMachine", null, paramMap);
+    }
+}
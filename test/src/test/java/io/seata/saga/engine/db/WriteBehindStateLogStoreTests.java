@@ -0,0 +1,437 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.saga.engine.db;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+
+import io.seata.common.exception.StoreException;
+import io.seata.core.model.BranchStatus;
+import io.seata.saga.engine.config.DbStateMachineConfig;
+import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.engine.store.db.WriteBehindDbAndReportTcStateLogStore;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.proctrl.impl.ProcessContextImpl;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ExecutionStatus;
+import io.seata.saga.statelang.domain.RecoverStrategy;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineInstanceImpl;
+import io.seata.saga.tm.SagaTransactionalTemplate;
+import io.seata.tm.api.GlobalTransaction;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests of the write behind state log store with h2
+ */
+public class WriteBehindStateLogStoreTests {
+
+    private static final String TABLE_PREFIX = "seata_";
+
+    private static final AtomicLong BRANCH_IDS = new AtomicLong(1000);
+
+    private static JdbcDataSource h2DataSource;
+
+    private final List<String> preparedSqls = new ArrayList<>();
+
+    private volatile boolean dataSourceBroken;
+
+    private DataSource dataSource;
+
+    private SagaTransactionalTemplate sagaTransactionalTemplate;
+
+    private DbStateMachineConfig stateMachineConfig;
+
+    @BeforeAll
+    public static void initDataSource() throws Exception {
+        h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:write_behind_test;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2DataSource.getConnection();
+             Reader reader = new InputStreamReader(WriteBehindStateLogStoreTests.class.getClassLoader()
+                 .getResourceAsStream("saga/sql/h2_init.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, reader);
+        }
+    }
+
+    @BeforeEach
+    public void init() throws Exception {
+        dataSource = recordingDataSource();
+        sagaTransactionalTemplate = mock(SagaTransactionalTemplate.class);
+        when(sagaTransactionalTemplate.branchRegister(anyString(), isNull(), anyString(), isNull(), isNull()))
+            .thenAnswer(invocation -> BRANCH_IDS.incrementAndGet());
+        when(sagaTransactionalTemplate.branchReportAsync(anyString(), anyLong(), any(), isNull()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        stateMachineConfig = new DbStateMachineConfig();
+        stateMachineConfig.setSagaBranchRegisterEnable(false);
+        stateMachineConfig.setRmReportSuccessEnable(true);
+    }
+
+    @Test
+    public void testWriteAheadOfRegisteredBranch() throws Exception {
+        stateMachineConfig.setSagaBranchRegisterEnable(true);
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+
+        StateInstance stateInstance = startState(store, machineInstance, "A", null, null, null);
+        Assertions.assertEquals(ExecutionStatus.RU.name(), queryStatus(machineInstance.getId(), stateInstance.getId()));
+
+        finishState(store, stateInstance, ExecutionStatus.SU);
+        Assertions.assertEquals(ExecutionStatus.RU.name(), queryStatus(machineInstance.getId(), stateInstance.getId()));
+    }
+
+    @Test
+    public void testWriteAheadOnForwardRecovery() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl forwardInstance = startMachine(store, RecoverStrategy.Forward);
+        StateInstance forwardState = startState(store, forwardInstance, "A", null, null, null);
+        Assertions.assertEquals(1, countStates(forwardInstance.getId()));
+
+        StateMachineInstanceImpl compensateInstance = startMachine(store, RecoverStrategy.Compensate);
+        startState(store, compensateInstance, "A", null, null, null);
+        Assertions.assertEquals(0, countStates(compensateInstance.getId()));
+
+        StateInstance compensableState = startState(store, compensateInstance, "B", "CompensateB", null, null);
+        Assertions.assertEquals(2, countStates(compensateInstance.getId()));
+        Assertions.assertNotNull(forwardState.getId());
+        Assertions.assertNotNull(compensableState.getId());
+    }
+
+    @Test
+    public void testFlushOnCompensationTriggered() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance stateInstance = startState(store, machineInstance, "A", null, null, null);
+        finishState(store, stateInstance, ExecutionStatus.FA);
+        Assertions.assertEquals(0, countStates(machineInstance.getId()));
+
+        startState(store, machineInstance, "CompensateA", null, stateInstance.getId(), null);
+        Assertions.assertEquals(2, countStates(machineInstance.getId()));
+        Assertions.assertEquals(ExecutionStatus.FA.name(), queryStatus(machineInstance.getId(), stateInstance.getId()));
+    }
+
+    @Test
+    public void testFlushOnSizeAndInterval() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        store.setFlushSize(3);
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance a = startState(store, machineInstance, "A", null, null, null);
+        finishState(store, a, ExecutionStatus.SU);
+        Assertions.assertEquals(0, countStates(machineInstance.getId()));
+        startState(store, machineInstance, "B", null, null, null);
+        Assertions.assertEquals(2, countStates(machineInstance.getId()));
+
+        store = newStore();
+        store.setFlushInterval(50);
+        machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        a = startState(store, machineInstance, "A", null, null, null);
+        Assertions.assertEquals(0, countStates(machineInstance.getId()));
+        Thread.sleep(100);
+        finishState(store, a, ExecutionStatus.SU);
+        Assertions.assertEquals(ExecutionStatus.SU.name(), queryStatus(machineInstance.getId(), a.getId()));
+    }
+
+    @Test
+    public void testFlushOnMachineFinishedAndRead() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance a = startState(store, machineInstance, "A", null, null, null);
+        List<StateInstance> stateInstances = store.queryStateInstanceListByMachineInstanceId(machineInstance.getId());
+        Assertions.assertEquals(1, stateInstances.size());
+
+        finishState(store, a, ExecutionStatus.SU);
+        startState(store, machineInstance, "B", null, null, null);
+        Assertions.assertEquals(ExecutionStatus.RU.name(), queryStatus(machineInstance.getId(), a.getId()));
+        finishMachine(store, machineInstance, ExecutionStatus.SU);
+        Assertions.assertEquals(2, countStates(machineInstance.getId()));
+        Assertions.assertEquals(ExecutionStatus.SU.name(), queryStatus(machineInstance.getId(), a.getId()));
+    }
+
+    @Test
+    public void testConsecutiveRecordsShareBatch() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance a = startState(store, machineInstance, "A", null, null, null);
+        StateInstance b = startState(store, machineInstance, "B", null, null, null);
+        finishState(store, a, ExecutionStatus.SU);
+        finishState(store, b, ExecutionStatus.SU);
+
+        synchronized (preparedSqls) {
+            preparedSqls.clear();
+        }
+        store.flush(machineInstance.getId());
+        Assertions.assertEquals(2, preparedSqls.size());
+        Assertions.assertTrue(preparedSqls.get(0).trim().toLowerCase().startsWith("insert"));
+        Assertions.assertTrue(preparedSqls.get(1).trim().toLowerCase().startsWith("update"));
+        Assertions.assertEquals(ExecutionStatus.SU.name(), queryStatus(machineInstance.getId(), b.getId()));
+    }
+
+    @Test
+    public void testOnlyLastBranchStatusReported() throws Exception {
+        stateMachineConfig.setSagaBranchRegisterEnable(true);
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance a = startState(store, machineInstance, "A", null, null, null);
+        finishState(store, a, ExecutionStatus.FA);
+
+        StateInstance retry = startState(store, machineInstance, "A", null, null, a.getId());
+        Assertions.assertEquals(a.getId(), retry.getId());
+        finishState(store, retry, ExecutionStatus.SU);
+        finishMachine(store, machineInstance, ExecutionStatus.SU);
+
+        long branchId = Long.parseLong(a.getId());
+        verify(sagaTransactionalTemplate, times(1)).branchReportAsync(anyString(), eq(branchId), any(), isNull());
+        verify(sagaTransactionalTemplate).branchReportAsync(anyString(), eq(branchId),
+            eq(BranchStatus.PhaseTwo_Committed), isNull());
+    }
+
+    @Test
+    public void testRecoveryViewAfterCrash() throws Exception {
+        stateMachineConfig.setSagaBranchRegisterEnable(true);
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        StateInstance a = startState(store, machineInstance, "A", null, null, null);
+        finishState(store, a, ExecutionStatus.SU);
+        StateInstance b = startState(store, machineInstance, "B", null, null, null);
+        finishState(store, b, ExecutionStatus.SU);
+
+        // the buffer of the crashed process is lost, every executed state is still found by the recovery
+        List<StateInstance> stateInstances = newStore().queryStateInstanceListByMachineInstanceId(
+            machineInstance.getId());
+        Assertions.assertEquals(2, stateInstances.size());
+        Assertions.assertEquals(ExecutionStatus.SU.name(), queryStatus(machineInstance.getId(), a.getId()));
+        Assertions.assertEquals(ExecutionStatus.RU.name(), queryStatus(machineInstance.getId(), b.getId()));
+    }
+
+    @Test
+    public void testBufferDroppedWhenFinishFlushFailed() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        startState(store, machineInstance, "A", null, null, null);
+
+        dataSourceBroken = true;
+        try {
+            Assertions.assertThrows(StoreException.class,
+                () -> finishMachine(store, machineInstance, ExecutionStatus.SU));
+        } finally {
+            dataSourceBroken = false;
+        }
+        Assertions.assertEquals(0, store.queryStateInstanceListByMachineInstanceId(machineInstance.getId()).size());
+    }
+
+    @Test
+    public void testIdleBufferExpired() throws Exception {
+        WriteBehindDbAndReportTcStateLogStore store = newStore();
+        store.setBufferExpireTime(50);
+        StateMachineInstanceImpl abandoned = startMachine(store, RecoverStrategy.Compensate);
+        startState(store, abandoned, "A", null, null, null);
+        Assertions.assertEquals(0, countStates(abandoned.getId()));
+
+        Thread.sleep(100);
+        StateMachineInstanceImpl machineInstance = startMachine(store, RecoverStrategy.Compensate);
+        startState(store, machineInstance, "A", null, null, null);
+        Assertions.assertEquals(1, countStates(abandoned.getId()));
+        Assertions.assertEquals(0, countStates(machineInstance.getId()));
+    }
+
+    private WriteBehindDbAndReportTcStateLogStore newStore() {
+        WriteBehindDbAndReportTcStateLogStore store = new WriteBehindDbAndReportTcStateLogStore();
+        store.setDataSource(dataSource);
+        store.setDbType("h2");
+        store.setTablePrefix(TABLE_PREFIX);
+        store.setDefaultTenantId("000001");
+        store.setSagaTransactionalTemplate(sagaTransactionalTemplate);
+        store.setFlushSize(100);
+        store.setFlushInterval(60 * 1000L);
+        return store;
+    }
+
+    private StateMachineInstanceImpl startMachine(WriteBehindDbAndReportTcStateLogStore store,
+                                                  RecoverStrategy recoverStrategy) throws Exception {
+        String xid = "127.0.0.1:8091:" + BRANCH_IDS.incrementAndGet();
+        GlobalTransaction globalTransaction = mock(GlobalTransaction.class);
+        when(globalTransaction.getXid()).thenReturn(xid);
+        when(sagaTransactionalTemplate.beginTransaction(any())).thenReturn(globalTransaction);
+
+        StateMachineImpl stateMachine = new StateMachineImpl();
+        stateMachine.setId("writeBehindTest");
+        stateMachine.setName("writeBehindTest");
+        stateMachine.setTenantId("000001");
+        stateMachine.setRecoverStrategy(recoverStrategy);
+
+        StateMachineInstanceImpl machineInstance = new StateMachineInstanceImpl();
+        machineInstance.setStateMachine(stateMachine);
+        machineInstance.setMachineId(stateMachine.getId());
+        machineInstance.setTenantId(stateMachine.getTenantId());
+        machineInstance.setStatus(ExecutionStatus.RU);
+        machineInstance.setRunning(true);
+        machineInstance.setGmtStarted(new Date());
+        machineInstance.setGmtUpdated(machineInstance.getGmtStarted());
+        store.recordStateMachineStarted(machineInstance, newContext(machineInstance, null));
+        return machineInstance;
+    }
+
+    private void finishMachine(WriteBehindDbAndReportTcStateLogStore store, StateMachineInstanceImpl machineInstance,
+                               ExecutionStatus status) {
+        machineInstance.setStatus(status);
+        machineInstance.setRunning(false);
+        machineInstance.setGmtEnd(new Date());
+        store.recordStateMachineFinished(machineInstance, newContext(machineInstance, null));
+    }
+
+    private StateInstance startState(WriteBehindDbAndReportTcStateLogStore store,
+                                     StateMachineInstanceImpl machineInstance, String name, String compensateState,
+                                     String compensatedFor, String retriedFor) {
+        StateInstanceImpl stateInstance = new StateInstanceImpl();
+        stateInstance.setName(name);
+        stateInstance.setMachineInstanceId(machineInstance.getId());
+        stateInstance.setStateMachineInstance(machineInstance);
+        stateInstance.setStateIdCompensatedFor(compensatedFor);
+        stateInstance.setStateIdRetriedFor(retriedFor);
+        stateInstance.setStatus(ExecutionStatus.RU);
+        stateInstance.setGmtStarted(new Date());
+        stateInstance.setGmtUpdated(stateInstance.getGmtStarted());
+        if (retriedFor == null && compensatedFor == null && !stateMachineConfig.isSagaBranchRegisterEnable()) {
+            stateInstance.setId(String.valueOf(BRANCH_IDS.incrementAndGet()));
+        }
+        store.recordStateStarted(stateInstance, newContext(machineInstance, newState(name, compensateState)));
+        machineInstance.putStateInstance(stateInstance.getId(), stateInstance);
+        return stateInstance;
+    }
+
+    private void finishState(WriteBehindDbAndReportTcStateLogStore store, StateInstance stateInstance,
+                             ExecutionStatus status) {
+        stateInstance.setStatus(status);
+        stateInstance.setGmtEnd(new Date());
+        StateMachineInstanceImpl machineInstance = (StateMachineInstanceImpl)stateInstance.getStateMachineInstance();
+        store.recordStateFinished(stateInstance, newContext(machineInstance, newState(stateInstance.getName(), null)));
+    }
+
+    private ServiceTaskStateImpl newState(String name, String compensateState) {
+        ServiceTaskStateImpl state = new ServiceTaskStateImpl();
+        state.setName(name);
+        state.setCompensateState(compensateState);
+        state.setRetryPersistModeUpdate(true);
+        return state;
+    }
+
+    private ProcessContext newContext(StateMachineInstanceImpl machineInstance, ServiceTaskStateImpl state) {
+        ProcessContextImpl context = new ProcessContextImpl();
+        context.setVariable(DomainConstants.VAR_NAME_STATEMACHINE_CONFIG, stateMachineConfig);
+        if (machineInstance.getId() != null) {
+            GlobalTransaction globalTransaction = mock(GlobalTransaction.class);
+            when(globalTransaction.getXid()).thenReturn(machineInstance.getId());
+            context.setVariable(DomainConstants.VAR_NAME_GLOBAL_TX, globalTransaction);
+        }
+        if (state != null) {
+            StateInstruction instruction = new StateInstruction();
+            instruction.setTemporaryState(state);
+            context.setInstruction(instruction);
+        }
+        return context;
+    }
+
+    private int countStates(String machineInstanceId) throws SQLException {
+        try (Connection connection = h2DataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "select count(1) from " + TABLE_PREFIX + "state_inst where machine_inst_id = ?")) {
+            stmt.setString(1, machineInstanceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private String queryStatus(String machineInstanceId, String stateInstanceId) throws SQLException {
+        try (Connection connection = h2DataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(
+                 "select status from " + TABLE_PREFIX + "state_inst where machine_inst_id = ? and id = ?")) {
+            stmt.setString(1, machineInstanceId);
+            stmt.setString(2, stateInstanceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * a data source which records the prepared sql and fails while it is broken
+     */
+    private DataSource recordingDataSource() {
+        return (DataSource)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {DataSource.class},
+            (proxy, method, args) -> {
+                if ("getConnection".equals(method.getName())) {
+                    if (dataSourceBroken) {
+                        throw new SQLException("data source is broken");
+                    }
+                    return recordingConnection(h2DataSource.getConnection());
+                }
+                return invoke(method, h2DataSource, args);
+            });
+    }
+
+    private Connection recordingConnection(Connection connection) {
+        return (Connection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class[] {Connection.class},
+            (proxy, method, args) -> {
+                if ("prepareStatement".equals(method.getName())) {
+                    synchronized (preparedSqls) {
+                        preparedSqls.add((String)args[0]);
+                    }
+                }
+                return invoke(method, connection, args);
+            });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -18,12 +18,17 @@ package io.seata.saga.engine.mock;
 import java.net.ConnectException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author lorne.cl
  */
 public class DemoService {
 
+    private final AtomicInteger runningFoo = new AtomicInteger();
+
+    private final AtomicInteger maxRunningFoo = new AtomicInteger();
+
     public Map<String, Object> foo(Map<String, Object> input) {
         if(input == null){
             return null;
@@ -47,6 +52,20 @@ public class DemoService {
         return input;
     }
 
+    public Map<String, Object> parallelFoo(Map<String, Object> input) {
+        int running = runningFoo.incrementAndGet();
+        maxRunningFoo.accumulateAndGet(running, Math::max);
+        try {
+            return foo(input);
+        } finally {
+            runningFoo.decrementAndGet();
+        }
+    }
+
+    public int getAndResetMaxRunningFoo() {
+        return maxRunningFoo.getAndSet(0);
+    }
+
     public Map<String, Object> compensateFoo(Map<String, Object> input) {
         if(input == null){
             return null;
@@ -15,6 +15,10 @@
  */
 package io.seata.tm;
 
+import io.seata.common.util.FutureUtils;
+import io.seata.config.Configuration;
+import io.seata.config.ConfigurationFactory;
+import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.exception.TmTransactionException;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.exception.TransactionExceptionCode;
@@ -33,10 +37,18 @@ import io.seata.core.protocol.transaction.GlobalRollbackRequest;
 import io.seata.core.protocol.transaction.GlobalRollbackResponse;
 import io.seata.core.protocol.transaction.GlobalStatusRequest;
 import io.seata.core.protocol.transaction.GlobalStatusResponse;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
+import io.seata.core.rpc.ShutdownHook;
 import io.seata.core.rpc.netty.TmNettyRemotingClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
+import static io.seata.common.DefaultValues.DEFAULT_GLOBAL_TRANSACTION_TIMEOUT;
+import static io.seata.common.DefaultValues.DEFAULT_TM_LAZY_BEGIN_ENABLE;
+import static io.seata.common.DefaultValues.DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE;
+
 /**
  * The type Default transaction manager.
  *
@@ -44,9 +56,40 @@ import java.util.concurrent.TimeoutException;
  */
 public class DefaultTransactionManager implements TransactionManager {
 
+    private static final Configuration CONFIG = ConfigurationFactory.getInstance();
+
+    /**
+     * Lower than the default priority the TM client is added to the shutdown hook with.
+     */
+    private static final int LEASE_SHUTDOWN_PRIORITY = 9;
+
+    /**
+     * The generator of the xids to begin the global transactions lazily with, null if the lazy begin is disabled.
+     */
+    private final LeasedXidGenerator leasedXidGenerator;
+
+    public DefaultTransactionManager() {
+        if (CONFIG.getBoolean(ConfigurationKeys.CLIENT_TM_LAZY_BEGIN_ENABLE, DEFAULT_TM_LAZY_BEGIN_ENABLE)) {
+            leasedXidGenerator = new LeasedXidGenerator(
+                CONFIG.getInt(ConfigurationKeys.CLIENT_TM_LAZY_BEGIN_LEASE_SIZE, DEFAULT_TM_LAZY_BEGIN_LEASE_SIZE),
+                CONFIG.getInt(ConfigurationKeys.DEFAULT_GLOBAL_TRANSACTION_TIMEOUT, DEFAULT_GLOBAL_TRANSACTION_TIMEOUT),
+                request -> (TransactionIdLeaseResponse) syncCall(request));
+            // stopped by the same shutdown hook as the TM client, before it by the higher priority
+            ShutdownHook.getInstance().addDisposable(leasedXidGenerator, LEASE_SHUTDOWN_PRIORITY);
+        } else {
+            leasedXidGenerator = null;
+        }
+    }
+
     @Override
     public String begin(String applicationId, String transactionServiceGroup, String name, int timeout)
         throws TransactionException {
+        if (leasedXidGenerator != null) {
+            String xid = leasedXidGenerator.nextXid(timeout);
+            if (xid != null) {
+                return xid;
+            }
+        }
         GlobalBeginRequest request = new GlobalBeginRequest();
         request.setTransactionName(name);
         request.setTimeout(timeout);
@@ -90,6 +133,76 @@ public class DefaultTransactionManager implements TransactionManager {
         return response.getGlobalStatus();
     }
 
+    @Override
+    public CompletableFuture<String> beginAsync(String applicationId, String transactionServiceGroup, String name,
+                                                int timeout) {
+        if (leasedXidGenerator != null) {
+            String xid = leasedXidGenerator.nextXid(timeout);
+            if (xid != null) {
+                return CompletableFuture.completedFuture(xid);
+            }
+        }
+        GlobalBeginRequest request = new GlobalBeginRequest();
+        request.setTransactionName(name);
+        request.setTimeout(timeout);
+        return asyncCall(request).thenApply(response -> {
+            if (response.getResultCode() == ResultCode.Failed) {
+                throw new CompletionException(
+                    new TmTransactionException(TransactionExceptionCode.BeginFailed, response.getMsg()));
+            }
+            return ((GlobalBeginResponse) response).getXid();
+        });
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> commitAsync(String xid) {
+        GlobalCommitRequest globalCommit = new GlobalCommitRequest();
+        globalCommit.setXid(xid);
+        return asyncCall(globalCommit).thenApply(response -> ((GlobalCommitResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> rollbackAsync(String xid) {
+        GlobalRollbackRequest globalRollback = new GlobalRollbackRequest();
+        globalRollback.setXid(xid);
+        return asyncCall(globalRollback).thenApply(response -> ((GlobalRollbackResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> getStatusAsync(String xid) {
+        GlobalStatusRequest queryGlobalStatus = new GlobalStatusRequest();
+        queryGlobalStatus.setXid(xid);
+        return asyncCall(queryGlobalStatus).thenApply(response -> ((GlobalStatusResponse) response).getGlobalStatus());
+    }
+
+    @Override
+    public CompletableFuture<GlobalStatus> globalReportAsync(String xid, GlobalStatus globalStatus) {
+        GlobalReportRequest globalReport = new GlobalReportRequest();
+        globalReport.setXid(xid);
+        globalReport.setGlobalStatus(globalStatus);
+        return asyncCall(globalReport).thenApply(response -> ((GlobalReportResponse) response).getGlobalStatus());
+    }
+
+    private CompletableFuture<AbstractTransactionResponse> asyncCall(AbstractTransactionRequest request) {
+        CompletableFuture<Object> responseFuture;
+        try {
+            responseFuture = TmNettyRemotingClient.getInstance().sendSyncRequestAsync(request);
+        } catch (RuntimeException e) {
+            return FutureUtils.failed(e);
+        }
+        CompletableFuture<AbstractTransactionResponse> future = new CompletableFuture<>();
+        responseFuture.whenComplete((response, e) -> {
+            if (e == null) {
+                future.complete((AbstractTransactionResponse) response);
+                return;
+            }
+            Throwable cause = FutureUtils.unwrap(e);
+            future.completeExceptionally(cause instanceof TimeoutException
+                ? new TmTransactionException(TransactionExceptionCode.IO, "RPC timeout", cause) : cause);
+        });
+        return future;
+    }
+
     private AbstractTransactionResponse syncCall(AbstractTransactionRequest request) throws TransactionException {
         try {
             return (AbstractTransactionResponse) TmNettyRemotingClient.getInstance().sendSyncRequest(request);
@@ -0,0 +1,205 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.tm;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.seata.common.XID;
+import io.seata.common.thread.NamedThreadFactory;
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.TransactionIdLeaseRequest;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
+import io.seata.core.rpc.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The generator of the xids minted locally from the transaction id ranges leased from the TC.
+ * <p>
+ * A global transaction begun with such a xid costs no round trip to the TC, its global session is begun on the
+ * TC at its first branch registration, or never if no branch registers. The TC begins it with the timeout of
+ * the lease, so only the transactions of that timeout are begun lazily, and their timeout is counted from the
+ * first branch registration rather than from the begin on the client. The ranges are leased in the
+ * background: the transactions begun while no range is available are begun on the TC as usual. The TC grants
+ * the leases only if server.lazyBeginEnable is set on a single TC, i.e. with the file session store mode.
+ */
+public class LeasedXidGenerator implements Disposable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeasedXidGenerator.class);
+
+    /**
+     * The millis to wait before leasing again after a failure, e.g. the TC does not support the leases.
+     */
+    private static final long RETRY_INTERVAL = 60000L;
+
+    private final int leaseSize;
+
+    private final int timeout;
+
+    private final Leaser leaser;
+
+    private final ExecutorService leaseExecutor;
+
+    private final AtomicBoolean leasing = new AtomicBoolean();
+
+    private volatile Range range;
+
+    private volatile long retryTime;
+
+    /**
+     * Instantiates a new Leased xid generator.
+     *
+     * @param leaseSize the size of the ranges to lease
+     * @param timeout   the timeout of the global transactions begun lazily
+     * @param leaser    the leaser sending the lease requests to the TC
+     */
+    public LeasedXidGenerator(int leaseSize, int timeout, Leaser leaser) {
+        this.leaseSize = leaseSize;
+        this.timeout = timeout;
+        this.leaser = leaser;
+        this.leaseExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new NamedThreadFactory("transactionIdLease", 1, true));
+    }
+
+    /**
+     * Mint the xid of a global transaction.
+     *
+     * @param timeout the timeout of the global transaction
+     * @return the xid, null if the transaction has to be begun on the TC
+     */
+    public String nextXid(int timeout) {
+        if (timeout != this.timeout) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        Range current = range;
+        long transactionId = current == null ? -1 : current.next(now);
+        if (transactionId < 0) {
+            leaseAsync(now);
+            return null;
+        }
+        if (current.remaining() < leaseSize / 2) {
+            // lease the next range before this one runs out
+            leaseAsync(now);
+        }
+        return XID.generateXID(current.serverAddress, transactionId);
+    }
+
+    /**
+     * Lease the next range in the background.
+     *
+     * @param now the current time millis
+     */
+    private void leaseAsync(long now) {
+        if (now < retryTime || !leasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            leaseExecutor.execute(() -> {
+                try {
+                    lease();
+                } finally {
+                    leasing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            leasing.set(false);
+            LOGGER.warn("Failed to submit the transaction id lease: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lease the next range.
+     */
+    void lease() {
+        TransactionIdLeaseRequest request = new TransactionIdLeaseRequest();
+        request.setSize(leaseSize);
+        request.setTimeout(timeout);
+        try {
+            TransactionIdLeaseResponse response = leaser.lease(request);
+            if (response.getResultCode() == ResultCode.Failed) {
+                throw new IllegalStateException(response.getMsg());
+            }
+            range = new Range(response.getServerAddress(), response.getStartTransactionId(), response.getSize(),
+                System.currentTimeMillis() + response.getLeaseTime());
+        } catch (Exception e) {
+            retryTime = System.currentTimeMillis() + RETRY_INTERVAL;
+            LOGGER.warn("Failed to lease transaction ids, the global transactions are begun on the TC for {} ms: {}",
+                RETRY_INTERVAL, e.getMessage());
+        }
+    }
+
+    /**
+     * Shutdown the lease thread.
+     */
+    @Override
+    public void destroy() {
+        leaseExecutor.shutdownNow();
+    }
+
+    /**
+     * The sender of the lease requests.
+     */
+    @FunctionalInterface
+    public interface Leaser {
+
+        /**
+         * Lease a range of transaction ids.
+         *
+         * @param request the request
+         * @return the response
+         * @throws Exception the exception
+         */
+        TransactionIdLeaseResponse lease(TransactionIdLeaseRequest request) throws Exception;
+    }
+
+    private static class Range {
+
+        private final String serverAddress;
+
+        private final long startTransactionId;
+
+        private final int size;
+
+        private final long expireTime;
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        Range(String serverAddress, long startTransactionId, int size, long expireTime) {
+            this.serverAddress = serverAddress;
+            this.startTransactionId = startTransactionId;
+            this.size = size;
+            this.expireTime = expireTime;
+        }
+
+        long next(long now) {
+            if (now >= expireTime) {
+                return -1;
+            }
+            long offset = cursor.getAndIncrement();
+            return offset < size ? startTransactionId + offset : -1;
+        }
+
+        long remaining() {
+            return size - cursor.get();
+        }
+    }
+}
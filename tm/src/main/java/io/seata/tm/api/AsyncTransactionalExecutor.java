@@ -0,0 +1,44 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.tm.api;
+
+import java.util.concurrent.CompletionStage;
+
+import io.seata.tm.api.transaction.TransactionInfo;
+
+/**
+ * Callback for executing non-blocking business logic in a global transaction.
+ *
+ * @see TransactionalTemplate#executeAsync(AsyncTransactionalExecutor)
+ */
+public interface AsyncTransactionalExecutor {
+
+    /**
+     * Start the business logic here, without blocking.
+     * The xid is bound to the RootContext of the calling thread only while this method runs: the business logic
+     * carries it on by itself to the other threads it runs on.
+     *
+     * @return the stage completed with what the business logic returns.
+     * @throws Throwable Any throwable during starting.
+     */
+    CompletionStage<?> execute() throws Throwable;
+
+    /**
+     * transaction conf or other attr
+     * @return transaction info
+     */
+    TransactionInfo getTransactionInfo();
+}
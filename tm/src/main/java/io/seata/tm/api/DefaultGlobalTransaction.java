@@ -15,6 +15,10 @@
  */
 package io.seata.tm.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import io.seata.common.util.FutureUtils;
 import io.seata.config.ConfigurationFactory;
 import io.seata.core.constants.ConfigurationKeys;
 import io.seata.core.context.RootContext;
@@ -44,9 +48,9 @@ public class DefaultGlobalTransaction implements GlobalTransaction {
 
     private TransactionManager transactionManager;
 
-    private String xid;
+    private volatile String xid;
 
-    private GlobalStatus status;
+    private volatile GlobalStatus status;
 
     private GlobalTransactionRole role;
 
@@ -179,6 +183,111 @@ public class DefaultGlobalTransaction implements GlobalTransaction {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> beginAsync(int timeout, String name) {
+        if (role != GlobalTransactionRole.Launcher) {
+            assertXIDNotNull();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Ignore Begin(): just involved in global transaction [{}]", xid);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        assertXIDNull();
+        String currentXid = RootContext.getXID();
+        if (currentXid != null) {
+            throw new IllegalStateException("Global transaction already exists," +
+                " can't begin a new global transaction, currentXid = " + currentXid);
+        }
+        return transactionManager.beginAsync(null, null, name, timeout).thenAccept(beganXid -> {
+            xid = beganXid;
+            status = GlobalStatus.Begin;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Begin new global transaction [{}]", xid);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        if (role == GlobalTransactionRole.Participant) {
+            // Participant has no responsibility of committing
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Ignore Commit(): just involved in global transaction [{}]", xid);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        assertXIDNotNull();
+        unbindFromCurrentThread();
+        int retry = COMMIT_RETRY_COUNT <= 0 ? DEFAULT_TM_COMMIT_RETRY_COUNT : COMMIT_RETRY_COUNT;
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        retryAsync(() -> transactionManager.commitAsync(xid), "commit", retry, future);
+        return future.thenAccept(committedStatus -> {
+            status = committedStatus;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("[{}] commit status: {}", xid, status);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> rollbackAsync() {
+        if (role == GlobalTransactionRole.Participant) {
+            // Participant has no responsibility of rollback
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Ignore Rollback(): just involved in global transaction [{}]", xid);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        assertXIDNotNull();
+        unbindFromCurrentThread();
+        int retry = ROLLBACK_RETRY_COUNT <= 0 ? DEFAULT_TM_ROLLBACK_RETRY_COUNT : ROLLBACK_RETRY_COUNT;
+        CompletableFuture<GlobalStatus> future = new CompletableFuture<>();
+        retryAsync(() -> transactionManager.rollbackAsync(xid), "rollback", retry, future);
+        return future.thenAccept(rolledBackStatus -> {
+            status = rolledBackStatus;
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("[{}] rollback status: {}", xid, status);
+            }
+        });
+    }
+
+    /**
+     * Report the global commit or rollback until it succeeds or the retries run out, chaining each retry on the
+     * completion of the previous report instead of blocking on it.
+     */
+    private void retryAsync(Supplier<CompletableFuture<GlobalStatus>> report, String action, int retry,
+                            CompletableFuture<GlobalStatus> future) {
+        CompletableFuture<GlobalStatus> attempt;
+        try {
+            attempt = report.get();
+        } catch (Throwable ex) {
+            attempt = FutureUtils.failed(ex);
+        }
+        attempt.whenComplete((reportedStatus, ex) -> {
+            if (ex == null) {
+                future.complete(reportedStatus);
+                return;
+            }
+            Throwable cause = FutureUtils.unwrap(ex);
+            LOGGER.error("Failed to report global {} [{}],Retry Countdown: {}, reason: {}", action, xid, retry,
+                cause.getMessage());
+            if (retry - 1 <= 0) {
+                future.completeExceptionally(new TransactionException("Failed to report global " + action, cause));
+            } else {
+                retryAsync(report, action, retry - 1, future);
+            }
+        });
+    }
+
+    private void unbindFromCurrentThread() {
+        if (xid.equals(RootContext.getXID())) {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Suspending current transaction, xid = {}", xid);
+            }
+            RootContext.unbind();
+        }
+    }
+
     @Override
     public SuspendedResourcesHolder suspend() throws TransactionException {
         // In order to associate the following logs with XID, first get and then unbind.
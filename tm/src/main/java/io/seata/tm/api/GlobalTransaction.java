@@ -15,6 +15,10 @@
  */
 package io.seata.tm.api;
 
+import java.util.concurrent.CompletableFuture;
+
+import io.seata.common.util.FutureUtils;
+import io.seata.core.context.RootContext;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.GlobalStatus;
 import io.seata.tm.api.transaction.SuspendedResourcesHolder;
@@ -69,6 +73,51 @@ public interface GlobalTransaction {
      */
     void rollback() throws TransactionException;
 
+    /**
+     * Begin a new global transaction with given timeout and given name, without blocking the calling thread.
+     * Unlike {@link #begin(int, String)}, the xid is not bound to the {@link RootContext} of any thread: the
+     * caller binds it wherever the business logic runs. The default implementation begins synchronously.
+     *
+     * @param timeout Given timeout in MILLISECONDS.
+     * @param name    Given name.
+     * @return the future completed once begun, exceptionally with a TransactionException if it fails
+     */
+    default CompletableFuture<Void> beginAsync(int timeout, String name) {
+        return FutureUtils.call(() -> {
+            begin(timeout, name);
+            if (getGlobalTransactionRole() == GlobalTransactionRole.Launcher) {
+                RootContext.unbind();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Commit the global transaction without blocking the calling thread.
+     * The default implementation commits synchronously.
+     *
+     * @return the future completed once committed, exceptionally with a TransactionException if it fails
+     */
+    default CompletableFuture<Void> commitAsync() {
+        return FutureUtils.call(() -> {
+            commit();
+            return null;
+        });
+    }
+
+    /**
+     * Rollback the global transaction without blocking the calling thread.
+     * The default implementation rolls back synchronously.
+     *
+     * @return the future completed once rolled back, exceptionally with a TransactionException if it fails
+     */
+    default CompletableFuture<Void> rollbackAsync() {
+        return FutureUtils.call(() -> {
+            rollback();
+            return null;
+        });
+    }
+
     /**
      * Suspend the global transaction.
      *
@@ -15,9 +15,18 @@
  */
 package io.seata.tm.api;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import io.seata.common.exception.ShouldNeverHappenException;
+import io.seata.common.util.FutureUtils;
+import io.seata.core.context.RootContext;
 import io.seata.core.context.GlobalLockConfigHolder;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.GlobalLockConfig;
@@ -138,7 +147,7 @@ public class TransactionalTemplate {
             } finally {
                 //5. clear
                 resumeGlobalLockConfig(previousConfig);
-                triggerAfterCompletion();
+                triggerAfterCompletion(getCurrentHooks());
                 cleanUp();
             }
         } finally {
@@ -149,6 +158,237 @@ public class TransactionalTemplate {
         }
     }
 
+    /**
+     * Execute non-blocking business logic with a global transaction, without blocking the calling thread on the
+     * begin, commit and rollback requests.
+     * <p>
+     * The transaction hooks registered on the calling thread when the execution starts are triggered, the ones
+     * registered later are ignored. If the current transaction is suspended, it is resumed on the calling thread
+     * once the business logic is started. The business logic started after the begin, the transaction hooks and
+     * the completion of the returned future run on the common fork join pool.
+     *
+     * @param business the business
+     * @return the future completed with what the business logic returns, or exceptionally with the
+     * {@link TransactionalExecutor.ExecutionException} or the business exception {@link #execute} would throw
+     * @see #executeAsync(AsyncTransactionalExecutor, Executor)
+     */
+    public CompletableFuture<Object> executeAsync(AsyncTransactionalExecutor business) {
+        return executeAsync(business, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Execute non-blocking business logic with a global transaction, like
+     * {@link #executeAsync(AsyncTransactionalExecutor)}.
+     * <p>
+     * The business logic started after the begin, the transaction hooks and the completion of the returned future
+     * run on the given executor, never on the threads completing the requests to the TC.
+     *
+     * @param business the business
+     * @param executor the executor running the business logic, the hooks and the completion
+     * @return the future completed with what the business logic returns, or exceptionally with the
+     * {@link TransactionalExecutor.ExecutionException} or the business exception {@link #execute} would throw
+     */
+    public CompletableFuture<Object> executeAsync(AsyncTransactionalExecutor business, Executor executor) {
+        // 1. Get transactionInfo
+        TransactionInfo txInfo = business.getTransactionInfo();
+        if (txInfo == null) {
+            return FutureUtils.failed(new ShouldNeverHappenException("transactionInfo does not exist"));
+        }
+        // 1.1 Get current transaction, if not null, the tx role is 'GlobalTransactionRole.Participant'.
+        GlobalTransaction tx = GlobalTransactionContext.getCurrent();
+
+        // 1.2 Handle the transaction propagation.
+        Propagation propagation = txInfo.getPropagation();
+        SuspendedResourcesHolder suspendedResourcesHolder = null;
+        List<TransactionHook> hooks = new ArrayList<>(getCurrentHooks());
+        try {
+            switch (propagation) {
+                case NOT_SUPPORTED:
+                    // If transaction is existing, suspend it.
+                    if (existingTransaction(tx)) {
+                        suspendedResourcesHolder = tx.suspend();
+                    }
+                    // Execute without transaction and return.
+                    return startBusiness(business);
+                case REQUIRES_NEW:
+                    // If transaction is existing, suspend it, and then begin new transaction.
+                    if (existingTransaction(tx)) {
+                        suspendedResourcesHolder = tx.suspend();
+                        tx = GlobalTransactionContext.createNew();
+                    }
+                    // Continue and execute with new transaction
+                    break;
+                case SUPPORTS:
+                    // If transaction is not existing, execute without transaction.
+                    if (notExistingTransaction(tx)) {
+                        return startBusiness(business);
+                    }
+                    // Continue and execute with new transaction
+                    break;
+                case REQUIRED:
+                    // If current transaction is existing, execute with current transaction,
+                    // else continue and execute with new transaction.
+                    break;
+                case NEVER:
+                    // If transaction is existing, throw exception.
+                    if (existingTransaction(tx)) {
+                        throw new TransactionException(
+                            String.format("Existing transaction found for transaction marked with propagation 'never', xid = %s"
+                                    , tx.getXid()));
+                    } else {
+                        // Execute without transaction and return.
+                        return startBusiness(business);
+                    }
+                case MANDATORY:
+                    // If transaction is not existing, throw exception.
+                    if (notExistingTransaction(tx)) {
+                        throw new TransactionException("No existing transaction found for transaction marked with propagation 'mandatory'");
+                    }
+                    // Continue and execute with current transaction.
+                    break;
+                default:
+                    throw new TransactionException("Not Supported Propagation:" + propagation);
+            }
+
+            // 1.3 If null, create new transaction with role 'GlobalTransactionRole.Launcher'.
+            if (tx == null) {
+                tx = GlobalTransactionContext.createNew();
+            }
+
+            // 2. Begin, then start the business once begun.
+            GlobalTransaction globalTransaction = tx;
+            return beginTransactionAsync(txInfo, globalTransaction, hooks, executor)
+                .thenComposeAsync(began -> startBusiness(business, txInfo, globalTransaction)
+                    .handleAsync((rs, ex) -> ex == null
+                        // 4. everything is fine, commit.
+                        ? commitTransactionAsync(globalTransaction, hooks, executor).thenApply(committed -> rs)
+                        // 3. The needed business exception to rollback.
+                        : completeTransactionAfterThrowingAsync(txInfo, globalTransaction,
+                            FutureUtils.unwrap(ex), hooks, executor), executor)
+                    .thenCompose(Function.identity()), executor)
+                // 5. clear
+                .whenCompleteAsync((rs, ex) -> triggerAfterCompletion(hooks), executor);
+        } catch (Throwable ex) {
+            return FutureUtils.failed(ex);
+        } finally {
+            cleanUp();
+            // If the transaction is suspended, resume it.
+            if (suspendedResourcesHolder != null) {
+                try {
+                    tx.resume(suspendedResourcesHolder);
+                } catch (TransactionException e) {
+                    LOGGER.error("Failed to resume the suspended transaction {}", suspendedResourcesHolder.getXid(), e);
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Object> startBusiness(AsyncTransactionalExecutor business) {
+        try {
+            CompletionStage<?> stage = business.execute();
+            return stage == null ? CompletableFuture.completedFuture(null)
+                : stage.<Object>thenApply(rs -> rs).toCompletableFuture();
+        } catch (Throwable ex) {
+            return FutureUtils.failed(ex);
+        }
+    }
+
+    private CompletableFuture<Object> startBusiness(AsyncTransactionalExecutor business, TransactionInfo txInfo,
+                                                    GlobalTransaction tx) {
+        // bind the transaction and its config to the thread starting the business, which is the thread completing
+        // the begin, then restore the thread as it was
+        String previousXid = RootContext.getXID();
+        boolean rebind = !tx.getXid().equals(previousXid);
+        if (rebind) {
+            RootContext.bind(tx.getXid());
+        }
+        GlobalLockConfig previousConfig = replaceGlobalLockConfig(txInfo);
+        try {
+            return startBusiness(business);
+        } finally {
+            resumeGlobalLockConfig(previousConfig);
+            if (rebind) {
+                if (previousXid != null) {
+                    RootContext.bind(previousXid);
+                } else {
+                    RootContext.unbind();
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Object> completeTransactionAfterThrowingAsync(TransactionInfo txInfo,
+                                                                            GlobalTransaction tx,
+                                                                            Throwable originalException,
+                                                                            List<TransactionHook> hooks,
+                                                                            Executor executor) {
+        //roll back
+        if (txInfo.rollbackOn(originalException)) {
+            triggerBeforeRollback(hooks);
+            return tx.rollbackAsync().handleAsync((rolledBack, txe) -> {
+                if (txe != null) {
+                    // Failed to rollback
+                    throw new CompletionException(new TransactionalExecutor.ExecutionException(tx,
+                        asTransactionException(txe), TransactionalExecutor.Code.RollbackFailure, originalException));
+                }
+                triggerAfterRollback(hooks);
+                // 3.1 Successfully rolled back
+                throw new CompletionException(new TransactionalExecutor.ExecutionException(tx,
+                    GlobalStatus.RollbackRetrying.equals(tx.getLocalStatus())
+                        ? TransactionalExecutor.Code.RollbackRetrying : TransactionalExecutor.Code.RollbackDone,
+                    originalException));
+            }, executor);
+        }
+        // not roll back on this exception, so commit
+        return commitTransactionAsync(tx, hooks, executor).thenApply(committed -> {
+            throw new CompletionException(originalException);
+        });
+    }
+
+    private CompletableFuture<Void> commitTransactionAsync(GlobalTransaction tx, List<TransactionHook> hooks,
+                                                           Executor executor) {
+        triggerBeforeCommit(hooks);
+        return tx.commitAsync().handleAsync((committed, txe) -> {
+            if (txe != null) {
+                // 4.1 Failed to commit
+                throw new CompletionException(new TransactionalExecutor.ExecutionException(tx,
+                    asTransactionException(txe), TransactionalExecutor.Code.CommitFailure));
+            }
+            triggerAfterCommit(hooks);
+            return null;
+        }, executor);
+    }
+
+    private CompletableFuture<Void> beginTransactionAsync(TransactionInfo txInfo, GlobalTransaction tx,
+                                                          List<TransactionHook> hooks, Executor executor) {
+        triggerBeforeBegin(hooks);
+        CompletableFuture<Void> began;
+        try {
+            began = tx.beginAsync(txInfo.getTimeOut(), txInfo.getName());
+        } catch (RuntimeException ex) {
+            began = FutureUtils.failed(ex);
+        }
+        return began.handleAsync((ignored, txe) -> {
+            if (txe != null) {
+                throw new CompletionException(new TransactionalExecutor.ExecutionException(tx,
+                    asTransactionException(txe), TransactionalExecutor.Code.BeginFailure));
+            }
+            triggerAfterBegin(hooks);
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Get the TransactionException failing a begin, commit or rollback stage, rethrow any other failure as is.
+     */
+    private TransactionException asTransactionException(Throwable ex) {
+        Throwable cause = FutureUtils.unwrap(ex);
+        if (cause instanceof TransactionException) {
+            return (TransactionException) cause;
+        }
+        throw new CompletionException(cause);
+    }
+
     private boolean existingTransaction(GlobalTransaction tx) {
         return tx != null;
     }
@@ -190,9 +430,9 @@ public class TransactionalTemplate {
 
     private void commitTransaction(GlobalTransaction tx) throws TransactionalExecutor.ExecutionException {
         try {
-            triggerBeforeCommit();
+            triggerBeforeCommit(getCurrentHooks());
             tx.commit();
-            triggerAfterCommit();
+            triggerAfterCommit(getCurrentHooks());
         } catch (TransactionException txe) {
             // 4.1 Failed to commit
             throw new TransactionalExecutor.ExecutionException(tx, txe,
@@ -201,9 +441,9 @@ public class TransactionalTemplate {
     }
 
     private void rollbackTransaction(GlobalTransaction tx, Throwable originalException) throws TransactionException, TransactionalExecutor.ExecutionException {
-        triggerBeforeRollback();
+        triggerBeforeRollback(getCurrentHooks());
         tx.rollback();
-        triggerAfterRollback();
+        triggerAfterRollback(getCurrentHooks());
         // 3.1 Successfully rolled back
         throw new TransactionalExecutor.ExecutionException(tx, GlobalStatus.RollbackRetrying.equals(tx.getLocalStatus())
             ? TransactionalExecutor.Code.RollbackRetrying : TransactionalExecutor.Code.RollbackDone, originalException);
@@ -211,9 +451,9 @@ public class TransactionalTemplate {
 
     private void beginTransaction(TransactionInfo txInfo, GlobalTransaction tx) throws TransactionalExecutor.ExecutionException {
         try {
-            triggerBeforeBegin();
+            triggerBeforeBegin(getCurrentHooks());
             tx.begin(txInfo.getTimeOut(), txInfo.getName());
-            triggerAfterBegin();
+            triggerAfterBegin(getCurrentHooks());
         } catch (TransactionException txe) {
             throw new TransactionalExecutor.ExecutionException(tx, txe,
                 TransactionalExecutor.Code.BeginFailure);
@@ -221,8 +461,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerBeforeBegin() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerBeforeBegin(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.beforeBegin();
             } catch (Exception e) {
@@ -231,8 +471,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerAfterBegin() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerAfterBegin(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.afterBegin();
             } catch (Exception e) {
@@ -241,8 +481,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerBeforeRollback() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerBeforeRollback(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.beforeRollback();
             } catch (Exception e) {
@@ -251,8 +491,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerAfterRollback() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerAfterRollback(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.afterRollback();
             } catch (Exception e) {
@@ -261,8 +501,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerBeforeCommit() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerBeforeCommit(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.beforeCommit();
             } catch (Exception e) {
@@ -271,8 +511,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerAfterCommit() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerAfterCommit(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.afterCommit();
             } catch (Exception e) {
@@ -281,8 +521,8 @@ public class TransactionalTemplate {
         }
     }
 
-    private void triggerAfterCompletion() {
-        for (TransactionHook hook : getCurrentHooks()) {
+    private void triggerAfterCompletion(List<TransactionHook> hooks) {
+        for (TransactionHook hook : hooks) {
             try {
                 hook.afterCompletion();
             } catch (Exception e) {
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 1999-2019 Seata.io Group.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package io.seata.tm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.seata.core.protocol.ResultCode;
+import io.seata.core.protocol.transaction.TransactionIdLeaseResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The type Leased xid generator test.
+ */
+class LeasedXidGeneratorTest {
+
+    private static final int TIMEOUT = 60000;
+
+    private static final String LEASE_THREAD_PREFIX = "transactionIdLease";
+
+    @Test
+    void testNextXid() throws Exception {
+        AtomicInteger leases = new AtomicInteger();
+        // hold the background leases, so they do not replace the range under the assertions
+        CountDownLatch backgroundLease = new CountDownLatch(1);
+        LeasedXidGenerator generator = new LeasedXidGenerator(4, TIMEOUT, request -> {
+            if (Thread.currentThread().getName().startsWith(LEASE_THREAD_PREFIX)) {
+                backgroundLease.await();
+            }
+            Assertions.assertEquals(4, request.getSize());
+            Assertions.assertEquals(TIMEOUT, request.getTimeout());
+            TransactionIdLeaseResponse response = new TransactionIdLeaseResponse();
+            response.setResultCode(ResultCode.Success);
+            response.setServerAddress("127.0.0.1:8091");
+            response.setStartTransactionId(100L * leases.incrementAndGet());
+            response.setSize(request.getSize());
+            response.setLeaseTime(10000L);
+            return response;
+        });
+        try {
+            // no range leased yet
+            Assertions.assertNull(generator.nextXid(TIMEOUT));
+            generator.lease();
+            Assertions.assertNull(generator.nextXid(TIMEOUT + 1));
+            Assertions.assertEquals("127.0.0.1:8091:100", generator.nextXid(TIMEOUT));
+            Assertions.assertEquals("127.0.0.1:8091:101", generator.nextXid(TIMEOUT));
+            Assertions.assertEquals("127.0.0.1:8091:102", generator.nextXid(TIMEOUT));
+            Assertions.assertEquals("127.0.0.1:8091:103", generator.nextXid(TIMEOUT));
+            Assertions.assertNull(generator.nextXid(TIMEOUT));
+            backgroundLease.countDown();
+            generator.lease();
+            Assertions.assertTrue(leases.get() >= 2);
+            Assertions.assertTrue(generator.nextXid(TIMEOUT).startsWith("127.0.0.1:8091:"));
+        } finally {
+            generator.destroy();
+        }
+    }
+
+    @Test
+    void testLeaseFailed() {
+        LeasedXidGenerator generator = new LeasedXidGenerator(4, TIMEOUT, request -> {
+            throw new IllegalStateException("unsupported");
+        });
+        try {
+            generator.lease();
+            Assertions.assertNull(generator.nextXid(TIMEOUT));
+        } finally {
+            generator.destroy();
+        }
+    }
+}
@@ -16,6 +16,8 @@
 package io.seata.tm.api;
 
 
+import java.util.concurrent.CompletionException;
+
 import io.seata.core.context.RootContext;
 import io.seata.core.exception.TransactionException;
 import io.seata.core.model.GlobalStatus;
@@ -73,6 +75,17 @@ class DefaultGlobalTransactionTest {
         Assertions.assertThrows(TransactionException.class, tx::commit);
     }
 
+    @Test
+    public void commitAsyncRetryExceptionTest() throws TransactionException {
+        RootContext.unbind();
+        GlobalTransaction tx = GlobalTransactionContext.createNew();
+        tx.beginAsync(60000, "test").join();
+        Assertions.assertEquals(DEFAULT_XID, tx.getXid());
+        Assertions.assertNull(RootContext.getXID());
+        CompletionException e = Assertions.assertThrows(CompletionException.class, () -> tx.commitAsync().join());
+        Assertions.assertTrue(e.getCause() instanceof TransactionException);
+    }
+
     @Test
     public void commitNoXIDExceptionTest() throws TransactionException {
         RootContext.unbind();
@@ -16,8 +16,16 @@
 package io.seata.tm.api;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import io.seata.common.util.FutureUtils;
+import io.seata.core.context.RootContext;
 import io.seata.core.model.GlobalStatus;
 import io.seata.core.model.TransactionManager;
 import io.seata.tm.TransactionManagerHolder;
@@ -32,6 +40,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -119,6 +128,106 @@ public class TransactionTemplateTest {
         verifyRollBack(transactionHook);
     }
 
+    @Test
+    public void testAsyncTransactionCommitHook() throws Throwable {
+        RootContext.unbind();
+        TransactionManager transactionManager = TransactionManagerHolder.get();
+        when(transactionManager.beginAsync(null, null, DEFAULT_NAME, DEFAULT_TIME_OUT))
+            .thenReturn(CompletableFuture.completedFuture(DEFAULT_XID));
+        when(transactionManager.commitAsync(DEFAULT_XID))
+            .thenReturn(CompletableFuture.completedFuture(GlobalStatus.Committed));
+        TransactionHook transactionHook = Mockito.mock(TransactionHook.class);
+        TransactionHookManager.registerHook(transactionHook);
+
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        AsyncTransactionalExecutor business = mockAsyncTransactionalExecutor(result);
+        CompletableFuture<Object> future = new TransactionalTemplate().executeAsync(business);
+        assertThat(RootContext.getXID()).isNull();
+        assertThat(future).isNotDone();
+        verify(transactionManager, Mockito.never()).commitAsync(DEFAULT_XID);
+
+        result.complete("ok");
+        assertThat(future.join()).isEqualTo("ok");
+        verify(transactionManager).commitAsync(DEFAULT_XID);
+        verifyCommit(transactionHook);
+    }
+
+    @Test
+    public void testAsyncTransactionRollbackHook() throws Throwable {
+        RootContext.unbind();
+        TransactionManager transactionManager = TransactionManagerHolder.get();
+        when(transactionManager.beginAsync(null, null, DEFAULT_NAME, DEFAULT_TIME_OUT))
+            .thenReturn(CompletableFuture.completedFuture(DEFAULT_XID));
+        when(transactionManager.rollbackAsync(DEFAULT_XID))
+            .thenReturn(CompletableFuture.completedFuture(GlobalStatus.Rollbacked));
+        TransactionHook transactionHook = Mockito.mock(TransactionHook.class);
+        TransactionHookManager.registerHook(transactionHook);
+
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        CompletableFuture<Object> future = new TransactionalTemplate().executeAsync(
+            mockAsyncTransactionalExecutor(result));
+        RuntimeException businessException = new RuntimeException();
+        result.completeExceptionally(businessException);
+
+        Throwable cause = FutureUtils.unwrap(assertThrows(CompletionException.class, future::join));
+        assertThat(future).isCompletedExceptionally();
+        assertThat(cause).isInstanceOf(TransactionalExecutor.ExecutionException.class);
+        TransactionalExecutor.ExecutionException executionException = (TransactionalExecutor.ExecutionException) cause;
+        assertThat(executionException.getCode()).isEqualTo(TransactionalExecutor.Code.RollbackDone);
+        assertThat(executionException.getOriginalException()).isSameAs(businessException);
+        verifyRollBack(transactionHook);
+    }
+
+    @Test
+    public void testAsyncTransactionOnGivenExecutor() throws Throwable {
+        RootContext.unbind();
+        TransactionManager transactionManager = TransactionManagerHolder.get();
+        CompletableFuture<String> began = new CompletableFuture<>();
+        when(transactionManager.beginAsync(null, null, DEFAULT_NAME, DEFAULT_TIME_OUT)).thenReturn(began);
+        when(transactionManager.commitAsync(DEFAULT_XID))
+            .thenReturn(CompletableFuture.completedFuture(GlobalStatus.Committed));
+        List<String> hookThreads = new CopyOnWriteArrayList<>();
+        TransactionHook transactionHook = Mockito.mock(TransactionHook.class);
+        Mockito.doAnswer(invocation -> hookThreads.add(Thread.currentThread().getName()))
+            .when(transactionHook).afterCommit();
+        TransactionHookManager.registerHook(transactionHook);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "businessExecutor"));
+        try {
+            CompletableFuture<Object> result = CompletableFuture.completedFuture("ok");
+            AsyncTransactionalExecutor business = mockAsyncTransactionalExecutor(result);
+            Mockito.doAnswer(invocation -> {
+                hookThreads.add(Thread.currentThread().getName());
+                return result;
+            }).when(business).execute();
+            CompletableFuture<Object> future = new TransactionalTemplate().executeAsync(business, executor);
+
+            // the begin response completes on a thread of the remoting, the business does not run on it
+            Thread responseThread = new Thread(() -> began.complete(DEFAULT_XID), "responseThread");
+            responseThread.start();
+            responseThread.join();
+            assertThat(future.thenApplyAsync(rs -> Thread.currentThread().getName(), executor).join())
+                .isEqualTo("businessExecutor");
+            assertThat(hookThreads).containsExactly("businessExecutor", "businessExecutor");
+            verifyCommit(transactionHook);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private AsyncTransactionalExecutor mockAsyncTransactionalExecutor(CompletableFuture<Object> result)
+        throws Throwable {
+        AsyncTransactionalExecutor business = Mockito.mock(AsyncTransactionalExecutor.class);
+        TransactionInfo txInfo = transactionalExecutor.getTransactionInfo();
+        when(business.getTransactionInfo()).thenReturn(txInfo);
+        when(business.execute()).thenAnswer(invocation -> {
+            // the xid is bound while the business starts
+            assertThat(RootContext.getXID()).isEqualTo(DEFAULT_XID);
+            return result;
+        });
+        return business;
+    }
+
     private TransactionHook testRollBackRules(Set<RollbackRule> rollbackRules, Throwable throwable) throws Throwable {
         TransactionHook transactionHook = Mockito.mock(TransactionHook.class);
         // mock  txInfo